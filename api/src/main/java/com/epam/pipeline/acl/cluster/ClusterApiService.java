@@ -42,6 +42,7 @@ import org.springframework.security.access.prepost.PostFilter;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
+import static com.epam.pipeline.security.acl.AclExpressions.ADMIN_ONLY;
 import static com.epam.pipeline.security.acl.AclExpressions.NODE_READ;
 import static com.epam.pipeline.security.acl.AclExpressions.NODE_READ_FILTER;
 import static com.epam.pipeline.security.acl.AclExpressions.NODE_STOP;
@@ -122,6 +123,11 @@ public class ClusterApiService {
         return nodeDiskManager.loadByNodeId(name);
     }
 
+    @PreAuthorize(ADMIN_ONLY)
+    public List<NodeDisk> loadNodesDisks(final List<String> names) {
+        return nodeDiskManager.loadByNodeIds(names);
+    }
+
     public String buildEdgeExternalUrl(final String region) {
         return edgeServiceManager.buildEdgeExternalUrl(region);
     }
@@ -24,6 +24,7 @@ import com.epam.pipeline.entity.docker.ToolVersion;
 import com.epam.pipeline.entity.docker.ToolVersionAttributes;
 import com.epam.pipeline.entity.pipeline.Tool;
 import com.epam.pipeline.entity.scan.ToolScanPolicy;
+import com.epam.pipeline.entity.scan.ToolScanQueueStats;
 import com.epam.pipeline.entity.scan.ToolScanResult;
 import com.epam.pipeline.entity.scan.ToolScanResultView;
 import com.epam.pipeline.entity.scan.ToolVersionScanResult;
@@ -124,6 +125,11 @@ public class ToolApiService {
         toolScanScheduler.forceScheduleScanTool(registry, image, version, rescan);
     }
 
+    @PreAuthorize(AclExpressions.ADMIN_ONLY)
+    public ToolScanQueueStats loadScanQueueStats() {
+        return toolScanScheduler.getQueueStats();
+    }
+
     @PreAuthorize(AclExpressions.ADMIN_ONLY)
     public void clearToolScan(final String registry, final String tool, final String version) {
         toolManager.clearToolScan(registry, tool, version);
@@ -18,11 +18,14 @@ package com.epam.pipeline.acl.folder;
 
 import com.epam.pipeline.entity.metadata.FolderWithMetadata;
 import com.epam.pipeline.entity.pipeline.Folder;
+import com.epam.pipeline.entity.pipeline.FolderTreeSnapshot;
 import com.epam.pipeline.entity.security.acl.AclClass;
 import com.epam.pipeline.manager.pipeline.FolderManager;
+import com.epam.pipeline.manager.security.GrantPermissionManager;
 import com.epam.pipeline.manager.security.acl.AclMask;
 import com.epam.pipeline.manager.security.acl.AclTree;
 import com.epam.pipeline.security.acl.AclExpressions;
+import com.epam.pipeline.security.acl.AclPermission;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -34,6 +37,9 @@ public class FolderApiService {
     @Autowired
     private FolderManager folderManager;
 
+    @Autowired
+    private GrantPermissionManager permissionManager;
+
     @PreAuthorize(AclExpressions.FOLDER_ID_CREATE)
     public Folder create(final Folder folder) {
         return folderManager.create(folder);
@@ -60,6 +66,12 @@ public class FolderApiService {
         return folderManager.loadTree();
     }
 
+    public FolderTreeSnapshot loadTreeSnapshot() {
+        final FolderTreeSnapshot snapshot = folderManager.loadTreeSnapshot();
+        permissionManager.filterTree(snapshot.getTree(), AclPermission.READ);
+        return snapshot;
+    }
+
     @AclTree
     public Folder loadProjects() {
         return folderManager.loadAllProjects();
@@ -24,6 +24,7 @@ import com.epam.pipeline.entity.metadata.MetadataClassDescription;
 import com.epam.pipeline.entity.metadata.MetadataEntity;
 import com.epam.pipeline.entity.metadata.MetadataField;
 import com.epam.pipeline.entity.metadata.MetadataFilter;
+import com.epam.pipeline.entity.metadata.MetadataUploadResult;
 import com.epam.pipeline.manager.metadata.MetadataDownloadManager;
 import com.epam.pipeline.manager.metadata.MetadataEntityManager;
 import com.epam.pipeline.manager.metadata.MetadataUploadManager;
@@ -32,7 +33,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
+import java.io.Writer;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -139,6 +140,12 @@ public class MetadataEntityApiService {
         return metadataUploadManager.uploadFromFile(parentId, file);
     }
 
+    @PreAuthorize("hasRole('ADMIN') OR (hasRole('ENTITIES_MANAGER') AND hasPermission(#parentId, "
+            + "'com.epam.pipeline.entity.pipeline.Folder', 'WRITE'))")
+    public MetadataUploadResult importMetadataFromFile(Long parentId, MultipartFile file, Long fromLine) {
+        return metadataUploadManager.importFromFile(parentId, file, fromLine);
+    }
+
     @PreAuthorize("hasRole('ADMIN') OR hasPermission(#folderId, 'com.epam.pipeline.entity.pipeline.Folder', 'READ')")
     public MetadataEntity loadByExternalId(String id, String className, Long folderId) {
         return metadataEntityManager.loadByExternalId(id, className, folderId);
@@ -156,7 +163,7 @@ public class MetadataEntityApiService {
 
     @PreAuthorize("hasRole('ADMIN') OR (hasRole('ENTITIES_MANAGER') AND hasPermission(#folderId, "
             + "'com.epam.pipeline.entity.pipeline.Folder', 'READ'))")
-    public InputStream getMetadataEntityFile(Long folderId, String entityClass, String fileFormat) {
-        return metadataDownloadManager.getInputStream(folderId, entityClass, fileFormat);
+    public void writeMetadataEntityFile(Long folderId, String entityClass, String fileFormat, Writer writer) {
+        metadataDownloadManager.writeEntities(folderId, entityClass, fileFormat, writer);
     }
 }
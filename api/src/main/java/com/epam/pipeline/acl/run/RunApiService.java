@@ -66,6 +66,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import java.io.Writer;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -140,6 +141,11 @@ public class RunApiService {
         return logManager.saveLog(runLog);
     }
 
+    @PreAuthorize("hasRole('ADMIN') OR @runPermissionManager.runPermission(#runId, 'EXECUTE')")
+    public int saveLogs(final Long runId, final List<RunLog> runLogs) {
+        return logManager.saveLogs(runId, runLogs);
+    }
+
     @PreAuthorize(RUN_ID_READ)
     public List<RunLog> loadAllLogsByRunId(Long runId) {
         return logManager.loadAllLogsByRunId(runId);
@@ -151,8 +157,8 @@ public class RunApiService {
     }
 
     @PreAuthorize(RUN_ID_READ)
-    public String downloadLogs(Long runId) {
-        return logManager.downloadLogs(runCRUDService.loadRunById(runId));
+    public void downloadLogs(final Long runId, final Writer writer) {
+        logManager.downloadLogs(runCRUDService.loadRunById(runId), writer);
     }
 
     @PreAuthorize(RUN_ID_READ)
@@ -177,6 +183,12 @@ public class RunApiService {
         return logManager.loadAllLogsForTask(runId, taskName, parameters);
     }
 
+    @PreAuthorize(RUN_ID_READ)
+    public List<RunLog> loadLogs(final Long runId, final String taskName, final String parameters,
+                                 final Long sinceId, final Integer limit) {
+        return logManager.loadLogs(runId, taskName, parameters, sinceId, limit);
+    }
+
     @PreAuthorize("hasRole('ADMIN') OR @runPermissionManager.runStatusPermission(#runId, #status, 'EXECUTE')")
     @AclMask
     public PipelineRun updatePipelineStatusIfNotFinal(Long runId, TaskStatus status) {
@@ -18,10 +18,14 @@ package com.epam.pipeline.app;
 
 
 import com.epam.pipeline.entity.user.DefaultRoles;
+import com.epam.pipeline.security.acl.DisabledAclCache;
+import com.epam.pipeline.security.acl.InMemoryAclCache;
 import com.epam.pipeline.security.acl.JdbcMutableAclServiceImpl;
 import com.epam.pipeline.security.acl.LookupStrategyImpl;
 import com.epam.pipeline.security.acl.PermissionGrantingStrategyImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
@@ -49,6 +53,8 @@ import org.springframework.security.config.annotation.method.configuration.Globa
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @ComponentScan(basePackages = {"com.epam.pipeline.acl"})
@@ -66,6 +72,15 @@ public class AclSecurityConfiguration extends GlobalMethodSecurityConfiguration
     @Autowired
     private CacheManager cacheManager;
 
+    @Value("${cache.type:}")
+    private String cacheType;
+
+    @Value("${acl.cache.max.size:0}")
+    private int aclCacheMaxSize;
+
+    @Value("${acl.cache.ttl.sec:10}")
+    private long aclCacheTtlSec;
+
     @Override
     protected MethodSecurityExpressionHandler createExpressionHandler() {
         DefaultMethodSecurityExpressionHandler expressionHandler =
@@ -118,11 +133,30 @@ public class AclSecurityConfiguration extends GlobalMethodSecurityConfiguration
         return new AclAuthorizationStrategyImpl(new SimpleGrantedAuthority(DefaultRoles.ROLE_ADMIN.getName()));
     }
 
+    /**
+     * Shared REDIS cache is used if it is configured, otherwise ACLs may be cached in process.
+     * In process cache is disabled by default, since it is not invalidated across application instances,
+     * and is enabled by a positive {@code acl.cache.max.size} only.
+     */
     @Bean
     public AclCache aclCache() {
-        return new SpringCacheBasedAclCache(
-                cacheManager.getCache(CacheConfiguration.ACL_CACHE),
-                permissionGrantingStrategy(), aclAuthorizationStrategy());
+        if (CacheConfiguration.REDIS.equals(cacheType)) {
+            return new SpringCacheBasedAclCache(
+                    cacheManager.getCache(CacheConfiguration.ACL_CACHE),
+                    permissionGrantingStrategy(), aclAuthorizationStrategy());
+        }
+        if (aclCacheMaxSize <= 0) {
+            return new DisabledAclCache();
+        }
+        return new InMemoryAclCache(aclCacheMaxSize, TimeUnit.SECONDS.toMillis(aclCacheTtlSec));
+    }
+
+    @Bean
+    public PublicMetrics aclCacheMetrics() {
+        final AclCache aclCache = aclCache();
+        return () -> aclCache instanceof PublicMetrics
+                ? ((PublicMetrics) aclCache).metrics()
+                : Collections.emptyList();
     }
 
     @Bean
@@ -37,8 +37,8 @@ public class CacheConfiguration {
 
     public static final String PREFERENCE_CACHE = "preferences";
     public static final String ACL_CACHE = "aclCache";
+    public static final String REDIS = "REDIS";
 
-    private static final String REDIS = "REDIS";
     private static final String MEMORY = "MEMORY";
     private static final String CACHE_TYPE = "cache.type";
 
@@ -133,6 +133,8 @@ public final class MessageConstants {
     public static final String ERROR_WRONG_RUN_STATUS_UPDATE = "error.wrong.run.status.update";
     public static final String ERROR_RUN_PARAMETER_IS_REQUIRED = "error.run.parameter.required";
     public static final String ERROR_RUN_PIPELINES_NOT_FOUND = "error.run.pipelines.not.found";
+    public static final String ERROR_RUN_LOGS_QUEUE_IS_FULL = "error.run.logs.queue.is.full";
+    public static final String ERROR_RUN_LOGS_BATCH_IS_TOO_LARGE = "error.run.logs.batch.is.too.large";
     public static final String ERROR_RUN_PIPELINES_COMMIT_FAILED = "error.run.pipeline.commit.failed";
     public static final String ERROR_CONTAINER_ID_FOR_RUN_NOT_FOUND = "error.container.id.for.run.not.found";
     public static final String INFO_EXECUTE_COMMIT_RUN_PIPELINES = "info.execute.ssh.run.pipeline.command";
@@ -356,6 +358,8 @@ public final class MessageConstants {
     public static final String ERROR_METADATA_UPDATE_KEY_NOT_FOUND = "error.metadata.update.key.not.found";
     public static final String ERROR_INVALID_METADATA_FILTER = "error.invalid.metadata.filter";
     public static final String ERROR_METADATA_UPLOAD_CHANGED_TYPE = "error.metadata.upload.changed.type";
+    public static final String ERROR_METADATA_UPLOAD_CHUNK_FAILED = "error.metadata.upload.chunk.failed";
+    public static final String ERROR_METADATA_UPLOAD_INVALID_FROM_LINE = "error.metadata.upload.invalid.from.line";
     public static final String ERROR_METADATA_ENTITIES_NOT_FOUND = "error.metadata.entities.not.found";
     public static final String ERROR_METADATA_ENTITY_WRITING_BAD_ENCODING =
             "error.metadata.entity.writing.bad.encoding";
@@ -423,6 +427,7 @@ public final class MessageConstants {
     public static final String INFO_TOOL_SCAN_REGISTRY_STARTED = "info.tool.scan.registry.started";
     public static final String INFO_TOOL_SCAN_SCHEDULED_STARTED = "info.tool.scan.scheduled.started";
     public static final String INFO_TOOL_SCAN_SCHEDULED_DONE = "info.tool.scan.scheduled.done";
+    public static final String INFO_TOOL_SCAN_REGISTRY_PLANNED = "info.tool.scan.registry.planned";
     public static final String INFO_TOOL_FORCE_SCAN_STARTED = "info.tool.scan.force.started";
     public static final String ERROR_TOOL_SCAN_DISABLED = "error.tool.scan.disabled";
     public static final String ERROR_TOOL_SECURITY_POLICY_VIOLATION = "error.tool.security.policy.violation";
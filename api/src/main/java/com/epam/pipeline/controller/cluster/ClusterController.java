@@ -275,6 +275,17 @@ public class ClusterController extends AbstractRestController {
         return Result.success(clusterApiService.loadNodeDisks(name));
     }
 
+    @PostMapping(value = "/cluster/node/disks")
+    @ResponseBody
+    @ApiOperation(
+        value = "Returns disks of several nodes.",
+        notes = "Returns disks of all the nodes specified by their names.",
+        produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION))
+    public Result<List<NodeDisk>> loadNodesDisks(@RequestBody final List<String> names) {
+        return Result.success(clusterApiService.loadNodesDisks(names));
+    }
+
     @PostMapping("/cluster/dnsrecord")
     @ResponseBody
     @ApiOperation(
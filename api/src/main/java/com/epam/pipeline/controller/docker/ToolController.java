@@ -26,6 +26,7 @@ import com.epam.pipeline.entity.docker.ToolVersion;
 import com.epam.pipeline.entity.docker.ToolVersionAttributes;
 import com.epam.pipeline.entity.pipeline.Tool;
 import com.epam.pipeline.entity.scan.ToolScanPolicy;
+import com.epam.pipeline.entity.scan.ToolScanQueueStats;
 import com.epam.pipeline.entity.scan.ToolScanResultView;
 import com.epam.pipeline.entity.scan.ToolVersionScanResult;
 import com.epam.pipeline.entity.tool.ToolSymlinkRequest;
@@ -238,6 +239,12 @@ public class ToolController extends AbstractRestController {
         return Result.success(toolApiService.loadToolScanResult(registry, tool));
     }
 
+    @GetMapping(value = "/tool/scan/queue")
+    @ResponseBody
+    public Result<ToolScanQueueStats> loadScanQueueStats() {
+        return Result.success(toolApiService.loadScanQueueStats());
+    }
+
     @RequestMapping(value = "/tool/scan/policy", method = RequestMethod.GET)
     @ResponseBody
     public Result<ToolScanPolicy> loadSecurityPolicy() {
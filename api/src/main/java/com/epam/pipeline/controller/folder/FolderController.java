@@ -17,11 +17,13 @@
 package com.epam.pipeline.controller.folder;
 
 import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 
 import com.epam.pipeline.controller.AbstractRestController;
 import com.epam.pipeline.controller.Result;
 import com.epam.pipeline.entity.metadata.MetadataEntity;
 import com.epam.pipeline.entity.pipeline.Folder;
+import com.epam.pipeline.entity.pipeline.FolderTreeSnapshot;
 import com.epam.pipeline.entity.security.acl.AclClass;
 import com.epam.pipeline.acl.metadata.MetadataEntityApiService;
 import com.epam.pipeline.acl.folder.FolderApiService;
@@ -30,12 +32,14 @@ import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -111,13 +115,23 @@ public class FolderController  extends AbstractRestController {
     @ResponseBody
     @ApiOperation(
             value = "Lists folders tree.",
-            notes = "Lists folders tree.",
+            notes = "Lists folders tree. The response contains an ETag header, if it matches the If-None-Match "
+                    + "request header, the tree is not returned and the response status is 304 (Not Modified).",
             produces = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(
             value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
             })
-    public Result<Folder> loadFolderTree() {
-        return Result.success(folderApiService.loadTree());
+    public Result<Folder> loadFolderTree(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch,
+            final HttpServletResponse response) {
+        final FolderTreeSnapshot snapshot = folderApiService.loadTreeSnapshot();
+        final String tag = snapshot.getTag();
+        response.setHeader(HttpHeaders.ETAG, tag);
+        if (tag.equals(ifNoneMatch)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
+        }
+        return Result.success(snapshot.getTree());
     }
 
 
@@ -26,6 +26,7 @@ import com.epam.pipeline.entity.metadata.MetadataClassDescription;
 import com.epam.pipeline.entity.metadata.MetadataEntity;
 import com.epam.pipeline.entity.metadata.MetadataField;
 import com.epam.pipeline.entity.metadata.MetadataFilter;
+import com.epam.pipeline.entity.metadata.MetadataUploadResult;
 import com.epam.pipeline.acl.metadata.MetadataEntityApiService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -40,8 +41,11 @@ import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -166,6 +170,27 @@ public class MetadataEntityController extends AbstractRestController {
         return Result.success(metadataEntityApiService.uploadMetadataFromFile(parentId, file));
     }
 
+    @RequestMapping(value = "/metadataEntity/import", method = RequestMethod.POST)
+    @ResponseBody
+    @ApiOperation(
+            value = "Imports metadata entities from a text file of any size.",
+            notes = "Imports metadata entities from a text file of any size. "
+                    + "Method accepts the following file formats: csv, tsv, tdf. "
+                    + "File is imported in chunks, each chunk is stored in a separate transaction. "
+                    + "If the import fails, it can be resumed from the data line specified in the error message "
+                    + "using fromLine parameter. Data lines are counted from 1, file header is not counted.",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<MetadataUploadResult> importMetadataFromFile(@RequestParam Long parentId,
+                                                               @RequestParam(required = false) Long fromLine,
+                                                               HttpServletRequest request)
+            throws FileUploadException {
+        MultipartFile file = consumeMultipartFile(request);
+        return Result.success(metadataEntityApiService.importMetadataFromFile(parentId, file, fromLine));
+    }
+
     @RequestMapping(value = "/metadataEntity/keys", method = RequestMethod.GET)
     @ResponseBody
     @ApiOperation(
@@ -305,9 +330,14 @@ public class MetadataEntityController extends AbstractRestController {
             @RequestParam final String entityClass,
             @RequestParam(required = false, defaultValue = "tsv") final String fileFormat,
             final HttpServletResponse response) throws IOException {
-        final InputStream inputStream =
-                metadataEntityApiService.getMetadataEntityFile(folderId, entityClass, fileFormat);
-        writeStreamToResponse(response, inputStream, String.format("%s.%s", entityClass, fileFormat));
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader("Content-Disposition",
+                String.format("attachment;filename=%s.%s", entityClass, fileFormat));
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8))) {
+            metadataEntityApiService.writeMetadataEntityFile(folderId, entityClass, fileFormat, writer);
+            writer.flush();
+        }
     }
 
 }
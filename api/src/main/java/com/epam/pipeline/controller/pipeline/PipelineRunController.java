@@ -67,9 +67,11 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -136,6 +138,20 @@ public class PipelineRunController extends AbstractRestController {
         return Result.success(runApiService.saveLog(log));
     }
 
+    @PostMapping(value = "/run/{runId}/logs")
+    @ResponseBody
+    @ApiOperation(
+            value = "Adds a batch of log entries for specified pipeline run.",
+            notes = "Adds a batch of log entries for specified pipeline run. Entries are written asynchronously, "
+                    + "the number of accepted entries is returned.",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<Integer> addLogs(@PathVariable(value = RUN_ID) Long runId, @RequestBody List<RunLog> logs) {
+        return Result.success(runApiService.saveLogs(runId, logs));
+    }
+
     @RequestMapping(value = "/run/{runId}/logs", method= RequestMethod.GET)
     @ResponseBody
     @ApiOperation(
@@ -175,20 +191,38 @@ public class PipelineRunController extends AbstractRestController {
     public void downloadLogs(@PathVariable(value = RUN_ID) Long runId, HttpServletResponse response)
             throws IOException {
         PipelineRun run = runApiService.loadPipelineRun(runId);
-        byte[] logs = runApiService.downloadLogs(runId).getBytes(Charset.defaultCharset());
         response.setContentType(MediaType.TEXT_PLAIN_VALUE);
         String pipelineName = !StringUtils.isEmpty(run.getPipelineName())
                 ? run.getPipelineName() : PipelineRun.DEFAULT_PIPELINE_NAME;
         String pipelineVersion = !StringUtils.isEmpty(run.getVersion()) ? run.getVersion() : "";
         response.setHeader("Content-Disposition", String.format("attachment;filename=%s_%s_%d.log",
                         pipelineName, pipelineVersion, run.getId()));
-        response.setContentLengthLong(logs.length);
-        try (ServletOutputStream stream = response.getOutputStream()) {
-            stream.write(logs);
-            stream.flush();
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), Charset.defaultCharset()))) {
+            runApiService.downloadLogs(runId, writer);
+            writer.flush();
         }
     }
 
+    @GetMapping(value = "/run/{runId}/logs/page")
+    @ResponseBody
+    @ApiOperation(
+            value = "Loads a page of pipeline run logs.",
+            notes = "Loads a page of pipeline run logs ordered by log id. If sinceId is specified, only logs "
+                    + "added after the log with the specified id are returned, otherwise the last logs are returned. "
+                    + "Logs can be filtered by a task name and task parameters.",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiResponses(
+            value = {@ApiResponse(code = HTTP_STATUS_OK, message = API_STATUS_DESCRIPTION)
+            })
+    public Result<List<RunLog>> loadLogs(@PathVariable(value = RUN_ID) Long runId,
+                                         @RequestParam(value = "taskName", required = false) String taskName,
+                                         @RequestParam(value = "parameters", required = false) String parameters,
+                                         @RequestParam(value = "sinceId", required = false) Long sinceId,
+                                         @RequestParam(value = "limit", required = false) Integer limit) {
+        return Result.success(runApiService.loadLogs(runId, taskName, parameters, sinceId, limit));
+    }
+
     @RequestMapping(value = "/run/{runId}/tasks", method = RequestMethod.GET)
     @ResponseBody
     @ApiOperation(
@@ -26,4 +26,8 @@ import lombok.NoArgsConstructor;
 public class PagingRunFilterVO extends PipelineRunFilterVO {
     private int page;
     private int pageSize;
+    /**
+     * Id of the last run of the previous page. If specified, runs are paged by the run id instead of the page index.
+     */
+    private Long lastRunId;
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.dao;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Listens to the notifications sent with {@code pg_notify} to a database channel from any application instance.
+ *
+ * Notifications are received through a dedicated database connection which is not taken from the connection pool.
+ * {@link #onConnected()} is called each time the connection is (re)established since notifications could be missed
+ * while there was no connection.
+ */
+@Slf4j
+public abstract class AbstractNotificationListener {
+
+    private static final String POLL_QUERY = "SELECT 1";
+
+    private final String channel;
+    private final String jdbcUrl;
+    private final String jdbcUsername;
+    private final String jdbcPassword;
+    private final long pollIntervalMs;
+    private final long reconnectDelayMs;
+    private final Thread listener;
+    private volatile boolean stopped;
+
+    protected AbstractNotificationListener(final String channel,
+                                           final String jdbcUrl,
+                                           final String jdbcUsername,
+                                           final String jdbcPassword,
+                                           final long pollIntervalMs,
+                                           final long reconnectDelayMs) {
+        this.channel = channel;
+        this.jdbcUrl = jdbcUrl;
+        this.jdbcUsername = jdbcUsername;
+        this.jdbcPassword = jdbcPassword;
+        this.pollIntervalMs = pollIntervalMs;
+        this.reconnectDelayMs = reconnectDelayMs;
+        this.listener = new Thread(this::listen, channel.replace('_', '-') + "-listener");
+        this.listener.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void init() {
+        listener.start();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        stopped = true;
+        listener.interrupt();
+    }
+
+    /**
+     * Is called once the channel is listened, all the state depending on notifications shall be reset.
+     */
+    protected abstract void onConnected();
+
+    protected abstract void onNotification(String payload);
+
+    private void listen() {
+        while (!stopped) {
+            try (Connection connection = DriverManager.getConnection(jdbcUrl, jdbcUsername, jdbcPassword)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                    onConnected();
+                    final PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                    while (!stopped) {
+                        // notifications are read from the connection only while a query is executed
+                        statement.execute(POLL_QUERY);
+                        final PGNotification[] notifications = pgConnection.getNotifications();
+                        if (notifications != null) {
+                            for (final PGNotification notification : notifications) {
+                                onNotification(notification.getParameter());
+                            }
+                        }
+                        sleep(pollIntervalMs);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!stopped) {
+                    log.error("Notifications of {} channel are not received: {}", channel, e.getMessage(), e);
+                    sleep(reconnectDelayMs);
+                }
+            }
+        }
+    }
+
+    private void sleep(final long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        }
+    }
+}
@@ -44,6 +44,8 @@ public class InstanceOfferDao extends NamedParameterJdbcDaoSupport {
     private final String loadFirstInstanceOffer;
     private final String loadInstanceTypesQuery;
     private final String removeInstanceOffersForRegionQuery;
+    private final String removeInstanceOffersForMissingRegionsQuery;
+    private final String updatePriceListPublishDateQuery;
 
     private static final int INSERT_BATCH_SIZE = 10000;
 
@@ -73,6 +75,25 @@ public class InstanceOfferDao extends NamedParameterJdbcDaoSupport {
         getJdbcTemplate().update(removeInstanceOffersForRegionQuery, regionId);
     }
 
+    /**
+     * Replaces all offers of a region in a single transaction, so readers see either old or new offers.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void replaceInstanceOffersForRegion(Long regionId, List<InstanceOffer> offerList) {
+        removeInstanceOffersForRegion(regionId);
+        insertInstanceOffers(offerList);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void removeInstanceOffersForMissingRegions() {
+        getJdbcTemplate().update(removeInstanceOffersForMissingRegionsQuery);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void updatePriceListPublishDate(Long regionId, Date publishDate) {
+        getJdbcTemplate().update(updatePriceListPublishDateQuery, publishDate, regionId);
+    }
+
     public List<InstanceOffer> loadInstanceOffers(InstanceOfferRequestVO instanceOfferRequestVO) {
         MapSqlParameterSource params = new MapSqlParameterSource();
         String query = wherePattern.matcher(loadInstanceOfferQuery)
@@ -4,6 +4,7 @@ import com.epam.pipeline.entity.cluster.NodeDisk;
 import com.epam.pipeline.entity.cluster.DiskRegistrationRequest;
 import com.epam.pipeline.entity.utils.DateUtils;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcDaoSupport;
@@ -11,14 +12,19 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcDaoSupport;
 import javax.transaction.Transactional;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 public class NodeDiskDao extends NamedParameterJdbcDaoSupport {
-    
+
+    private static final String NODE_IDS = "NODE_IDS";
+
     private final String insertNodeDiskQuery;
     private final String loadNodeDisksByNodeIdQuery;
+    private final String loadNodeDisksByNodeIdsQuery;
 
     @Transactional
     public List<NodeDisk> insert(final String nodeId, final List<DiskRegistrationRequest> requests) {
@@ -46,6 +52,14 @@ public class NodeDiskDao extends NamedParameterJdbcDaoSupport {
         return getJdbcTemplate().query(loadNodeDisksByNodeIdQuery, getRowMapper(), nodeId);
     }
 
+    public List<NodeDisk> loadByNodeIds(final Collection<String> nodeIds) {
+        if (CollectionUtils.isEmpty(nodeIds)) {
+            return Collections.emptyList();
+        }
+        return getNamedParameterJdbcTemplate().query(loadNodeDisksByNodeIdsQuery,
+                new MapSqlParameterSource(NODE_IDS, nodeIds), getRowMapper());
+    }
+
     private MapSqlParameterSource getParameters(final NodeDisk disk) {
         return NodeDiskDao.Parameters.getParameters(disk);
     }
@@ -31,19 +31,23 @@ import com.epam.pipeline.entity.utils.DateUtils;
 import com.epam.pipeline.manager.metadata.parser.EntityTypeField;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Required;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcDaoSupport;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -53,6 +57,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -68,6 +73,7 @@ public class MetadataEntityDao extends NamedParameterJdbcDaoSupport {
     private static final String AND = " AND ";
     private static final String OR = " OR ";
     private static final int BATCH_SIZE = 1000;
+    private static final int DEFAULT_ENTITIES_FETCH_SIZE = 1000;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
 
     @Autowired
@@ -82,6 +88,9 @@ public class MetadataEntityDao extends NamedParameterJdbcDaoSupport {
     private String insertCopiesOfExistentMetadataEntitiesQuery;
     private String loadRootMetadataEntityQuery;
     private String loadMetadataEntityByClassNameAndFolderIdQuery;
+    private String loadMetadataEntityDataTypesQuery;
+    private String streamMetadataEntityValuesQuery;
+    private int entitiesFetchSize = DEFAULT_ENTITIES_FETCH_SIZE;
     private String deleteMetadataEntityDataKeyQuery;
     private String deleteMetadataEntityItemQuery;
     private String recursiveFilterQuery;
@@ -195,6 +204,35 @@ public class MetadataEntityDao extends NamedParameterJdbcDaoSupport {
                 MetadataEntityParameters.getRowMapper(), id, className);
     }
 
+    /**
+     * Loads distinct pairs of data keys and value types of all entities of a class in a folder.
+     */
+    public List<Pair<String, String>> loadMetadataEntityDataTypes(Long folderId, String className) {
+        return getJdbcTemplate().query(loadMetadataEntityDataTypesQuery,
+            (rs, rowNum) -> Pair.of(rs.getString("data_key"), rs.getString("data_type")), folderId, className);
+    }
+
+    /**
+     * Passes external ids and data values of all entities of a class in a folder to the consumer one by one
+     * in the same order as {@link #loadMetadataEntityByClassNameAndFolderId(Long, String)} returns them.
+     * Values are extracted from entities data on the database side and are passed in the same order as the given
+     * data keys, a missing value is passed as null. Entities are read through a database cursor, so they are
+     * never loaded into memory all at once.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void streamMetadataEntityValues(final Long folderId, final String className, final List<String> dataKeys,
+                                           final BiConsumer<String, List<String>> consumer) {
+        getJdbcTemplate().query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(streamMetadataEntityValuesQuery);
+            statement.setFetchSize(entitiesFetchSize);
+            statement.setArray(1, connection.createArrayOf("text", dataKeys.toArray()));
+            statement.setLong(2, folderId);
+            statement.setString(3, className);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getString("external_id"),
+                Arrays.asList((String[]) rs.getArray("data_values").getArray())));
+    }
+
     @Transactional(propagation = Propagation.MANDATORY)
     public void deleteMetadataEntity(Long entityId) {
         getJdbcTemplate().update(deleteMetadataEntityItemQuery, entityId);
@@ -590,6 +628,20 @@ public class MetadataEntityDao extends NamedParameterJdbcDaoSupport {
         this.loadRootMetadataEntityQuery = loadRootMetadataEntityQuery;
     }
 
+    @Required
+    public void setLoadMetadataEntityDataTypesQuery(String loadMetadataEntityDataTypesQuery) {
+        this.loadMetadataEntityDataTypesQuery = loadMetadataEntityDataTypesQuery;
+    }
+
+    @Required
+    public void setStreamMetadataEntityValuesQuery(String streamMetadataEntityValuesQuery) {
+        this.streamMetadataEntityValuesQuery = streamMetadataEntityValuesQuery;
+    }
+
+    public void setEntitiesFetchSize(int entitiesFetchSize) {
+        this.entitiesFetchSize = entitiesFetchSize;
+    }
+
     @Required
     public void setLoadMetadataEntityByClassNameAndFolderIdQuery(String loadMetadataEntityByClassNameAndFolderIdQuery) {
         this.loadMetadataEntityByClassNameAndFolderIdQuery = loadMetadataEntityByClassNameAndFolderIdQuery;
@@ -37,6 +37,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Required;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcDaoSupport;
@@ -61,6 +62,8 @@ import static com.epam.pipeline.dao.metadata.MetadataDao.MetadataParameters.pars
 
 public class FolderDao extends NamedParameterJdbcDaoSupport {
 
+    public static final String FOLDER_TREE_CHANGED_CHANNEL = "folder_tree_changed";
+
     @Autowired
     private DaoHelper daoHelper;
 
@@ -75,6 +78,7 @@ public class FolderDao extends NamedParameterJdbcDaoSupport {
     private String loadParentFoldersQuery;
     private String loadAllProjectsQuery;
     private String updateFolderLocksQuery;
+    private String notifyFolderTreeChangedQuery;
 
     @Transactional(propagation = Propagation.MANDATORY)
     public Long createFolderId() {
@@ -94,6 +98,15 @@ public class FolderDao extends NamedParameterJdbcDaoSupport {
                 .update(updateFolderQuery, FolderParameters.getParameters(folder));
     }
 
+    /**
+     * Notifies all listeners of {@link #FOLDER_TREE_CHANGED_CHANNEL} channel that the folders tree was changed.
+     * Inside a transaction the notification is delivered only once the transaction is committed.
+     */
+    public void notifyFolderTreeChanged(String payload) {
+        getJdbcTemplate().query(notifyFolderTreeChangedQuery, (RowCallbackHandler) rs -> {},
+                FOLDER_TREE_CHANGED_CHANNEL, payload);
+    }
+
     public List<Folder> loadAllFolders() {
         Collection<Folder> items =
                 getJdbcTemplate().query(loadAllFoldersQuery, FolderParameters.getFolderExtractor(false));
@@ -401,4 +414,9 @@ public class FolderDao extends NamedParameterJdbcDaoSupport {
     public void setLoadAllProjectsQuery(String loadAllProjectsQuery) {
         this.loadAllProjectsQuery = loadAllProjectsQuery;
     }
+
+    @Required
+    public void setNotifyFolderTreeChangedQuery(String notifyFolderTreeChangedQuery) {
+        this.notifyFolderTreeChangedQuery = notifyFolderTreeChangedQuery;
+    }
 }
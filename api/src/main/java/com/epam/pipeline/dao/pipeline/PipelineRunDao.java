@@ -76,6 +76,7 @@ public class PipelineRunDao extends NamedParameterJdbcDaoSupport {
     private static final String POSTGRE_TYPE_BIGINT = "BIGINT";
     private static final int STRING_BUFFER_SIZE = 70;
     private static final String LIST_PARAMETER = "list";
+    private static final String LAST_RUN_ID = "LAST_RUN_ID";
 
     @Autowired
     private DaoHelper daoHelper;
@@ -247,6 +248,14 @@ public class PipelineRunDao extends NamedParameterJdbcDaoSupport {
                 .getParameters(run, getConnection()));
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void batchUpdateRunStatuses(final Collection<PipelineRun> runs) {
+        if (CollectionUtils.isEmpty(runs)) {
+            return;
+        }
+        getNamedParameterJdbcTemplate().batchUpdate(updateRunStatusQuery, getParamsForBatchUpdate(runs));
+    }
+
     @Transactional(propagation = Propagation.MANDATORY)
     public void updateRunCommitStatus(PipelineRun run) {
         getNamedParameterJdbcTemplate().update(updateRunCommitStatusQuery, PipelineRunParameters
@@ -332,8 +341,8 @@ public class PipelineRunDao extends NamedParameterJdbcDaoSupport {
     public List<PipelineRun> searchPipelineRuns(PagingRunFilterVO filter,
                                                 PipelineRunFilterVO.ProjectFilter projectFilter) {
         MapSqlParameterSource params = getPagingParameters(filter);
-        String query = wherePattern.matcher(searchPipelineRunsBaseQuery).replaceFirst(makeFilterCondition(filter,
-                projectFilter, params, true));
+        String query = wherePattern.matcher(searchPipelineRunsBaseQuery).replaceFirst(addKeysetCondition(filter,
+                makeFilterCondition(filter, projectFilter, params, true), params, true));
         return addServiceUrls(getNamedParameterJdbcTemplate()
                 .query(query, params, PipelineRunParameters.getExtendedRowMapper()));
     }
@@ -341,8 +350,8 @@ public class PipelineRunDao extends NamedParameterJdbcDaoSupport {
     public List<PipelineRun> searchPipelineGroups(PagingRunFilterVO filter,
                                                   PipelineRunFilterVO.ProjectFilter projectFilter) {
         MapSqlParameterSource params = getPagingParameters(filter);
-        String query = wherePattern.matcher(loadRunsGroupingQuery)
-                .replaceFirst(makeFilterCondition(filter, projectFilter, params, false));
+        String query = wherePattern.matcher(loadRunsGroupingQuery).replaceFirst(addKeysetCondition(filter,
+                makeFilterCondition(filter, projectFilter, params, false), params, false));
         Collection<PipelineRun> runs = getNamedParameterJdbcTemplate()
                 .query(query, params, PipelineRunParameters.getRunGroupExtractor());
         return addServiceUrls(runs.stream()
@@ -468,11 +477,28 @@ public class PipelineRunDao extends NamedParameterJdbcDaoSupport {
     private MapSqlParameterSource getPagingParameters(PagingRunFilterVO filter) {
         MapSqlParameterSource params = new MapSqlParameterSource();
         params.addValue("LIMIT", filter.getPageSize());
-        params.addValue("OFFSET", (filter.getPage() - 1) * filter.getPageSize());
+        params.addValue("OFFSET", filter.getLastRunId() != null ? 0 : (filter.getPage() - 1) * filter.getPageSize());
         addTaskStatusParams(params);
         return params;
     }
 
+    /**
+     * Restricts runs to the ones following the last run of the previous page in the run id descending order.
+     * Unlike offset, this condition is resolved by the primary key index regardless of the page depth.
+     */
+    private String addKeysetCondition(final PagingRunFilterVO filter, final String condition,
+                                      final MapSqlParameterSource params, final boolean firstCondition) {
+        if (filter.getLastRunId() == null) {
+            return condition;
+        }
+        params.addValue(LAST_RUN_ID, filter.getLastRunId());
+        final String keysetClause = String.format(" r.run_id < :%s", LAST_RUN_ID);
+        if (StringUtils.isEmpty(condition)) {
+            return (firstCondition ? " WHERE" : AND) + keysetClause;
+        }
+        return condition + AND + keysetClause;
+    }
+
     private int addOwnerClause(MapSqlParameterSource params, StringBuilder whereBuilder, int clausesCount,
                                List<String> owners) {
         if (!CollectionUtils.isEmpty(owners)) {
@@ -569,18 +595,8 @@ public class PipelineRunDao extends NamedParameterJdbcDaoSupport {
 
         if (filter.getParentId() != null) {
             appendAnd(whereBuilder, clausesCount);
-
-            whereBuilder.append(String.format(" (r.parent_id = %d OR r.parameters = 'parent-id=%d' "
-                            + "OR r.parameters like "
-                            + "any(array['%%|parent-id=%d|%%','%%|parent-id=%d','parent-id=%d|%%', " +
-                            "'parent-id=%d=%%', '%%|parent-id=%d=%%']))",
-                    filter.getParentId(),
-                    filter.getParentId(),
-                    filter.getParentId(),
-                    filter.getParentId(),
-                    filter.getParentId(),
-                    filter.getParentId(),
-                    filter.getParentId()));
+            whereBuilder.append(" r.parent_id = :").append(PipelineRunParameters.PARENT_ID.name());
+            params.addValue(PipelineRunParameters.PARENT_ID.name(), filter.getParentId());
             clausesCount++;
         }
 
@@ -16,17 +16,22 @@
 
 package com.epam.pipeline.dao.pipeline;
 
+import java.sql.PreparedStatement;
 import java.sql.Timestamp;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import com.epam.pipeline.entity.pipeline.PipelineTask;
 import com.epam.pipeline.entity.pipeline.RunLog;
 import com.epam.pipeline.entity.pipeline.TaskStatus;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Required;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcDaoSupport;
@@ -35,12 +40,22 @@ import org.springframework.transaction.annotation.Transactional;
 
 public class RunLogDao extends NamedParameterJdbcDaoSupport {
 
+    private static final int DEFAULT_LOGS_FETCH_SIZE = 1000;
+    private static final String TASK_NAME_CONDITION = "AND task_name = :TASK_NAME";
+
+    private Pattern wherePattern = Pattern.compile("@WHERE@");
     private String createPipelineLogQuery;
     private String loadAllLogsByRunIdQuery;
     private String loadAllLogsForTaskQuery;
     private String loadTasksByRunIdQuery;
     private String loadTaskForInstanceQuery;
     private String loadTaskStatusQuery;
+    private String loadTaskStatusesQuery;
+    private String loadLogsSinceQuery;
+    private String loadLastLogsQuery;
+    private String loadRunIdsWithoutLogIdsQuery;
+    private String backfillLogIdsQuery;
+    private int logsFetchSize = DEFAULT_LOGS_FETCH_SIZE;
 
     @Transactional(propagation = Propagation.MANDATORY)
     public void createRunLog(RunLog runLog) {
@@ -48,18 +63,88 @@ public class RunLogDao extends NamedParameterJdbcDaoSupport {
                 .getParameters(runLog));
     }
 
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void createRunLogs(final List<RunLog> runLogs) {
+        if (CollectionUtils.isEmpty(runLogs)) {
+            return;
+        }
+        getNamedParameterJdbcTemplate().batchUpdate(createPipelineLogQuery, runLogs.stream()
+                .map(PipelineLogParameters::getParameters)
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
     @Transactional(propagation = Propagation.SUPPORTS)
     public List<RunLog> loadAllLogsForRun(Long runId) {
         return getJdbcTemplate().query(loadAllLogsByRunIdQuery,
                 PipelineLogParameters.getRowMapper(), runId);
     }
 
+    /**
+     * Passes all logs of a run to the consumer one by one in the same order as {@link #loadAllLogsForRun(Long)}
+     * returns them. Logs are read through a database cursor, so they are never loaded into memory all at once.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void streamAllLogsForRun(final Long runId, final Consumer<RunLog> consumer) {
+        final RowMapper<RunLog> rowMapper = PipelineLogParameters.getRowMapper();
+        getJdbcTemplate().query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(loadAllLogsByRunIdQuery);
+            statement.setFetchSize(logsFetchSize);
+            statement.setLong(1, runId);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rowMapper.mapRow(rs, rs.getRow())));
+    }
+
     @Transactional(propagation = Propagation.SUPPORTS)
     public List<RunLog> loadAllLogsForTask(Long runId, String taskName) {
         return getJdbcTemplate().query(loadAllLogsForTaskQuery,
                 PipelineLogParameters.getRowMapper(), runId, taskName);
     }
 
+    /**
+     * Loads a page of run logs ordered by log id. Logs which are not assigned ids yet are considered
+     * to be older than the others and are ordered by date.
+     *
+     * @param runId run to load logs for
+     * @param taskName optional task to load logs for
+     * @param sinceId if specified, only logs with greater ids are loaded, otherwise the last logs are loaded
+     * @param limit maximum number of logs to load
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<RunLog> loadLogs(final Long runId, final String taskName, final Long sinceId, final int limit) {
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue(PipelineLogParameters.RUN_ID.name(), runId);
+        params.addValue(PipelineLogParameters.LOG_ID.name(), sinceId);
+        params.addValue(PipelineLogParameters.TASK_NAME.name(), taskName);
+        params.addValue(PipelineLogParameters.LIMIT.name(), limit);
+        final String query = sinceId == null ? loadLastLogsQuery : loadLogsSinceQuery;
+        return getNamedParameterJdbcTemplate().query(wherePattern.matcher(query)
+                        .replaceFirst(StringUtils.isEmpty(taskName) ? StringUtils.EMPTY : TASK_NAME_CONDITION),
+                params, PipelineLogParameters.getRowMapper());
+    }
+
+    /**
+     * Loads ids of the runs, which have logs without log ids.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Long> loadRunIdsWithoutLogIds(final int limit) {
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue(PipelineLogParameters.LIMIT.name(), limit);
+        return getNamedParameterJdbcTemplate().queryForList(loadRunIdsWithoutLogIdsQuery, params, Long.class);
+    }
+
+    /**
+     * Assigns log ids to all the logs of a run, which don't have them. Assigned ids are negative and follow
+     * the logs order, so they precede ids of the logs created afterwards.
+     *
+     * @return number of updated logs
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public int backfillLogIds(final Long runId) {
+        final MapSqlParameterSource params = new MapSqlParameterSource();
+        params.addValue(PipelineLogParameters.RUN_ID.name(), runId);
+        return getNamedParameterJdbcTemplate().update(backfillLogIdsQuery, params);
+    }
+
     @Transactional(propagation = Propagation.SUPPORTS)
     public List<PipelineTask> loadTasksForRun(Long runId) {
         MapSqlParameterSource params = new MapSqlParameterSource();
@@ -76,6 +161,16 @@ public class RunLogDao extends NamedParameterJdbcDaoSupport {
         return CollectionUtils.isEmpty(result) ? null : result.get(0);
     }
 
+    /**
+     * Loads the last reported status of each task of a run.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<PipelineTask> loadTaskStatuses(final Long runId) {
+        final List<PipelineTask> result = getJdbcTemplate().query(loadTaskStatusesQuery,
+                PipelineLogParameters.getTaskRowMapper(false), runId);
+        return result.stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     @Transactional(propagation = Propagation.SUPPORTS)
     public List<PipelineTask> loadTaskByInstance(Long runId, String instance) {
         return getJdbcTemplate().query(loadTaskForInstanceQuery,
@@ -83,6 +178,7 @@ public class RunLogDao extends NamedParameterJdbcDaoSupport {
     }
 
     enum PipelineLogParameters {
+        LOG_ID,
         RUN_ID,
         LOG_DATE,
         STATUS,
@@ -91,7 +187,8 @@ public class RunLogDao extends NamedParameterJdbcDaoSupport {
         INSTANCE,
         CREATED,
         STARTED,
-        FINISHED;
+        FINISHED,
+        LIMIT;
 
         static MapSqlParameterSource getParameters(RunLog runLog) {
             MapSqlParameterSource params = new MapSqlParameterSource();
@@ -139,6 +236,10 @@ public class RunLogDao extends NamedParameterJdbcDaoSupport {
         static RowMapper<RunLog> getRowMapper() {
             return (rs, rowNum) -> {
                 RunLog runLog = new RunLog();
+                long logId = rs.getLong(LOG_ID.name());
+                if (!rs.wasNull()) {
+                    runLog.setId(logId);
+                }
                 runLog.setRunId(rs.getLong(RUN_ID.name()));
                 runLog.setDate(new Date(rs.getTimestamp(LOG_DATE.name()).getTime()));
                 runLog.setStatus(TaskStatus.getById(rs.getLong(STATUS.name())));
@@ -189,4 +290,33 @@ public class RunLogDao extends NamedParameterJdbcDaoSupport {
         this.loadTaskStatusQuery = loadTaskStatusQuery;
     }
 
+    @Required
+    public void setLoadTaskStatusesQuery(String loadTaskStatusesQuery) {
+        this.loadTaskStatusesQuery = loadTaskStatusesQuery;
+    }
+
+    @Required
+    public void setLoadLogsSinceQuery(String loadLogsSinceQuery) {
+        this.loadLogsSinceQuery = loadLogsSinceQuery;
+    }
+
+    @Required
+    public void setLoadLastLogsQuery(String loadLastLogsQuery) {
+        this.loadLastLogsQuery = loadLastLogsQuery;
+    }
+
+    @Required
+    public void setLoadRunIdsWithoutLogIdsQuery(final String loadRunIdsWithoutLogIdsQuery) {
+        this.loadRunIdsWithoutLogIdsQuery = loadRunIdsWithoutLogIdsQuery;
+    }
+
+    @Required
+    public void setBackfillLogIdsQuery(final String backfillLogIdsQuery) {
+        this.backfillLogIdsQuery = backfillLogIdsQuery;
+    }
+
+    public void setLogsFetchSize(int logsFetchSize) {
+        this.logsFetchSize = logsFetchSize;
+    }
+
 }
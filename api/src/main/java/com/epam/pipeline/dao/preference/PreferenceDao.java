@@ -24,6 +24,7 @@ import org.springframework.beans.factory.annotation.Required;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcDaoSupport;
@@ -36,6 +37,8 @@ import java.util.List;
 @Slf4j
 public class PreferenceDao extends NamedParameterJdbcDaoSupport {
 
+    public static final String PREFERENCE_CHANGED_CHANNEL = "preference_changed";
+
     private static final String PREFERENCES_CACHE = "preferences";
 
     private String upsertPreferenceQuery;
@@ -43,6 +46,7 @@ public class PreferenceDao extends NamedParameterJdbcDaoSupport {
     private String loadAllPreferencesQuery;
     private String loadVisiblePreferencesQuery;
     private String deletePreferenceQuery;
+    private String notifyPreferenceChangedQuery;
 
     @CachePut(value = PREFERENCES_CACHE, key="#preference.name")
     @Transactional(propagation = Propagation.MANDATORY)
@@ -63,6 +67,16 @@ public class PreferenceDao extends NamedParameterJdbcDaoSupport {
         getJdbcTemplate().update(deletePreferenceQuery, name);
     }
 
+    /**
+     * Notifies all listeners of {@link #PREFERENCE_CHANGED_CHANNEL} channel that the preference was changed.
+     * The notification is delivered only once the current transaction is committed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void notifyPreferenceChanged(String name) {
+        getJdbcTemplate().query(notifyPreferenceChangedQuery, (RowCallbackHandler) rs -> {},
+                PREFERENCE_CHANGED_CHANNEL, name);
+    }
+
     @Cacheable(value = PREFERENCES_CACHE, key="#name")
     public Preference loadPreferenceByName(String name) {
         log.debug("Loading preference {} from DB.", name);
@@ -143,6 +157,11 @@ public class PreferenceDao extends NamedParameterJdbcDaoSupport {
         this.deletePreferenceQuery = deletePreferenceQuery;
     }
 
+    @Required
+    public void setNotifyPreferenceChangedQuery(String notifyPreferenceChangedQuery) {
+        this.notifyPreferenceChangedQuery = notifyPreferenceChangedQuery;
+    }
+
     @Required
     public void setLoadVisiblePreferencesQuery(String loadVisiblePreferencesQuery) {
         this.loadVisiblePreferencesQuery = loadVisiblePreferencesQuery;
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.entity.metadata;
+
+import lombok.Data;
+
+/**
+ * Progress of a chunked metadata entities import. Line numbers count data lines of a file starting from 1,
+ * file header is not counted.
+ */
+@Data
+public class MetadataUploadResult {
+
+    private long fromLine;
+    private long lastLine;
+    private int chunks;
+    private long entities;
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.entity.pipeline;
+
+import com.epam.pipeline.config.JsonMapper;
+import com.epam.pipeline.entity.AbstractSecuredEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.Value;
+import org.apache.commons.collections4.ListUtils;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * A private copy of the folders tree together with the version of the snapshot it was copied from.
+ * The version is changed each time the tree is rebuilt after folders, pipelines, storages, configurations
+ * or metadata entities modification.
+ */
+@Value
+@AllArgsConstructor
+public class FolderTreeSnapshot {
+
+    private static final ObjectMapper MAPPER = new JsonMapper();
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private long version;
+    private Folder tree;
+
+    /**
+     * A digest of the serialized tree, it is computed once the snapshot is built and is shared by its copies.
+     */
+    private String contentTag;
+
+    public FolderTreeSnapshot(final long version, final Folder tree) {
+        this(version, tree, buildContentTag(tree));
+    }
+
+    /**
+     * Builds a tag of the tree view. The tag doesn't depend on the snapshot version, which is local to an API
+     * instance and is reset on restart. It combines the tag of the snapshot content with the entities which are
+     * left in the tree and their masks, so it changes whenever the entities filtered out or masked
+     * for the current user change, without serializing the whole tree once again.
+     */
+    @SneakyThrows
+    public String getTag() {
+        final MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+        digest.update(contentTag.getBytes(StandardCharsets.UTF_8));
+        updateViewDigest(digest, tree);
+        return String.format("\"%064x\"", new BigInteger(1, digest.digest()));
+    }
+
+    @SneakyThrows
+    public static String buildContentTag(final Folder tree) {
+        final byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(MAPPER.writeValueAsBytes(tree));
+        return String.format("%064x", new BigInteger(1, digest));
+    }
+
+    private static void updateViewDigest(final MessageDigest digest, final Folder folder) {
+        updateEntityDigest(digest, folder);
+        ListUtils.emptyIfNull(folder.getPipelines()).forEach(pipeline -> updateEntityDigest(digest, pipeline));
+        ListUtils.emptyIfNull(folder.getStorages()).forEach(storage -> updateEntityDigest(digest, storage));
+        ListUtils.emptyIfNull(folder.getConfigurations())
+                .forEach(configuration -> updateEntityDigest(digest, configuration));
+        ListUtils.emptyIfNull(folder.getChildFolders()).forEach(child -> updateViewDigest(digest, child));
+    }
+
+    private static void updateEntityDigest(final MessageDigest digest, final AbstractSecuredEntity entity) {
+        digest.update(String.format("%s:%s:%s;", entity.getAclClass(), entity.getId(), entity.getMask())
+                .getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.entity.scan;
+
+import lombok.Value;
+
+/**
+ * State of the tool security scans queue. Completed, failed and skipped counters are collected since
+ * the API start, skipped are tool versions which digests have not changed since the last completed scan.
+ */
+@Value
+public class ToolScanQueueStats {
+
+    private int queued;
+    private int running;
+    private long completed;
+    private long failed;
+    private long skipped;
+    private double completedPerMinute;
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.entity.security.acl;
+
+import lombok.Value;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.security.acls.model.Sid;
+
+import java.util.List;
+
+/**
+ * Owner and entries of an object ACL restricted to entries of specific SIDs. Entries are pairs of a SID and
+ * a permission mask in the same order as in the ACL.
+ */
+@Value
+public class AclSidEntries {
+
+    private Sid owner;
+    private List<Pair<Sid, Integer>> entries;
+
+}
@@ -202,23 +202,20 @@ public class BillingManager {
 
     public List<BillingChartInfo> getBillingChartInfo(final BillingChartRequest request) {
         verifyRequest(request);
-        try (RestClient lowLevelEsClient = elasticHelper.buildLowLevelClient()) {
-            final RestHighLevelClient elasticsearchClient = new RestHighLevelClient(lowLevelEsClient);
-            final LocalDate from = request.getFrom();
-            final LocalDate to = request.getTo();
-            final BillingGrouping grouping = request.getGrouping();
-            final DateHistogramInterval interval = request.getInterval();
-            final Map<String, List<String>> filters = MapUtils.isEmpty(request.getFilters())
-                                                      ? new HashMap<>()
-                                                      : request.getFilters();
-            setAuthorizationFilters(filters);
-            if (interval != null) {
-                return getBillingStats(elasticsearchClient, from, to, filters, interval);
-            } else {
-                return getBillingStats(lowLevelEsClient, from, to, filters, grouping, request.isLoadDetails());
-            }
-        } catch (IOException e) {
-            throw new SearchException(e.getMessage(), e);
+        final RestClient lowLevelEsClient = elasticHelper.getLowLevelClient();
+        final RestHighLevelClient elasticsearchClient = elasticHelper.getClient();
+        final LocalDate from = request.getFrom();
+        final LocalDate to = request.getTo();
+        final BillingGrouping grouping = request.getGrouping();
+        final DateHistogramInterval interval = request.getInterval();
+        final Map<String, List<String>> filters = MapUtils.isEmpty(request.getFilters())
+                                                  ? new HashMap<>()
+                                                  : request.getFilters();
+        setAuthorizationFilters(filters);
+        if (interval != null) {
+            return getBillingStats(elasticsearchClient, from, to, filters, interval);
+        } else {
+            return getBillingStats(lowLevelEsClient, from, to, filters, grouping, request.isLoadDetails());
         }
     }
 
@@ -76,6 +76,10 @@ public interface CloudFacade {
 
     List<InstanceOffer> refreshPriceListForRegion(Long regionId);
 
+    boolean isPriceListChanged(Long regionId);
+
+    void confirmPriceListRefresh(Long regionId);
+
     double getPriceForDisk(Long regionId, List<InstanceOffer> diskOffers, int instanceDisk, String instanceType,
                            boolean spot);
 
@@ -243,6 +243,18 @@ public class CloudFacadeImpl implements CloudFacade {
         return getInstancePriceService(region).refreshPriceListForRegion(region);
     }
 
+    @Override
+    public boolean isPriceListChanged(final Long regionId) {
+        final AbstractCloudRegion region = regionManager.load(regionId);
+        return getInstancePriceService(region).isPriceListChanged(region);
+    }
+
+    @Override
+    public void confirmPriceListRefresh(final Long regionId) {
+        final AbstractCloudRegion region = regionManager.load(regionId);
+        getInstancePriceService(region).confirmPriceListRefresh(region);
+    }
+
     @Override
     public double getPriceForDisk(final Long regionId, final List<InstanceOffer> diskOffers, final int instanceDisk,
                                   final String instanceType, final boolean spot) {
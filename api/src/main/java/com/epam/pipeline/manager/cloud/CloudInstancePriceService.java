@@ -36,6 +36,23 @@ public interface CloudInstancePriceService<T extends AbstractCloudRegion> extend
     String CURRENCY = "USD";
 
     List<InstanceOffer> refreshPriceListForRegion(T region);
+
+    /**
+     * Checks if the region price list was changed since it was refreshed by the service the last time.
+     * Services which can't detect it cheaply report the price list as changed.
+     */
+    default boolean isPriceListChanged(T region) {
+        return true;
+    }
+
+    /**
+     * Confirms that the price list returned by the last {@link #refreshPriceListForRegion(AbstractCloudRegion)}
+     * call is persisted, so it shall not be reloaded until a new price list is published.
+     */
+    default void confirmPriceListRefresh(T region) {
+        // no op
+    }
+
     double getSpotPrice(String instanceType, T region);
     double getPriceForDisk(List<InstanceOffer> offers, int instanceDisk, String instanceType, boolean spot, T region);
     List<InstanceType> getAllInstanceTypes(Long regionId, boolean spot);
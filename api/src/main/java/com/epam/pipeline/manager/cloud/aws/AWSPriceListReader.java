@@ -29,62 +29,99 @@ import org.apache.commons.lang3.math.NumberUtils;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
+/**
+ * Reads AWS EC2 price list csv keeping only offers which are used for instance and disk prices estimation:
+ * on demand shared Linux compute instance offers and storage offers.
+ *
+ * Records are filtered while the csv is parsed, so the rest of the price list is never materialized.
+ */
 @Slf4j
 public class AWSPriceListReader {
 
+    private static final String SKU = "sku";
+    private static final String TERM_TYPE = "termtype";
+    private static final String UNIT = "unit";
+    private static final String PRICE_PER_UNIT = "priceperunit";
+    private static final String CURRENCY = "currency";
+    private static final String INSTANCE_TYPE = "instance type";
+    private static final String TENANCY = "tenancy";
+    private static final String OPERATING_SYSTEM = "operating system";
+    private static final String PRODUCT_FAMILY = "product family";
+    private static final String VOLUME_TYPE = "volume type";
+    private static final String VCPU = "vcpu";
+    private static final String GPU = "gpu";
+    private static final String INSTANCE_FAMILY = "instance family";
+    private static final String MEMORY = "memory";
+
     private final Long regionId;
     private final Set<String> computeFamily;
+    private final Date publishDate;
 
-    public AWSPriceListReader(final Long regionId, final Set<String> computeFamily) {
+    public AWSPriceListReader(final Long regionId, final Set<String> computeFamily, final Date publishDate) {
         this.regionId = regionId;
         this.computeFamily = CollectionUtils.isEmpty(computeFamily) ?
                 Collections.singleton(CloudInstancePriceService.INSTANCE_PRODUCT_FAMILY) :
                 computeFamily;
+        this.publishDate = publishDate;
     }
 
-
-    public List<InstanceOffer> readPriceCsv(BufferedReader reader) {
-        try(CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
+    public List<InstanceOffer> readPriceCsv(final BufferedReader reader) {
+        try (CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
                 .withFirstRecordAsHeader()
                 .withIgnoreHeaderCase()
                 .withTrim())) {
-
-            return StreamSupport.stream(csvParser.spliterator(), false)
-                    .map(this::parseRecord)
-                    .collect(Collectors.toList());
-
+            final Columns columns = new Columns(csvParser.getHeaderMap());
+            final List<InstanceOffer> offers = new ArrayList<>();
+            for (final CSVRecord record : csvParser) {
+                if (isRequired(columns, record)) {
+                    offers.add(parseRecord(columns, record));
+                }
+            }
+            return offers;
         } catch (IOException e) {
             log.error(e.getMessage(), e);
             return Collections.emptyList();
         }
     }
 
-    private InstanceOffer parseRecord(CSVRecord record) {
+    private boolean isRequired(final Columns columns, final CSVRecord record) {
+        final String productFamily = columns.get(record, PRODUCT_FAMILY);
+        if (CloudInstancePriceService.STORAGE_PRODUCT_FAMILY.equals(productFamily)) {
+            return true;
+        }
+        return computeFamily.contains(productFamily)
+                && CloudInstancePriceService.TermType.ON_DEMAND.getName().equals(columns.get(record, TERM_TYPE))
+                && CloudInstancePriceService.LINUX_OPERATING_SYSTEM.equals(columns.get(record, OPERATING_SYSTEM))
+                && CloudInstancePriceService.SHARED_TENANCY.equals(columns.get(record, TENANCY));
+    }
+
+    private InstanceOffer parseRecord(final Columns columns, final CSVRecord record) {
         InstanceOffer offer = new InstanceOffer();
         offer.setCloudProvider(CloudProvider.AWS);
-        offer.setPriceListPublishDate(new Date());
-        offer.setSku(record.get("sku"));
-        offer.setTermType(record.get("termtype"));
-        offer.setUnit(record.get("unit"));
-        offer.setPricePerUnit(parseFloat(record.get("priceperunit")));
-        offer.setCurrency(record.get("currency"));
-        offer.setInstanceType(record.get("instance type"));
-        offer.setTenancy(record.get("tenancy"));
-        offer.setOperatingSystem(record.get("operating system"));
-        offer.setProductFamily(parseProductFamily(record.get("product family")));
-        offer.setVolumeType(record.get("volume type"));
-        offer.setVCPU(parseInteger(record.get("vcpu")));
-        offer.setGpu(parseInteger(record.get("gpu")));
-        offer.setInstanceFamily(record.get("instance family"));
+        offer.setPriceListPublishDate(publishDate);
+        offer.setSku(columns.get(record, SKU));
+        offer.setTermType(columns.get(record, TERM_TYPE));
+        offer.setUnit(columns.get(record, UNIT));
+        offer.setPricePerUnit(parseFloat(columns.get(record, PRICE_PER_UNIT)));
+        offer.setCurrency(columns.get(record, CURRENCY));
+        offer.setInstanceType(columns.get(record, INSTANCE_TYPE));
+        offer.setTenancy(columns.get(record, TENANCY));
+        offer.setOperatingSystem(columns.get(record, OPERATING_SYSTEM));
+        offer.setProductFamily(parseProductFamily(columns.get(record, PRODUCT_FAMILY)));
+        offer.setVolumeType(columns.get(record, VOLUME_TYPE));
+        offer.setVCPU(parseInteger(columns.get(record, VCPU)));
+        offer.setGpu(parseInteger(columns.get(record, GPU)));
+        offer.setInstanceFamily(columns.get(record, INSTANCE_FAMILY));
         offer.setRegionId(regionId);
-        parseMemoryValue(offer, record.get("memory"));
+        parseMemoryValue(offer, columns.get(record, MEMORY));
         return offer;
     }
 
@@ -122,4 +159,21 @@ public class AWSPriceListReader {
         }
         return Float.parseFloat(value);
     }
+
+    /**
+     * Resolves column indexes once per csv, so records are not searched by header names.
+     */
+    private static final class Columns {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        Columns(final Map<String, Integer> headerMap) {
+            headerMap.forEach((name, index) -> indexes.put(name.toLowerCase(), index));
+        }
+
+        String get(final CSVRecord record, final String column) {
+            final Integer index = indexes.get(column);
+            return index != null && index < record.size() ? record.get(index) : null;
+        }
+    }
 }
@@ -27,15 +27,19 @@ import com.epam.pipeline.manager.preference.PreferenceManager;
 import com.epam.pipeline.manager.preference.SystemPreferences;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -44,10 +48,13 @@ public class EC2InstancePriceService implements CloudInstancePriceService<AwsReg
     private static final String AWS_EC2_PRICING_URL_TEMPLATE =
             "https://pricing.us-east-1.amazonaws.com/offers/v1.0/aws/AmazonEC2/current/%s/index.csv";
     private static final int COLUMNS_LINE_INDEX = 5;
+    private static final String PUBLICATION_DATE_PREFIX = "\"Publication Date\",";
 
     private final InstanceOfferDao instanceOfferDao;
     private final EC2Helper ec2Helper;
     private final PreferenceManager preferenceManager;
+    private final Map<Long, String> publicationDates = new ConcurrentHashMap<>();
+    private final Map<Long, String> refreshedPublicationDates = new ConcurrentHashMap<>();
 
     @Override
     public CloudProvider getProvider() {
@@ -56,27 +63,75 @@ public class EC2InstancePriceService implements CloudInstancePriceService<AwsReg
 
     @Override
     public List<InstanceOffer> refreshPriceListForRegion(final AwsRegion region) {
-        final String url = String.format(AWS_EC2_PRICING_URL_TEMPLATE, region.getRegionCode());
-        try (InputStream input = new URL(url).openStream();
-             BufferedReader reader = new BufferedReader(new InputStreamReader(input))) {
-            //skip first lines
-            int skipLines = COLUMNS_LINE_INDEX;
-            while (skipLines > 0) {
-                final String line = reader.readLine();
-                if (line == null) {
-                    return Collections.emptyList();
-                }
-                skipLines--;
+        try (BufferedReader reader = openPriceList(region)) {
+            final Optional<String> publicationDate = readPublicationDate(reader);
+            if (!publicationDate.isPresent()) {
+                return Collections.emptyList();
             }
-            return new AWSPriceListReader(region.getId(),
-                    preferenceManager.getPreference(SystemPreferences.INSTANCE_COMPUTE_FAMILY_NAMES))
+            final List<InstanceOffer> offers = new AWSPriceListReader(region.getId(),
+                    preferenceManager.getPreference(SystemPreferences.INSTANCE_COMPUTE_FAMILY_NAMES), new Date())
                     .readPriceCsv(reader);
+            if (!offers.isEmpty() && StringUtils.isNotBlank(publicationDate.get())) {
+                refreshedPublicationDates.put(region.getId(), publicationDate.get());
+            }
+            return offers;
         } catch (IOException e) {
             log.error(e.getMessage(), e);
             return Collections.emptyList();
         }
     }
 
+    /**
+     * Reads only the price list preamble to check if a new price list was published since the last refresh.
+     */
+    @Override
+    public boolean isPriceListChanged(final AwsRegion region) {
+        final String loadedPublicationDate = publicationDates.get(region.getId());
+        if (loadedPublicationDate == null) {
+            return true;
+        }
+        try (BufferedReader reader = openPriceList(region)) {
+            return readPublicationDate(reader)
+                    .filter(StringUtils::isNotBlank)
+                    .map(publicationDate -> !publicationDate.equals(loadedPublicationDate))
+                    .orElse(true);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            return true;
+        }
+    }
+
+    /**
+     * Remembers the publication date of the refreshed price list only once its offers are persisted,
+     * otherwise a failed refresh would be skipped until the next price list publication.
+     */
+    @Override
+    public void confirmPriceListRefresh(final AwsRegion region) {
+        final String publicationDate = refreshedPublicationDates.remove(region.getId());
+        if (publicationDate != null) {
+            publicationDates.put(region.getId(), publicationDate);
+        }
+    }
+
+    private BufferedReader openPriceList(final AwsRegion region) throws IOException {
+        final String url = String.format(AWS_EC2_PRICING_URL_TEMPLATE, region.getRegionCode());
+        return new BufferedReader(new InputStreamReader(new URL(url).openStream()));
+    }
+
+    private Optional<String> readPublicationDate(final BufferedReader reader) throws IOException {
+        String publicationDate = null;
+        for (int i = 0; i < COLUMNS_LINE_INDEX; i++) {
+            final String line = reader.readLine();
+            if (line == null) {
+                return Optional.empty();
+            }
+            if (line.startsWith(PUBLICATION_DATE_PREFIX)) {
+                publicationDate = line.substring(PUBLICATION_DATE_PREFIX.length());
+            }
+        }
+        return Optional.of(StringUtils.defaultString(publicationDate));
+    }
+
     @Override
     public double getSpotPrice(final String instanceType, final AwsRegion region) {
         return ec2Helper.getSpotPrice(instanceType, region);
@@ -131,7 +131,7 @@ public class AzureInstanceService implements CloudInstanceService<AzureRegion> {
         final String command = buildNodeDownCommand(String.valueOf(runId));
         final Map<String, String> envVars = buildScriptAzureEnvVars(region);
         CompletableFuture.runAsync(() -> instanceService.runNodeDownScript(cmdExecutor, command, envVars),
-                executorService.getExecutorService());
+                executorService.getTerminationExecutorService());
     }
 
     @Override
@@ -139,7 +139,7 @@ public class AzureInstanceService implements CloudInstanceService<AzureRegion> {
         final String command = buildNodeDownCommand(nodeLabel);
         final Map<String, String> envVars = buildScriptAzureEnvVars(region);
         CompletableFuture.runAsync(() -> instanceService.runNodeDownScript(cmdExecutor, command, envVars),
-                                   executorService.getExecutorService());
+                                   executorService.getTerminationExecutorService());
     }
 
     @Override
@@ -164,7 +164,7 @@ public class AzureInstanceService implements CloudInstanceService<AzureRegion> {
                 getProviderName());
         final Map<String, String> envVars = buildScriptAzureEnvVars(region);
         CompletableFuture.runAsync(() -> instanceService.runTerminateNodeScript(command, cmdExecutor, envVars),
-                executorService.getExecutorService());
+                executorService.getTerminationExecutorService());
     }
 
     @Override
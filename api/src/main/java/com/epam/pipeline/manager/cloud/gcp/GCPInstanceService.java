@@ -137,7 +137,7 @@ public class GCPInstanceService implements CloudInstanceService<GCPRegion> {
                 nodeName, getProviderName());
         final Map<String, String> envVars = buildScriptGCPEnvVars(region);
         CompletableFuture.runAsync(() -> instanceService.runTerminateNodeScript(command, cmdExecutor, envVars),
-                executorService.getExecutorService());
+                executorService.getTerminationExecutorService());
     }
 
     @Override
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.cluster;
+
+import com.epam.pipeline.entity.cluster.InstanceOffer;
+import lombok.Value;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.stream.Collectors.collectingAndThen;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Immutable in-memory index of instance offers used for price lookups.
+ *
+ * Offers are grouped by region, instance type, term type and product family. Additionally offers are grouped
+ * by region and product family for the lookups which are not bound to a specific instance type, e.g. disk offers.
+ */
+final class InstanceOfferIndex {
+
+    private static final InstanceOfferIndex EMPTY = new InstanceOfferIndex(Collections.emptyList());
+
+    private final Map<OfferKey, List<InstanceOffer>> offers;
+    private final Map<FamilyKey, List<InstanceOffer>> familyOffers;
+    private final int size;
+
+    private InstanceOfferIndex(final Collection<InstanceOffer> offers) {
+        this.offers = Collections.unmodifiableMap(offers.stream()
+                .collect(groupingBy(OfferKey::of, collectingAndThen(toList(), Collections::unmodifiableList))));
+        this.familyOffers = Collections.unmodifiableMap(offers.stream()
+                .collect(groupingBy(FamilyKey::of, collectingAndThen(toList(), Collections::unmodifiableList))));
+        this.size = offers.size();
+    }
+
+    static InstanceOfferIndex empty() {
+        return EMPTY;
+    }
+
+    static InstanceOfferIndex of(final Collection<InstanceOffer> offers) {
+        return offers.isEmpty() ? EMPTY : new InstanceOfferIndex(offers);
+    }
+
+    /**
+     * @return offers of the instance type with the exactly matching region, term type and product family
+     */
+    List<InstanceOffer> find(final Long regionId, final String instanceType, final String termType,
+                             final String productFamily) {
+        return offers.getOrDefault(new OfferKey(regionId, instanceType, termType, productFamily),
+                Collections.emptyList());
+    }
+
+    /**
+     * @return all offers of the product family in the region
+     */
+    List<InstanceOffer> find(final Long regionId, final String productFamily) {
+        return familyOffers.getOrDefault(new FamilyKey(regionId, productFamily), Collections.emptyList());
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Value
+    private static class OfferKey {
+        Long regionId;
+        String instanceType;
+        String termType;
+        String productFamily;
+
+        static OfferKey of(final InstanceOffer offer) {
+            return new OfferKey(offer.getRegionId(), offer.getInstanceType(), offer.getTermType(),
+                    offer.getProductFamily());
+        }
+    }
+
+    @Value
+    private static class FamilyKey {
+        Long regionId;
+        String productFamily;
+
+        static FamilyKey of(final InstanceOffer offer) {
+            return new FamilyKey(offer.getRegionId(), offer.getProductFamily());
+        }
+    }
+}
@@ -29,6 +29,7 @@ import com.epam.pipeline.entity.pipeline.PipelineRun;
 import com.epam.pipeline.entity.pipeline.RunInstance;
 import com.epam.pipeline.entity.region.AbstractCloudRegion;
 import com.epam.pipeline.entity.region.CloudProvider;
+import com.epam.pipeline.entity.utils.DateUtils;
 import com.epam.pipeline.exception.git.GitClientException;
 import com.epam.pipeline.manager.cloud.CloudFacade;
 import com.epam.pipeline.manager.cloud.CloudInstancePriceService;
@@ -51,9 +52,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
@@ -62,8 +60,10 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static java.util.stream.Collectors.groupingBy;
@@ -110,7 +110,21 @@ public class InstanceOfferManager {
     private final AtomicReference<Map<Long, Map<PriceType, Set<String>>>> offeredInstanceTypesMap =
             new AtomicReference<>(Collections.emptyMap());
 
-    private final AntPathMatcher matcher = new AntPathMatcher();
+    /**
+     * Index of all instance offers, it is used by price lookups instead of the database queries.
+     */
+    private final AtomicReference<InstanceOfferIndex> offerIndex =
+            new AtomicReference<>(InstanceOfferIndex.empty());
+
+    /**
+     * Price list publish date of the offers the index was built from.
+     */
+    private final AtomicReference<Date> offerIndexPublishDate = new AtomicReference<>();
+
+    /**
+     * Compiled instance type patterns by the preference values.
+     */
+    private final Map<String, InstanceTypePatterns> instanceTypePatterns = new ConcurrentHashMap<>();
     private final Subject<List<InstanceType>> updatedInstanceTypesSubject = BehaviorSubject.create();
 
     private static final double ONE_SECOND = 1000;
@@ -132,6 +146,7 @@ public class InstanceOfferManager {
     @PostConstruct
     public void init() {
         updateOfferedInstanceTypes(instanceOfferDao.loadInstanceTypes());
+        updateInstanceOfferIndex();
         updateOfferedInstanceTypesOnPreferenceChange(SystemPreferences.CLUSTER_ALLOWED_INSTANCE_TYPES);
         updateOfferedInstanceTypesOnPreferenceChange(SystemPreferences.CLUSTER_ALLOWED_INSTANCE_TYPES_DOCKER);
 
@@ -143,6 +158,7 @@ public class InstanceOfferManager {
             .subscribe(newInstanceTypes -> { // Will run on same thread, that updates preference
                 LOGGER.info(messageHelper.getMessage(MessageConstants.INFO_PREFERENCE_UPDATED_WITH_ADDITIONAL_TASKS,
                     pref.getKey(), newInstanceTypes, String.format("Update InstanceOfferManager::%s", pref.getKey())));
+                instanceTypePatterns.clear();
                 updateOfferedInstanceTypes(instanceOfferDao.loadInstanceTypes());
             });
     }
@@ -167,6 +183,33 @@ public class InstanceOfferManager {
         offeredInstanceTypesMap.set(extendInstanceTypesForAws(offeredInstanceTypes));
     }
 
+    /**
+     * Rebuilds the instance offers index from the offers stored in the database.
+     */
+    public void updateInstanceOfferIndex() {
+        final Date publishDate = getPriceListPublishDate();
+        updateInstanceOfferIndex(ListUtils.emptyIfNull(instanceOfferDao.loadInstanceOffers(
+                new InstanceOfferRequestVO())), publishDate);
+    }
+
+    /**
+     * Rebuilds the instance offers index and offered instance types if the price list was refreshed
+     * after the index was built, e.g. by another API instance.
+     */
+    public void updateInstanceOfferIndexIfOutdated() {
+        if (Objects.equals(getPriceListPublishDate(), offerIndexPublishDate.get())) {
+            return;
+        }
+        updateInstanceOfferIndex();
+        updateOfferedInstanceTypes(instanceOfferDao.loadInstanceTypes());
+    }
+
+    private void updateInstanceOfferIndex(final List<InstanceOffer> instanceOffers, final Date publishDate) {
+        offerIndex.set(InstanceOfferIndex.of(instanceOffers));
+        offerIndexPublishDate.set(publishDate);
+        LOGGER.debug("Instance offers index was updated with {} offers.", instanceOffers.size());
+    }
+
     public Date getPriceListPublishDate() {
         return instanceOfferDao.getPriceListPublishDate();
     }
@@ -289,16 +332,13 @@ public class InstanceOfferManager {
     }
 
     public double getPricePerHourForInstance(final String instanceType, final Long regionId) {
-        final InstanceOfferRequestVO requestVO = new InstanceOfferRequestVO();
-        requestVO.setInstanceType(instanceType);
-        requestVO.setTermType(CloudInstancePriceService.TermType.ON_DEMAND.getName());
-        requestVO.setOperatingSystem(CloudInstancePriceService.LINUX_OPERATING_SYSTEM);
-        requestVO.setTenancy(CloudInstancePriceService.SHARED_TENANCY);
-        requestVO.setUnit(CloudInstancePriceService.HOURS_UNIT);
-        requestVO.setProductFamily(CloudInstancePriceService.INSTANCE_PRODUCT_FAMILY);
-        requestVO.setRegionId(regionId);
-        return ListUtils.emptyIfNull(instanceOfferDao.loadInstanceOffers(requestVO))
+        return offerIndex.get()
+                .find(regionId, instanceType, CloudInstancePriceService.TermType.ON_DEMAND.getName(),
+                        CloudInstancePriceService.INSTANCE_PRODUCT_FAMILY)
                 .stream()
+                .filter(offer -> CloudInstancePriceService.LINUX_OPERATING_SYSTEM.equals(offer.getOperatingSystem()))
+                .filter(offer -> CloudInstancePriceService.SHARED_TENANCY.equals(offer.getTenancy()))
+                .filter(offer -> CloudInstancePriceService.HOURS_UNIT.equals(offer.getUnit()))
                 .map(InstanceOffer::getPricePerUnit)
                 .filter(price -> Double.compare(price, 0.0) > 0)
                 .min(Double::compareTo)
@@ -395,8 +435,7 @@ public class InstanceOfferManager {
     private boolean isInstanceTypeMatchesAllowedPatterns(final String instanceType,
                                                          final ContextualPreferenceExternalResource resource,
                                                          final List<String> instanceTypesPreferences) {
-        return getContextualPreferenceValueAsList(resource, instanceTypesPreferences).stream()
-                .anyMatch(pattern -> matcher.match(pattern, instanceType));
+        return getContextualPreferencePatterns(resource, instanceTypesPreferences).matches(instanceType);
     }
 
     private boolean isInstanceTypeOffered(final String instanceType, final Long regionId, final boolean spot) {
@@ -440,16 +479,20 @@ public class InstanceOfferManager {
         return isPriceTypeAllowed(priceType, toolResource, false);
     }
 
-    @Transactional(propagation = Propagation.REQUIRED)
+    /**
+     * Refreshes price lists of all regions. Each region offers are replaced in a separate short transaction
+     * once the region price list is loaded, so offers of other regions stay available during the refresh.
+     */
     public void refreshPriceList() {
         LOGGER.debug(messageHelper.getMessage(MessageConstants.DEBUG_INSTANCE_OFFERS_UPDATE_STARTED));
-        instanceOfferDao.removeInstanceOffers();
+        instanceOfferDao.removeInstanceOffersForMissingRegions();
         List<InstanceOffer> instanceOffers = cloudRegionManager.loadAll()
                 .stream()
                 .map(this::updatePriceListForRegion)
                 .flatMap(List::stream)
                 .collect(toList());
 
+        updateInstanceOfferIndex(instanceOffers, getPriceListPublishDate());
         updatedInstanceTypesSubject.onNext(getAllInstanceTypes());
 
         LOGGER.debug(messageHelper.getMessage(MessageConstants.DEBUG_INSTANCE_OFFERS_UPDATE_FINISHED));
@@ -457,11 +500,21 @@ public class InstanceOfferManager {
         updateOfferedInstanceTypesAccordingToInstanceOffers(instanceOffers);
     }
 
-    @Transactional(propagation = Propagation.REQUIRED)
+    /**
+     * Refreshes price list of a region. If the cloud price list was not changed since the last refresh,
+     * the existing offers are kept and only their publish date is updated.
+     */
     public List<InstanceOffer> updatePriceListForRegion(AbstractCloudRegion cloudRegion) {
-        instanceOfferDao.removeInstanceOffersForRegion(cloudRegion.getId());
+        if (!cloudFacade.isPriceListChanged(cloudRegion.getId())) {
+            LOGGER.info("Price list of region {} was not changed since the last refresh.", cloudRegion.getId());
+            instanceOfferDao.updatePriceListPublishDate(cloudRegion.getId(), DateUtils.now());
+            final InstanceOfferRequestVO requestVO = new InstanceOfferRequestVO();
+            requestVO.setRegionId(cloudRegion.getId());
+            return instanceOfferDao.loadInstanceOffers(requestVO);
+        }
         List<InstanceOffer> instanceOffers = cloudFacade.refreshPriceListForRegion(cloudRegion.getId());
-        instanceOfferDao.insertInstanceOffers(instanceOffers);
+        instanceOfferDao.replaceInstanceOffersForRegion(cloudRegion.getId(), instanceOffers);
+        cloudFacade.confirmPriceListRefresh(cloudRegion.getId());
         return instanceOffers;
     }
 
@@ -499,11 +552,11 @@ public class InstanceOfferManager {
     }
 
     private double getPriceForDisk(int instanceDisk, Long regionId, String instanceType, boolean spot) {
-        InstanceOfferRequestVO requestVO = new InstanceOfferRequestVO();
-        requestVO.setProductFamily(CloudInstancePriceService.STORAGE_PRODUCT_FAMILY);
-        requestVO.setVolumeType(CloudInstancePriceService.GENERAL_PURPOSE_VOLUME_TYPE);
-        requestVO.setRegionId(regionId);
-        List<InstanceOffer> offers = instanceOfferDao.loadInstanceOffers(requestVO);
+        final List<InstanceOffer> offers = offerIndex.get()
+                .find(regionId, CloudInstancePriceService.STORAGE_PRODUCT_FAMILY)
+                .stream()
+                .filter(offer -> CloudInstancePriceService.GENERAL_PURPOSE_VOLUME_TYPE.equals(offer.getVolumeType()))
+                .collect(toList());
         return cloudFacade.getPriceForDisk(regionId, offers, instanceDisk, instanceType, spot);
     }
 
@@ -524,8 +577,7 @@ public class InstanceOfferManager {
         if (StringUtils.isBlank(pattern)) {
             return true;
         }
-        List<String> allowedInstancePatterns = Arrays.asList(pattern.split(","));
-        return allowedInstancePatterns.stream().anyMatch(type -> matcher.match(type, instanceType));
+        return compiledPatterns(pattern).matches(instanceType);
     }
 
     /**
@@ -569,13 +621,25 @@ public class InstanceOfferManager {
             final List<InstanceType> instanceTypes,
             final ContextualPreferenceExternalResource resource,
             final AbstractSystemPreference.StringPreference... preferences) {
-        final List<String> allowedInstanceTypePatterns = getContextualPreferenceValueAsList(resource, preferences);
+        final List<String> preferenceNames = Arrays.stream(preferences)
+                .map(AbstractSystemPreference::getKey)
+                .collect(toList());
+        final InstanceTypePatterns allowedInstanceTypePatterns =
+                getContextualPreferencePatterns(resource, preferenceNames);
         return instanceTypes.stream()
-                .filter(instanceType -> allowedInstanceTypePatterns.stream()
-                        .anyMatch(pattern -> matcher.match(pattern, instanceType.getName())))
+                .filter(instanceType -> allowedInstanceTypePatterns.matches(instanceType.getName()))
                 .collect(toList());
     }
 
+    private InstanceTypePatterns getContextualPreferencePatterns(final ContextualPreferenceExternalResource resource,
+                                                                 final List<String> preferences) {
+        return compiledPatterns(contextualPreferenceManager.search(preferences, resource).getValue());
+    }
+
+    private InstanceTypePatterns compiledPatterns(final String value) {
+        return instanceTypePatterns.computeIfAbsent(value, InstanceTypePatterns::compile);
+    }
+
     private List<String> getContextualPreferenceValueAsList(
             final ContextualPreferenceExternalResource resource,
             final AbstractSystemPreference.StringPreference... preferences) {
@@ -35,12 +35,13 @@ public class InstanceOfferScheduler extends AbstractSchedulingManager {
 
     @PostConstruct
     public void init() {
-        scheduleFixedDelay(core::checkAndUpdatePriceListIfNecessary,
+        scheduleFixedDelay(this::checkAndUpdatePriceListIfNecessary,
                 SystemPreferences.CLUSTER_INSTANCE_OFFER_UPDATE_RATE,
                 "Instance Offers Expiration Status Check");
     }
 
     public void checkAndUpdatePriceListIfNecessary() {
+        core.updateInstanceOfferIndexIfNecessary();
         core.checkAndUpdatePriceListIfNecessary();
     }
 
@@ -59,6 +59,19 @@ public class InstanceOfferSchedulerCore {
         log.debug(messageHelper.getMessage(MessageConstants.DEBUG_INSTANCE_OFFERS_EXPIRATION_CHECK_DONE));
     }
 
+    /**
+     * Is not locked across API instances, so each instance rebuilds its own offers index
+     * once the price list is refreshed by any of them.
+     */
+    public void updateInstanceOfferIndexIfNecessary() {
+        try {
+            priceUpdateLock.lock();
+            instanceOfferManager.updateInstanceOfferIndexIfOutdated();
+        } finally {
+            priceUpdateLock.unlock();
+        }
+    }
+
     public void updatePriceList() {
         try {
             priceUpdateLock.lock();
@@ -72,6 +85,7 @@ public class InstanceOfferSchedulerCore {
         try {
             priceUpdateLock.lock();
             instanceOfferManager.updatePriceListForRegion(region);
+            instanceOfferManager.updateInstanceOfferIndex();
             instanceOfferManager.updateOfferedInstanceTypes();
         } finally {
             priceUpdateLock.unlock();
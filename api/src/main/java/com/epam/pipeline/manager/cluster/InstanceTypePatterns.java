@@ -0,0 +1,95 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.cluster;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled comma separated list of instance type patterns, e.g. {@code m5.*,c5.large}.
+ *
+ * Patterns have the same semantics as {@link AntPathMatcher} patterns. Patterns without wildcards are matched
+ * by a set lookup, patterns with {@code *} and {@code ?} wildcards are compiled to regular expressions once.
+ * Patterns containing path separators or variables are matched by {@link AntPathMatcher} as is.
+ */
+final class InstanceTypePatterns {
+
+    private static final String DELIMITER = ",";
+    private static final String PATH_SEPARATOR = "/";
+    private static final String VARIABLE_START = "{";
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final Set<String> names = new HashSet<>();
+    private final List<String> wildcardPatterns = new ArrayList<>();
+    private final List<Pattern> wildcards = new ArrayList<>();
+    private final List<String> antPatterns = new ArrayList<>();
+
+    private InstanceTypePatterns(final String value) {
+        for (final String pattern : value.split(DELIMITER)) {
+            if (pattern.contains(PATH_SEPARATOR) || pattern.contains(VARIABLE_START)) {
+                antPatterns.add(pattern);
+            } else if (matcher.isPattern(pattern)) {
+                wildcardPatterns.add(pattern);
+                wildcards.add(toRegex(pattern));
+            } else {
+                names.add(pattern);
+            }
+        }
+    }
+
+    static InstanceTypePatterns compile(final String value) {
+        return new InstanceTypePatterns(value);
+    }
+
+    boolean matches(final String instanceType) {
+        if (instanceType.isEmpty()) {
+            return names.contains(instanceType)
+                    || wildcardPatterns.stream().anyMatch(pattern -> matcher.match(pattern, instanceType))
+                    || antPatterns.stream().anyMatch(pattern -> matcher.match(pattern, instanceType));
+        }
+        return names.contains(instanceType)
+                || wildcards.stream().anyMatch(pattern -> pattern.matcher(instanceType).matches())
+                || antPatterns.stream().anyMatch(pattern -> matcher.match(pattern, instanceType));
+    }
+
+    private static Pattern toRegex(final String pattern) {
+        final StringBuilder regex = new StringBuilder();
+        final StringBuilder literal = new StringBuilder();
+        for (final char c : pattern.toCharArray()) {
+            if (c == '*' || c == '?') {
+                appendLiteral(regex, literal);
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        appendLiteral(regex, literal);
+        return Pattern.compile(regex.toString());
+    }
+
+    private static void appendLiteral(final StringBuilder regex, final StringBuilder literal) {
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+}
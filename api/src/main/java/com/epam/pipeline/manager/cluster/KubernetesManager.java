@@ -555,6 +555,13 @@ public class KubernetesManager {
         return getAvailableNodes(client).getItems();
     }
 
+    /**
+     * @return all nodes labeled with run ids, including paused ones
+     */
+    public NodeList getRunNodes(final KubernetesClient client) {
+        return client.nodes().withLabel(KubernetesConstants.RUN_ID_LABEL).list();
+    }
+
     public NodeList getAvailableNodes(KubernetesClient client) {
         return client.nodes().withLabel(KubernetesConstants.RUN_ID_LABEL)
                 .withoutLabel(KubernetesConstants.PAUSED_NODE_LABEL)
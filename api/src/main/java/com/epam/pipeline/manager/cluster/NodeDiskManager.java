@@ -5,21 +5,34 @@ import com.epam.pipeline.common.MessageHelper;
 import com.epam.pipeline.dao.cluster.NodeDiskDao;
 import com.epam.pipeline.entity.cluster.NodeDisk;
 import com.epam.pipeline.entity.cluster.DiskRegistrationRequest;
-import lombok.RequiredArgsConstructor;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class NodeDiskManager {
-    
+
     private final NodeDiskDao nodeDiskDao;
     private final MessageHelper messageHelper;
+    private final int nodeIdsChunkSize;
+
+    public NodeDiskManager(final NodeDiskDao nodeDiskDao,
+                           final MessageHelper messageHelper,
+                           @Value("${node.disks.load.chunk.size:1000}") final int nodeIdsChunkSize) {
+        this.nodeDiskDao = nodeDiskDao;
+        this.messageHelper = messageHelper;
+        this.nodeIdsChunkSize = nodeIdsChunkSize;
+    }
 
     @Transactional
     public NodeDisk register(final String nodeId, final DiskRegistrationRequest request) {
@@ -47,6 +60,20 @@ public class NodeDiskManager {
         return nodeDiskDao.loadByNodeId(nodeId);
     }
 
+    /**
+     * Loads disks of several nodes at once. Node ids are queried in chunks of {@code node.disks.load.chunk.size}
+     * to keep queries bounded, so callers may pass node ids without splitting them.
+     */
+    public List<NodeDisk> loadByNodeIds(final Collection<String> nodeIds) {
+        final List<String> distinctNodeIds = CollectionUtils.emptyIfNull(nodeIds).stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        return ListUtils.partition(distinctNodeIds, nodeIdsChunkSize).stream()
+                .flatMap(chunk -> nodeDiskDao.loadByNodeIds(chunk).stream())
+                .collect(Collectors.toList());
+    }
+
     private void validateNodeId(final String nodeId) {
         Assert.notNull(nodeId, messageHelper.getMessage(MessageConstants.ERROR_DISK_NODE_MISSING));
     }
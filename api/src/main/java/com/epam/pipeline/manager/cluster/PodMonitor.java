@@ -52,6 +52,7 @@ import net.javacrumbs.shedlock.core.SchedulerLock;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -65,12 +66,19 @@ import javax.annotation.PostConstruct;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 /**
@@ -82,24 +90,47 @@ import java.util.stream.Collectors;
 public class PodMonitor extends AbstractSchedulingManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(PodMonitor.class);
 
+    private static final long CHANGES_PROCESSING_DELAY = 1000L;
+
     private final PodMonitorCore core;
+    private final PodStateCache podStateCache;
+    private final AtomicBoolean changesProcessingScheduled = new AtomicBoolean();
 
     @Autowired
-    public PodMonitor(final PodMonitorCore core) {
+    public PodMonitor(final PodMonitorCore core, final PodStateCache podStateCache) {
         this.core = core;
+        this.podStateCache = podStateCache;
     }
 
     @PostConstruct
     public void setup() {
+        podStateCache.setChangeListener(pod -> scheduleChangesProcessing());
         scheduleFixedDelay(core::updateStatus, SystemPreferences.LAUNCH_TASK_STATUS_UPDATE_RATE, "Task Status Update");
     }
 
+    /**
+     * Schedules a check of runs which pods were changed. Changes received within a short delay
+     * are processed together.
+     */
+    private void scheduleChangesProcessing() {
+        if (changesProcessingScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                changesProcessingScheduled.set(false);
+                try {
+                    core.updateChangedStatuses();
+                } catch (Exception e) {
+                    LOGGER.error(e.getMessage(), e);
+                }
+            }, new Date(System.currentTimeMillis() + CHANGES_PROCESSING_DELAY));
+        }
+    }
+
     public void updateStatus() {
         core.updateStatus();
     }
 
     @Component
-    private static class PodMonitorCore {
+    static class PodMonitorCore {
         private static final String PIPELINE_ID_LABEL = "pipeline_id";
         private static final String CLUSTER_ID_LABEL = "cluster_id";
         private static final int DELETE_RETRY_ATTEMPTS = 5;
@@ -121,6 +152,7 @@ public class PodMonitor extends AbstractSchedulingManager {
         private final CloudFacade cloudFacade;
         private final PreferenceManager preferenceManager;
         private final List<RunCleaner> cleaners;
+        private final PodStateCache podStateCache;
 
         @Autowired
         PodMonitorCore(final RunLogManager runLogManager,
@@ -135,6 +167,7 @@ public class PodMonitor extends AbstractSchedulingManager {
                        final CloudFacade cloudFacade,
                        final PreferenceManager preferenceManager,
                        final List<RunCleaner> cleaners,
+                       final PodStateCache podStateCache,
                        final @Value("${kube.namespace}") String kubeNamespace) {
             this.runLogManager = runLogManager;
             this.pipelineRunManager = pipelineRunManager;
@@ -149,6 +182,7 @@ public class PodMonitor extends AbstractSchedulingManager {
             this.preferenceManager = preferenceManager;
             this.kubeNamespace = kubeNamespace;
             this.cleaners = ListUtils.emptyIfNull(cleaners);
+            this.podStateCache = podStateCache;
         }
 
         /**
@@ -157,65 +191,172 @@ public class PodMonitor extends AbstractSchedulingManager {
         @SchedulerLock(name = "PodMonitor_updateStatus", lockAtMostForString = "PT5M")
         public void updateStatus() {
             LOGGER.debug(messageHelper.getMessage(MessageConstants.DEBUG_MONITOR_CHECK_RUNNING));
-            List<PipelineRun> running = pipelineRunManager.loadRunningAndTerminatedPipelineRuns();
-            for (PipelineRun run : running) {
-                if (!run.getExecutionPreferences().getEnvironment().isMonitored()) {
-                    if (run.getStatus().isFinal()) {
-                        run.setTerminating(false);
-                        pipelineRunManager.updatePipelineStatus(run);
-                    }
-                    LOGGER.debug("Skipping run {} in exec environment {}", run.getId(),
-                            run.getExecutionPreferences().getEnvironment());
-                    continue;
+            final boolean podsCached = podStateCache.sync();
+            // all the changes observed so far are processed by the full check
+            podStateCache.drainChangedPods();
+            updateStatuses(pipelineRunManager.loadRunningAndTerminatedPipelineRuns(), podsCached, true);
+            LOGGER.debug(messageHelper.getMessage(MessageConstants.DEBUG_MONITOR_CHECK_FINISHED));
+        }
+
+        /**
+         * Adjusts statuses of tasks which pods were changed since the previous check
+         */
+        @SchedulerLock(name = "PodMonitor_updateStatus", lockAtMostForString = "PT5M")
+        public void updateChangedStatuses() {
+            if (!podStateCache.isSynced()) {
+                return;
+            }
+            final Set<String> changedPods = podStateCache.drainChangedPods();
+            if (CollectionUtils.isEmpty(changedPods)) {
+                return;
+            }
+            final List<Long> changedRunIds = changedPods.stream()
+                    .map(this::getRunId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .collect(Collectors.toList());
+            final List<PipelineRun> changedRuns = ListUtils.emptyIfNull(
+                    pipelineRunManager.loadPipelineRuns(changedRunIds))
+                    .stream()
+                    .filter(run -> run.getStatus() == TaskStatus.RUNNING || run.isTerminating())
+                    .filter(run -> changedPods.contains(run.getPodId()))
+                    .collect(Collectors.toList());
+            LOGGER.debug("Checking {} runs with changed pods.", changedRuns.size());
+            updateStatuses(changedRuns, true, false);
+        }
+
+        /**
+         * Run pod names always end with the run id, see {@link PipelineRunManager}
+         *
+         * @return run id of a pod or null if the pod name doesn't end with a number
+         */
+        private Long getRunId(final String podName) {
+            final long runId = NumberUtils.toLong(StringUtils.substringAfterLast(podName, "-"), -1L);
+            return runId > 0 ? runId : null;
+        }
+
+        private void updateStatuses(final List<PipelineRun> runs, final boolean podsCached, final boolean notify) {
+            if (CollectionUtils.isEmpty(runs)) {
+                return;
+            }
+            final MonitorPass pass = new MonitorPass(podsCached, notify);
+            try (KubernetesClient client = kubernetesManager.getKubernetesClient()) {
+                for (PipelineRun run : runs) {
+                    updateStatus(run, client, pass);
+                }
+            } finally {
+                final Set<Long> notPersistedRunIds = flushStatuses(pass);
+                // runs are killed only after their statuses are persisted
+                pass.getRunsToKill().stream()
+                        .filter(run -> !notPersistedRunIds.contains(run.getId()))
+                        .forEach(this::killAsync);
+            }
+        }
+
+        private void updateStatus(final PipelineRun run, final KubernetesClient client, final MonitorPass pass) {
+            if (!run.getExecutionPreferences().getEnvironment().isMonitored()) {
+                if (run.getStatus().isFinal()) {
+                    run.setTerminating(false);
+                    pass.getStatusUpdates().add(run);
                 }
-                LOGGER.debug("RUN ID {} status {} terminating {}", run.getId(), run.getStatus(), run.isTerminating());
-                try (KubernetesClient client = kubernetesManager.getKubernetesClient()) {
-                    Pod pod = client.pods().inNamespace(kubeNamespace).withName(run.getPodId()).get();
+                LOGGER.debug("Skipping run {} in exec environment {}", run.getId(),
+                        run.getExecutionPreferences().getEnvironment());
+                return;
+            }
+            LOGGER.debug("RUN ID {} status {} terminating {}", run.getId(), run.getStatus(), run.isTerminating());
+            try {
+                Pod pod = findPod(run, client, pass);
+                if (pod == null) {
                     //check maybe run was already processed with master node
                     PipelineRun currentRunState = pipelineRunManager.loadPipelineRun(run.getId());
-                    if (pod == null && currentRunState.getStatus().isFinal()) {
+                    if (currentRunState.getStatus().isFinal()) {
                         LOGGER.debug("Run ID {} is already in final status {}",
                                 run.getId(), currentRunState.getStatus());
                         setRunFinished(currentRunState, pod, client);
-                        continue;
+                        pass.getRunsToKill().add(currentRunState);
+                        return;
                     }
-                    if (pod == null || run.isTerminating()) {
-                        setRunFinished(run, pod, client);
-                    } else {
-                        PodStatus status = pod.getStatus();
-                        // update pod IP, if it is not set yet
-                        if (StringUtils.isEmpty(run.getPodIP())) {
-                            if (StringUtils.isEmpty(status.getPodIP())) {
-                                notifyIfExceedsThreshold(run, pod, NotificationType.LONG_INIT);
-                            } else {
-                                run.setPodIP(status.getPodIP());
-                                pipelineRunManager.updatePodIP(run);
-                            }
+                }
+                if (pod == null || run.isTerminating()) {
+                    setRunFinished(run, pod, client);
+                    pass.getRunsToKill().add(run);
+                } else {
+                    PodStatus status = pod.getStatus();
+                    // update pod IP, if it is not set yet
+                    if (StringUtils.isEmpty(run.getPodIP())) {
+                        if (StringUtils.isEmpty(status.getPodIP())) {
+                            notifyIfExceedsThreshold(run, pod, NotificationType.LONG_INIT, pass);
+                        } else {
+                            run.setPodIP(status.getPodIP());
+                            pipelineRunManager.updatePodIP(run);
                         }
+                    }
 
-                        if (status.getPhase().equals(KubernetesConstants.POD_SUCCEEDED_PHASE)) {
-                            run.setStatus(TaskStatus.SUCCESS);
-                            run.setEndDate(DateUtils.now());
-                            run.setTerminating(false);
-                            //check that all tasks managed to reports its statuses
-                            if (!checkChildrenPods(run, client, pod)) {
-                                continue;
-                            }
-                        } else if (status.getPhase().equals(KubernetesConstants.POD_FAILED_PHASE) ||
-                                (status.getReason() != null &&
-                                        status.getReason().equals(KubernetesConstants.NODE_LOST))) {
-                            setRunFinished(run, pod, client);
-                        } else {
-                            notifyIfExceedsThreshold(run, pod, NotificationType.LONG_RUNNING);
-                            continue;
+                    if (status.getPhase().equals(KubernetesConstants.POD_SUCCEEDED_PHASE)) {
+                        run.setStatus(TaskStatus.SUCCESS);
+                        run.setEndDate(DateUtils.now());
+                        run.setTerminating(false);
+                        //check that all tasks managed to reports its statuses
+                        if (!checkChildrenPods(run, client, pod)) {
+                            return;
                         }
+                    } else if (status.getPhase().equals(KubernetesConstants.POD_FAILED_PHASE) ||
+                            (status.getReason() != null &&
+                                    status.getReason().equals(KubernetesConstants.NODE_LOST))) {
+                        setRunFinished(run, pod, client);
+                        pass.getRunsToKill().add(run);
+                    } else {
+                        notifyIfExceedsThreshold(run, pod, NotificationType.LONG_RUNNING, pass);
+                        return;
                     }
+                }
+                pass.getStatusUpdates().add(run);
+            } catch (Exception e) {
+                LOGGER.error(e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Resolves a run pod from the pod state cache if it is in sync. Absence of a pod is confirmed
+         * with the api server, since a run pod could be created before the corresponding event is received.
+         */
+        private Pod findPod(final PipelineRun run, final KubernetesClient client, final MonitorPass pass) {
+            if (pass.isPodsCached() && run.getPodId() != null) {
+                final Optional<Pod> cachedPod = podStateCache.getPod(run.getPodId());
+                if (cachedPod.isPresent()) {
+                    return cachedPod.get();
+                }
+            }
+            return client.pods().inNamespace(kubeNamespace).withName(run.getPodId()).get();
+        }
+
+        /**
+         * Persists statuses of a pass at once. If the batch update fails, statuses are persisted one by one,
+         * so a single broken run doesn't prevent updates of the others.
+         *
+         * @return ids of the runs which statuses were not persisted
+         */
+        private Set<Long> flushStatuses(final MonitorPass pass) {
+            if (CollectionUtils.isEmpty(pass.getStatusUpdates())) {
+                return Collections.emptySet();
+            }
+            try {
+                pipelineRunManager.updatePipelineStatuses(pass.getStatusUpdates());
+                return Collections.emptySet();
+            } catch (Exception e) {
+                LOGGER.error("Failed to update statuses of {} runs at once, updating them one by one: {}",
+                        pass.getStatusUpdates().size(), e.getMessage(), e);
+            }
+            final Set<Long> notPersistedRunIds = new HashSet<>();
+            for (PipelineRun run : pass.getStatusUpdates()) {
+                try {
                     pipelineRunManager.updatePipelineStatus(run);
                 } catch (Exception e) {
-                    LOGGER.error(e.getMessage(), e);
+                    LOGGER.error("Failed to update status of run {}: {}", run.getId(), e.getMessage(), e);
+                    notPersistedRunIds.add(run.getId());
                 }
             }
-            LOGGER.debug(messageHelper.getMessage(MessageConstants.DEBUG_MONITOR_CHECK_FINISHED));
+            return notPersistedRunIds;
         }
 
         @Scheduled(fixedDelay = POD_RELEASE_TIMEOUT)
@@ -252,8 +393,13 @@ public class PodMonitor extends AbstractSchedulingManager {
             queueToKill.add(run);
         }
 
-        private void notifyIfExceedsThreshold(PipelineRun run, Pod pod, NotificationType type) {
-            NotificationSettings settings = notificationSettingsManager.load(type);
+        private void notifyIfExceedsThreshold(PipelineRun run, Pod pod, NotificationType type,
+                                              MonitorPass pass) {
+            if (!pass.isNotify()) {
+                return;
+            }
+            NotificationSettings settings = pass.getSettings()
+                    .computeIfAbsent(type, notificationSettingsManager::load);
             if (settings == null || !settings.isEnabled()) {
                 LOGGER.warn(messageHelper.getMessage(MessageConstants.ERROR_NOTIFICATION_SETTINGS_NOT_FOUND, type));
                 return;
@@ -266,7 +412,8 @@ public class PodMonitor extends AbstractSchedulingManager {
             boolean isClusterNode = pod.getMetadata() != null && pod.getMetadata().getLabels() != null &&
                     pod.getMetadata().getLabels().containsKey(CLUSTER_ID_LABEL);
 
-            if (threshold > 0 && !isClusterNode) {
+            // running duration can't exceed overall duration, so statuses history is loaded only if required
+            if (threshold > 0 && !isClusterNode && overallDurationOf(run) >= threshold) {
                 long duration = runningDurationOf(run);
                 if (duration >= threshold) {
                     Date lastNotificationDate = run.getLastNotificationTime();
@@ -467,7 +614,6 @@ public class PodMonitor extends AbstractSchedulingManager {
             run.setTerminating(true);
             run.setEndDate(DateUtils.now());
             notificationManager.removeNotificationTimestamps(run.getId());
-            killAsync(run);
         }
 
         private void cleanRunResources(final PipelineRun run) {
@@ -651,5 +797,43 @@ public class PodMonitor extends AbstractSchedulingManager {
             }
             return true;
         }
+
+        /**
+         * Holds the state of a single monitor check
+         */
+        private static final class MonitorPass {
+
+            private final boolean podsCached;
+            private final boolean notify;
+            private final List<PipelineRun> statusUpdates = new ArrayList<>();
+            private final List<PipelineRun> runsToKill = new ArrayList<>();
+            private final Map<NotificationType, NotificationSettings> settings =
+                    new EnumMap<>(NotificationType.class);
+
+            MonitorPass(final boolean podsCached, final boolean notify) {
+                this.podsCached = podsCached;
+                this.notify = notify;
+            }
+
+            boolean isPodsCached() {
+                return podsCached;
+            }
+
+            boolean isNotify() {
+                return notify;
+            }
+
+            List<PipelineRun> getStatusUpdates() {
+                return statusUpdates;
+            }
+
+            List<PipelineRun> getRunsToKill() {
+                return runsToKill;
+            }
+
+            Map<NotificationType, NotificationSettings> getSettings() {
+                return settings;
+            }
+        }
     }
 }
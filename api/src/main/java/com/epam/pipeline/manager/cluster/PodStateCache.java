@@ -0,0 +1,174 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.cluster;
+
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.ListUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Keeps an up to date state of all pods from the kube namespace.
+ *
+ * The state is populated with a single pods listing and then maintained by a watch, started from
+ * the resource version of the listing. Once the watch is closed, the cache is considered out of sync
+ * and is listed again on the next {@link #sync()} call.
+ */
+@Slf4j
+@Component
+@SuppressWarnings("PMD.AvoidCatchingGenericException")
+public class PodStateCache {
+
+    private final KubernetesManager kubernetesManager;
+    private final String kubeNamespace;
+
+    private final Map<String, Pod> pods = new ConcurrentHashMap<>();
+    private final Set<String> changedPods = ConcurrentHashMap.newKeySet();
+    private volatile boolean synced;
+    private volatile Consumer<String> changeListener = name -> { };
+
+    private KubernetesClient client;
+    private Watch watch;
+
+    public PodStateCache(final KubernetesManager kubernetesManager,
+                         final @Value("${kube.namespace}") String kubeNamespace) {
+        this.kubernetesManager = kubernetesManager;
+        this.kubeNamespace = kubeNamespace;
+    }
+
+    /**
+     * Registers a listener which is notified with a pod name on each observed pod change.
+     */
+    public void setChangeListener(final Consumer<String> changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Lists pods and (re)starts watching pod changes if the cache is out of sync.
+     *
+     * @return true if the cache is in sync with the cluster state
+     */
+    public synchronized boolean sync() {
+        if (synced) {
+            return true;
+        }
+        close();
+        try {
+            client = kubernetesManager.getKubernetesClient();
+            final PodList podList = client.pods().inNamespace(kubeNamespace).list();
+            if (podList == null || podList.getMetadata() == null) {
+                log.debug("Pods listing is not available, pod state cache stays out of sync.");
+                return false;
+            }
+            pods.clear();
+            ListUtils.emptyIfNull(podList.getItems()).forEach(pod -> pods.put(pod.getMetadata().getName(), pod));
+            watch = client.pods().inNamespace(kubeNamespace)
+                    .watch(podList.getMetadata().getResourceVersion(), new PodWatcher());
+            synced = true;
+            log.debug("Pod state cache is synced with {} pods.", pods.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to sync pod state cache: {}", e.getMessage(), e);
+            close();
+        }
+        return synced;
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    /**
+     * @return a cached pod state, an empty result doesn't guarantee the pod absence if the cache is out of sync
+     */
+    public Optional<Pod> getPod(final String name) {
+        return Optional.ofNullable(pods.get(name));
+    }
+
+    /**
+     * Returns names of pods changed since the previous call.
+     */
+    public Set<String> drainChangedPods() {
+        final Set<String> drained = new HashSet<>(changedPods);
+        changedPods.removeAll(drained);
+        return drained;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        synced = false;
+        if (watch != null) {
+            try {
+                watch.close();
+            } catch (RuntimeException e) {
+                log.debug(e.getMessage(), e);
+            }
+            watch = null;
+        }
+        if (client != null) {
+            client.close();
+            client = null;
+        }
+    }
+
+    private void onPodChanged(final Watcher.Action action, final Pod pod) {
+        if (pod == null || pod.getMetadata() == null) {
+            return;
+        }
+        final String name = pod.getMetadata().getName();
+        if (action == Watcher.Action.DELETED) {
+            pods.remove(name);
+        } else {
+            pods.put(name, pod);
+        }
+        changedPods.add(name);
+        changeListener.accept(name);
+    }
+
+    private class PodWatcher implements Watcher<Pod> {
+
+        @Override
+        public void eventReceived(final Action action, final Pod pod) {
+            if (action == Action.ERROR) {
+                log.warn("Pod watch error event received, pod state cache is out of sync.");
+                synced = false;
+                return;
+            }
+            onPodChanged(action, pod);
+        }
+
+        @Override
+        public void onClose(final KubernetesClientException cause) {
+            log.info("Pod watch is closed, pod state cache is out of sync: {}",
+                    cause == null ? "no cause" : cause.getMessage());
+            synced = false;
+        }
+    }
+}
@@ -36,9 +36,7 @@ import com.epam.pipeline.manager.pipeline.PipelineRunManager;
 import com.epam.pipeline.manager.preference.PreferenceManager;
 import com.epam.pipeline.manager.preference.SystemPreferences;
 import com.epam.pipeline.manager.scheduling.AbstractSchedulingManager;
-import io.fabric8.kubernetes.api.model.Node;
 import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.client.Config;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.KubernetesClientException;
@@ -47,7 +45,6 @@ import net.javacrumbs.shedlock.core.SchedulerLock;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -69,6 +66,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -149,13 +147,13 @@ public class AutoscaleManager extends AbstractSchedulingManager {
             log.debug("Starting autoscaling job.");
             Config config = new Config();
             Set<String> scheduledRuns = new HashSet<>();
+            ClusterSnapshot snapshot = null;
             try (KubernetesClient client = kubernetesManager.getKubernetesClient(config)) {
-                Set<String> nodes = kubernetesManager.getAvailableNodesIds(client);
-                checkPendingPods(scheduledRuns, client, nodes);
-                Set<String> pods = kubernetesManager.getAllPodIds(client);
-                scaleDownHandler.checkFreeNodes(scheduledRuns, client, pods);
-                checkPoolNodes(client);
-                int clusterSize = kubernetesManager.getAvailableNodes(client).getItems().size();
+                snapshot = ClusterSnapshot.build(kubernetesManager, client);
+                checkPendingPods(scheduledRuns, client, snapshot);
+                scaleDownHandler.checkFreeNodes(scheduledRuns, snapshot);
+                checkPoolNodes(snapshot);
+                int clusterSize = snapshot.getClusterSize();
                 int nodeUpTasksSize = nodeUpTaskInProgress.size() + getPoolNodeUpTasksCount();
 
                 log.debug(
@@ -172,18 +170,19 @@ public class AutoscaleManager extends AbstractSchedulingManager {
             } catch (KubernetesClientException e) {
                 log.error(e.getMessage(), e);
             }
-            poolAutoscaler.adjustPoolSizes();
+            if (snapshot != null) {
+                poolAutoscaler.adjustPoolSizes(snapshot);
+            }
         }
 
-        private void checkPendingPods(Set<String> scheduledRuns, KubernetesClient client, Set<String> nodes) {
+        private void checkPendingPods(Set<String> scheduledRuns, KubernetesClient client,
+                                      ClusterSnapshot snapshot) {
             List<CompletableFuture<Void>> tasks = new ArrayList<>();
-            PodList podList = kubernetesManager.getPodList(client);
-            List<Pod> orderedPipelines = getOrderedPipelines(podList.getItems(), client);
-            Set<String> allPods = kubernetesManager.convertKubeItemsToRunIdSet(podList.getItems());
+            List<Pod> orderedPipelines = getOrderedPipelines(snapshot.getPods(), client);
             Set<String> reassignedNodes = new HashSet<>();
             orderedPipelines.forEach(pod -> {
                 if (kubernetesManager.isPodUnscheduled(pod)) {
-                    processPod(pod, client, scheduledRuns, tasks, allPods, nodes, reassignedNodes);
+                    processPod(pod, snapshot, scheduledRuns, tasks, reassignedNodes);
                 }
             });
             if (!tasks.isEmpty()) {
@@ -192,37 +191,30 @@ public class AutoscaleManager extends AbstractSchedulingManager {
             log.debug("In progress {} nodeup tasks.", nodeUpTaskInProgress.size());
         }
 
-        private void checkPoolNodes(final KubernetesClient client) {
+        private void checkPoolNodes(final ClusterSnapshot snapshot) {
             final List<NodePool> activePools = nodePoolManager.getActivePools();
             if (CollectionUtils.isEmpty(activePools)) {
                 return;
             }
-            final List<Node> currentNodes = ListUtils.emptyIfNull(kubernetesManager.getAvailableNodes(client)
-                    .getItems());
             activePools.forEach(pool -> {
                 final Integer activeTasks = poolNodeUpTaskInProgress.getOrDefault(pool.getId(), 0);
                 log.debug("{} instance(s) are already created for pool {}.", activeTasks, pool);
                 if (activeTasks >= pool.getCount()) {
                     return;
                 }
-                final long matchingNodeCount = currentNodes.stream().filter(currentNode -> {
-                    final String nodeIdLabel = MapUtils.emptyIfNull(currentNode.getMetadata().getLabels())
-                            .get(KubernetesConstants.NODE_POOL_ID_LABEL);
-                    return StringUtils.isNotBlank(nodeIdLabel) && NumberUtils.isDigits(nodeIdLabel) &&
-                            pool.getId().equals(Long.parseLong(nodeIdLabel));
-                }).count();
+                final long matchingNodeCount = snapshot.getPoolNodes(pool.getId()).size();
                 log.debug("Found {} existing instances matching {}.", matchingNodeCount, pool);
                 final long totalCount = activeTasks + matchingNodeCount;
                 if (totalCount < pool.getCount()) {
                     final long nodesToCreate = pool.getCount() - totalCount;
                     log.debug("Creating {} pool instance(s) for {}.", nodesToCreate, pool);
-                    LongStream.range(0, nodesToCreate).forEach(i -> createPoolNode(pool, client));
+                    LongStream.range(0, nodesToCreate).forEach(i -> createPoolNode(pool, snapshot));
                 }
             });
         }
 
-        private void createPoolNode(final NodePool node, final KubernetesClient client) {
-            final int currentClusterSize = getCurrentClusterSize(client);
+        private void createPoolNode(final NodePool node, final ClusterSnapshot snapshot) {
+            final int currentClusterSize = getCurrentClusterSize(snapshot);
             final Integer maxClusterSize = preferenceManager.getPreference(SystemPreferences.CLUSTER_MAX_SIZE);
             if (currentClusterSize >= maxClusterSize) {
                 log.debug("Reached maximum cluster size {} - current size {}.", maxClusterSize, currentClusterSize);
@@ -232,6 +224,15 @@ public class AutoscaleManager extends AbstractSchedulingManager {
                 return;
             }
             poolNodeUpTaskInProgress.merge(node.getId(), 1, (oldVal, newVal) -> oldVal + 1);
+            try {
+                submitPoolNodeUp(node);
+            } catch (RejectedExecutionException e) {
+                log.warn("Node up task for {} is rejected: {}", node, e.getMessage());
+                poolNodeUpTaskInProgress.merge(node.getId(), 0, (oldVal, newVal) -> oldVal - 1);
+            }
+        }
+
+        private void submitPoolNodeUp(final NodePool node) {
             CompletableFuture.runAsync(
                 () -> {
                     Instant start = Instant.now();
@@ -249,9 +250,8 @@ public class AutoscaleManager extends AbstractSchedulingManager {
                 });
         }
 
-        private void processPod(Pod pod, KubernetesClient client, Set<String> scheduledRuns,
-                                List<CompletableFuture<Void>> tasks, Set<String> allPods, Set<String> nodes,
-                                Set<String> reassignedNodes) {
+        private void processPod(Pod pod, ClusterSnapshot snapshot, Set<String> scheduledRuns,
+                                List<CompletableFuture<Void>> tasks, Set<String> reassignedNodes) {
             log.debug("Found an unscheduled pod: {}.", pod.getMetadata().getName());
             Map<String, String> labels = pod.getMetadata().getLabels();
             String runId = labels.get(KubernetesConstants.RUN_ID_LABEL);
@@ -261,7 +261,7 @@ public class AutoscaleManager extends AbstractSchedulingManager {
                 return;
             }
             // Check whether node with required RunID is available
-            if (nodes.contains(runId)) {
+            if (snapshot.getNodeIds().contains(runId)) {
                 log.debug("Node with required ID {} already exists.", runId);
                 return;
             }
@@ -287,19 +287,19 @@ public class AutoscaleManager extends AbstractSchedulingManager {
                     return;
                 }
                 List<String> freeNodes =
-                        nodes.stream().filter(nodeId -> !allPods.contains(nodeId)
+                        snapshot.getNodeIds().stream().filter(nodeId -> !snapshot.getPodIds().contains(nodeId)
                                 && !reassignedNodes.contains(nodeId) &&
-                                kubernetesManager.isNodeAvailable(client, nodeId))
+                                snapshot.findNode(nodeId).filter(kubernetesManager::isNodeAvailable).isPresent())
                                 .collect(Collectors.toList());
                 log.debug("Found {} free nodes.", freeNodes.size());
-                if (reassignHandler.tryReassignNode(client, scheduledRuns, reassignedNodes, runId,
+                if (reassignHandler.tryReassignNode(snapshot, scheduledRuns, reassignedNodes, runId,
                         longId, requiredInstance, freeNodes)) {
                     return;
                 }
-                if (!hasClusterCapacity(client)) {
+                if (!hasClusterCapacity(snapshot)) {
                     return;
                 }
-                int currentClusterSize = getCurrentClusterSize(client);
+                int currentClusterSize = getCurrentClusterSize(snapshot);
                 Integer maxClusterSize = preferenceManager.getPreference(SystemPreferences.CLUSTER_MAX_SIZE);
                 if (currentClusterSize == maxClusterSize &&
                         preferenceManager.getPreference(SystemPreferences.CLUSTER_KILL_NOT_MATCHING_NODES)) {
@@ -333,8 +333,8 @@ public class AutoscaleManager extends AbstractSchedulingManager {
             }
         }
 
-        private boolean hasClusterCapacity(final KubernetesClient client) {
-            final int currentClusterSize = getCurrentClusterSize(client);
+        private boolean hasClusterCapacity(final ClusterSnapshot snapshot) {
+            final int currentClusterSize = getCurrentClusterSize(snapshot);
             final Integer maxClusterSize = preferenceManager.getPreference(SystemPreferences.CLUSTER_MAX_SIZE);
             if (currentClusterSize > maxClusterSize) {
                 log.debug("Exceeded maximum cluster size {} - current size {}.",
@@ -477,7 +477,19 @@ public class AutoscaleManager extends AbstractSchedulingManager {
                                       InstanceRequest requiredInstance) {
             long longId = Long.parseLong(runId);
             addNodeUpTask(longId);
-            tasks.add(CompletableFuture.runAsync(() -> {
+            try {
+                tasks.add(submitNodeUp(runId, longId, requiredInstance));
+            } catch (RejectedExecutionException e) {
+                log.warn("Node up task for run {} is rejected: {}", runId, e.getMessage());
+                // rejected task is not considered as a failed attempt
+                nodeUpAttempts.merge(longId, 1, (oldVal, newVal) -> oldVal - 1);
+                removeNodeUpTask(longId, false);
+            }
+        }
+
+        private CompletableFuture<Void> submitNodeUp(final String runId, final long longId,
+                                                     final InstanceRequest requiredInstance) {
+            return CompletableFuture.runAsync(() -> {
                 Instant start = Instant.now();
                 //save required instance
                 pipelineRunManager.updateRunInstance(longId, requiredInstance.getInstance());
@@ -506,7 +518,7 @@ public class AutoscaleManager extends AbstractSchedulingManager {
 
                 removeNodeUpTask(longId, false);
                 return null;
-            }));
+            });
         }
 
         private void addNodeUpTask(long longId) {
@@ -526,9 +538,8 @@ public class AutoscaleManager extends AbstractSchedulingManager {
             }
         }
 
-        private int getCurrentClusterSize(KubernetesClient client) {
-            return nodeUpTaskInProgress.size() + getPoolNodeUpTasksCount() +
-                    kubernetesManager.getAvailableNodes(client).getItems().size();
+        private int getCurrentClusterSize(ClusterSnapshot snapshot) {
+            return nodeUpTaskInProgress.size() + getPoolNodeUpTasksCount() + snapshot.getClusterSize();
         }
 
         public InstanceRequest getNewRunInstance(String runId) throws GitClientException {
@@ -114,8 +114,8 @@ public class AutoscalerServiceImpl implements AutoscalerService {
         return instance;
     }
 
-    public RunningInstance getPreviousRunInstance(final String nodeLabel, final KubernetesClient client) {
-        return findPool(nodeLabel, client)
+    public RunningInstance getPreviousRunInstance(final String nodeLabel, final ClusterSnapshot snapshot) {
+        return findPool(nodeLabel, snapshot)
                 .map(NodePool::toRunningInstance)
                 .orElseGet(() -> {
                     try {
@@ -131,26 +131,11 @@ public class AutoscalerServiceImpl implements AutoscalerService {
                 });
     }
 
-    public Optional<NodePool> findPool(final String nodeLabel, final KubernetesClient client) {
-        return findPoolNodeId(nodeLabel, client)
+    public Optional<NodePool> findPool(final String nodeLabel, final ClusterSnapshot snapshot) {
+        return snapshot.findPoolId(nodeLabel)
                 .flatMap(nodePoolManager::find);
     }
 
-    public Optional<Long> findPoolNodeId(final String nodeLabel, final KubernetesClient client) {
-        final NodeList nodes = client.nodes()
-                .withLabel(KubernetesConstants.RUN_ID_LABEL, nodeLabel)
-                .withoutLabel(KubernetesConstants.PAUSED_NODE_LABEL)
-                .withLabel(KubernetesConstants.NODE_POOL_ID_LABEL)
-                .list();
-        return ListUtils.emptyIfNull(nodes.getItems())
-                .stream()
-                .map(node -> MapUtils.emptyIfNull(node.getMetadata().getLabels())
-                        .get(KubernetesConstants.NODE_POOL_ID_LABEL))
-                .filter(NumberUtils::isDigits)
-                .map(Long::parseLong)
-                .findFirst();
-    }
-
     public void adjustRunPrices(final long runId, final List<InstanceDisk> disks) {
         pipelineRunManager.adjustRunPricePerHourToDisks(runId, disks);
     }
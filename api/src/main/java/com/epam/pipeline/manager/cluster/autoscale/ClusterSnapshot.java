@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.cluster.autoscale;
+
+import com.epam.pipeline.manager.cluster.KubernetesConstants;
+import com.epam.pipeline.manager.cluster.KubernetesManager;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodSpec;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable state of cluster nodes and pipeline pods, which is collected once per autoscaling cycle
+ * and shared by all the cycle steps. Paused nodes are only taken into account by {@link #countPoolNodes(Long)}.
+ */
+public final class ClusterSnapshot {
+
+    private final List<Node> nodes;
+    private final List<Pod> pods;
+    private final Map<String, Node> nodesByRunId;
+    private final Map<Long, List<Node>> nodesByPoolId;
+    private final Map<Long, Integer> poolSizes;
+    private final Map<String, Pod> podsByRunId;
+    private final Map<String, List<Pod>> podsByNodeName;
+
+    /**
+     * @param nodes all cluster nodes labeled with run ids, including paused ones
+     * @param pods pipeline pods
+     */
+    public ClusterSnapshot(final List<Node> nodes, final List<Pod> pods) {
+        this.nodes = Collections.unmodifiableList(ListUtils.emptyIfNull(nodes).stream()
+                .filter(node -> !isPaused(node))
+                .collect(Collectors.toList()));
+        final Map<Long, Integer> poolSizes = new HashMap<>();
+        ListUtils.emptyIfNull(nodes).forEach(node -> getPoolId(node)
+                .ifPresent(poolId -> poolSizes.merge(poolId, 1, Integer::sum)));
+        this.pods = Collections.unmodifiableList(new ArrayList<>(ListUtils.emptyIfNull(pods)));
+        final Map<String, Node> nodesByRunId = new HashMap<>();
+        final Map<Long, List<Node>> nodesByPoolId = new HashMap<>();
+        this.nodes.forEach(node -> {
+            getRunId(node).ifPresent(runId -> nodesByRunId.putIfAbsent(runId, node));
+            getPoolId(node).ifPresent(poolId ->
+                    nodesByPoolId.computeIfAbsent(poolId, key -> new ArrayList<>()).add(node));
+        });
+        final Map<String, Pod> podsByRunId = new HashMap<>();
+        final Map<String, List<Pod>> podsByNodeName = new HashMap<>();
+        this.pods.forEach(pod -> {
+            getRunId(pod).ifPresent(runId -> podsByRunId.putIfAbsent(runId, pod));
+            getNodeName(pod).ifPresent(nodeName ->
+                    podsByNodeName.computeIfAbsent(nodeName, key -> new ArrayList<>()).add(pod));
+        });
+        this.nodesByRunId = Collections.unmodifiableMap(nodesByRunId);
+        this.nodesByPoolId = Collections.unmodifiableMap(nodesByPoolId);
+        this.poolSizes = Collections.unmodifiableMap(poolSizes);
+        this.podsByRunId = Collections.unmodifiableMap(podsByRunId);
+        this.podsByNodeName = Collections.unmodifiableMap(podsByNodeName);
+    }
+
+    /**
+     * Collects cluster nodes and pipeline pods with a single listing of each.
+     */
+    public static ClusterSnapshot build(final KubernetesManager kubernetesManager, final KubernetesClient client) {
+        return new ClusterSnapshot(kubernetesManager.getRunNodes(client).getItems(),
+                kubernetesManager.getPodList(client).getItems());
+    }
+
+    /**
+     * @return all available nodes, paused nodes are not included
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return run id labels of all available nodes
+     */
+    public Set<String> getNodeIds() {
+        return nodesByRunId.keySet();
+    }
+
+    public Optional<Node> findNode(final String runId) {
+        return Optional.ofNullable(nodesByRunId.get(runId));
+    }
+
+    /**
+     * @return available nodes of the pool, paused nodes are not included
+     */
+    public List<Node> getPoolNodes(final Long poolId) {
+        return nodesByPoolId.getOrDefault(poolId, Collections.emptyList());
+    }
+
+    /**
+     * @return number of all nodes of the pool, including paused ones
+     */
+    public int countPoolNodes(final Long poolId) {
+        return poolSizes.getOrDefault(poolId, 0);
+    }
+
+    /**
+     * @return id of a pool the node labeled with the given run id belongs to
+     */
+    public Optional<Long> findPoolId(final String runId) {
+        return findNode(runId).flatMap(ClusterSnapshot::getPoolId);
+    }
+
+    public List<Pod> getPods() {
+        return pods;
+    }
+
+    /**
+     * @return run id labels of all pipeline pods
+     */
+    public Set<String> getPodIds() {
+        return podsByRunId.keySet();
+    }
+
+    public Optional<Pod> findPod(final String runId) {
+        return Optional.ofNullable(podsByRunId.get(runId));
+    }
+
+    public List<Pod> getNodePods(final String nodeName) {
+        return podsByNodeName.getOrDefault(nodeName, Collections.emptyList());
+    }
+
+    public int getClusterSize() {
+        return nodes.size();
+    }
+
+    private static Optional<String> getRunId(final HasMetadata item) {
+        return Optional.ofNullable(item.getMetadata())
+                .map(metadata -> MapUtils.emptyIfNull(metadata.getLabels()).get(KubernetesConstants.RUN_ID_LABEL));
+    }
+
+    private static boolean isPaused(final Node node) {
+        return Optional.ofNullable(node.getMetadata())
+                .map(metadata -> MapUtils.emptyIfNull(metadata.getLabels())
+                        .containsKey(KubernetesConstants.PAUSED_NODE_LABEL))
+                .orElse(false);
+    }
+
+    private static Optional<Long> getPoolId(final Node node) {
+        return Optional.ofNullable(node.getMetadata())
+                .map(metadata -> MapUtils.emptyIfNull(metadata.getLabels())
+                        .get(KubernetesConstants.NODE_POOL_ID_LABEL))
+                .filter(label -> StringUtils.isNotBlank(label) && NumberUtils.isDigits(label))
+                .map(Long::parseLong);
+    }
+
+    private static Optional<String> getNodeName(final Pod pod) {
+        return Optional.ofNullable(pod.getSpec())
+                .map(PodSpec::getNodeName)
+                .filter(StringUtils::isNotBlank);
+    }
+}
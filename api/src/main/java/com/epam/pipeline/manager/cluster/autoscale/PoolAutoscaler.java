@@ -18,22 +18,14 @@ package com.epam.pipeline.manager.cluster.autoscale;
 import com.epam.pipeline.controller.vo.cluster.pool.NodePoolVO;
 import com.epam.pipeline.entity.cluster.pool.NodePool;
 import com.epam.pipeline.manager.cluster.KubernetesConstants;
-import com.epam.pipeline.manager.cluster.KubernetesManager;
 import com.epam.pipeline.manager.cluster.pool.NodePoolManager;
 import com.epam.pipeline.mapper.cluster.pool.NodePoolMapper;
 import com.epam.pipeline.utils.DoubleUtils;
-import io.fabric8.kubernetes.api.model.Node;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 @Component
@@ -44,35 +36,22 @@ public class PoolAutoscaler {
     public static final int PERCENT_MULTIPLIER = 100;
     private final NodePoolManager poolManager;
     private final NodePoolMapper poolMapper;
-    private final KubernetesManager kubernetesManager;
 
-    public void adjustPoolSizes() {
-        try (KubernetesClient kubernetesClient = kubernetesManager.getKubernetesClient()) {
-            final List<Node> availableNodes = kubernetesManager.getNodes(kubernetesClient);
-            final Set<String> activePodIds = kubernetesManager.getAllPodIds(kubernetesClient);
-            poolManager.getActivePools()
-                    .forEach(pool ->
-                            adjustPoolSize(pool, availableNodes, activePodIds));
-        }
+    public void adjustPoolSizes(final ClusterSnapshot snapshot) {
+        poolManager.getActivePools()
+                .forEach(pool -> adjustPoolSize(pool, snapshot));
     }
 
     private void adjustPoolSize(final NodePool pool,
-                                final List<Node> availableNodes,
-                                final Set<String> activePodIds) {
+                                final ClusterSnapshot snapshot) {
         if (!pool.isAutoscaled()) {
             return;
         }
-        final long activePoolNodes = ListUtils.emptyIfNull(availableNodes)
+        final Set<String> activePodIds = snapshot.getPodIds();
+        final long activePoolNodes = snapshot.getPoolNodes(pool.getId())
                 .stream()
-                .filter(currentNode -> {
-                    final Map<String, String> labels = MapUtils.emptyIfNull(currentNode.getMetadata().getLabels());
-                    final String nodeIdLabel = labels.get(KubernetesConstants.NODE_POOL_ID_LABEL);
-                    if (StringUtils.isBlank(nodeIdLabel) && !NumberUtils.isDigits(nodeIdLabel)) {
-                        return false;
-                    }
-                    return pool.getId().equals(Long.parseLong(nodeIdLabel)) &&
-                            activePodIds.contains(labels.get(KubernetesConstants.RUN_ID_LABEL));
-                })
+                .filter(currentNode -> activePodIds.contains(MapUtils.emptyIfNull(
+                        currentNode.getMetadata().getLabels()).get(KubernetesConstants.RUN_ID_LABEL)))
                 .count();
         final double occupiedPercent = pool.getCount() == 0 ? PERCENT_MULTIPLIER :
                 (double)activePoolNodes / pool.getCount() * PERCENT_MULTIPLIER;
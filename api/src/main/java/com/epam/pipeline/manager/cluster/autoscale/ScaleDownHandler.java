@@ -27,15 +27,13 @@ import com.epam.pipeline.manager.cluster.KubernetesManager;
 import com.epam.pipeline.manager.pipeline.PipelineRunCRUDService;
 import com.epam.pipeline.manager.pipeline.PipelineRunManager;
 import io.fabric8.kubernetes.api.model.Node;
-import io.fabric8.kubernetes.api.model.NodeList;
-import io.fabric8.kubernetes.api.model.PodList;
-import io.fabric8.kubernetes.client.KubernetesClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.ListUtils;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -52,17 +50,17 @@ public class ScaleDownHandler {
     private final PipelineRunCRUDService runCRUDService;
 
     public void checkFreeNodes(final Set<String> scheduledRuns,
-                               final KubernetesClient client,
-                               final Set<String> pods) {
-        final List<InstanceRequest> requiredInstances = getRequiredInstances(scheduledRuns, client);
-        kubernetesManager.getAvailableNodes(client)
-                .getItems()
-                .forEach(node -> scaleDownNodeIfFree(scheduledRuns, client, pods, requiredInstances, node));
+                               final ClusterSnapshot snapshot) {
+        final List<InstanceRequest> requiredInstances = getRequiredInstances(scheduledRuns, snapshot);
+        // the snapshot is immutable, so pool sizes are tracked separately and decreased on each scale down
+        final Map<Long, Integer> poolSizes = new HashMap<>();
+        snapshot.getNodes()
+                .forEach(node -> scaleDownNodeIfFree(scheduledRuns, snapshot, poolSizes, requiredInstances, node));
     }
 
     private void scaleDownNodeIfFree(final Set<String> scheduledRuns,
-                                     final KubernetesClient client,
-                                     final Set<String> pods,
+                                     final ClusterSnapshot snapshot,
+                                     final Map<Long, Integer> poolSizes,
                                      final List<InstanceRequest> requiredInstances,
                                      final Node node) {
         final String nodeLabel = node.getMetadata().getLabels().get(KubernetesConstants.RUN_ID_LABEL);
@@ -75,40 +73,41 @@ public class ScaleDownHandler {
         if (kubernetesManager.isNodeUnavailable(node)) {
             if (poolNode) {
                 log.debug("Scaling down unavailable {} pool node.", nodeLabel);
-                cloudFacade.scaleDownPoolNode(nodeLabel);
+                scaleDownPoolNode(nodeLabel, snapshot, poolSizes);
             } else {
                 final Long currentRunId = Long.parseLong(nodeLabel);
-                if (autoscalerService.getPreviousRunInstance(nodeLabel, client) != null) {
+                if (autoscalerService.getPreviousRunInstance(nodeLabel, snapshot) != null) {
                     log.debug("Trying to set failure status for run {}.", nodeLabel);
                     pipelineRunManager.updatePipelineStatusIfNotFinal(currentRunId, TaskStatus.FAILURE);
                     updatePodStatus(node, currentRunId);
                 }
                 log.debug("Scaling down unavailable {} node.", nodeLabel);
-                cloudFacade.scaleDownNode(currentRunId);
+                scaleDownRunNode(nodeLabel, snapshot, poolSizes);
             }
             return;
         }
-        if (scheduledRuns.contains(nodeLabel) || pods.contains(nodeLabel)) {
+        if (scheduledRuns.contains(nodeLabel) || snapshot.getPodIds().contains(nodeLabel)) {
             log.debug("Node is already assigned to run {}.", nodeLabel);
             return;
         }
         if (poolNode) {
-            scaleDownPoolNodeIfNotRequired(nodeLabel, client, requiredInstances);
+            scaleDownPoolNodeIfNotRequired(nodeLabel, snapshot, poolSizes, requiredInstances);
         } else {
-            scaleDownRunNodeIfNotRequired(nodeLabel, client, requiredInstances);
+            scaleDownRunNodeIfNotRequired(nodeLabel, snapshot, poolSizes, requiredInstances);
         }
     }
 
     private void scaleDownPoolNodeIfNotRequired(final String nodeLabel,
-                                                final KubernetesClient client,
+                                                final ClusterSnapshot snapshot,
+                                                final Map<Long, Integer> poolSizes,
                                                 final List<InstanceRequest> requiredInstances) {
         final NodePool nodePool = autoscalerService
-                .findPool(nodeLabel, client)
+                .findPool(nodeLabel, snapshot)
                 .orElse(null);
 
         if (nodePool == null) {
             log.debug("Scaling down pool node {} for a deleted pool.", nodeLabel);
-            cloudFacade.scaleDownPoolNode(nodeLabel);
+            scaleDownPoolNode(nodeLabel, snapshot, poolSizes);
             return;
         }
         final Optional<InstanceRequest> matchingPipeline = requiredInstances.stream()
@@ -118,28 +117,29 @@ public class ScaleDownHandler {
         if (matchingPipeline.isPresent()) {
             requiredInstances.remove(matchingPipeline.get());
             log.debug("Leaving node {} free since it possibly matches a pending run.", nodeLabel);
-        } else if (matchesActivePool(nodePool, client)) {
+        } else if (matchesActivePool(nodePool, snapshot, poolSizes)) {
             log.debug("Leaving {} node in cluster as it matches an active pool.", nodePool);
         } else {
             log.debug("Scaling down pool node {}.", nodeLabel);
-            cloudFacade.scaleDownPoolNode(nodeLabel);
+            scaleDownPoolNode(nodeLabel, snapshot, poolSizes);
         }
     }
 
     private void scaleDownRunNodeIfNotRequired(final String nodeLabel,
-                                               final KubernetesClient client,
+                                               final ClusterSnapshot snapshot,
+                                               final Map<Long, Integer> poolSizes,
                                                final List<InstanceRequest> requiredInstances) {
         final Long currentRunId = Long.parseLong(nodeLabel);
-        final RunningInstance previousConfiguration = autoscalerService.getPreviousRunInstance(nodeLabel, client);
+        final RunningInstance previousConfiguration = autoscalerService.getPreviousRunInstance(nodeLabel, snapshot);
 
         if (previousConfiguration == null) {
             log.debug("Scaling down {} node for deleted pipeline.", nodeLabel);
-            cloudFacade.scaleDownNode(currentRunId);
+            scaleDownRunNode(nodeLabel, snapshot, poolSizes);
             return;
         }
         if (KubernetesConstants.WINDOWS.equalsIgnoreCase(previousConfiguration.getInstance().getNodePlatform())) {
             log.debug("Scaling down node {} for finished Windows-based pipeline.", nodeLabel);
-            cloudFacade.scaleDownNode(currentRunId);
+            scaleDownRunNode(nodeLabel, snapshot, poolSizes);
             return;
         }
 
@@ -150,12 +150,12 @@ public class ScaleDownHandler {
         if (matchingPipeline.isPresent()) {
             requiredInstances.remove(matchingPipeline.get());
             log.debug("Leaving node {} free since it possibly matches a pending run.", nodeLabel);
-        } else if (matchesActivePool(nodeLabel, client)) {
+        } else if (matchesActivePool(nodeLabel, snapshot, poolSizes)) {
             log.debug("Leaving {} node in cluster as it matches active schedule.", nodeLabel);
         } else {
             if (cloudFacade.isNodeExpired(currentRunId)) {
                 log.debug("Scaling down expired node {}.", nodeLabel);
-                cloudFacade.scaleDownNode(currentRunId);
+                scaleDownRunNode(nodeLabel, snapshot, poolSizes);
             } else {
                 log.debug("Leaving node {} free.", nodeLabel);
             }
@@ -163,21 +163,47 @@ public class ScaleDownHandler {
     }
 
     private boolean matchesActivePool(final String nodeLabel,
-                                      final KubernetesClient client) {
-        return autoscalerService.findPool(nodeLabel, client)
-                .map(node -> matchesActivePool(node, client))
+                                      final ClusterSnapshot snapshot,
+                                      final Map<Long, Integer> poolSizes) {
+        return autoscalerService.findPool(nodeLabel, snapshot)
+                .map(node -> matchesActivePool(node, snapshot, poolSizes))
                 .orElse(false);
     }
 
     private boolean matchesActivePool(final NodePool nodePool,
-                                      final KubernetesClient client) {
+                                      final ClusterSnapshot snapshot,
+                                      final Map<Long, Integer> poolSizes) {
         if (!nodePool.isActive(DateUtils.nowUTC())) {
             return false;
         }
-        final NodeList nodes = client.nodes()
-                .withLabel(KubernetesConstants.NODE_POOL_ID_LABEL, String.valueOf(nodePool.getId()))
-                .list();
-        return nodes.getItems().size() <= nodePool.getCount();
+        return getPoolSize(nodePool.getId(), snapshot, poolSizes) <= nodePool.getCount();
+    }
+
+    private int getPoolSize(final Long poolId,
+                            final ClusterSnapshot snapshot,
+                            final Map<Long, Integer> poolSizes) {
+        return poolSizes.computeIfAbsent(poolId, snapshot::countPoolNodes);
+    }
+
+    private void scaleDownPoolNode(final String nodeLabel,
+                                   final ClusterSnapshot snapshot,
+                                   final Map<Long, Integer> poolSizes) {
+        cloudFacade.scaleDownPoolNode(nodeLabel);
+        decreasePoolSize(nodeLabel, snapshot, poolSizes);
+    }
+
+    private void scaleDownRunNode(final String nodeLabel,
+                                  final ClusterSnapshot snapshot,
+                                  final Map<Long, Integer> poolSizes) {
+        cloudFacade.scaleDownNode(Long.parseLong(nodeLabel));
+        decreasePoolSize(nodeLabel, snapshot, poolSizes);
+    }
+
+    private void decreasePoolSize(final String nodeLabel,
+                                  final ClusterSnapshot snapshot,
+                                  final Map<Long, Integer> poolSizes) {
+        snapshot.findPoolId(nodeLabel).ifPresent(poolId ->
+                poolSizes.put(poolId, getPoolSize(poolId, snapshot, poolSizes) - 1));
     }
 
     private void updatePodStatus(final Node node, final Long id) {
@@ -197,9 +223,8 @@ public class ScaleDownHandler {
 
     private List<InstanceRequest> getRequiredInstances(
             final Set<String> scheduledRuns,
-            final KubernetesClient client) {
-        final PodList podList = kubernetesManager.getPodList(client);
-        return ListUtils.emptyIfNull(podList.getItems())
+            final ClusterSnapshot snapshot) {
+        return snapshot.getPods()
                 .stream()
                 .filter(kubernetesManager::isPodUnscheduled)
                 .map(pod -> pod.getMetadata().getLabels().get(KubernetesConstants.RUN_ID_LABEL))
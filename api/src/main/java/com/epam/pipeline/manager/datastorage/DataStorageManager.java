@@ -79,6 +79,9 @@ import com.epam.pipeline.manager.security.acl.AclSync;
 import com.epam.pipeline.manager.user.RoleManager;
 import com.epam.pipeline.manager.user.UserManager;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.MapUtils;
 import org.apache.commons.collections4.CollectionUtils;
@@ -123,8 +126,14 @@ import java.util.stream.Collectors;
 public class DataStorageManager implements SecuredEntityManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DataStorageManager.class);
+
     private static final String DEFAULT_USER_STORAGE_NAME_TEMPLATE = "@@-home";
     private static final String DEFAULT_USER_STORAGE_DESCRIPTION_TEMPLATE = "Home folder for user @@";
+    private static final long DATA_SIZE_CACHE_MAX_SIZE = 10_000L;
+
+    private final Cache<DataSizeKey, Long> dataSizeCache = CacheBuilder.newBuilder()
+            .maximumSize(DATA_SIZE_CACHE_MAX_SIZE)
+            .build();
 
     @Autowired
     private MessageHelper messageHelper;
@@ -846,7 +855,18 @@ public class DataStorageManager implements SecuredEntityManager {
 
             pathDescription.setDataStorageId(dataStorage.getId());
             pathDescription.setSize(0L);
-            storageProviderManager.getDataSize(dataStorage, relativePath, pathDescription);
+            final Optional<DataSizeKey> cacheKey = getDataSizeCacheKey(dataStorage, relativePath);
+            final Optional<Long> cachedSize = cacheKey.map(dataSizeCache::getIfPresent);
+            if (cachedSize.isPresent()) {
+                pathDescription.setSize(cachedSize.get());
+                pathDescription.setCompleted(true);
+                return;
+            }
+            if (!computeIndexedDataSize(dataStorage, relativePath, pathDescription)) {
+                storageProviderManager.getDataSize(dataStorage, relativePath, pathDescription);
+            }
+            cacheKey.filter(key -> Boolean.TRUE.equals(pathDescription.getCompleted()))
+                    .ifPresent(key -> cacheDataSize(key, pathDescription.getSize()));
         } catch (Exception e) {
             LOGGER.error(messageHelper.getMessage(
                     MessageConstants.ERROR_DATASTORAGE_PATH_PROCCESSING, path, e.getMessage()));
@@ -854,6 +874,47 @@ public class DataStorageManager implements SecuredEntityManager {
         }
     }
 
+    private Optional<DataSizeKey> getDataSizeCacheKey(final AbstractDataStorage dataStorage,
+                                                      final String relativePath) {
+        final Integer period = preferenceManager.getPreference(SystemPreferences.STORAGE_SIZE_CACHE_PERIOD);
+        if (period == null || period <= 0) {
+            return Optional.empty();
+        }
+        final long window = System.currentTimeMillis() / TimeUnit.SECONDS.toMillis(period);
+        return Optional.of(new DataSizeKey(dataStorage.getId(), relativePath, window));
+    }
+
+    private void cacheDataSize(final DataSizeKey key, final Long size) {
+        dataSizeCache.asMap().keySet().removeIf(cached -> cached.getWindow() != key.getWindow());
+        dataSizeCache.put(key, size);
+    }
+
+    /**
+     * Calculates path size using the storage file search index aggregation. The index is used only if it is
+     * declared to be kept up to date, an empty aggregation falls back to the storage listing since it may
+     * belong either to a file path or to a path which was not indexed yet.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private boolean computeIndexedDataSize(final AbstractDataStorage dataStorage, final String relativePath,
+                                           final PathDescription pathDescription) {
+        if (!Boolean.TRUE.equals(preferenceManager.getPreference(SystemPreferences.STORAGE_SIZE_USE_SEARCH_INDEX))) {
+            return false;
+        }
+        try {
+            final StorageUsage usage = searchManager.getStorageUsage(dataStorage,
+                    ProviderUtils.withTrailingDelimiter(relativePath));
+            if (usage.getCount() == null || usage.getCount() == 0) {
+                return false;
+            }
+            pathDescription.setSize(usage.getSize());
+            pathDescription.setCompleted(true);
+            return true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to get size of path {} from search index: {}", relativePath, e.getMessage());
+            return false;
+        }
+    }
+
     private void assertDataStorageMountPoint(DataStorageVO dataStorageVO) {
         // if mount point is empty we don't need to check anything
         if (StringUtils.isBlank(dataStorageVO.getMountPoint())) {
@@ -1144,4 +1205,11 @@ public class DataStorageManager implements SecuredEntityManager {
     private String replaceInTemplate(final String template, final String replacement) {
         return template.replaceAll(FolderTemplateManager.TEMPLATE_REPLACE_MARK, replacement);
     }
+
+    @Value
+    private static class DataSizeKey {
+        Long storageId;
+        String path;
+        long window;
+    }
 }
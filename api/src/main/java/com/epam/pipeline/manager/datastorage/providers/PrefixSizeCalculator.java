@@ -0,0 +1,167 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.datastorage.providers;
+
+import com.epam.pipeline.entity.datastorage.PathDescription;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Calculates size of object storage paths listing their keyspace partitions concurrently.
+ *
+ * The requested folder is listed with a delimiter and each of the discovered sub-prefixes is listed by
+ * a separate task of a bounded pool. Sub-prefixes are partitioned the same way down to
+ * the configured depth, deeper levels are listed without a delimiter.
+ */
+@Slf4j
+@Component
+public class PrefixSizeCalculator {
+
+    private final ExecutorService executor;
+    private final int partitionDepth;
+
+    public PrefixSizeCalculator(final @Value("${storage.size.pool.size:10}") int poolSize,
+                                final @Value("${storage.size.partition.depth:2}") int partitionDepth) {
+        final AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            final Thread thread = new Thread(runnable, "storage-size-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.partitionDepth = partitionDepth;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Calculates size of a file or a folder. The size of the given description is increased while
+     * the listing is in progress, so a partial result is available if the calculation takes too long.
+     */
+    public PathDescription calculate(final PrefixLister lister, final String path,
+                                     final PathDescription pathDescription) {
+        final String requestPath = Optional.ofNullable(path).orElse("");
+        if (!ProviderUtils.isRootOrFolder(requestPath)) {
+            final Optional<Long> fileSize = lister.getFileSize(requestPath);
+            if (fileSize.isPresent()) {
+                pathDescription.setSize(fileSize.get());
+                pathDescription.setCompleted(true);
+                return pathDescription;
+            }
+        }
+        final String prefix = StringUtils.isBlank(requestPath) ? "" : ProviderUtils.withTrailingDelimiter(requestPath);
+        new Calculation(lister, size -> {
+            synchronized (pathDescription) {
+                pathDescription.increaseSize(size);
+            }
+        }).run(prefix);
+        pathDescription.setCompleted(true);
+        return pathDescription;
+    }
+
+    /**
+     * Lists objects of a storage.
+     */
+    public interface PrefixLister {
+
+        /**
+         * @return size of a file with the exact path, if it exists
+         */
+        Optional<Long> getFileSize(String path);
+
+        /**
+         * Lists objects located directly under the prefix and reports their sizes and sub-prefixes.
+         */
+        void listLevel(String prefix, LongConsumer sizes, Consumer<String> subPrefixes);
+
+        /**
+         * Lists all objects under the prefix and reports their sizes.
+         */
+        void listAll(String prefix, LongConsumer sizes);
+    }
+
+    private final class Calculation {
+
+        private final PrefixLister lister;
+        private final LongConsumer sizes;
+        private final AtomicInteger pendingTasks = new AtomicInteger();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Calculation(final PrefixLister lister, final LongConsumer sizes) {
+            this.lister = lister;
+            this.sizes = sizes;
+        }
+
+        void run(final String prefix) {
+            submit(prefix, 0);
+            try {
+                done.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, new IllegalStateException("Size calculation was interrupted", e));
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, new IllegalStateException(e.getMessage(), e));
+            }
+            final RuntimeException e = failure.get();
+            if (e != null) {
+                throw e;
+            }
+        }
+
+        private void submit(final String prefix, final int depth) {
+            pendingTasks.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    if (failure.get() == null) {
+                        list(prefix, depth);
+                    }
+                } catch (RuntimeException e) {
+                    log.debug("Failed to calculate size of prefix {}: {}", prefix, e.getMessage());
+                    failure.compareAndSet(null, e);
+                } finally {
+                    if (pendingTasks.decrementAndGet() == 0) {
+                        done.complete(null);
+                    }
+                }
+            });
+        }
+
+        private void list(final String prefix, final int depth) {
+            if (depth >= partitionDepth) {
+                lister.listAll(prefix, sizes);
+            } else {
+                lister.listLevel(prefix, sizes, subPrefix -> submit(subPrefix, depth + 1));
+            }
+        }
+    }
+}
@@ -18,11 +18,9 @@ package com.epam.pipeline.manager.datastorage.providers;
 
 import com.epam.pipeline.entity.datastorage.AbstractDataStorage;
 import com.epam.pipeline.entity.datastorage.DatastoragePath;
-import com.epam.pipeline.entity.datastorage.PathDescription;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.Arrays;
-import java.util.function.Function;
 
 public final class ProviderUtils {
 
@@ -65,29 +63,6 @@ public final class ProviderUtils {
         return StringUtils.isNotBlank(path) && path.endsWith(DELIMITER) ? path.substring(0, path.length() - 1) : path;
     }
 
-    public static <T> PathDescription getSizeByPath(final Iterable<T> items, final String requestPath,
-                                                    final Function<T, Long> getSize, final Function<T, String> getName,
-                                                    final PathDescription pathDescription) {
-        final boolean rootOrFolder = isRootOrFolder(requestPath);
-
-        for (final T item : items) {
-            if (rootOrFolder) {
-                // if required path is definitely folder lists all files without filtering
-                pathDescription.increaseSize(getSize.apply(item));
-            } else if (getName.apply(item).equals(requestPath)) {
-                // a file with exact match has been found => required path is path to file
-                pathDescription.setSize(getSize.apply(item));
-                pathDescription.setCompleted(true);
-                return pathDescription;
-            } else if (getName.apply(item).startsWith(requestPath + ProviderUtils.DELIMITER)) {
-                // if required path is folder but '/' at the end was not specified
-                pathDescription.increaseSize(getSize.apply(item));
-            }
-        }
-
-        return pathDescription;
-    }
-
     public static boolean isRootOrFolder(final String requestPath) {
         return StringUtils.isBlank(requestPath) || requestPath.endsWith(DELIMITER);
     }
@@ -15,37 +15,28 @@
 
 package com.epam.pipeline.manager.datastorage.providers.aws.s3;
 
-import com.amazonaws.auth.STSAssumeRoleSessionCredentialsProvider;
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.epam.pipeline.common.MessageHelper;
 import com.epam.pipeline.entity.region.AwsRegion;
 
 public class AssumedCredentialsS3Helper extends S3Helper {
 
-    private static final String ROLE_SESSION_NAME = "CLOUD_PIPELINE_SESSION";
-    private static final int MIN_SESSION_DURATION = 900;
-
     private final String roleArn;
     private final AwsRegion region;
+    private final S3ClientFactory clientFactory;
 
     public AssumedCredentialsS3Helper(final String roleArn,
                                       final AwsRegion region,
-                                      final MessageHelper messageHelper) {
+                                      final MessageHelper messageHelper,
+                                      final S3ClientFactory clientFactory) {
         super(messageHelper);
         this.roleArn = roleArn;
         this.region = region;
+        this.clientFactory = clientFactory;
     }
 
     @Override
     public AmazonS3 getDefaultS3Client() {
-        STSAssumeRoleSessionCredentialsProvider credentialsProvider =
-                new STSAssumeRoleSessionCredentialsProvider.Builder(roleArn, ROLE_SESSION_NAME)
-                .withRoleSessionDurationSeconds(MIN_SESSION_DURATION)
-                .build();
-        return AmazonS3ClientBuilder.standard()
-                .withCredentials(credentialsProvider)
-                .withRegion(region.getRegionCode())
-                .build();
+        return clientFactory.getAssumedRoleClient(region, roleArn);
     }
 }
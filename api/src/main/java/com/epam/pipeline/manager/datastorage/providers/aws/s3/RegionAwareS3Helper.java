@@ -17,10 +17,8 @@
 package com.epam.pipeline.manager.datastorage.providers.aws.s3;
 
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.epam.pipeline.common.MessageHelper;
 import com.epam.pipeline.entity.region.AwsRegion;
-import com.epam.pipeline.manager.cloud.aws.AWSUtils;
 
 /**
  * Provides methods for AWS S3 operations in specified region.
@@ -28,17 +26,17 @@ import com.epam.pipeline.manager.cloud.aws.AWSUtils;
 public class RegionAwareS3Helper extends S3Helper {
 
     private final AwsRegion region;
+    private final S3ClientFactory clientFactory;
 
-    public RegionAwareS3Helper(final AwsRegion region, final MessageHelper messageHelper) {
+    public RegionAwareS3Helper(final AwsRegion region, final MessageHelper messageHelper,
+                               final S3ClientFactory clientFactory) {
         super(messageHelper);
         this.region = region;
+        this.clientFactory = clientFactory;
     }
 
     @Override
     public AmazonS3 getDefaultS3Client() {
-        return AmazonS3ClientBuilder.standard()
-                .withRegion(region.getRegionCode())
-                .withCredentials(AWSUtils.getCredentialsProvider(region.getProfile()))
-                .build();
+        return clientFactory.getRegionClient(region);
     }
 }
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.datastorage.providers.aws.s3;
+
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.STSAssumeRoleSessionCredentialsProvider;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.epam.pipeline.entity.region.AwsRegion;
+import com.epam.pipeline.manager.cloud.aws.AWSUtils;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caches long-lived AWS S3 clients by region, profile and assumed role.
+ *
+ * Clients keep their connection pools between requests. Credentials of assumed role clients are renewed
+ * in background before the session expiration, so requests don't wait for STS calls. Clients which were
+ * not used for {@link #IDLE_EXPIRATION_MINUTES} or exceed {@link #MAX_CLIENTS} are removed from the cache.
+ *
+ * Removed clients may still be used by long running operations, e.g. folder moves, so they are shut down
+ * only {@link #RETIRED_SHUTDOWN_HOURS} after their removal.
+ */
+@Slf4j
+@Component
+public class S3ClientFactory {
+
+    private static final int SESSION_DURATION_SECONDS = 900;
+    private static final String ROLE_SESSION_NAME = "CLOUD_PIPELINE_SESSION";
+    private static final long REFRESH_PERIOD_SECONDS = SESSION_DURATION_SECONDS * 2 / 3;
+    private static final long IDLE_EXPIRATION_MINUTES = 30;
+    private static final int MAX_CLIENTS = 100;
+    private static final long RETIRED_SHUTDOWN_HOURS = 24;
+
+    private final Map<ClientKey, CachedClient> clients = new ConcurrentHashMap<>();
+    private final Map<CachedClient, Long> retiredClients = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+            final Thread thread = new Thread(runnable, "s3-client-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    @PostConstruct
+    public void init() {
+        maintenanceExecutor.scheduleAtFixedRate(this::maintain,
+                REFRESH_PERIOD_SECONDS, REFRESH_PERIOD_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        maintenanceExecutor.shutdownNow();
+        new ArrayList<>(clients.keySet()).forEach(this::evict);
+        new ArrayList<>(retiredClients.keySet()).forEach(this::shutDown);
+    }
+
+    /**
+     * @return a client authorized with the credentials of the region profile
+     */
+    public AmazonS3 getRegionClient(final AwsRegion region) {
+        final ClientKey key = new ClientKey(region.getRegionCode(), region.getProfile(), null);
+        return getClient(key, () -> AWSUtils.getCredentialsProvider(region.getProfile()));
+    }
+
+    /**
+     * @return a client authorized with the temporary credentials of the given role
+     */
+    public AmazonS3 getAssumedRoleClient(final AwsRegion region, final String roleArn) {
+        final ClientKey key = new ClientKey(region.getRegionCode(), null, roleArn);
+        return getClient(key, () -> new STSAssumeRoleSessionCredentialsProvider.Builder(roleArn, ROLE_SESSION_NAME)
+                .withRoleSessionDurationSeconds(SESSION_DURATION_SECONDS)
+                .build());
+    }
+
+    int size() {
+        return clients.size();
+    }
+
+    int retiredSize() {
+        return retiredClients.size();
+    }
+
+    void maintain() {
+        maintain(System.currentTimeMillis());
+    }
+
+    void maintain(final long now) {
+        final long expirationTime = now - TimeUnit.MINUTES.toMillis(IDLE_EXPIRATION_MINUTES);
+        new ArrayList<>(clients.entrySet()).forEach(entry -> {
+            if (entry.getValue().getLastAccess() < expirationTime) {
+                evict(entry.getKey(), now);
+            } else {
+                refresh(entry.getKey(), entry.getValue());
+            }
+        });
+        final long shutdownTime = now - TimeUnit.HOURS.toMillis(RETIRED_SHUTDOWN_HOURS);
+        new ArrayList<>(retiredClients.entrySet()).forEach(entry -> {
+            if (entry.getValue() < shutdownTime) {
+                shutDown(entry.getKey());
+            }
+        });
+    }
+
+    private AmazonS3 getClient(final ClientKey key, final Supplier<AWSCredentialsProvider> credentials) {
+        final CachedClient client = clients.computeIfAbsent(key, k -> {
+            log.debug("Creating S3 client for region {}.", k.getRegionCode());
+            return new CachedClient(credentials.get(), k.getRegionCode());
+        });
+        client.touch();
+        if (clients.size() > MAX_CLIENTS) {
+            evictLeastRecentlyUsed();
+        }
+        return client.getClient();
+    }
+
+    private void refresh(final ClientKey key, final CachedClient client) {
+        if (client.getCredentialsProvider() instanceof STSAssumeRoleSessionCredentialsProvider) {
+            try {
+                client.getCredentialsProvider().refresh();
+            } catch (RuntimeException e) {
+                log.warn("Failed to renew credentials of role {}: {}", key.getRoleArn(), e.getMessage());
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        final List<Map.Entry<ClientKey, CachedClient>> entries = new ArrayList<>(clients.entrySet());
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().getLastAccess()));
+        entries.stream()
+                .limit(Math.max(0, entries.size() - MAX_CLIENTS))
+                .forEach(entry -> evict(entry.getKey()));
+    }
+
+    private void evict(final ClientKey key) {
+        evict(key, System.currentTimeMillis());
+    }
+
+    private void evict(final ClientKey key, final long now) {
+        Optional.ofNullable(clients.remove(key)).ifPresent(client -> {
+            log.debug("Removing S3 client for region {} from cache.", key.getRegionCode());
+            retiredClients.put(client, now);
+        });
+    }
+
+    private void shutDown(final CachedClient client) {
+        if (retiredClients.remove(client) == null) {
+            return;
+        }
+        client.getClient().shutdown();
+        if (client.getCredentialsProvider() instanceof STSAssumeRoleSessionCredentialsProvider) {
+            ((STSAssumeRoleSessionCredentialsProvider) client.getCredentialsProvider()).close();
+        }
+    }
+
+    @Value
+    private static class ClientKey {
+        String regionCode;
+        String profile;
+        String roleArn;
+    }
+
+    private static final class CachedClient {
+
+        private final AWSCredentialsProvider credentialsProvider;
+        private final AmazonS3 client;
+        private volatile long lastAccess;
+
+        CachedClient(final AWSCredentialsProvider credentialsProvider, final String regionCode) {
+            this.credentialsProvider = credentialsProvider;
+            this.client = AmazonS3ClientBuilder.standard()
+                    .withRegion(regionCode)
+                    .withCredentials(credentialsProvider)
+                    .build();
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        AWSCredentialsProvider getCredentialsProvider() {
+            return credentialsProvider;
+        }
+
+        AmazonS3 getClient() {
+            return client;
+        }
+
+        long getLastAccess() {
+            return lastAccess;
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+    }
+}
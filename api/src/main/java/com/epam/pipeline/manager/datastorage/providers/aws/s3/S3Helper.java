@@ -83,6 +83,7 @@ import com.epam.pipeline.entity.datastorage.PathDescription;
 import com.epam.pipeline.entity.datastorage.StoragePolicy;
 import com.epam.pipeline.entity.datastorage.aws.S3bucketDataStorage;
 import com.epam.pipeline.entity.region.AwsRegion;
+import com.epam.pipeline.manager.datastorage.providers.PrefixSizeCalculator;
 import com.epam.pipeline.manager.datastorage.providers.ProviderUtils;
 import com.epam.pipeline.utils.FileContentUtils;
 import lombok.RequiredArgsConstructor;
@@ -124,7 +125,6 @@ public class S3Helper {
 
     private static final int NOT_FOUND = 404;
     private static final int INVALID_RANGE = 416;
-    private static final long COPYING_FILE_SIZE_LIMIT = 5L * 1024L * 1024L * 1024L; // 5gb
     private static final String BACKUP_RULE_ID = "Backup rule";
     private static final String STS_RULE_ID = "Short term storage rule";
     private static final String LTS_RULE_ID = "Long term storage rule";
@@ -136,7 +136,7 @@ public class S3Helper {
     private final MessageHelper messageHelper;
 
     public AmazonS3 getDefaultS3Client() {
-        return AmazonS3ClientBuilder.defaultClient();
+        return DefaultClientHolder.CLIENT;
     }
 
     public String createS3Bucket(final String name) {
@@ -305,23 +305,14 @@ public class S3Helper {
 
     public void restoreFileVersion(String bucket, String path, String version) {
         AmazonS3 client = getDefaultS3Client();
-        if (fileSizeExceedsLimit(client, bucket, path, version)) {
-            throw new DataStorageException(String.format("Restoring file '%s' version '%s' was aborted because " +
-                    "file size exceeds the limit of %s bytes", path, version, COPYING_FILE_SIZE_LIMIT));
-        }
-        moveS3Object(client, bucket, new MoveObjectRequest(path, version, path));
-    }
-
-    private void moveS3Object(final AmazonS3 client, final String bucket, final MoveObjectRequest moveRequest) {
-        moveS3Objects(client, bucket, Collections.singletonList(moveRequest));
+        moveS3Object(client, bucket, new MoveObjectRequest(path, version, path),
+                getFileSize(client, bucket, path, version));
     }
 
-    private void moveS3Objects(final AmazonS3 client, final String bucket, final List<MoveObjectRequest> moveRequests) {
-        try (S3ObjectDeleter deleter = new S3ObjectDeleter(client, bucket)) {
-            moveRequests.forEach(moveRequest -> {
-                client.copyObject(moveRequest.toCopyRequest(bucket));
-                deleter.deleteKey(moveRequest.getSourcePath(), moveRequest.getVersion());
-            });
+    private void moveS3Object(final AmazonS3 client, final String bucket, final MoveObjectRequest moveRequest,
+                              final long size) {
+        try (S3ObjectMover mover = new S3ObjectMover(client, bucket, 1)) {
+            mover.move(moveRequest, size);
         } catch (SdkClientException e) {
             throw new DataStorageException(e.getMessage(), e.getCause());
         }
@@ -605,22 +596,14 @@ public class S3Helper {
         AmazonS3 client = getDefaultS3Client();
         checkItemExists(client, bucket, oldPath, false);
         checkItemDoesNotExist(client, bucket, newPath, false);
-        if (fileSizeExceedsLimit(client, bucket, oldPath)) {
-            throw new DataStorageException(String.format("File '%s' moving was aborted because " +
-                    "file size exceeds the limit of %s bytes", newPath, COPYING_FILE_SIZE_LIMIT));
-        }
-        moveS3Object(client, bucket, new MoveObjectRequest(oldPath, newPath));
+        moveS3Object(client, bucket, new MoveObjectRequest(oldPath, newPath),
+                getFileSize(client, bucket, oldPath, null));
         return getFile(client, bucket, newPath);
     }
 
-    private boolean fileSizeExceedsLimit(final AmazonS3 client, final String bucket, final String path) {
-        return fileSizeExceedsLimit(client, bucket, path, null);
-    }
-
-    private boolean fileSizeExceedsLimit(final AmazonS3 client, final String bucket, final String path,
-                                         final String version) {
+    private long getFileSize(final AmazonS3 client, final String bucket, final String path, final String version) {
         final GetObjectMetadataRequest request = new GetObjectMetadataRequest(bucket, path, version);
-        return client.getObjectMetadata(request).getContentLength() > COPYING_FILE_SIZE_LIMIT;
+        return client.getObjectMetadata(request).getContentLength();
     }
 
     public DataStorageFolder moveFolder(String bucket, String rawOldPath, String rawNewPath)
@@ -636,33 +619,25 @@ public class S3Helper {
         AmazonS3 client = getDefaultS3Client();
         checkItemExists(client, bucket, oldPath, true);
         checkItemDoesNotExist(client, bucket, newPath, true);
-        ListObjectsRequest req = new ListObjectsRequest();
-        req.setBucketName(bucket);
-        ObjectListing listing = client.listObjects(req);
-        boolean listingFinished = false;
-        List<String> oldKeys = new ArrayList<>();
-        while (!listingFinished) {
-            for (S3ObjectSummary s3ObjectSummary : listing.getObjectSummaries()) {
-                if (s3ObjectSummary.getSize() > COPYING_FILE_SIZE_LIMIT) {
-                    throw new DataStorageException(String.format("Moving folder '%s' was aborted because " +
-                                    "some of its files '%s' size exceeds the limit of %s bytes",
-                            oldPath, s3ObjectSummary.getKey(), COPYING_FILE_SIZE_LIMIT));
+        final ListObjectsRequest req = new ListObjectsRequest()
+                .withBucketName(bucket)
+                .withPrefix(oldPath);
+        try (S3ObjectMover mover = new S3ObjectMover(client, bucket)) {
+            ObjectListing listing = client.listObjects(req);
+            while (true) {
+                for (S3ObjectSummary s3ObjectSummary : listing.getObjectSummaries()) {
+                    final String oldKey = s3ObjectSummary.getKey();
+                    mover.move(new MoveObjectRequest(oldKey, newPath + oldKey.substring(oldPath.length())),
+                            s3ObjectSummary.getSize());
                 }
-                String relativePath = s3ObjectSummary.getKey();
-                if (relativePath.startsWith(oldPath)) {
-                    oldKeys.add(relativePath);
+                if (!listing.isTruncated()) {
+                    break;
                 }
-            }
-            if (listing.isTruncated()) {
                 listing = client.listNextBatchOfObjects(listing);
-            } else {
-                listingFinished = true;
             }
+        } catch (SdkClientException e) {
+            throw new DataStorageException(e.getMessage(), e.getCause());
         }
-        final List<MoveObjectRequest> moveRequests = oldKeys.stream()
-                .map(oldKey -> new MoveObjectRequest(oldKey, newPath + oldKey.substring(oldPath.length())))
-                .collect(Collectors.toList());
-        moveS3Objects(client, bucket, moveRequests);
         DataStorageFolder folder = new DataStorageFolder();
         folder.setName(folderName);
         folder.setPath(folderFullPath);
@@ -675,21 +650,10 @@ public class S3Helper {
     }
 
     public PathDescription getDataSize(final S3bucketDataStorage dataStorage, final String path,
-                                       final PathDescription pathDescription) {
-        final String requestPath = Optional.ofNullable(path).orElse("");
+                                       final PathDescription pathDescription,
+                                       final PrefixSizeCalculator sizeCalculator) {
         final AmazonS3 client = getDefaultS3Client();
-
-        ObjectListing listing = client.listObjects(dataStorage.getRoot(), requestPath);
-        boolean hasNextPageMarker = true;
-        while (hasNextPageMarker && !pathDescription.getCompleted()) {
-            ProviderUtils.getSizeByPath(listing.getObjectSummaries(), requestPath,
-                    S3ObjectSummary::getSize, S3ObjectSummary::getKey, pathDescription);
-            hasNextPageMarker = listing.isTruncated();
-            listing = client.listNextBatchOfObjects(listing);
-        }
-
-        pathDescription.setCompleted(true);
-        return pathDescription;
+        return sizeCalculator.calculate(new S3PrefixLister(client, dataStorage.getRoot()), path, pathDescription);
     }
 
     private BucketLifecycleConfiguration.Rule createLtsRule(String ltsRuleId, Integer longTermStorageDuration) {
@@ -1086,4 +1050,11 @@ public class S3Helper {
         Assert.isTrue(itemExists(client, bucketName, itemPath, isFolder), messageHelper
                 .getMessage(MessageConstants.ERROR_DATASTORAGE_PATH_NOT_FOUND, itemPath, bucketName));
     }
+
+    /**
+     * Lazily creates a single client with default region and credentials provider chain.
+     */
+    private static final class DefaultClientHolder {
+        private static final AmazonS3 CLIENT = AmazonS3ClientBuilder.defaultClient();
+    }
 }
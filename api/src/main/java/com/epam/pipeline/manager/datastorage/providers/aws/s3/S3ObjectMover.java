@@ -0,0 +1,255 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.datastorage.providers.aws.s3;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.GetObjectTaggingRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.ObjectTagging;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.SSEAlgorithm;
+import com.amazonaws.services.s3.model.SSEAwsKeyManagementParams;
+import com.amazonaws.services.s3.model.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Util class to move S3 objects within a bucket using a bounded pool of parallel workers.
+ *
+ * Objects are submitted one by one while the source listing is read, so the whole listing is never kept in memory.
+ * Submission blocks once the limit of moves in progress is reached. Objects larger than the single copy limit
+ * are copied part by part using multipart upload. Source objects are deleted in batches once their copies
+ * are finished. Note that to wait for all moves and to delete all source objects, calling of method close()
+ * is required.
+ */
+@Slf4j
+public class S3ObjectMover implements AutoCloseable {
+
+    static final long MULTIPART_COPY_THRESHOLD = 5L * 1024L * 1024L * 1024L; // 5gb
+    static final long MIN_PART_SIZE = 512L * 1024L * 1024L;
+    private static final int MAX_PARTS = 10000;
+    private static final int DEFAULT_THREADS = 8;
+    private static final int PROGRESS_LOG_STEP = 1000;
+
+    private final AmazonS3 client;
+    private final String bucket;
+    private final long multipartThreshold;
+    private final long minPartSize;
+    private final int maxMovesInProgress;
+    private final Semaphore movesInProgress;
+    private final ExecutorService executor;
+    private final S3ObjectDeleter deleter;
+    private final AtomicLong submittedObjects = new AtomicLong();
+    private final AtomicLong movedObjects = new AtomicLong();
+    private final AtomicLong movedBytes = new AtomicLong();
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    private volatile boolean failureRethrown;
+
+    public S3ObjectMover(final AmazonS3 client, final String bucket) {
+        this(client, bucket, DEFAULT_THREADS);
+    }
+
+    public S3ObjectMover(final AmazonS3 client, final String bucket, final int threads) {
+        this(client, bucket, threads, MULTIPART_COPY_THRESHOLD, MIN_PART_SIZE);
+    }
+
+    S3ObjectMover(final AmazonS3 client, final String bucket, final int threads,
+                  final long multipartThreshold, final long minPartSize) {
+        this.client = client;
+        this.bucket = bucket;
+        this.multipartThreshold = multipartThreshold;
+        this.minPartSize = minPartSize;
+        this.maxMovesInProgress = threads * 2;
+        this.movesInProgress = new Semaphore(maxMovesInProgress);
+        this.executor = Executors.newFixedThreadPool(threads, daemonThreadFactory());
+        this.deleter = new S3ObjectDeleter(client, bucket);
+    }
+
+    /**
+     * Submits an object to a moving queue, blocks if the limit of moves in progress is reached.
+     * @param request specifies object to move
+     * @param size source object size in bytes
+     */
+    public void move(final MoveObjectRequest request, final long size) {
+        rethrowFailure();
+        movesInProgress.acquireUninterruptibly();
+        submittedObjects.incrementAndGet();
+        executor.execute(() -> moveObject(request, size));
+    }
+
+    public long getMovedObjects() {
+        return movedObjects.get();
+    }
+
+    public long getMovedBytes() {
+        return movedBytes.get();
+    }
+
+    /**
+     * Waits for all submitted moves and deletes all source objects left in queue.
+     * Rethrows the first failure occurred during moving, if any and if it was not rethrown by move() already.
+     */
+    @Override
+    public void close() {
+        try {
+            movesInProgress.acquireUninterruptibly(maxMovesInProgress);
+        } finally {
+            executor.shutdownNow();
+        }
+        synchronized (deleter) {
+            deleter.close();
+        }
+        if (submittedObjects.get() > 1) {
+            log.info("Moved {} of {} objects ({} bytes) in bucket {}.",
+                    movedObjects.get(), submittedObjects.get(), movedBytes.get(), bucket);
+        }
+        // The same exception can't be thrown by both try-with-resources body and close()
+        if (!failureRethrown) {
+            rethrowFailure();
+        }
+    }
+
+    private void moveObject(final MoveObjectRequest request, final long size) {
+        try {
+            if (failure.get() != null) {
+                return;
+            }
+            if (size > multipartThreshold) {
+                copyMultipart(request, size);
+            } else {
+                client.copyObject(request.toCopyRequest(bucket));
+            }
+            synchronized (deleter) {
+                deleter.deleteKey(request.getSourcePath(), request.getVersion());
+            }
+            registerMove(size);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            movesInProgress.release();
+        }
+    }
+
+    private void copyMultipart(final MoveObjectRequest request, final long size) {
+        final String destination = request.getDestinationPath();
+        final String uploadId = client.initiateMultipartUpload(initiateMultipartUploadRequest(request))
+                .getUploadId();
+        final long partSize = Math.max(minPartSize, (size + MAX_PARTS - 1) / MAX_PARTS);
+        final List<PartETag> partETags = new ArrayList<>();
+        try {
+            long firstByte = 0;
+            int partNumber = 1;
+            while (firstByte < size) {
+                final long lastByte = Math.min(firstByte + partSize, size) - 1;
+                partETags.add(client.copyPart(new CopyPartRequest()
+                        .withSourceBucketName(bucket)
+                        .withSourceKey(request.getSourcePath())
+                        .withSourceVersionId(request.getVersion())
+                        .withDestinationBucketName(bucket)
+                        .withDestinationKey(destination)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber++)
+                        .withFirstByte(firstByte)
+                        .withLastByte(lastByte))
+                        .getPartETag());
+                firstByte = lastByte + 1;
+            }
+            client.completeMultipartUpload(
+                    new CompleteMultipartUploadRequest(bucket, destination, uploadId, partETags));
+        } catch (RuntimeException e) {
+            abortMultipartUpload(destination, uploadId);
+            throw e;
+        }
+    }
+
+    /**
+     * Builds a multipart upload request, which keeps the same metadata, tags, storage class and server side
+     * encryption as the source object has, the same way a single copy request does.
+     */
+    private InitiateMultipartUploadRequest initiateMultipartUploadRequest(final MoveObjectRequest request) {
+        final ObjectMetadata source = client.getObjectMetadata(
+                new GetObjectMetadataRequest(bucket, request.getSourcePath(), request.getVersion()));
+        final ObjectMetadata destination = new ObjectMetadata();
+        destination.setUserMetadata(source.getUserMetadata());
+        Optional.ofNullable(source.getContentType()).ifPresent(destination::setContentType);
+        // Storage class is passed as is, since the client doesn't know all the storage classes S3 supports
+        Optional.ofNullable(source.getStorageClass())
+                .ifPresent(storageClass -> destination.setHeader(Headers.STORAGE_CLASS, storageClass));
+        final List<Tag> tags = client.getObjectTagging(
+                new GetObjectTaggingRequest(bucket, request.getSourcePath(), request.getVersion())).getTagSet();
+        final InitiateMultipartUploadRequest initiateRequest =
+                new InitiateMultipartUploadRequest(bucket, request.getDestinationPath(), destination)
+                        .withTagging(new ObjectTagging(tags));
+        if (SSEAlgorithm.KMS.getAlgorithm().equals(source.getSSEAlgorithm())) {
+            initiateRequest.setSSEAwsKeyManagementParams(source.getSSEAwsKmsKeyId() == null
+                    ? new SSEAwsKeyManagementParams()
+                    : new SSEAwsKeyManagementParams(source.getSSEAwsKmsKeyId()));
+        } else if (source.getSSEAlgorithm() != null) {
+            destination.setSSEAlgorithm(source.getSSEAlgorithm());
+        }
+        return initiateRequest;
+    }
+
+    private void abortMultipartUpload(final String destination, final String uploadId) {
+        try {
+            client.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, destination, uploadId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to abort multipart copy of {} in bucket {}: {}", destination, bucket, e.getMessage());
+        }
+    }
+
+    private void registerMove(final long size) {
+        movedBytes.addAndGet(size);
+        final long moved = movedObjects.incrementAndGet();
+        if (moved % PROGRESS_LOG_STEP == 0) {
+            log.info("Moved {} objects ({} bytes) in bucket {}.", moved, movedBytes.get(), bucket);
+        }
+    }
+
+    private void rethrowFailure() {
+        final RuntimeException e = failure.get();
+        if (e != null) {
+            failureRethrown = true;
+            throw e;
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "s3-object-mover-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
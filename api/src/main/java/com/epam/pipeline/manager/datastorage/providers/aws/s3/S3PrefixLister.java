@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.datastorage.providers.aws.s3;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.epam.pipeline.manager.datastorage.providers.PrefixSizeCalculator;
+import com.epam.pipeline.manager.datastorage.providers.ProviderUtils;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+@RequiredArgsConstructor
+public class S3PrefixLister implements PrefixSizeCalculator.PrefixLister {
+
+    private static final int NOT_FOUND = 404;
+
+    private final AmazonS3 client;
+    private final String bucket;
+
+    @Override
+    public Optional<Long> getFileSize(final String path) {
+        try {
+            return Optional.of(client.getObjectMetadata(bucket, path).getContentLength());
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == NOT_FOUND) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void listLevel(final String prefix, final LongConsumer sizes, final Consumer<String> subPrefixes) {
+        list(new ListObjectsRequest().withBucketName(bucket).withPrefix(prefix)
+                .withDelimiter(ProviderUtils.DELIMITER), sizes, subPrefixes);
+    }
+
+    @Override
+    public void listAll(final String prefix, final LongConsumer sizes) {
+        list(new ListObjectsRequest().withBucketName(bucket).withPrefix(prefix), sizes, subPrefix -> { });
+    }
+
+    private void list(final ListObjectsRequest request, final LongConsumer sizes,
+                      final Consumer<String> subPrefixes) {
+        ObjectListing listing = client.listObjects(request);
+        while (true) {
+            sizes.accept(listing.getObjectSummaries().stream().mapToLong(S3ObjectSummary::getSize).sum());
+            listing.getCommonPrefixes().forEach(subPrefixes);
+            if (!listing.isTruncated()) {
+                return;
+            }
+            listing = client.listNextBatchOfObjects(listing);
+        }
+    }
+}
@@ -40,6 +40,7 @@ import com.epam.pipeline.entity.region.AwsRegion;
 import com.epam.pipeline.entity.region.VersioningAwareRegion;
 import com.epam.pipeline.manager.cloud.aws.AWSUtils;
 import com.epam.pipeline.manager.cloud.aws.S3TemporaryCredentialsGenerator;
+import com.epam.pipeline.manager.datastorage.providers.PrefixSizeCalculator;
 import com.epam.pipeline.manager.datastorage.providers.ProviderUtils;
 import com.epam.pipeline.manager.datastorage.providers.StorageProvider;
 import com.epam.pipeline.manager.preference.PreferenceManager;
@@ -75,6 +76,8 @@ public class S3StorageProvider implements StorageProvider<S3bucketDataStorage> {
     private final CloudRegionManager cloudRegionManager;
     private final PreferenceManager preferenceManager;
     private final S3TemporaryCredentialsGenerator stsCredentialsGenerator;
+    private final S3ClientFactory s3ClientFactory;
+    private final PrefixSizeCalculator sizeCalculator;
 
     @Override
     public DataStorageType getStorageType() {
@@ -339,7 +342,7 @@ public class S3StorageProvider implements StorageProvider<S3bucketDataStorage> {
     public PathDescription getDataSize(final S3bucketDataStorage dataStorage, final String path,
                                        final PathDescription pathDescription) {
         return getS3Helper(dataStorage).getDataSize(dataStorage,
-                ProviderUtils.buildPath(dataStorage, path), pathDescription);
+                ProviderUtils.buildPath(dataStorage, path), pathDescription, sizeCalculator);
     }
 
     public S3Helper getS3Helper(S3bucketDataStorage dataStorage) {
@@ -347,9 +350,9 @@ public class S3StorageProvider implements StorageProvider<S3bucketDataStorage> {
         if (dataStorage.isUseAssumedCredentials()) {
             final String roleArn = Optional.ofNullable(dataStorage.getTempCredentialsRole())
                     .orElse(region.getTempCredentialsRole());
-            return new AssumedCredentialsS3Helper(roleArn, region, messageHelper);
+            return new AssumedCredentialsS3Helper(roleArn, region, messageHelper, s3ClientFactory);
         }
-        return new RegionAwareS3Helper(region, messageHelper);
+        return new RegionAwareS3Helper(region, messageHelper, s3ClientFactory);
     }
 
     public S3Helper getS3Helper(final TemporaryCredentials credentials, final AwsRegion region) {
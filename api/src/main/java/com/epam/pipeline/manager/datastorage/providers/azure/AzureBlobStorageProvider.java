@@ -30,6 +30,7 @@ import com.epam.pipeline.entity.datastorage.PathDescription;
 import com.epam.pipeline.entity.datastorage.azure.AzureBlobStorage;
 import com.epam.pipeline.entity.region.AzureRegion;
 import com.epam.pipeline.entity.region.AzureRegionCredentials;
+import com.epam.pipeline.manager.datastorage.providers.PrefixSizeCalculator;
 import com.epam.pipeline.manager.datastorage.providers.ProviderUtils;
 import com.epam.pipeline.manager.datastorage.providers.StorageProvider;
 import com.epam.pipeline.manager.region.CloudRegionManager;
@@ -57,6 +58,7 @@ public class AzureBlobStorageProvider implements StorageProvider<AzureBlobStorag
     private final CloudRegionManager cloudRegionManager;
     private final MessageHelper messageHelper;
     private final AuthManager authManager;
+    private final PrefixSizeCalculator sizeCalculator;
 
     @Override
     public DataStorageType getStorageType() {
@@ -271,7 +273,7 @@ public class AzureBlobStorageProvider implements StorageProvider<AzureBlobStorag
     @Override
     public PathDescription getDataSize(final AzureBlobStorage dataStorage, final String path,
                                        final PathDescription pathDescription) {
-        return getAzureStorageHelper(dataStorage).getDataSize(dataStorage, path, pathDescription);
+        return getAzureStorageHelper(dataStorage).getDataSize(dataStorage, path, pathDescription, sizeCalculator);
     }
 
     private AzureStorageHelper getAzureStorageHelper(final AzureBlobStorage storage) {
@@ -32,6 +32,7 @@ import com.epam.pipeline.entity.datastorage.azure.AzureBlobStorage;
 import com.epam.pipeline.entity.region.AzurePolicy;
 import com.epam.pipeline.entity.region.AzureRegion;
 import com.epam.pipeline.entity.region.AzureRegionCredentials;
+import com.epam.pipeline.manager.datastorage.providers.PrefixSizeCalculator;
 import com.epam.pipeline.manager.datastorage.providers.ProviderUtils;
 import com.epam.pipeline.manager.datastorage.providers.azure.AbstractListingIterator.FlatIterator;
 import com.epam.pipeline.manager.datastorage.providers.azure.AbstractListingIterator.HierarchyIterator;
@@ -87,7 +88,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -412,16 +415,9 @@ public class AzureStorageHelper {
     }
 
     public PathDescription getDataSize(final AzureBlobStorage dataStorage, final String path,
-                                       final PathDescription pathDescription) {
-        final String requestPath = Optional.ofNullable(path).orElse("");
-        final List<BlobItem> items = rawList(AbstractListingIterator.flat(getContainerURL(dataStorage), requestPath))
-                .collect(Collectors.toList());
-
-        ProviderUtils.getSizeByPath(items, requestPath, item -> item.properties().contentLength(),
-                BlobItem::name, pathDescription);
-
-        pathDescription.setCompleted(true);
-        return pathDescription;
+                                       final PathDescription pathDescription,
+                                       final PrefixSizeCalculator sizeCalculator) {
+        return sizeCalculator.calculate(new AzurePrefixLister(getContainerURL(dataStorage)), path, pathDescription);
     }
 
     private void deleteFolder(final AzureBlobStorage dataStorage, final String path) {
@@ -674,4 +670,50 @@ public class AzureStorageHelper {
             throw new DataStorageException(e.getMessage(), e);
         }
     }
+
+    private static final class AzurePrefixLister implements PrefixSizeCalculator.PrefixLister {
+
+        private final ContainerURL container;
+
+        private AzurePrefixLister(final ContainerURL container) {
+            this.container = container;
+        }
+
+        @Override
+        public Optional<Long> getFileSize(final String path) {
+            return Optional.of(AbstractListingIterator.flat(container, path, null, 1).next().body())
+                    .map(ListBlobsFlatSegmentResponse::segment)
+                    .flatMap(segment -> ListUtils.emptyIfNull(segment.blobItems()).stream()
+                            .filter(item -> item.name().equals(path))
+                            .findFirst())
+                    .map(item -> item.properties().contentLength());
+        }
+
+        @Override
+        public void listLevel(final String prefix, final LongConsumer sizes, final Consumer<String> subPrefixes) {
+            AbstractListingIterator.hierarchy(container, prefix).stream()
+                    .map(response -> response.body().segment())
+                    .filter(Objects::nonNull)
+                    .forEach(segment -> {
+                        sizes.accept(sum(segment.blobItems()));
+                        ListUtils.emptyIfNull(segment.blobPrefixes()).stream()
+                                .map(BlobPrefix::name)
+                                .forEach(subPrefixes);
+                    });
+        }
+
+        @Override
+        public void listAll(final String prefix, final LongConsumer sizes) {
+            AbstractListingIterator.flat(container, prefix).stream()
+                    .map(response -> response.body().segment())
+                    .filter(Objects::nonNull)
+                    .forEach(segment -> sizes.accept(sum(segment.blobItems())));
+        }
+
+        private long sum(final List<BlobItem> items) {
+            return ListUtils.emptyIfNull(items).stream()
+                    .mapToLong(item -> item.properties().contentLength())
+                    .sum();
+        }
+    }
 }
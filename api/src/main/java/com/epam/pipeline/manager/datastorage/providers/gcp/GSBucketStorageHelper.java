@@ -33,6 +33,7 @@ import com.epam.pipeline.entity.datastorage.StoragePolicy;
 import com.epam.pipeline.entity.datastorage.gcp.GSBucketStorage;
 import com.epam.pipeline.entity.region.GCPRegion;
 import com.epam.pipeline.manager.cloud.gcp.GCPClient;
+import com.epam.pipeline.manager.datastorage.providers.PrefixSizeCalculator;
 import com.epam.pipeline.manager.datastorage.providers.ProviderUtils;
 import com.epam.pipeline.utils.FileContentUtils;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -84,7 +85,9 @@ import java.util.Set;
 import java.util.Spliterator;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -435,16 +438,10 @@ public class GSBucketStorageHelper {
     }
 
     public PathDescription getDataSize(final GSBucketStorage dataStorage, final String path,
-                                       final PathDescription pathDescription) {
-        final String requestPath = Optional.ofNullable(path).orElse("");
+                                       final PathDescription pathDescription,
+                                       final PrefixSizeCalculator sizeCalculator) {
         final Storage client = gcpClient.buildStorageClient(region);
-        final Page<Blob> blobs = client.list(dataStorage.getPath(), Storage.BlobListOption.prefix(requestPath));
-
-        ProviderUtils.getSizeByPath(blobs.iterateAll(), requestPath, BlobInfo::getSize, BlobInfo::getName,
-                pathDescription);
-
-        pathDescription.setCompleted(true);
-        return pathDescription;
+        return sizeCalculator.calculate(new GSPrefixLister(client, dataStorage.getPath()), path, pathDescription);
     }
 
     private List<Cors> buildCors() {
@@ -746,4 +743,43 @@ public class GSBucketStorageHelper {
             throw new DataStorageException("Operation is not allowed for deleted version");
         }
     }
+
+    @RequiredArgsConstructor
+    private static final class GSPrefixLister implements PrefixSizeCalculator.PrefixLister {
+
+        private final Storage client;
+        private final String bucket;
+
+        @Override
+        public Optional<Long> getFileSize(final String path) {
+            return Optional.ofNullable(client.get(BlobId.of(bucket, path))).map(BlobInfo::getSize);
+        }
+
+        @Override
+        public void listLevel(final String prefix, final LongConsumer sizes, final Consumer<String> subPrefixes) {
+            list(client.list(bucket, Storage.BlobListOption.prefix(prefix),
+                    Storage.BlobListOption.currentDirectory()), sizes, subPrefixes);
+        }
+
+        @Override
+        public void listAll(final String prefix, final LongConsumer sizes) {
+            list(client.list(bucket, Storage.BlobListOption.prefix(prefix)), sizes, subPrefix -> { });
+        }
+
+        private void list(final Page<Blob> firstPage, final LongConsumer sizes, final Consumer<String> subPrefixes) {
+            Page<Blob> page = firstPage;
+            while (page != null) {
+                long pageSize = 0;
+                for (final Blob blob : page.getValues()) {
+                    if (blob.isDirectory()) {
+                        subPrefixes.accept(blob.getName());
+                    } else {
+                        pageSize += blob.getSize();
+                    }
+                }
+                sizes.accept(pageSize);
+                page = page.hasNextPage() ? page.getNextPage() : null;
+            }
+        }
+    }
 }
@@ -32,6 +32,7 @@ import com.epam.pipeline.entity.datastorage.StoragePolicy;
 import com.epam.pipeline.entity.datastorage.gcp.GSBucketStorage;
 import com.epam.pipeline.entity.region.GCPRegion;
 import com.epam.pipeline.manager.cloud.gcp.GCPClient;
+import com.epam.pipeline.manager.datastorage.providers.PrefixSizeCalculator;
 import com.epam.pipeline.manager.datastorage.providers.StorageProvider;
 import com.epam.pipeline.manager.region.CloudRegionManager;
 import com.epam.pipeline.manager.security.AuthManager;
@@ -56,6 +57,7 @@ public class GSBucketStorageProvider implements StorageProvider<GSBucketStorage>
     private final MessageHelper messageHelper;
     private final GCPClient gcpClient;
     private final AuthManager authManager;
+    private final PrefixSizeCalculator sizeCalculator;
 
     @Override
     public DataStorageType getStorageType() {
@@ -227,7 +229,7 @@ public class GSBucketStorageProvider implements StorageProvider<GSBucketStorage>
     @Override
     public PathDescription getDataSize(final GSBucketStorage dataStorage, final String path,
                                        final PathDescription pathDescription) {
-        return getHelper(dataStorage).getDataSize(dataStorage, path, pathDescription);
+        return getHelper(dataStorage).getDataSize(dataStorage, path, pathDescription, sizeCalculator);
     }
 
     private GSBucketStorageHelper getHelper(final GSBucketStorage storage) {
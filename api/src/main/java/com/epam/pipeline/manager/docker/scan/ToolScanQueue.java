@@ -0,0 +1,204 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.docker.scan;
+
+import com.epam.pipeline.entity.scan.ToolScanQueueStats;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
+
+/**
+ * A queue of tool security scans, that runs them on a bounded pool.
+ *
+ * Queued scans are started in order of their priority (lower value first) and then in order of submission.
+ * At most {@code tool.scan.pool.size} scans run at the same time and at most {@code tool.scan.registry.pool.size}
+ * of them belong to the same registry, scans of a busy registry don't hold back scans of the other ones.
+ */
+@Slf4j
+@Component
+@SuppressWarnings("PMD.AvoidCatchingGenericException")
+class ToolScanQueue {
+
+    private static final long RATE_WINDOW_MINUTES = 10;
+
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+    private final int poolSize;
+    private final int registryPoolSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final TreeSet<QueuedScan<?>> queue = new TreeSet<>(Comparator
+            .<QueuedScan<?>>comparingInt(QueuedScan::getPriority)
+            .thenComparingLong(QueuedScan::getSequence));
+    private final Map<Long, Integer> runningByRegistry = new HashMap<>();
+    private int running;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final Deque<Long> completionTimes = new ConcurrentLinkedDeque<>();
+
+    @Autowired
+    ToolScanQueue(@Value("${tool.scan.pool.size:4}") final int poolSize,
+                  @Value("${tool.scan.registry.pool.size:2}") final int registryPoolSize) {
+        final AtomicInteger counter = new AtomicInteger();
+        this.ownExecutor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            final Thread thread = new Thread(runnable, "tool-scan-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor = ownExecutor;
+        this.poolSize = poolSize;
+        this.registryPoolSize = registryPoolSize;
+    }
+
+    ToolScanQueue(final Executor executor, final int poolSize, final int registryPoolSize) {
+        this.ownExecutor = null;
+        this.executor = executor;
+        this.poolSize = poolSize;
+        this.registryPoolSize = registryPoolSize;
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds a scan to the queue.
+     * @param registryId an id of a registry the scanned tool belongs to
+     * @param priority a scan priority, scans with lower values are started first
+     * @param scan a scan itself
+     * @return a future of the scan result, it is completed exceptionally if the scan fails
+     */
+    <T> CompletableFuture<T> submit(final Long registryId, final int priority, final Callable<T> scan) {
+        final QueuedScan<T> queuedScan = new QueuedScan<>(registryId, priority, sequence.incrementAndGet(), scan,
+                new CompletableFuture<>());
+        synchronized (this) {
+            queue.add(queuedScan);
+        }
+        dispatch();
+        return queuedScan.getFuture();
+    }
+
+    /**
+     * Counts a tool version, which scan is skipped.
+     */
+    void skip() {
+        skipped.incrementAndGet();
+    }
+
+    synchronized ToolScanQueueStats getStats() {
+        evictCompletionTimes();
+        return new ToolScanQueueStats(queue.size(), running, completed.get(), failed.get(), skipped.get(),
+                (double) completionTimes.size() / RATE_WINDOW_MINUTES);
+    }
+
+    private void dispatch() {
+        final List<QueuedScan<?>> scansToStart = new ArrayList<>();
+        synchronized (this) {
+            final Iterator<QueuedScan<?>> iterator = queue.iterator();
+            while (running < poolSize && iterator.hasNext()) {
+                final QueuedScan<?> queuedScan = iterator.next();
+                final int registryRunning = runningByRegistry.getOrDefault(queuedScan.getRegistryId(), 0);
+                if (registryRunning < registryPoolSize) {
+                    iterator.remove();
+                    runningByRegistry.put(queuedScan.getRegistryId(), registryRunning + 1);
+                    running++;
+                    scansToStart.add(queuedScan);
+                }
+            }
+        }
+        scansToStart.forEach(this::start);
+    }
+
+    private <T> void start(final QueuedScan<T> queuedScan) {
+        try {
+            executor.execute(() -> run(queuedScan));
+        } catch (RejectedExecutionException e) {
+            log.warn("Tool scan was rejected: {}", e.getMessage());
+            failed.incrementAndGet();
+            release(queuedScan);
+            queuedScan.getFuture().completeExceptionally(e);
+        }
+    }
+
+    private <T> void run(final QueuedScan<T> queuedScan) {
+        try {
+            final T result = queuedScan.getScan().call();
+            completed.incrementAndGet();
+            completionTimes.add(System.currentTimeMillis());
+            queuedScan.getFuture().complete(result);
+        } catch (Exception e) {
+            log.debug("Tool scan failed: {}", e.getMessage());
+            failed.incrementAndGet();
+            queuedScan.getFuture().completeExceptionally(e);
+        } finally {
+            evictCompletionTimes();
+            release(queuedScan);
+            dispatch();
+        }
+    }
+
+    private synchronized void release(final QueuedScan<?> queuedScan) {
+        runningByRegistry.computeIfPresent(queuedScan.getRegistryId(),
+            (registryId, registryRunning) -> registryRunning > 1 ? registryRunning - 1 : null);
+        running--;
+    }
+
+    private void evictCompletionTimes() {
+        final long windowStart = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(RATE_WINDOW_MINUTES);
+        while (!completionTimes.isEmpty() && completionTimes.peekFirst() < windowStart) {
+            completionTimes.pollFirst();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class QueuedScan<T> {
+        private final Long registryId;
+        private final int priority;
+        private final long sequence;
+        private final Callable<T> scan;
+        private final CompletableFuture<T> future;
+    }
+}
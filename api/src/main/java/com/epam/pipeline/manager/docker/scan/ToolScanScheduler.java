@@ -17,6 +17,7 @@
 package com.epam.pipeline.manager.docker.scan;
 
 import com.epam.pipeline.entity.pipeline.ToolScanStatus;
+import com.epam.pipeline.entity.scan.ToolScanQueueStats;
 import com.epam.pipeline.entity.scan.ToolVersionScanResult;
 import com.epam.pipeline.manager.preference.SystemPreferences;
 import com.epam.pipeline.manager.scheduling.AbstractSchedulingManager;
@@ -59,6 +60,13 @@ public class ToolScanScheduler extends AbstractSchedulingManager {
         core.scheduledToolScan();
     }
 
+    /**
+     * Returns the state of the queue, that runs both scheduled and forced tool scans.
+     */
+    public ToolScanQueueStats getQueueStats() {
+        return core.getQueueStats();
+    }
+
     /**
      * Schedule a Tool for security scan. Since a Tool's scan is a time costly operation, there's a queue for that.
      * A tool is added to that queue and will be processed in order. Once the tool is added to a queue, it's scanStatus
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2020 EPAM Systems, Inc. (https://www.epam.com/)
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
@@ -18,9 +18,11 @@ package com.epam.pipeline.manager.docker.scan;
 import com.epam.pipeline.common.MessageConstants;
 import com.epam.pipeline.common.MessageHelper;
 import com.epam.pipeline.dao.docker.DockerRegistryDao;
+import com.epam.pipeline.entity.docker.ManifestV2;
 import com.epam.pipeline.entity.pipeline.DockerRegistry;
 import com.epam.pipeline.entity.pipeline.Tool;
 import com.epam.pipeline.entity.pipeline.ToolScanStatus;
+import com.epam.pipeline.entity.scan.ToolScanQueueStats;
 import com.epam.pipeline.entity.scan.ToolVersionScanResult;
 import com.epam.pipeline.entity.scan.VulnerabilitySeverity;
 import com.epam.pipeline.exception.PipelineException;
@@ -40,24 +42,33 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
-import javax.annotation.PreDestroy;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+/**
+ * Plans and runs tool security scans.
+ *
+ * A scheduled scan skips tool versions, which manifest digest is the same as the digest of their last completed
+ * scan, since such a scan would only return the stored results. The rest of the versions are submitted
+ * to {@link ToolScanQueue} as soon as they are planned: forced scans go first, then versions that have never been
+ * scanned successfully, then versions with a changed digest and finally versions, which digest cannot be resolved.
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 @SuppressWarnings("PMD.AvoidCatchingGenericException")
 class ToolScanSchedulerCore {
 
+    private static final String LATEST_VERSION = "latest";
+
     private final DockerRegistryDao dockerRegistryDao;
     private final ToolScanManager toolScanManager;
     private final ToolManager toolManager;
@@ -66,11 +77,21 @@ class ToolScanSchedulerCore {
     private final DockerClientFactory dockerClientFactory;
     private final DockerRegistryManager dockerRegistryManager;
     private final PreferenceManager preferenceManager;
-    private final ExecutorService forceScanExecutor = Executors.newSingleThreadExecutor();
+    private final ToolScanQueue toolScanQueue;
+
+    /**
+     * Scan priorities in the order of their execution.
+     */
+    private enum ScanPriority {
+        FORCED, NEW, CHANGED, UNVERIFIED
+    }
 
-    @PreDestroy
     public void shutDown() {
-        forceScanExecutor.shutdownNow();
+        toolScanQueue.shutDown();
+    }
+
+    public ToolScanQueueStats getQueueStats() {
+        return toolScanQueue.getStats();
     }
 
     @SchedulerLock(name = "ToolScanScheduler_scheduledToolScan", lockAtMostForString = "PT48H")
@@ -85,45 +106,102 @@ class ToolScanSchedulerCore {
                 SystemPreferences.DOCKER_SECURITY_TOOL_SCAN_ALL_REGISTRIES);
         List<DockerRegistry> registries = scanAllRegistries ? dockerRegistryDao.loadAllDockerRegistry() :
                 dockerRegistryDao.loadDockerRegistriesWithSecurityScanEnabled();
+        final List<CompletableFuture<ToolVersionScanResult>> scans = new ArrayList<>();
         for (DockerRegistry registry : registries) {
-            scanRegistry(registry);
+            scans.addAll(scanRegistry(registry));
         }
+        // Scan failures are already handled for each version separately
+        CompletableFuture.allOf(scans.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(e -> null)
+                .join();
 
         log.info(messageHelper.getMessage(MessageConstants.INFO_TOOL_SCAN_SCHEDULED_DONE));
     }
 
-    private void scanRegistry(final DockerRegistry registry) {
+    private List<CompletableFuture<ToolVersionScanResult>> scanRegistry(final DockerRegistry registry) {
         log.info(messageHelper.getMessage(MessageConstants.INFO_TOOL_SCAN_REGISTRY_STARTED, registry.getPath()));
+        final RegistryScanPlan plan = new RegistryScanPlan();
         registry.getTools()
                 .stream()
                 .filter(Tool::isNotSymlink)
-                .forEach(tool -> scanTool(registry, tool));
+                .forEach(tool -> scanTool(registry, tool, plan));
+        log.info(messageHelper.getMessage(MessageConstants.INFO_TOOL_SCAN_REGISTRY_PLANNED, registry.getPath(),
+                plan.getCount(ScanPriority.NEW), plan.getCount(ScanPriority.CHANGED),
+                plan.getCount(ScanPriority.UNVERIFIED), plan.getSkipped()));
+        return plan.getScans();
     }
 
-    private void scanTool(final DockerRegistry registry, final Tool tool) {
+    private void scanTool(final DockerRegistry registry, final Tool tool, final RegistryScanPlan plan) {
         DockerClient dockerClient = getDockerClient(registry, tool);
         try {
+            final Map<String, ToolVersionScanResult> versionScans = toolManager.loadToolVersionScans(tool.getId());
             List<String> versions = toolManager.loadTags(tool.getId());
             for (String version : versions) {
-                try {
-                    ToolVersionScanResult result = toolScanManager.scanTool(tool, version, false);
-                    toolManager.updateToolVulnerabilities(result.getVulnerabilities(), tool.getId(), version);
-                    toolManager.updateToolDependencies(result.getDependencies(), tool.getId(), version);
-                    toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.COMPLETED, new Date(),
-                            version, result.getToolOSVersion(),
-                            result.getLastLayerRef(), result.getDigest(), result.getVulnerabilitiesCount());
-                    updateToolVersion(tool, version, registry, dockerClient);
-                } catch (ToolScanExternalServiceException e) {
-                    log.error(messageHelper.getMessage(MessageConstants.ERROR_TOOL_SCAN_FAILED,
-                            tool.getImage(), version), e);
-                    toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.FAILED, new Date(),
-                            version, null, null, new HashMap<>());
+                final Optional<ScanPriority> priority = getScanPriority(versionScans.get(version),
+                        getDigest(registry, tool, version, dockerClient).orElse(null));
+                if (!priority.isPresent()) {
+                    toolScanQueue.skip();
+                    plan.skip();
+                    continue;
                 }
+                plan.add(priority.get(), toolScanQueue.submit(registry.getId(), priority.get().ordinal(),
+                        new DelegatingSecurityContextCallable<>(
+                            () -> scanToolVersion(registry, tool, version, dockerClient),
+                            SecurityContextHolder.getContext())));
             }
         } catch (Exception e) {
             log.error(messageHelper.getMessage(MessageConstants.ERROR_TOOL_SCAN_FAILED, tool.getImage()), e);
             toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.FAILED, new Date(),
-                    "latest", null, null, new HashMap<>());
+                    LATEST_VERSION, null, null, new HashMap<>());
+        }
+    }
+
+    /**
+     * Returns a priority of a scheduled version scan or an empty optional if the version shall not be scanned,
+     * since its last completed scan is actual. A missing digest means that it couldn't be resolved.
+     */
+    private Optional<ScanPriority> getScanPriority(final ToolVersionScanResult versionScan, final String digest) {
+        if (versionScan == null || versionScan.getStatus() != ToolScanStatus.COMPLETED
+                || versionScan.getLastLayerRef() == null) {
+            return Optional.of(ScanPriority.NEW);
+        }
+        if (digest == null) {
+            return Optional.of(ScanPriority.UNVERIFIED);
+        }
+        return digest.equals(versionScan.getDigest())
+                ? Optional.empty()
+                : Optional.of(ScanPriority.CHANGED);
+    }
+
+    private Optional<String> getDigest(final DockerRegistry registry, final Tool tool, final String version,
+                                       final DockerClient dockerClient) {
+        try {
+            return dockerClient.getManifest(registry, tool.getImage(), version)
+                    .map(ManifestV2::getDigest);
+        } catch (Exception e) {
+            log.debug("Failed to get digest of tool {} version {}: {}", tool.getImage(), version, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private ToolVersionScanResult scanToolVersion(final DockerRegistry registry, final Tool tool,
+                                                  final String version, final DockerClient dockerClient)
+            throws Exception {
+        try {
+            ToolVersionScanResult result = toolScanManager.scanTool(tool, version, false);
+            toolManager.updateToolVulnerabilities(result.getVulnerabilities(), tool.getId(), version);
+            toolManager.updateToolDependencies(result.getDependencies(), tool.getId(), version);
+            toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.COMPLETED, new Date(),
+                    version, result.getToolOSVersion(),
+                    result.getLastLayerRef(), result.getDigest(), result.getVulnerabilitiesCount());
+            updateToolVersion(tool, version, registry, dockerClient);
+            return result;
+        } catch (Exception e) {
+            log.error(messageHelper.getMessage(MessageConstants.ERROR_TOOL_SCAN_FAILED,
+                    tool.getImage(), version), e);
+            toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.FAILED, new Date(),
+                    version, null, null, new HashMap<>());
+            throw e;
         }
     }
 
@@ -154,28 +232,29 @@ class ToolScanSchedulerCore {
                     .orElse(new HashMap<>());
             toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.PENDING, null,
                     version, layerRef, digest, vulnerabilitiesCount);
-            return forceScanExecutor.submit(new DelegatingSecurityContextCallable<>(() -> {
-                log.info(messageHelper.getMessage(
-                        MessageConstants.INFO_TOOL_FORCE_SCAN_STARTED, tool.getImage()));
-
-                try {
-                    ToolVersionScanResult scanResult = toolScanManager.scanTool(tool, version, rescan);
-                    toolManager.updateToolVulnerabilities(scanResult.getVulnerabilities(), tool.getId(),
-                            version);
-                    toolManager.updateToolDependencies(scanResult.getDependencies(), tool.getId(), version);
-                    toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.COMPLETED,
-                            scanResult.getScanDate(), version, scanResult.getToolOSVersion(),
-                            scanResult.getLastLayerRef(), scanResult.getDigest(),
-                            scanResult.getVulnerabilitiesCount());
-                    return scanResult;
-                } catch (Exception e) {
-                    toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.FAILED, new Date(),
-                            version, null, null, new HashMap<>());
-                    log.error(messageHelper.getMessage(
-                            MessageConstants.ERROR_TOOL_SCAN_FAILED, tool.getImage()), e);
-                    throw new PipelineException(e);
-                }
-            }, SecurityContextHolder.getContext()));
+            return toolScanQueue.submit(tool.getRegistryId(), ScanPriority.FORCED.ordinal(),
+                    new DelegatingSecurityContextCallable<>(() -> {
+                        log.info(messageHelper.getMessage(
+                                MessageConstants.INFO_TOOL_FORCE_SCAN_STARTED, tool.getImage()));
+
+                        try {
+                            ToolVersionScanResult scanResult = toolScanManager.scanTool(tool, version, rescan);
+                            toolManager.updateToolVulnerabilities(scanResult.getVulnerabilities(), tool.getId(),
+                                    version);
+                            toolManager.updateToolDependencies(scanResult.getDependencies(), tool.getId(), version);
+                            toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.COMPLETED,
+                                    scanResult.getScanDate(), version, scanResult.getToolOSVersion(),
+                                    scanResult.getLastLayerRef(), scanResult.getDigest(),
+                                    scanResult.getVulnerabilitiesCount());
+                            return scanResult;
+                        } catch (Exception e) {
+                            toolManager.updateToolVersionScanStatus(tool.getId(), ToolScanStatus.FAILED, new Date(),
+                                    version, null, null, new HashMap<>());
+                            log.error(messageHelper.getMessage(
+                                    MessageConstants.ERROR_TOOL_SCAN_FAILED, tool.getImage()), e);
+                            throw new PipelineException(e);
+                        }
+                    }, SecurityContextHolder.getContext()));
         }
 
         return CompletableFuture.completedFuture(new ToolVersionScanResult(ToolScanStatus.PENDING, null,
@@ -196,4 +275,32 @@ class ToolScanSchedulerCore {
         String token = dockerRegistryManager.getImageToken(registry, tool.getImage());
         return dockerClientFactory.getDockerClient(registry, token);
     }
+
+    private static final class RegistryScanPlan {
+
+        private final List<CompletableFuture<ToolVersionScanResult>> scans = new ArrayList<>();
+        private final Map<ScanPriority, Integer> counts = new EnumMap<>(ScanPriority.class);
+        private int skipped;
+
+        void add(final ScanPriority priority, final CompletableFuture<ToolVersionScanResult> scan) {
+            scans.add(scan);
+            counts.merge(priority, 1, Integer::sum);
+        }
+
+        void skip() {
+            skipped++;
+        }
+
+        int getCount(final ScanPriority priority) {
+            return counts.getOrDefault(priority, 0);
+        }
+
+        int getSkipped() {
+            return skipped;
+        }
+
+        List<CompletableFuture<ToolVersionScanResult>> getScans() {
+            return scans;
+        }
+    }
 }
@@ -237,7 +237,7 @@ public class LogManager {
 
     private SearchResponse executeRequest(final SearchRequest searchRequest) {
         try {
-            return elasticHelper.buildClient().search(searchRequest);
+            return elasticHelper.getClient().search(searchRequest);
         } catch (IOException e) {
             throw new PipelineException(e);
         }
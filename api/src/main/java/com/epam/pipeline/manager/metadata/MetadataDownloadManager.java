@@ -16,24 +16,25 @@
 
 package com.epam.pipeline.manager.metadata;
 
-import com.amazonaws.util.StringInputStream;
 import com.epam.pipeline.common.MessageConstants;
 import com.epam.pipeline.common.MessageHelper;
-import com.epam.pipeline.entity.metadata.MetadataEntity;
+import com.epam.pipeline.manager.metadata.writer.MetadataFileColumn;
 import com.epam.pipeline.manager.metadata.writer.MetadataWriterException;
 import com.epam.pipeline.manager.metadata.writer.MetadataFileFormat;
 import com.epam.pipeline.manager.metadata.writer.MetadataWriter;
 import com.epam.pipeline.manager.metadata.writer.MetadataWriterProvider;
 import com.epam.pipeline.manager.pipeline.FolderManager;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
 import org.springframework.util.Assert;
 
 @RequiredArgsConstructor
@@ -45,19 +46,39 @@ public class MetadataDownloadManager {
     private final MessageHelper messageHelper;
     private final MetadataWriterProvider metadataWriterProvider;
 
-    public InputStream getInputStream(final Long folderId,
-                                      final String entityClass,
-                                      final String fileExtension) {
+    /**
+     * Writes all entities of a class in a folder to the writer. File columns are resolved by the database
+     * beforehand, then entities are read through a database cursor and written one by one, so they are never
+     * loaded into memory all at once. Nothing is written if there are no entities of the class in the folder.
+     */
+    public void writeEntities(final Long folderId,
+                              final String entityClass,
+                              final String fileExtension,
+                              final Writer writer) {
         final MetadataFileFormat fileFormat = retrieveMetadataFileFormat(fileExtension);
-        final List<MetadataEntity> entities = retrieveMetadataEntities(folderId, entityClass);
-        final StringWriter stringWriter = new StringWriter();
-        final MetadataWriter metadataWriter = metadataWriterProvider.getMetadataWriter(stringWriter, fileFormat);
-        metadataWriter.writeEntities(entityClass, entities);
+        folderManager.load(folderId);
+        final List<MetadataFileColumn> columns = MetadataWriter.sortColumns(
+                metadataEntityManager.loadMetadataEntityDataTypes(folderId, entityClass).stream()
+                        .map(dataType -> MetadataFileColumn.from(dataType.getKey(), dataType.getValue())));
+        final List<String> dataKeys = columns.stream()
+                .map(MetadataFileColumn::getField)
+                .collect(Collectors.toList());
+        final MetadataWriter metadataWriter = metadataWriterProvider.getMetadataWriter(writer, fileFormat);
+        final AtomicBoolean headerWritten = new AtomicBoolean();
+        metadataEntityManager.streamMetadataEntityValues(folderId, entityClass, dataKeys, (externalId, values) -> {
+            if (headerWritten.compareAndSet(false, true)) {
+                metadataWriter.writeHeader(entityClass, columns);
+            }
+            metadataWriter.writeEntity(externalId, columns, values.stream()
+                    .map(StringUtils::defaultString)
+                    .collect(Collectors.toList()));
+        });
+        Assert.isTrue(headerWritten.get(), messageHelper.getMessage(
+                MessageConstants.ERROR_METADATA_ENTITY_CLASS_NOT_FOUND_IN_FOLDER, folderId, entityClass));
         try {
-            return new StringInputStream(stringWriter.toString());
+            metadataWriter.flush();
         } catch (IOException e) {
-            throw new MetadataWriterException(
-                    messageHelper.getMessage(MessageConstants.ERROR_METADATA_ENTITY_WRITING_BAD_ENCODING), e);
+            throw new MetadataWriterException(e.getMessage(), e);
         }
     }
 
@@ -68,13 +89,4 @@ public class MetadataDownloadManager {
                 .orElseThrow(() -> new IllegalArgumentException(messageHelper.getMessage(
                         MessageConstants.ERROR_METADATA_ENTITY_WRITING_UNSUPPORTED_FORMAT, fileExtension)));
     }
-
-    private List<MetadataEntity> retrieveMetadataEntities(final Long folderId, final String entityClass) {
-        folderManager.load(folderId);
-        final List<MetadataEntity> entities =
-                metadataEntityManager.loadMetadataEntityByClassNameAndFolderId(folderId, entityClass);
-        Assert.isTrue(CollectionUtils.isNotEmpty(entities), messageHelper.getMessage(
-                MessageConstants.ERROR_METADATA_ENTITY_CLASS_NOT_FOUND_IN_FOLDER, folderId, entityClass));
-        return entities;
-    }
 }
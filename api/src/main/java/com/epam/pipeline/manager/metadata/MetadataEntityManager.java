@@ -41,6 +41,7 @@ import com.epam.pipeline.manager.security.SecuredEntityManager;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,6 +60,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -192,6 +194,17 @@ public class MetadataEntityManager implements SecuredEntityManager {
         return metadataEntityDao.loadMetadataEntityByClassNameAndFolderId(id, className);
     }
 
+    public List<Pair<String, String>> loadMetadataEntityDataTypes(Long folderId, String className) {
+        Assert.notNull(className, messageHelper.getMessage(MessageConstants.ERROR_METADATA_ENTITY_CLASS_NOT_FOUND));
+        return metadataEntityDao.loadMetadataEntityDataTypes(folderId, className);
+    }
+
+    public void streamMetadataEntityValues(Long folderId, String className, List<String> dataKeys,
+                                           BiConsumer<String, List<String>> consumer) {
+        Assert.notNull(className, messageHelper.getMessage(MessageConstants.ERROR_METADATA_ENTITY_CLASS_NOT_FOUND));
+        metadataEntityDao.streamMetadataEntityValues(folderId, className, dataKeys, consumer);
+    }
+
     @Transactional(propagation = Propagation.REQUIRED)
     public MetadataEntity updateMetadataItemKey(MetadataEntityVO metadataEntityVO) {
         MetadataEntity metadataEntity = metadataEntityVO.convertToMetadataEntity();
@@ -20,27 +20,35 @@ import com.epam.pipeline.common.MessageConstants;
 import com.epam.pipeline.common.MessageHelper;
 import com.epam.pipeline.entity.metadata.MetadataClass;
 import com.epam.pipeline.entity.metadata.MetadataEntity;
+import com.epam.pipeline.entity.metadata.MetadataUploadResult;
 import com.epam.pipeline.entity.pipeline.Folder;
 import com.epam.pipeline.exception.MetadataReadingException;
 import com.epam.pipeline.manager.metadata.parser.EntityTypeField;
 import com.epam.pipeline.manager.metadata.parser.MetadataEntityHeaderParser;
 import com.epam.pipeline.manager.metadata.parser.MetadataEntityReader;
 import com.epam.pipeline.manager.metadata.parser.MetadataHeader;
-import com.epam.pipeline.manager.metadata.parser.MetadataParsingResult;
 import com.epam.pipeline.manager.pipeline.FolderManager;
 import com.epam.pipeline.manager.security.AuthManager;
 import com.epam.pipeline.manager.utils.MetadataParsingUtils;
-import com.google.common.io.ByteSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import static java.util.stream.Collectors.toMap;
 
@@ -62,27 +70,73 @@ public class MetadataUploadManager {
     private AuthManager authManager;
 
 
+    @Value("${metadata.upload.chunk.size:10000}")
+    private int chunkSize;
+
+    /**
+     * Uploads metadata entities from a file in a single transaction. The file is parsed and stored in chunks,
+     * but all uploaded entities are returned, so this method is intended for files of a moderate size only.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
     public List<MetadataEntity> uploadFromFile(Long parentId, MultipartFile file) {
         Assert.notNull(parentId,
                 messageHelper.getMessage(MessageConstants.ERROR_PARAMETER_NULL_OR_EMPTY));
-        MetadataParsingResult parsedData = readFile(parentId, file);
-        return metadataEntityManager.createAndUpdateEntities(parentId, parsedData);
+        final Map<Long, MetadataEntity> entities = new LinkedHashMap<>();
+        readFile(parentId, file, 1L, (chunk, lastLine) ->
+                chunk.forEach(entity -> entities.put(entity.getId(), entity)));
+        return new ArrayList<>(entities.values());
     }
 
-    private MetadataParsingResult readFile(Long parentId, MultipartFile file) {
+    /**
+     * Imports metadata entities from a file of any size. Each chunk of the file is stored in a separate
+     * transaction, so if the import fails, it can be resumed from the first line of the failed chunk which
+     * is reported in the error message.
+     *
+     * @param parentId folder to import entities to
+     * @param file metadata file
+     * @param fromLine number of the first data line to import, starting from 1; file header is not counted
+     */
+    public MetadataUploadResult importFromFile(Long parentId, MultipartFile file, Long fromLine) {
+        Assert.notNull(parentId,
+                messageHelper.getMessage(MessageConstants.ERROR_PARAMETER_NULL_OR_EMPTY));
+        final MetadataUploadResult result = new MetadataUploadResult();
+        result.setFromLine(fromLine == null ? 1L : fromLine);
+        Assert.isTrue(result.getFromLine() > 0,
+                messageHelper.getMessage(MessageConstants.ERROR_METADATA_UPLOAD_INVALID_FROM_LINE,
+                        String.valueOf(result.getFromLine())));
+        result.setLastLine(result.getFromLine() - 1);
         try {
-            final Folder parent = folderManager.load(parentId);
-            String delimiter = MetadataParsingUtils.getDelimiterFromFileExtension(file.getOriginalFilename());
-            String fallbackMetadataClass = 
-                    MetadataParsingUtils.getMetadataClassFromFileName(file.getOriginalFilename());
-            byte[] inputData = file.getBytes();
-            MetadataHeader header = new MetadataEntityHeaderParser(delimiter, fallbackMetadataClass)
-                    .readHeader(ByteSource.wrap(inputData).openStream());
+            readFile(parentId, file, result.getFromLine(), (chunk, lastLine) -> {
+                result.setLastLine(lastLine);
+                result.setChunks(result.getChunks() + 1);
+                result.setEntities(result.getEntities() + chunk.size());
+                LOGGER.info("Metadata import to folder {}: {} lines processed, {} entities uploaded.",
+                        parentId, lastLine - result.getFromLine() + 1, result.getEntities());
+            });
+        } catch (RuntimeException e) {
+            throw new MetadataReadingException(messageHelper.getMessage(
+                    MessageConstants.ERROR_METADATA_UPLOAD_CHUNK_FAILED,
+                    String.valueOf(result.getLastLine() + 1), e.getMessage()), e);
+        }
+        return result;
+    }
+
+    private void readFile(Long parentId, MultipartFile file, Long fromLine,
+                          BiConsumer<List<MetadataEntity>, Long> chunkConsumer) {
+        final Folder parent = folderManager.load(parentId);
+        final String delimiter = MetadataParsingUtils.getDelimiterFromFileExtension(file.getOriginalFilename());
+        final String fallbackMetadataClass =
+                MetadataParsingUtils.getMetadataClassFromFileName(file.getOriginalFilename());
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            final MetadataHeader header = new MetadataEntityHeaderParser(delimiter, fallbackMetadataClass)
+                    .parseHeader(reader.readLine());
             validateTypes(header, parentId);
-            MetadataClass metadataClass = getOrCreateClass(header.getClassName());
-            return new MetadataEntityReader(delimiter, parent, metadataClass)
-                    .readData(ByteSource.wrap(inputData).openStream(), header.getFields(), 
-                            header.isClassColumnPresent());
+            final MetadataClass metadataClass = getOrCreateClass(header.getClassName());
+            new MetadataEntityReader(delimiter, parent, metadataClass)
+                    .readChunks(reader, header, chunkSize, fromLine, (chunk, lastLine) ->
+                            chunkConsumer.accept(metadataEntityManager.createAndUpdateEntities(parentId, chunk),
+                                    lastLine));
         } catch (IOException e) {
             throw new MetadataReadingException(e.getMessage(), e);
         }
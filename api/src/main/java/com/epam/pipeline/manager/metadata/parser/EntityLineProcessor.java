@@ -31,10 +31,8 @@ import com.epam.pipeline.entity.metadata.PipeConfValue;
 import com.epam.pipeline.entity.pipeline.Folder;
 import com.epam.pipeline.exception.MetadataReadingException;
 import com.google.common.io.LineProcessor;
-import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang.StringUtils;
 
-@RequiredArgsConstructor
 public class EntityLineProcessor implements LineProcessor<MetadataParsingResult> {
 
     private static final String NAME_FIELD = "name";
@@ -46,9 +44,31 @@ public class EntityLineProcessor implements LineProcessor<MetadataParsingResult>
     private final Map<String, MetadataEntity> currentResults = new HashMap<>();
     private final Map<String, Set<String>> referenceTypes = new HashMap<>();
     //externalId - field - array values
-    private final Map<String, Map<String, Set<String>>> arrayValues = new HashMap<>();
+    private final Map<String, Map<String, Set<String>>> arrayValues;
 
-    private boolean headerProcessed = false;
+    private boolean headerProcessed;
+
+    public EntityLineProcessor(final String delimiter, final Folder parent, final MetadataClass metadataClass,
+                               final Map<Integer, EntityTypeField> fields, final boolean classColumnPresent) {
+        this(delimiter, parent, metadataClass, fields, classColumnPresent, new HashMap<>(), false);
+    }
+
+    /**
+     * Creates a processor for a part of a metadata file. Array values of multi value fields are accumulated
+     * in the given map, so it shall be shared between processors of the parts of the same file.
+     */
+    public EntityLineProcessor(final String delimiter, final Folder parent, final MetadataClass metadataClass,
+                               final Map<Integer, EntityTypeField> fields, final boolean classColumnPresent,
+                               final Map<String, Map<String, Set<String>>> arrayValues,
+                               final boolean headerProcessed) {
+        this.delimiter = delimiter;
+        this.parent = parent;
+        this.metadataClass = metadataClass;
+        this.fields = fields;
+        this.classColumnPresent = classColumnPresent;
+        this.arrayValues = arrayValues;
+        this.headerProcessed = headerProcessed;
+    }
 
     @Override
     public boolean processLine(String line) {
@@ -59,10 +79,7 @@ public class EntityLineProcessor implements LineProcessor<MetadataParsingResult>
             headerProcessed = true;
             return true;
         }
-        String[] chunks = StringUtils.splitPreserveAllTokens(line, delimiter);
-        if (chunks.length != fields.size() + (classColumnPresent ? 1 : 0)) {
-            throw new MetadataReadingException("Size of line doesn't match header");
-        }
+        String[] chunks = splitLine(line);
         MetadataEntity entity = getOrCreateEntity(classColumnPresent ? chunks[0] : null);
         fields.forEach((index, field) -> {
             String value = chunks[index];
@@ -86,6 +103,37 @@ public class EntityLineProcessor implements LineProcessor<MetadataParsingResult>
         return true;
     }
 
+    /**
+     * Accumulates array values of multi value fields of a line without creating an entity. It is used for
+     * skipped lines of a resumed import, since entities of the remaining lines may have values in them.
+     */
+    public void processArrayValues(final String line) {
+        if (!classColumnPresent || StringUtils.isBlank(line)) {
+            return;
+        }
+        final String[] chunks = splitLine(line);
+        final String id = chunks[0];
+        if (StringUtils.isBlank(id)) {
+            return;
+        }
+        fields.forEach((index, field) -> {
+            final String value = chunks[index];
+            if (field.isMultiValue() && StringUtils.isNotBlank(value)) {
+                arrayValues.computeIfAbsent(id, key -> new HashMap<>())
+                        .computeIfAbsent(field.getName(), key -> new HashSet<>())
+                        .add(value);
+            }
+        });
+    }
+
+    private String[] splitLine(String line) {
+        String[] chunks = StringUtils.splitPreserveAllTokens(line, delimiter);
+        if (chunks.length != fields.size() + (classColumnPresent ? 1 : 0)) {
+            throw new MetadataReadingException("Size of line doesn't match header");
+        }
+        return chunks;
+    }
+
     private PipeConfValue getValue(EntityTypeField field, String newValue, PipeConfValue previousValue,
                                    Map<String, Set<String>> currentArrayValue) {
         String value = field.isMultiValue() ? getArrayValue(field.getName(), newValue, currentArrayValue) :
@@ -128,6 +176,10 @@ public class EntityLineProcessor implements LineProcessor<MetadataParsingResult>
         return entity;
     }
 
+    public boolean isEmpty() {
+        return currentResults.isEmpty();
+    }
+
     @Override
     public MetadataParsingResult getResult() {
         return new MetadataParsingResult(metadataClass, referenceTypes, currentResults);
@@ -34,21 +34,24 @@ public class MetadataEntityHeaderParser {
 
     public MetadataHeader readHeader(InputStream stream) {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
-            String line = reader.readLine();
-            if (StringUtils.isBlank(line)) {
-                throw new MetadataReadingException("Input file header should have at least one column.");
-            }
-            String[] columns = line.split(delimiter);
-            Optional<String> columnMetadataClass = headerParser.readClassColumn(columns[0]);
-            MetadataHeader header = columnMetadataClass
-                    .map(metadataClass -> new MetadataHeader(metadataClass, true))
-                    .orElseGet(() -> new MetadataHeader(fallbackMetadataClass, false));
-            for (int i = header.isClassColumnPresent() ? 1 : 0; i < columns.length; i++) {
-                header.addField(i, headerParser.readFieldColumn(columns[i]));
-            }
-            return header;
+            return parseHeader(reader.readLine());
         } catch (IOException e) {
             throw new MetadataReadingException(e.getMessage(), e);
         }
     }
+
+    public MetadataHeader parseHeader(String line) {
+        if (StringUtils.isBlank(line)) {
+            throw new MetadataReadingException("Input file header should have at least one column.");
+        }
+        String[] columns = line.split(delimiter);
+        Optional<String> columnMetadataClass = headerParser.readClassColumn(columns[0]);
+        MetadataHeader header = columnMetadataClass
+                .map(metadataClass -> new MetadataHeader(metadataClass, true))
+                .orElseGet(() -> new MetadataHeader(fallbackMetadataClass, false));
+        for (int i = header.isClassColumnPresent() ? 1 : 0; i < columns.length; i++) {
+            header.addField(i, headerParser.readFieldColumn(columns[i]));
+        }
+        return header;
+    }
 }
@@ -16,18 +16,24 @@
 
 package com.epam.pipeline.manager.metadata.parser;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 import com.epam.pipeline.entity.metadata.MetadataClass;
 import com.epam.pipeline.entity.pipeline.Folder;
 import com.google.common.io.CharStreams;
 import com.google.common.io.LineProcessor;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
 
 @RequiredArgsConstructor
 public class MetadataEntityReader {
@@ -45,4 +51,55 @@ public class MetadataEntityReader {
             return CharStreams.readLines(reader, processor);
         }
     }
+
+    /**
+     * Reads entities from data lines of a metadata file in chunks of about {@code chunkSize} lines. Consecutive
+     * lines of the same entity are never split between chunks. Array values of multi value fields are accumulated
+     * across chunks, so an entity which lines are split between chunks gets the same values as if it was read
+     * in a single chunk. Array values of skipped lines are accumulated as well, so an import resumed
+     * from {@code fromLine} stores the same array values as the full one.
+     *
+     * @param reader reader positioned after the file header
+     * @param header file header
+     * @param chunkSize number of data lines in a chunk
+     * @param fromLine number of the first data line to read, starting from 1; previous lines are skipped
+     * @param chunkConsumer consumer of parsed chunks and numbers of their last data lines
+     * @return number of the last read data line
+     */
+    public long readChunks(final BufferedReader reader, final MetadataHeader header, final int chunkSize,
+                           final long fromLine, final BiConsumer<MetadataParsingResult, Long> chunkConsumer)
+            throws IOException {
+        final Map<String, Map<String, Set<String>>> arrayValues = new HashMap<>();
+        EntityLineProcessor processor = chunkProcessor(header, arrayValues);
+        long lineNumber = 0;
+        int chunkLines = 0;
+        String previousId = null;
+        String line;
+        while ((line = reader.readLine()) != null && !StringUtils.isBlank(line)) {
+            lineNumber++;
+            if (lineNumber < fromLine) {
+                processor.processArrayValues(line);
+                continue;
+            }
+            final String id = header.isClassColumnPresent() ? StringUtils.substringBefore(line, delimiter) : null;
+            if (chunkLines >= chunkSize && (StringUtils.isBlank(id) || !Objects.equals(id, previousId))) {
+                chunkConsumer.accept(processor.getResult(), lineNumber - 1);
+                processor = chunkProcessor(header, arrayValues);
+                chunkLines = 0;
+            }
+            processor.processLine(line);
+            previousId = id;
+            chunkLines++;
+        }
+        if (!processor.isEmpty()) {
+            chunkConsumer.accept(processor.getResult(), lineNumber);
+        }
+        return lineNumber;
+    }
+
+    private EntityLineProcessor chunkProcessor(final MetadataHeader header,
+                                               final Map<String, Map<String, Set<String>>> arrayValues) {
+        return new EntityLineProcessor(delimiter, parent, metadataClass, header.getFields(),
+                header.isClassColumnPresent(), arrayValues, true);
+    }
 }
@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class MetadataWriter {
@@ -52,22 +53,49 @@ public class MetadataWriter {
 
     public void writeEntities(@NonNull final String metadataClass, @NonNull final List<MetadataEntity> entities) {
         final List<MetadataFileColumn> columns = retrieveEntityColumns(entities);
+        writeHeader(metadataClass, columns);
+        entities.forEach(entity -> writeEntity(entity.getExternalId(), columns, columns.stream()
+                .map(column -> column.getValueOf(entity))
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Writes a file header. Columns shall be sorted with {@link #sortColumns(Stream)}.
+     */
+    public void writeHeader(@NonNull final String metadataClass, @NonNull final List<MetadataFileColumn> columns) {
         addLine(headerLine(metadataClass, columns));
-        entities.stream()
-                .flatMap(entity -> entityLines(entity, columns))
-                .forEach(this::addLine);
+    }
+
+    /**
+     * Writes lines of a single entity.
+     *
+     * @param externalId entity external id
+     * @param columns file columns
+     * @param values entity values in the same order as columns
+     */
+    public void writeEntity(@NonNull final String externalId, @NonNull final List<MetadataFileColumn> columns,
+                            @NonNull final List<String> values) {
+        entityLines(externalId, columns, values).forEach(this::addLine);
+    }
+
+    public void flush() throws IOException {
+        csvWriter.flush();
+    }
+
+    public static List<MetadataFileColumn> sortColumns(final Stream<MetadataFileColumn> columns) {
+        return columns
+                .distinct()
+                .sorted(Comparator.comparing(MetadataFileColumn::getName))
+                .collect(Collectors.toList());
     }
 
     private List<MetadataFileColumn> retrieveEntityColumns(final List<MetadataEntity> entities) {
         if (entities.isEmpty()) {
             throw new MetadataWriterException("There are no metadata entities to write");
         }
-        return entities.stream()
+        return sortColumns(entities.stream()
                 .flatMap(entity -> MapUtils.emptyIfNull(entity.getData()).entrySet().stream())
-                .map(entry -> MetadataFileColumn.from(entry.getKey(), entry.getValue().getType()))
-                .distinct()
-                .sorted(Comparator.comparing(MetadataFileColumn::getName))
-                .collect(Collectors.toList());
+                .map(entry -> MetadataFileColumn.from(entry.getKey(), entry.getValue().getType())));
     }
 
     private List<String> headerLine(final String metadataClass, final List<MetadataFileColumn> columns) {
@@ -86,41 +114,35 @@ public class MetadataWriter {
         csvWriter.writeNext(escapedValues);
     }
 
-    private Stream<List<String>> entityLines(final MetadataEntity entity, final List<MetadataFileColumn> columns) {
-        final List<MetadataFileColumn> membershipColumns = columns.stream()
-                .filter(column -> column.getType() == MetadataFileColumnType.MEMBERSHIP)
+    private Stream<List<String>> entityLines(final String externalId, final List<MetadataFileColumn> columns,
+                                             final List<String> values) {
+        final List<Integer> membershipColumns = IntStream.range(0, columns.size())
+                .filter(index -> columns.get(index).getType() == MetadataFileColumnType.MEMBERSHIP)
+                .boxed()
                 .collect(Collectors.toList());
         return membershipColumns.isEmpty()
-                ? streamOfPlainEntity(entity, columns)
-                : streamOfMultilineEntities(entity, columns, membershipColumns);
-    }
-
-    private Stream<List<String>> streamOfPlainEntity(final MetadataEntity entity,
-                                                     final List<MetadataFileColumn> columns) {
-        final List<String> values = columns.stream()
-                .map(column -> column.getValueOf(entity))
-                .collect(Collectors.toList());
-        return Stream.of(listOf(entity.getExternalId(), values));
+                ? Stream.of(listOf(externalId, values))
+                : streamOfMultilineEntities(externalId, values, membershipColumns);
     }
 
-    private Stream<List<String>> streamOfMultilineEntities(final MetadataEntity entity,
-                                                           final List<MetadataFileColumn> columns,
-                                                           final List<MetadataFileColumn> membershipColumns) {
-        final Map<MetadataFileColumn, List<String>> membershipColumnsValues = membershipColumns.stream()
-                .map(column -> new ImmutablePair<>(column, splitStringArray(column.getValueOf(entity))))
+    private Stream<List<String>> streamOfMultilineEntities(final String externalId,
+                                                           final List<String> values,
+                                                           final List<Integer> membershipColumns) {
+        final Map<Integer, List<String>> membershipColumnsValues = membershipColumns.stream()
+                .map(index -> new ImmutablePair<>(index, splitStringArray(values.get(index))))
                 .collect(Collectors.toMap(Pair::getKey, Pair::getValue));
-        final List<Map<MetadataFileColumn, String>> membershipColumnsValuesPermutations =
+        final List<Map<Integer, String>> membershipColumnsValuesPermutations =
                 permuteValues(membershipColumnsValues);
 
         return membershipColumnsValuesPermutations.stream()
                 .map(membershipColumnsValuesCombination -> {
-                    final List<String> values = columns.stream()
-                            .map(column -> membershipColumnsValuesCombination.containsKey(column)
-                                    ? membershipColumnsValuesCombination.get(column)
-                                    : column.getValueOf(entity)
+                    final List<String> lineValues = IntStream.range(0, values.size())
+                            .mapToObj(index -> membershipColumnsValuesCombination.containsKey(index)
+                                    ? membershipColumnsValuesCombination.get(index)
+                                    : values.get(index)
                             )
                             .collect(Collectors.toList());
-                    return listOf(entity.getExternalId(), values);
+                    return listOf(externalId, lineValues);
                 });
     }
 
@@ -140,12 +162,12 @@ public class MetadataWriter {
         return list;
     }
 
-    private List<Map<MetadataFileColumn, String>> permuteValues(
-            final Map<MetadataFileColumn, List<String>> membershipColumnsValues) {
-        final List<Map<MetadataFileColumn, String>> initialList = Collections.singletonList(new HashMap<>());
-        final SimpleReference<List<Map<MetadataFileColumn, String>>> listReference = new SimpleReference<>(initialList);
+    private List<Map<Integer, String>> permuteValues(
+            final Map<Integer, List<String>> membershipColumnsValues) {
+        final List<Map<Integer, String>> initialList = Collections.singletonList(new HashMap<>());
+        final SimpleReference<List<Map<Integer, String>>> listReference = new SimpleReference<>(initialList);
         membershipColumnsValues.forEach((column, columnValues) -> {
-            final List<Map<MetadataFileColumn, String>> listWithAddedCurrentColumnValues =
+            final List<Map<Integer, String>> listWithAddedCurrentColumnValues =
                     columnValues.stream()
                             .distinct()
                             .flatMap(value -> listReference.getValue().stream()
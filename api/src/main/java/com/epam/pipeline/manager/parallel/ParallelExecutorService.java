@@ -19,21 +19,41 @@ package com.epam.pipeline.manager.parallel;
 import com.epam.pipeline.manager.preference.PreferenceManager;
 import com.epam.pipeline.manager.preference.SystemPreferences;
 import io.reactivex.schedulers.Schedulers;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * Provides a shared executor for node up and other long running cloud tasks.
+ *
+ * The executor queue is bounded with {@link SystemPreferences#CLUSTER_NODEUP_QUEUE_SIZE}, tasks submitted
+ * to a full executor are rejected with {@link java.util.concurrent.RejectedExecutionException}.
+ * Changes of {@link SystemPreferences#CLUSTER_NODEUP_MAX_THREADS} resize the executor in place.
+ *
+ * Node down and termination tasks use a separate executor of the same size with an unbounded queue,
+ * they shall never be rejected since otherwise cloud instances may be left running.
+ */
+@Slf4j
 @Service
-public class ParallelExecutorService {
+public class ParallelExecutorService implements PublicMetrics {
+
+    private static final String METRIC_PREFIX = "nodeup.executor.";
+
     @Autowired
     private PreferenceManager preferenceManager;
 
+    private volatile ResizableThreadPoolExecutor pool;
     private volatile ExecutorService executorService;
+    private volatile ExecutorService terminationExecutorService;
 
     public ExecutorService getExecutorService() {
         ExecutorService instance = executorService;
@@ -49,23 +69,68 @@ public class ParallelExecutorService {
         return instance;
     }
 
+    /**
+     * @return executor for node down and termination tasks, which never rejects submitted tasks
+     */
+    public ExecutorService getTerminationExecutorService() {
+        ExecutorService instance = terminationExecutorService;
+        if (instance == null) {
+            synchronized (this) {
+                instance = terminationExecutorService;
+                if (instance == null) {
+                    instance = createTerminationExecutorService();
+                    terminationExecutorService = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final ResizableThreadPoolExecutor current = pool;
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(
+                new Metric<>(METRIC_PREFIX + "pool.size", current.getCorePoolSize()),
+                new Metric<>(METRIC_PREFIX + "active", current.getActiveCount()),
+                new Metric<>(METRIC_PREFIX + "queue.size", current.getQueue().size()),
+                new Metric<>(METRIC_PREFIX + "queue.capacity", current.getQueueCapacity()),
+                new Metric<>(METRIC_PREFIX + "completed", current.getCompletedTaskCount()),
+                new Metric<>(METRIC_PREFIX + "rejected", current.getRejectedCount()),
+                new Metric<>(METRIC_PREFIX + "wait.avg", current.getAverageWaitMillis()),
+                new Metric<>(METRIC_PREFIX + "wait.oldest", current.getOldestWaitMillis()),
+                new Metric<>(METRIC_PREFIX + "execution.avg", current.getAverageExecutionMillis()));
+    }
+
     private ExecutorService createExecutorService() {
-        int maxNodeUpThreads = preferenceManager.getPreference(SystemPreferences.CLUSTER_NODEUP_MAX_THREADS);
+        final int maxNodeUpThreads = preferenceManager.getPreference(SystemPreferences.CLUSTER_NODEUP_MAX_THREADS);
+        final int queueSize = preferenceManager.getPreference(SystemPreferences.CLUSTER_NODEUP_QUEUE_SIZE);
+        final ResizableThreadPoolExecutor newPool = new ResizableThreadPoolExecutor(maxNodeUpThreads, queueSize);
+        newPool.prestartAllCoreThreads();
+        pool = newPool;
+
         preferenceManager.getObservablePreference(SystemPreferences.CLUSTER_NODEUP_MAX_THREADS)
             .observeOn(Schedulers.io())
-            .subscribe((numThreads -> {
-                synchronized (this) {
-                    executorService.shutdown();
-                    executorService = getExecutorService(maxNodeUpThreads);
-                }
-            }));
+            .subscribe(numThreads -> {
+                log.info("Resizing node up executor to {} threads.", numThreads);
+                newPool.resize(numThreads);
+            });
+        preferenceManager.getObservablePreference(SystemPreferences.CLUSTER_NODEUP_QUEUE_SIZE)
+            .observeOn(Schedulers.io())
+            .subscribe(newPool::setQueueCapacity);
 
-        return getExecutorService(maxNodeUpThreads);
+        return new DelegatingSecurityContextExecutorService(newPool, SecurityContextHolder.getContext());
     }
 
-    private ExecutorService getExecutorService(final int maxNodeUpThreads) {
-        ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(maxNodeUpThreads);
-        pool.prestartAllCoreThreads();
-        return new DelegatingSecurityContextExecutorService(pool, SecurityContextHolder.getContext());
+    private ExecutorService createTerminationExecutorService() {
+        final int maxNodeUpThreads = preferenceManager.getPreference(SystemPreferences.CLUSTER_NODEUP_MAX_THREADS);
+        final ResizableThreadPoolExecutor newPool = new ResizableThreadPoolExecutor(maxNodeUpThreads,
+                Integer.MAX_VALUE);
+        preferenceManager.getObservablePreference(SystemPreferences.CLUSTER_NODEUP_MAX_THREADS)
+            .observeOn(Schedulers.io())
+            .subscribe(newPool::resize);
+        return new DelegatingSecurityContextExecutorService(newPool, SecurityContextHolder.getContext());
     }
 }
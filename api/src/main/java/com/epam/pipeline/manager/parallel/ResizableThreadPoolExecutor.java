@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.parallel;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed size thread pool which size and queue capacity can be changed without recreation of the pool.
+ *
+ * A task submitted while the queue is full is rejected with {@link RejectedExecutionException}.
+ * The pool also tracks the time tasks spend in the queue and in execution.
+ */
+class ResizableThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private final Object submitLock = new Object();
+    private final ThreadLocal<Long> executionStart = new ThreadLocal<>();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+    private final AtomicLong totalExecutionMillis = new AtomicLong();
+    private final AtomicLong finishedCount = new AtomicLong();
+    private volatile int queueCapacity;
+
+    ResizableThreadPoolExecutor(final int poolSize, final int queueCapacity) {
+        super(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        if (command == null) {
+            throw new IllegalArgumentException("Task shall be specified");
+        }
+        synchronized (submitLock) {
+            if (getQueue().size() >= queueCapacity) {
+                rejectedCount.incrementAndGet();
+                throw new RejectedExecutionException(String.format(
+                        "Task is rejected since %d tasks are already waiting for execution", queueCapacity));
+            }
+            super.execute(new TimedTask(command));
+        }
+    }
+
+    /**
+     * Changes the number of pool threads. Running tasks are not interrupted, excessive threads
+     * are stopped once they finish their current tasks.
+     */
+    public synchronized void resize(final int poolSize) {
+        if (poolSize == getCorePoolSize()) {
+            return;
+        }
+        if (poolSize > getMaximumPoolSize()) {
+            setMaximumPoolSize(poolSize);
+            setCorePoolSize(poolSize);
+        } else {
+            setCorePoolSize(poolSize);
+            setMaximumPoolSize(poolSize);
+        }
+    }
+
+    public void setQueueCapacity(final int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getAverageWaitMillis() {
+        final long finished = finishedCount.get();
+        return finished == 0 ? 0L : totalWaitMillis.get() / finished;
+    }
+
+    public long getAverageExecutionMillis() {
+        final long finished = finishedCount.get();
+        return finished == 0 ? 0L : totalExecutionMillis.get() / finished;
+    }
+
+    /**
+     * @return time the longest waiting task spends in the queue
+     */
+    public long getOldestWaitMillis() {
+        final Runnable oldest = getQueue().peek();
+        return oldest instanceof TimedTask ? System.currentTimeMillis() - ((TimedTask) oldest).getSubmitted() : 0L;
+    }
+
+    @Override
+    protected void beforeExecute(final Thread thread, final Runnable task) {
+        super.beforeExecute(thread, task);
+        final long now = System.currentTimeMillis();
+        if (task instanceof TimedTask) {
+            totalWaitMillis.addAndGet(now - ((TimedTask) task).getSubmitted());
+        }
+        executionStart.set(now);
+    }
+
+    @Override
+    protected void afterExecute(final Runnable task, final Throwable throwable) {
+        super.afterExecute(task, throwable);
+        final Long start = executionStart.get();
+        if (start != null) {
+            totalExecutionMillis.addAndGet(System.currentTimeMillis() - start);
+            executionStart.remove();
+        }
+        finishedCount.incrementAndGet();
+    }
+
+    private static final class TimedTask implements Runnable {
+
+        private final Runnable task;
+        private final long submitted;
+
+        TimedTask(final Runnable task) {
+            this.task = task;
+            this.submitted = System.currentTimeMillis();
+        }
+
+        long getSubmitted() {
+            return submitted;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
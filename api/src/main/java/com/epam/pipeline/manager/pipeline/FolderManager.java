@@ -34,13 +34,12 @@ import com.epam.pipeline.dao.pipeline.FolderDao;
 import com.epam.pipeline.entity.AbstractHierarchicalEntity;
 import com.epam.pipeline.entity.AbstractSecuredEntity;
 import com.epam.pipeline.entity.BaseEntity;
-import com.epam.pipeline.entity.configuration.RunConfiguration;
 import com.epam.pipeline.entity.datastorage.AbstractDataStorage;
 import com.epam.pipeline.entity.metadata.FolderWithMetadata;
 import com.epam.pipeline.entity.metadata.MetadataEntry;
 import com.epam.pipeline.entity.metadata.PipeConfValue;
 import com.epam.pipeline.entity.pipeline.Folder;
-import com.epam.pipeline.entity.pipeline.Pipeline;
+import com.epam.pipeline.entity.pipeline.FolderTreeSnapshot;
 import com.epam.pipeline.entity.security.acl.AclClass;
 import com.epam.pipeline.manager.EntityManager;
 import com.epam.pipeline.manager.configuration.RunConfigurationManager;
@@ -117,6 +116,9 @@ public class FolderManager {
     @Autowired
     private FolderTemplateManager folderTemplateManager;
 
+    @Autowired
+    private FolderTreeCache folderTreeCache;
+
     @Value("${storage.clone.name.suffix:}")
     private String storageSuffix;
 
@@ -153,27 +155,14 @@ public class FolderManager {
     }
 
     public Folder loadTree() {
-        List<Folder> result = folderDao.loadAllFolders();
-        List<Pipeline> rootPipelines = pipelineManager.loadRootPipelines();
-        List<AbstractDataStorage> rootDataStorages = dataStorageManager.loadRootDataStorages();
-        List<RunConfiguration> rootRunConfigurations = configurationManager.loadRootConfigurations();
-        Map<String, Integer> rootMetadataEntityCount = metadataEntityManager.loadRootMetadataEntities();
+        return loadTreeSnapshot().getTree();
+    }
 
-        Folder root = new Folder();
-        root.setChildFolders(result);
-        if (!CollectionUtils.isEmpty(rootPipelines)) {
-            root.setPipelines(rootPipelines);
-        }
-        if (!CollectionUtils.isEmpty(rootDataStorages)) {
-            root.setStorages(rootDataStorages);
-        }
-        if (!CollectionUtils.isEmpty(rootRunConfigurations)){
-            root.setConfigurations(rootRunConfigurations);
-        }
-        if (!CollectionUtils.sizeIsEmpty(rootMetadataEntityCount)) {
-            root.setMetadata(rootMetadataEntityCount);
-        }
-        return root;
+    /**
+     * Returns a private copy of the folders tree snapshot, see {@link FolderTreeCache}.
+     */
+    public FolderTreeSnapshot loadTreeSnapshot() {
+        return folderTreeCache.loadSnapshot();
     }
 
     public Folder loadAllProjects() {
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.pipeline;
+
+import com.epam.pipeline.dao.pipeline.FolderDao;
+import com.epam.pipeline.entity.configuration.RunConfiguration;
+import com.epam.pipeline.entity.datastorage.AbstractDataStorage;
+import com.epam.pipeline.entity.pipeline.Folder;
+import com.epam.pipeline.entity.pipeline.FolderTreeSnapshot;
+import com.epam.pipeline.entity.pipeline.Pipeline;
+import com.epam.pipeline.manager.configuration.RunConfigurationManager;
+import com.epam.pipeline.manager.datastorage.DataStorageManager;
+import com.epam.pipeline.manager.metadata.MetadataEntityManager;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps an in-memory snapshot of the folders tree, which is returned by {@link FolderManager#loadTree()}.
+ *
+ * The snapshot is split into sections, each of them is loaded with a separate query. Modifications of folders,
+ * pipelines, data storages, configurations and metadata entities mark the affected sections as changed once
+ * the modifying transaction is completed, and the next read rebuilds only the changed sections and increments
+ * the snapshot version. The snapshot is never modified after it is built, each reader gets its own deep copy
+ * of it, since the tree is filtered and masked for a particular user afterwards.
+ *
+ * Changed sections are also sent to other API instances with {@link FolderDao#notifyFolderTreeChanged(String)}
+ * once the modifying transaction is committed and are received by {@link FolderTreeChangeListener}. The whole
+ * snapshot is rebuilt anyway once it is older than {@code folder.tree.snapshot.ttl.ms}.
+ */
+@Service
+public class FolderTreeCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FolderTreeCache.class);
+    private static final String INSTANCE_DELIMITER = ":";
+    private static final String SECTIONS_DELIMITER = ",";
+
+    public enum Section {
+        FOLDERS, PIPELINES, STORAGES, CONFIGURATIONS, METADATA
+    }
+
+    @Autowired
+    private FolderDao folderDao;
+
+    @Autowired
+    private PipelineManager pipelineManager;
+
+    @Autowired
+    private DataStorageManager dataStorageManager;
+
+    @Autowired
+    private RunConfigurationManager configurationManager;
+
+    @Autowired
+    private MetadataEntityManager metadataEntityManager;
+
+    @Value("${folder.tree.snapshot.ttl.ms:60000}")
+    private long snapshotTtl;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Set<Section> changedSections = ConcurrentHashMap.newKeySet();
+    private volatile FolderTreeSnapshot snapshot;
+    private volatile long snapshotBuildTime;
+
+    /**
+     * Returns a copy of the current tree snapshot, the snapshot is rebuilt first if it has changed sections.
+     * If the current transaction has modified the tree, the tree is loaded from the database bypassing
+     * the snapshot, since such modifications are not visible to other transactions yet.
+     */
+    public FolderTreeSnapshot loadSnapshot() {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            final FolderTreeSnapshot current = snapshot;
+            return new FolderTreeSnapshot(current == null ? 0 : current.getVersion(),
+                    buildTree(null, EnumSet.allOf(Section.class)));
+        }
+        final FolderTreeSnapshot current = getActualSnapshot();
+        return new FolderTreeSnapshot(current.getVersion(), new TreeCopier().copy(current.getTree()),
+                current.getContentTag());
+    }
+
+    /**
+     * Marks the given sections of the tree as changed in this and other API instances. Inside a transaction
+     * sections are marked after its completion.
+     */
+    @SuppressWarnings("unchecked")
+    public void invalidate(final Section... sections) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateLocally(sections);
+            folderDao.notifyFolderTreeChanged(buildChangeNotification(Arrays.asList(sections)));
+            return;
+        }
+        final Set<Section> transactionSections = (Set<Section>) TransactionSynchronizationManager.getResource(this);
+        if (transactionSections != null) {
+            transactionSections.addAll(Arrays.asList(sections));
+            return;
+        }
+        final Set<Section> newTransactionSections = EnumSet.noneOf(Section.class);
+        newTransactionSections.addAll(Arrays.asList(sections));
+        TransactionSynchronizationManager.bindResource(this, newTransactionSections);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void beforeCommit(final boolean readOnly) {
+                // the notification is sent within the transaction, so it is delivered only if it is committed
+                folderDao.notifyFolderTreeChanged(buildChangeNotification(newTransactionSections));
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(FolderTreeCache.this);
+                changedSections.addAll(newTransactionSections);
+            }
+        });
+    }
+
+    /**
+     * Marks the given sections of the tree as changed in this API instance only.
+     */
+    void invalidateLocally(final Section... sections) {
+        changedSections.addAll(Arrays.asList(sections));
+    }
+
+    /**
+     * Marks the sections received from another API instance as changed. Notifications sent by this instance
+     * are skipped, since its sections are marked once the modifying transaction is completed.
+     */
+    void applyChangeNotification(final String payload) {
+        final String senderId = StringUtils.substringBefore(payload, INSTANCE_DELIMITER);
+        if (instanceId.equals(senderId)) {
+            return;
+        }
+        final String sections = StringUtils.substringAfter(payload, INSTANCE_DELIMITER);
+        for (String section : StringUtils.split(sections, SECTIONS_DELIMITER)) {
+            if (EnumUtils.isValidEnum(Section.class, section)) {
+                changedSections.add(Section.valueOf(section));
+            } else {
+                LOGGER.warn("Unknown folder tree section {} is received, the whole tree is marked as changed.",
+                        section);
+                invalidateLocally(Section.values());
+            }
+        }
+        LOGGER.debug("Folder tree sections {} were changed by another instance.", sections);
+    }
+
+    private String buildChangeNotification(final Collection<Section> sections) {
+        return instanceId + INSTANCE_DELIMITER + sections.stream()
+                .map(Section::name)
+                .collect(Collectors.joining(SECTIONS_DELIMITER));
+    }
+
+    private FolderTreeSnapshot getActualSnapshot() {
+        final FolderTreeSnapshot current = snapshot;
+        if (current != null && changedSections.isEmpty() && !isExpired()) {
+            return current;
+        }
+        return rebuildSnapshot();
+    }
+
+    private synchronized FolderTreeSnapshot rebuildSnapshot() {
+        final FolderTreeSnapshot current = snapshot;
+        final boolean full = current == null || isExpired();
+        if (!full && changedSections.isEmpty()) {
+            return current;
+        }
+        // Sections are unmarked before they are loaded, so concurrent modifications mark them once again
+        final Set<Section> sections = EnumSet.noneOf(Section.class);
+        for (Section section : Section.values()) {
+            if (changedSections.remove(section) || full) {
+                sections.add(section);
+            }
+        }
+        final long buildTime = System.currentTimeMillis();
+        final Folder tree = buildTree(full ? null : current.getTree(), sections);
+        final FolderTreeSnapshot rebuilt = new FolderTreeSnapshot(current == null ? 1 : current.getVersion() + 1,
+                tree);
+        LOGGER.debug("Folder tree snapshot {} is built from {}", rebuilt.getVersion(), sections);
+        snapshot = rebuilt;
+        snapshotBuildTime = buildTime;
+        return rebuilt;
+    }
+
+    private boolean isExpired() {
+        return System.currentTimeMillis() - snapshotBuildTime > snapshotTtl;
+    }
+
+    /**
+     * Root level pipelines, storages, configurations and metadata are set only if there are any of them,
+     * the same way as the tree has always been loaded.
+     */
+    private Folder buildTree(final Folder previous, final Set<Section> sections) {
+        final Folder root = new Folder();
+        root.setChildFolders(sections.contains(Section.FOLDERS)
+                ? folderDao.loadAllFolders()
+                : previous.getChildFolders());
+        final List<Pipeline> pipelines = sections.contains(Section.PIPELINES)
+                ? pipelineManager.loadRootPipelines()
+                : previous.getPipelines();
+        if (!CollectionUtils.isEmpty(pipelines)) {
+            root.setPipelines(pipelines);
+        }
+        final List<AbstractDataStorage> storages = sections.contains(Section.STORAGES)
+                ? dataStorageManager.loadRootDataStorages()
+                : previous.getStorages();
+        if (!CollectionUtils.isEmpty(storages)) {
+            root.setStorages(storages);
+        }
+        final List<RunConfiguration> configurations = sections.contains(Section.CONFIGURATIONS)
+                ? configurationManager.loadRootConfigurations()
+                : previous.getConfigurations();
+        if (!CollectionUtils.isEmpty(configurations)) {
+            root.setConfigurations(configurations);
+        }
+        final Map<String, Integer> metadata = sections.contains(Section.METADATA)
+                ? metadataEntityManager.loadRootMetadataEntities()
+                : previous.getMetadata();
+        if (!MapUtils.isEmpty(metadata)) {
+            root.setMetadata(metadata);
+        }
+        return root;
+    }
+
+    /**
+     * Deeply copies a tree. Entities are copied property by property, collections, maps and dates are copied
+     * with their elements, other values are immutable and are shared. Objects referenced several times within
+     * the tree, e.g. parent folders, are copied once. Objects without a public default constructor are shared.
+     */
+    private static final class TreeCopier {
+
+        private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        <T> T copy(final T value) {
+            if (value == null || isImmutable(value)) {
+                return value;
+            }
+            final Object existing = copies.get(value);
+            if (existing != null) {
+                return (T) existing;
+            }
+            if (value instanceof Date) {
+                return (T) register(value, new Date(((Date) value).getTime()));
+            }
+            if (value instanceof Collection) {
+                final Collection<Object> copy = register(value, value instanceof Set
+                        ? new LinkedHashSet<>() : new ArrayList<>());
+                ((Collection<Object>) value).forEach(item -> copy.add(copy(item)));
+                return (T) copy;
+            }
+            if (value instanceof Map) {
+                final Map<Object, Object> copy = register(value, new LinkedHashMap<>());
+                ((Map<Object, Object>) value).forEach((key, item) -> copy.put(copy(key), copy(item)));
+                return (T) copy;
+            }
+            return (T) copyBean(value);
+        }
+
+        private Object copyBean(final Object value) {
+            if (ClassUtils.getConstructorIfAvailable(value.getClass()) == null) {
+                return value;
+            }
+            final Object copy = register(value, BeanUtils.instantiateClass(value.getClass()));
+            for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(value.getClass())) {
+                final Method getter = property.getReadMethod();
+                final Method setter = property.getWriteMethod();
+                if (getter == null || setter == null) {
+                    continue;
+                }
+                ReflectionUtils.makeAccessible(getter);
+                ReflectionUtils.makeAccessible(setter);
+                ReflectionUtils.invokeMethod(setter, copy, copy(ReflectionUtils.invokeMethod(getter, value)));
+            }
+            return copy;
+        }
+
+        private <T> T register(final Object value, final T copy) {
+            copies.put(value, copy);
+            return copy;
+        }
+
+        private boolean isImmutable(final Object value) {
+            return value instanceof String || value instanceof Number || value instanceof Boolean
+                    || value instanceof Character || value instanceof Enum;
+        }
+    }
+}
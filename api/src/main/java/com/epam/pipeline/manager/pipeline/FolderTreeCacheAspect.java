@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.pipeline;
+
+import com.epam.pipeline.manager.pipeline.FolderTreeCache.Section;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * An aspect to mark sections of the folders tree snapshot as changed on modifications of the underlying entities.
+ * Folder contents are loaded within the folders section, so any modification of a nested entity changes
+ * the folders section as well as the corresponding root entities section.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class FolderTreeCacheAspect {
+
+    private final FolderTreeCache folderTreeCache;
+
+    @AfterReturning("execution(* com.epam.pipeline.dao.pipeline.FolderDao.createFolder(..)) || "
+            + "execution(* com.epam.pipeline.dao.pipeline.FolderDao.update*(..)) || "
+            + "execution(* com.epam.pipeline.dao.pipeline.FolderDao.delete*(..))")
+    public void invalidateFolders() {
+        folderTreeCache.invalidate(Section.FOLDERS);
+    }
+
+    @AfterReturning("execution(* com.epam.pipeline.dao.pipeline.PipelineDao.createPipeline(..)) || "
+            + "execution(* com.epam.pipeline.dao.pipeline.PipelineDao.update*(..)) || "
+            + "execution(* com.epam.pipeline.dao.pipeline.PipelineDao.delete*(..))")
+    public void invalidatePipelines() {
+        folderTreeCache.invalidate(Section.FOLDERS, Section.PIPELINES);
+    }
+
+    @AfterReturning("execution(* com.epam.pipeline.dao.datastorage.DataStorageDao.createDataStorage(..)) || "
+            + "execution(* com.epam.pipeline.dao.datastorage.DataStorageDao.update*(..)) || "
+            + "execution(* com.epam.pipeline.dao.datastorage.DataStorageDao.delete*(..))")
+    public void invalidateStorages() {
+        folderTreeCache.invalidate(Section.FOLDERS, Section.STORAGES);
+    }
+
+    @AfterReturning("execution(* com.epam.pipeline.dao.configuration.RunConfigurationDao.create(..)) || "
+            + "execution(* com.epam.pipeline.dao.configuration.RunConfigurationDao.update*(..)) || "
+            + "execution(* com.epam.pipeline.dao.configuration.RunConfigurationDao.delete*(..))")
+    public void invalidateConfigurations() {
+        folderTreeCache.invalidate(Section.FOLDERS, Section.CONFIGURATIONS);
+    }
+
+    /**
+     * Only metadata entities counts are a part of the tree, so data modifications are ignored.
+     */
+    @AfterReturning("execution(* com.epam.pipeline.dao.metadata.MetadataEntityDao.createMetadataEntity(..)) || "
+            + "execution(* com.epam.pipeline.dao.metadata.MetadataEntityDao.batchInsert(..)) || "
+            + "execution(* com.epam.pipeline.dao.metadata.MetadataEntityDao.insert*(..)) || "
+            + "execution(* com.epam.pipeline.dao.metadata.MetadataEntityDao.updateMetadataEntity(..)) || "
+            + "execution(* com.epam.pipeline.dao.metadata.MetadataEntityDao.delete*(..))")
+    public void invalidateMetadataEntities() {
+        folderTreeCache.invalidate(Section.FOLDERS, Section.METADATA);
+    }
+
+    /**
+     * Metadata entities counts are grouped by class names, so renaming or deletion of a class changes them too.
+     */
+    @AfterReturning("execution(* com.epam.pipeline.dao.metadata.MetadataClassDao.updateMetadataClass(..)) || "
+            + "execution(* com.epam.pipeline.dao.metadata.MetadataClassDao.deleteMetadataClass(..))")
+    public void invalidateMetadataClasses() {
+        folderTreeCache.invalidate(Section.FOLDERS, Section.METADATA);
+    }
+}
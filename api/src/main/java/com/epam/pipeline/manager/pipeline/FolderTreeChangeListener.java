@@ -0,0 +1,55 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.pipeline;
+
+import com.epam.pipeline.dao.AbstractNotificationListener;
+import com.epam.pipeline.dao.pipeline.FolderDao;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Listens to the folders tree change notifications sent by {@link FolderTreeCache} of any application instance
+ * and marks the changed sections of the local tree snapshot. The whole snapshot is marked as changed each time
+ * the notifications connection is (re)established.
+ */
+@Service
+public class FolderTreeChangeListener extends AbstractNotificationListener {
+
+    private final FolderTreeCache folderTreeCache;
+
+    public FolderTreeChangeListener(
+            final FolderTreeCache folderTreeCache,
+            final @Value("${database.url}") String jdbcUrl,
+            final @Value("${database.username}") String jdbcUsername,
+            final @Value("${database.password}") String jdbcPassword,
+            final @Value("${folder.tree.change.listener.poll.interval.ms:10000}") long pollIntervalMs,
+            final @Value("${folder.tree.change.listener.reconnect.delay.ms:10000}") long reconnectDelayMs) {
+        super(FolderDao.FOLDER_TREE_CHANGED_CHANNEL, jdbcUrl, jdbcUsername, jdbcPassword,
+                pollIntervalMs, reconnectDelayMs);
+        this.folderTreeCache = folderTreeCache;
+    }
+
+    @Override
+    protected void onConnected() {
+        folderTreeCache.invalidateLocally(FolderTreeCache.Section.values());
+    }
+
+    @Override
+    protected void onNotification(final String payload) {
+        folderTreeCache.applyChangeNotification(payload);
+    }
+}
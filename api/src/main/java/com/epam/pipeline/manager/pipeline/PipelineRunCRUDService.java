@@ -49,6 +49,12 @@ public class PipelineRunCRUDService {
         return run;
     }
 
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void updateRunsStatuses(final Collection<PipelineRun> runs) {
+        CollectionUtils.emptyIfNull(runs).forEach(this::updatePrettyUrlForFinishedRun);
+        pipelineRunDao.batchUpdateRunStatuses(runs);
+    }
+
     @Transactional(propagation = Propagation.REQUIRED)
     public void updatePrettyUrlForFinishedRun(PipelineRun run) {
         if (run.getStatus().isFinal() && StringUtils.hasText(run.getPrettyUrl())) {
@@ -568,6 +568,11 @@ public class PipelineRunManager {
         return runCRUDService.updateRunStatus(run);
     }
 
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void updatePipelineStatuses(final Collection<PipelineRun> runs) {
+        runCRUDService.updateRunsStatuses(runs);
+    }
+
     /**
      * A shorthand method to stop a Pipeline Run
      * @param runId ID of a Pipeline Run
@@ -663,7 +668,7 @@ public class PipelineRunManager {
 
     @Transactional(propagation = Propagation.SUPPORTS)
     public PagedResult<List<PipelineRun>> searchPipelineRuns(PagingRunFilterVO filter, boolean loadStorageLinks) {
-        Assert.isTrue(filter.getPage() > 0,
+        Assert.isTrue(filter.getLastRunId() != null || filter.getPage() > 0,
                 messageHelper.getMessage(MessageConstants.ERROR_PAGE_INDEX));
         Assert.isTrue(filter.getPageSize() > 0,
                 messageHelper.getMessage(MessageConstants.ERROR_PAGE_SIZE));
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.pipeline;
+
+import com.epam.pipeline.dao.pipeline.RunLogDao;
+import com.epam.pipeline.entity.pipeline.PipelineRun;
+import com.epam.pipeline.entity.pipeline.RunLog;
+import com.epam.pipeline.entity.pipeline.TaskStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Writes run logs asynchronously in batches.
+ *
+ * Submitted logs are kept in a bounded in-memory queue, submission blocks while the queue is full and fails
+ * if no space becomes available within the timeout. A single writer thread drains the queue, resolves log
+ * statuses the same way {@link RunLogManager#saveLog(RunLog)} does and inserts each batch with a single
+ * JDBC batch statement. Run statuses and last task statuses are cached per run for a short period,
+ * so consequent batches of the same run don't query them again. They are loaded anew for batches containing
+ * final statuses, since such logs depend on the statuses written by other API instances.
+ *
+ * A failed batch is retried with a growing delay and keeps its place in the queue until then. If all
+ * the attempts fail, its logs are written one by one, so only the logs which can't be written are dropped.
+ * On shutdown the queue is drained within {@code runs.log.shutdown.timeout.ms}, the logs which are not
+ * written by then are reported as lost.
+ */
+@Slf4j
+@Service
+public class RunLogBatchWriter {
+
+    private final RunLogDao runLogDao;
+    private final PipelineRunCRUDService runCRUDService;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long submitTimeoutMs;
+    private final long statusCacheMs;
+    private final int writeAttempts;
+    private final long retryDelayMs;
+    private final long shutdownTimeoutMs;
+    private final int queueSize;
+    private final Semaphore capacity;
+    private final BlockingQueue<RunLog> queue = new LinkedBlockingQueue<>();
+    private final Map<Long, RunState> runStates = new HashMap<>();
+    private final Thread writer;
+    private volatile boolean stopped;
+
+    public RunLogBatchWriter(final RunLogDao runLogDao,
+                             final PipelineRunCRUDService runCRUDService,
+                             final @Value("${runs.log.queue.size:10000}") int queueSize,
+                             final @Value("${runs.log.batch.size:1000}") int batchSize,
+                             final @Value("${runs.log.flush.interval.ms:500}") long flushIntervalMs,
+                             final @Value("${runs.log.submit.timeout.ms:10000}") long submitTimeoutMs,
+                             final @Value("${runs.log.status.cache.ms:1000}") long statusCacheMs,
+                             final @Value("${runs.log.write.attempts:3}") int writeAttempts,
+                             final @Value("${runs.log.write.retry.delay.ms:1000}") long retryDelayMs,
+                             final @Value("${runs.log.shutdown.timeout.ms:30000}") long shutdownTimeoutMs) {
+        this.runLogDao = runLogDao;
+        this.runCRUDService = runCRUDService;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.submitTimeoutMs = submitTimeoutMs;
+        this.statusCacheMs = statusCacheMs;
+        this.writeAttempts = Math.max(1, writeAttempts);
+        this.retryDelayMs = retryDelayMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.queueSize = queueSize;
+        this.capacity = new Semaphore(queueSize);
+        this.writer = new Thread(this::writeLogs, "run-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void init() {
+        writer.start();
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        stopped = true;
+        writer.interrupt();
+        writer.join(shutdownTimeoutMs);
+        final int notWritten = queueSize - capacity.availablePermits();
+        if (notWritten > 0) {
+            log.error("{} run logs were not written before shutdown and are lost.", notWritten);
+        }
+    }
+
+    /**
+     * Submits logs to the writing queue. Either all or none of the logs are accepted.
+     *
+     * @return false if the queue has no space for the logs within the submission timeout
+     * or if the logs can't fit into the queue at all
+     */
+    public boolean submit(final List<RunLog> logs) {
+        if (logs.isEmpty()) {
+            return true;
+        }
+        if (logs.size() > queueSize) {
+            return false;
+        }
+        try {
+            if (!capacity.tryAcquire(logs.size(), submitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        queue.addAll(logs);
+        return true;
+    }
+
+    public int getCapacity() {
+        return queueSize;
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    void writeLogs() {
+        while (!stopped || !queue.isEmpty()) {
+            final List<RunLog> batch = new ArrayList<>();
+            try {
+                final RunLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                if (!stopped) {
+                    log.warn("Run logs writer was interrupted.");
+                }
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                writeWithRetries(batch);
+            } catch (Throwable e) {
+                log.error("Failed to write {} run logs: {}", batch.size(), e.getMessage(), e);
+                runStates.clear();
+            } finally {
+                capacity.release(batch.size());
+            }
+        }
+    }
+
+    void writeWithRetries(final List<RunLog> batch) {
+        for (int attempt = 1; attempt <= writeAttempts; attempt++) {
+            try {
+                writeBatch(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {} run logs, attempt {} of {}: {}",
+                        batch.size(), attempt, writeAttempts, e.getMessage());
+                forgetRunStates(batch);
+            }
+            if (attempt < writeAttempts) {
+                waitBeforeRetry(attempt);
+            }
+        }
+        for (final RunLog runLog : batch) {
+            try {
+                writeBatch(Collections.singletonList(runLog));
+            } catch (RuntimeException e) {
+                log.error("Failed to write log of run {}: {}", runLog.getRunId(), e.getMessage(), e);
+                forgetRunStates(Collections.singletonList(runLog));
+            }
+        }
+    }
+
+    void writeBatch(final List<RunLog> batch) {
+        final long now = System.currentTimeMillis();
+        runStates.values().removeIf(state -> state.isExpired(now, statusCacheMs));
+        batch.stream()
+                .filter(runLog -> runLog.getStatus() != null && runLog.getStatus().isFinal())
+                .map(RunLog::getRunId)
+                .distinct()
+                .forEach(runStates::remove);
+        loadRunStates(batch.stream().map(RunLog::getRunId).collect(Collectors.toSet()), now);
+        final List<RunLog> resolved = new ArrayList<>(batch.size());
+        for (final RunLog runLog : batch) {
+            final RunState state = runStates.get(runLog.getRunId());
+            if (state == null) {
+                log.warn("Skipping log of run {} since the run doesn't exist.", runLog.getRunId());
+                continue;
+            }
+            runLog.setStatus(state.resolveStatus(runLog));
+            resolved.add(runLog);
+        }
+        runLogDao.createRunLogs(resolved);
+    }
+
+    private void forgetRunStates(final List<RunLog> logs) {
+        logs.stream().map(RunLog::getRunId).distinct().forEach(runStates::remove);
+    }
+
+    private void waitBeforeRetry(final int attempt) {
+        if (stopped) {
+            return;
+        }
+        try {
+            Thread.sleep(retryDelayMs * attempt);
+        } catch (InterruptedException e) {
+            if (!stopped) {
+                log.warn("Run logs writer was interrupted.");
+            }
+        }
+    }
+
+    private void loadRunStates(final Set<Long> runIds, final long now) {
+        final List<Long> missingRunIds = runIds.stream()
+                .filter(runId -> !runStates.containsKey(runId))
+                .collect(Collectors.toList());
+        if (missingRunIds.isEmpty()) {
+            return;
+        }
+        for (final PipelineRun run : runCRUDService.loadRunsByIds(missingRunIds)) {
+            final Map<String, TaskStatus> taskStatuses = new HashMap<>();
+            runLogDao.loadTaskStatuses(run.getId()).stream()
+                    .filter(task -> task.getStatus() != null)
+                    .forEach(task -> taskStatuses.put(task.getName(), task.getStatus()));
+            runStates.put(run.getId(), new RunState(run.getStatus(), taskStatuses, now));
+        }
+    }
+
+    private static final class RunState {
+
+        private final TaskStatus runStatus;
+        private final Map<String, TaskStatus> taskStatuses;
+        private final long loadedAt;
+
+        RunState(final TaskStatus runStatus, final Map<String, TaskStatus> taskStatuses, final long loadedAt) {
+            this.runStatus = runStatus;
+            this.taskStatuses = taskStatuses;
+            this.loadedAt = loadedAt;
+        }
+
+        boolean isExpired(final long now, final long period) {
+            return now - loadedAt > period;
+        }
+
+        /**
+         * Keeps the final status of a task and overrides the non final statuses of a finished run.
+         */
+        TaskStatus resolveStatus(final RunLog runLog) {
+            TaskStatus status = runLog.getStatus();
+            if (StringUtils.isNotEmpty(runLog.getTaskName())) {
+                final TaskStatus previous = taskStatuses.get(runLog.getTaskName());
+                if (previous != null && previous.isFinal()) {
+                    status = previous;
+                }
+            }
+            if (!status.isFinal() && runStatus != null && runStatus.isFinal()) {
+                status = runStatus;
+            }
+            if (StringUtils.isNotEmpty(runLog.getTaskName())) {
+                taskStatuses.put(runLog.getTaskName(), status);
+            }
+            return status;
+        }
+    }
+}
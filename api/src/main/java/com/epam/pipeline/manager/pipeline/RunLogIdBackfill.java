@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.pipeline;
+
+import com.epam.pipeline.dao.pipeline.RunLogDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Assigns log ids to the run logs, which were created before the log id column was added.
+ *
+ * Logs are updated run by run in the background once the application is started, each run is updated
+ * in a separate transaction, so the logs table is never locked as a whole. It is safe to run the backfill
+ * on several API instances at the same time, logs that already have ids are never updated.
+ */
+@Slf4j
+@Service
+@SuppressWarnings("PMD.AvoidCatchingGenericException")
+public class RunLogIdBackfill {
+
+    private final RunLogDao runLogDao;
+    private final int batchSize;
+
+    public RunLogIdBackfill(final RunLogDao runLogDao,
+                            final @Value("${runs.log.id.backfill.batch.size:100}") int batchSize) {
+        this.runLogDao = runLogDao;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener
+    public void onApplicationEvent(final ContextRefreshedEvent event) {
+        if (Objects.isNull(event.getApplicationContext().getParent())) {
+            final Thread thread = new Thread(this::backfill, "run-log-id-backfill");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    void backfill() {
+        long logs = 0;
+        try {
+            List<Long> runIds = runLogDao.loadRunIdsWithoutLogIds(batchSize);
+            while (!runIds.isEmpty()) {
+                for (final Long runId : runIds) {
+                    logs += runLogDao.backfillLogIds(runId);
+                }
+                runIds = runLogDao.loadRunIdsWithoutLogIds(batchSize);
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill run log ids: {}", e.getMessage(), e);
+        }
+        if (logs > 0) {
+            log.info("Log ids were assigned to {} run logs.", logs);
+        }
+    }
+}
@@ -16,6 +16,9 @@
 
 package com.epam.pipeline.manager.pipeline;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.List;
 
@@ -26,10 +29,12 @@ import com.epam.pipeline.entity.pipeline.PipelineTask;
 import com.epam.pipeline.entity.pipeline.RunLog;
 import com.epam.pipeline.entity.pipeline.TaskStatus;
 import com.epam.pipeline.common.MessageConstants;
+import com.epam.pipeline.exception.RunLogsQueueFullException;
 import com.epam.pipeline.manager.cluster.KubernetesManager;
 import com.epam.pipeline.manager.preference.PreferenceManager;
 import com.epam.pipeline.manager.preference.SystemPreferences;
 import com.epam.pipeline.utils.LogsFormatter;
+import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -62,6 +67,9 @@ public class RunLogManager {
     @Autowired
     private PipelineRunCRUDService runCRUDService;
 
+    @Autowired
+    private RunLogBatchWriter runLogBatchWriter;
+
     private RunLogManager self;
 
     private LogsFormatter logsFormatter = new LogsFormatter();
@@ -76,18 +84,11 @@ public class RunLogManager {
 
     @Transactional(propagation = Propagation.REQUIRED)
     public RunLog saveLog(final RunLog runLog) {
-        Assert.notNull(runLog.getRunId(), messageHelper.getMessage(MessageConstants.ERROR_PARAMETER_REQUIRED,
-                "runId", RunLog.class.getSimpleName()));
-        Assert.notNull(runLog.getDate(), messageHelper.getMessage(MessageConstants.ERROR_PARAMETER_REQUIRED,
-                "date", RunLog.class.getSimpleName()));
-        Assert.notNull(runLog.getStatus(), messageHelper.getMessage(MessageConstants.ERROR_PARAMETER_REQUIRED,
-                "status", RunLog.class.getSimpleName()));
+        validateLog(runLog);
         PipelineRun run = runCRUDService.loadRunById(runLog.getRunId());
         Assert.notNull(run,
                 messageHelper.getMessage(MessageConstants.ERROR_PIPELINE_NOT_FOUND, runLog.getRunId()));
-        if (!StringUtils.isEmpty(runLog.getLogText())) {
-            runLog.setLogText(runLog.getLogText().replaceAll("\\u0000", ""));
-        }
+        removeNullCharacters(runLog);
         // Check previous status, it may differ from pod status as error may occur during
         // results upload to s3
         TaskStatus statusToSave = runLog.getStatus();
@@ -109,6 +110,32 @@ public class RunLogManager {
         return runLog;
     }
 
+    /**
+     * Submits logs of a run for asynchronous batch writing. Log statuses are resolved the same way
+     * as in {@link #saveLog(RunLog)} at the moment of writing.
+     *
+     * @param runId run to add logs to
+     * @param runLogs logs of the run
+     * @return number of accepted logs
+     */
+    public int saveLogs(final Long runId, final List<RunLog> runLogs) {
+        runCRUDService.loadRunById(runId);
+        final List<RunLog> logs = ListUtils.emptyIfNull(runLogs);
+        logs.forEach(runLog -> {
+            runLog.setRunId(runId);
+            validateLog(runLog);
+            removeNullCharacters(runLog);
+        });
+        Assert.isTrue(logs.size() <= runLogBatchWriter.getCapacity(),
+                messageHelper.getMessage(MessageConstants.ERROR_RUN_LOGS_BATCH_IS_TOO_LARGE,
+                        logs.size(), runLogBatchWriter.getCapacity()));
+        if (!runLogBatchWriter.submit(logs)) {
+            throw new RunLogsQueueFullException(
+                    messageHelper.getMessage(MessageConstants.ERROR_RUN_LOGS_QUEUE_IS_FULL, runId));
+        }
+        return logs.size();
+    }
+
     @Transactional(propagation = Propagation.SUPPORTS)
     public PipelineTask loadPreviousTaskStatus(PipelineRun pipelineRun, RunLog runLog) {
         return runLogDao.loadTaskStatus(pipelineRun.getId(), runLog.getTaskName());
@@ -189,12 +216,55 @@ public class RunLogManager {
         }
     }
 
+    /**
+     * Writes formatted logs of a run to the writer while they are being read from the database.
+     */
+    public void downloadLogs(final PipelineRun run, final Writer writer) {
+        runLogDao.streamAllLogsForRun(run.getId(), log -> {
+            try {
+                writer.write(logsFormatter.formatLog(log));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Loads a page of run logs ordered by log id. Allows to poll the logs of a run incrementally.
+     *
+     * @param runId run to load logs for
+     * @param taskName optional task to load logs for
+     * @param parameters optional parameters of the task
+     * @param sinceId if specified, only logs with greater ids are loaded, otherwise the last logs are loaded
+     * @param limit maximum number of logs to load, limited by {@link SystemPreferences#SYSTEM_LIMIT_LOG_LINES}
+     */
     @Transactional(propagation = Propagation.SUPPORTS)
-    public String downloadLogs(PipelineRun run) {
-        List<RunLog> logs = loadAllLogsByRunId(run.getId());
-        StringBuilder builder = new StringBuilder();
-        logs.forEach(log -> builder.append(logsFormatter.formatLog(log)).append('\n'));
-        return builder.toString();
+    public List<RunLog> loadLogs(final Long runId, final String taskName, final String parameters,
+                                 final Long sinceId, final Integer limit) {
+        final PipelineRun run = runCRUDService.loadRunById(runId);
+        if (consoleLogTask.equals(taskName)) {
+            return getPodLogs(run);
+        }
+        Assert.isTrue(limit == null || limit > 0, messageHelper.getMessage(MessageConstants.ERROR_PAGE_SIZE));
+        final int maxLimit = preferenceManager.getPreference(SystemPreferences.SYSTEM_LIMIT_LOG_LINES);
+        final String taskId = StringUtils.isEmpty(taskName) ? null : PipelineTask.buildTaskId(taskName, parameters);
+        return runLogDao.loadLogs(runId, taskId, sinceId, limit == null ? maxLimit : Math.min(limit, maxLimit));
+    }
+
+    private void validateLog(final RunLog runLog) {
+        Assert.notNull(runLog.getRunId(), messageHelper.getMessage(MessageConstants.ERROR_PARAMETER_REQUIRED,
+                "runId", RunLog.class.getSimpleName()));
+        Assert.notNull(runLog.getDate(), messageHelper.getMessage(MessageConstants.ERROR_PARAMETER_REQUIRED,
+                "date", RunLog.class.getSimpleName()));
+        Assert.notNull(runLog.getStatus(), messageHelper.getMessage(MessageConstants.ERROR_PARAMETER_REQUIRED,
+                "status", RunLog.class.getSimpleName()));
+    }
+
+    private void removeNullCharacters(final RunLog runLog) {
+        if (!StringUtils.isEmpty(runLog.getLogText())) {
+            runLog.setLogText(runLog.getLogText().replaceAll("\\u0000", ""));
+        }
     }
 
     private List<RunLog> getPodLogs(PipelineRun run) {
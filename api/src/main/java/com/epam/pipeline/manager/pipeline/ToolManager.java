@@ -640,6 +640,15 @@ public class ToolManager implements SecuredEntityManager {
         return result;
     }
 
+    /**
+     * Loads persisted scan results of all the scanned versions of a tool
+     * @param toolId an ID of a tool, symlinks are not resolved
+     * @return scan results mapped by tool versions
+     */
+    public Map<String, ToolVersionScanResult> loadToolVersionScans(final long toolId) {
+        return toolVulnerabilityDao.loadAllToolVersionScans(toolId);
+    }
+
     /**
      * Loads persisted tool scan status and tool's vulnerabilities
      * @param registry a registry path, where tool is located
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.preference;
+
+import com.epam.pipeline.dao.AbstractNotificationListener;
+import com.epam.pipeline.dao.preference.PreferenceDao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Listens to the preference change notifications sent by {@link PreferenceDao#notifyPreferenceChanged(String)}
+ * from any application instance and evicts the corresponding parsed values cached by {@link PreferenceManager}.
+ * All cached values are evicted each time the notifications connection is (re)established.
+ */
+@Slf4j
+@Service
+public class PreferenceChangeListener extends AbstractNotificationListener {
+
+    private final PreferenceManager preferenceManager;
+
+    public PreferenceChangeListener(
+            final PreferenceManager preferenceManager,
+            final @Value("${database.url}") String jdbcUrl,
+            final @Value("${database.username}") String jdbcUsername,
+            final @Value("${database.password}") String jdbcPassword,
+            final @Value("${preference.change.listener.poll.interval.ms:10000}") long pollIntervalMs,
+            final @Value("${preference.change.listener.reconnect.delay.ms:10000}") long reconnectDelayMs) {
+        super(PreferenceDao.PREFERENCE_CHANGED_CHANNEL, jdbcUrl, jdbcUsername, jdbcPassword,
+                pollIntervalMs, reconnectDelayMs);
+        this.preferenceManager = preferenceManager;
+    }
+
+    @Override
+    protected void onConnected() {
+        preferenceManager.evictParsedValues();
+    }
+
+    @Override
+    protected void onNotification(final String name) {
+        log.debug("Preference {} was changed.", name);
+        preferenceManager.evictParsedValues(name);
+    }
+}
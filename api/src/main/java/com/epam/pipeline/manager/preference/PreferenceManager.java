@@ -34,14 +34,18 @@ import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -49,6 +53,10 @@ import java.util.stream.Collectors;
  * ({@link AbstractSystemPreference} or user-defined. All of them can be set by user. This class provides a nadful set
  * of methods to query these properties from other application components. Use getPreference(...) set of methods to load
  * SystemPreferences. Use getIntPreference and etc to load custom preferences.
+ *
+ * Parsed preference values are cached in memory, so the same value object is returned to all callers and it shall
+ * not be modified. Cached values are evicted on preference update or deletion in this application instance and,
+ * through {@link PreferenceChangeListener}, in all other application instances sharing the same database.
  */
 @Service
 @DependsOn({"flyway", "flywayInitializer"})
@@ -62,7 +70,10 @@ public class PreferenceManager {
     @Autowired
     private SystemPreferences systemPreferences;
 
+    private static final Object SYSTEM_PREFERENCE_PARSER = new Object();
+
     private ConcurrentHashMap<AbstractSystemPreference, Subject> subjectMap = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Map<Object, Optional<?>>> parsedValues = new ConcurrentHashMap<>();
 
     /**
      * Updates a list of preferences. Notifies all observers, if there are some for any of the updated preferences
@@ -76,8 +87,11 @@ public class PreferenceManager {
 
         systemPreferences.validate(preferences);
 
+        preferences.forEach(p -> evictParsedValuesAfterCompletion(p.getName()));
         preferences.forEach(p -> {
             preferenceDao.upsertPreference(mergeWithDefaults(p));
+            preferenceDao.notifyPreferenceChanged(p.getName());
+            evictParsedValues(p.getName());
             notifyPreferenceChanged(p);
         });
 
@@ -143,6 +157,8 @@ public class PreferenceManager {
     @Transactional(propagation = Propagation.REQUIRED)
     public void delete(String name) {
         preferenceDao.deletePreference(name);
+        preferenceDao.notifyPreferenceChanged(name);
+        evictParsedValuesAfterCompletion(name);
 
         Optional<AbstractSystemPreference<?>> opt = SystemPreferences.getSystemPreference(name);
         opt.ifPresent((sysPref) -> {
@@ -158,6 +174,11 @@ public class PreferenceManager {
     }
 
     private <T> T parsePreferenceIfPresent(String name, PreferenceType type, Function<String, T> castFunction) {
+        return getParsedValue(name, type, () -> loadAndParsePreferenceIfPresent(name, type, castFunction));
+    }
+
+    private <T> T loadAndParsePreferenceIfPresent(String name, PreferenceType type,
+                                                  Function<String, T> castFunction) {
         return load(name)
                 .map(preference -> {
                     Assert.isTrue(preference.getType() == type,
@@ -193,8 +214,10 @@ public class PreferenceManager {
      * @return typed value of AbstractSystemPreference
      */
     public <E, T extends AbstractSystemPreference<E>> E getPreference(T systemPreference) {
-        Preference pref = getSystemPreference(systemPreference);
-        return systemPreference.parse(pref.getValue());
+        return getParsedValue(systemPreference.getKey(), SYSTEM_PREFERENCE_PARSER, () -> {
+            Preference pref = getSystemPreference(systemPreference);
+            return systemPreference.parse(pref.getValue());
+        });
     }
 
     /**
@@ -237,7 +260,7 @@ public class PreferenceManager {
      */
     public <T> T getObjectPreferenceAs(final ObjectPreference preference,
                                        final TypeReference<T> typeReference) {
-        return getObjectPreferenceAs(preference,
+        return getObjectPreferenceAs(preference, typeReference.getType(),
             v -> JsonMapper.parseData(v, typeReference));
     }
 
@@ -254,14 +277,62 @@ public class PreferenceManager {
     public <T> T getObjectPreferenceAs(final ObjectPreference preference,
                                        final TypeReference<T> typeReference,
                                        final ObjectMapper objectMapper) {
-        return getObjectPreferenceAs(preference,
+        return getObjectPreferenceAs(preference, Arrays.asList(typeReference.getType(), objectMapper),
             v -> JsonMapper.parseData(v, typeReference, objectMapper));
     }
 
     private <T> T getObjectPreferenceAs(final ObjectPreference preference,
+                                        final Object parserKey,
                                         final Function<String, T> castFunction) {
-        final Preference pref = getSystemPreference(preference);
+        return getParsedValue(preference.getKey(), parserKey, () -> {
+            final Preference pref = getSystemPreference(preference);
+
+            return pref.get(castFunction);
+        });
+    }
+
+    /**
+     * Evicts cached parsed values of a preference.
+     */
+    void evictParsedValues(final String name) {
+        parsedValues.remove(name);
+    }
+
+    /**
+     * Evicts cached parsed values of all preferences.
+     */
+    void evictParsedValues() {
+        parsedValues.clear();
+    }
 
-        return pref.get(castFunction);
+    /**
+     * Evicts cached parsed values of a preference now and once the current transaction is completed.
+     * Otherwise a value could be cached by a concurrent request in its previous state before
+     * the transaction is committed or in a modified state if the transaction is rolled back.
+     */
+    private void evictParsedValuesAfterCompletion(final String name) {
+        evictParsedValues(name);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(final int status) {
+                    evictParsedValues(name);
+                }
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getParsedValue(final String name, final Object parserKey, final Supplier<T> parser) {
+        // Values map is obtained before the value is parsed, so a value parsed concurrently with
+        // an eviction is stored into an already evicted map
+        final Map<Object, Optional<?>> values = parsedValues.computeIfAbsent(name, key -> new ConcurrentHashMap<>());
+        final Optional<?> cached = values.get(parserKey);
+        if (cached != null) {
+            return (T) cached.orElse(null);
+        }
+        final Optional<T> parsed = Optional.ofNullable(parser.get());
+        values.putIfAbsent(parserKey, parsed);
+        return parsed.orElse(null);
     }
 }
@@ -198,6 +198,17 @@ public class SystemPreferences {
             null, DATA_STORAGE_GROUP, pass);
     public static final LongPreference STORAGE_LISTING_TIME_LIMIT =
             new LongPreference("storage.listing.time.limit", 3000L, DATA_STORAGE_GROUP, pass);
+    /**
+     * Period (in seconds) during which calculated storage path sizes are reused, 0 disables caching.
+     */
+    public static final IntPreference STORAGE_SIZE_CACHE_PERIOD =
+            new IntPreference("storage.size.cache.period", 300, DATA_STORAGE_GROUP, isGreaterThanOrEquals(0));
+    /**
+     * Enables calculation of storage path sizes using file search index aggregation.
+     * Shall be enabled only if storage file indices are kept up to date.
+     */
+    public static final BooleanPreference STORAGE_SIZE_USE_SEARCH_INDEX =
+            new BooleanPreference("storage.size.use.search.index", false, DATA_STORAGE_GROUP, pass);
     public static final IntPreference STORAGE_INCOMPLETE_UPLOAD_CLEAN_DAYS =
             new IntPreference("storage.incomplete.upload.clean.days", 5, DATA_STORAGE_GROUP,
                     isNullOrGreaterThan(0));
@@ -341,6 +352,8 @@ public class SystemPreferences {
                                                                            CLUSTER_GROUP, isGreaterThanOrEquals(0));
     public static final IntPreference CLUSTER_NODEUP_MAX_THREADS = new IntPreference("cluster.nodeup.max.threads",
                                                                                 10, CLUSTER_GROUP, isGreaterThan(0));
+    public static final IntPreference CLUSTER_NODEUP_QUEUE_SIZE = new IntPreference("cluster.nodeup.queue.size",
+                                                                                100, CLUSTER_GROUP, isGreaterThan(0));
     public static final IntPreference CLUSTER_NODEUP_RETRY_COUNT = new IntPreference("cluster.nodeup.retry.count",
                                                                                 5, CLUSTER_GROUP, isGreaterThan(0));
     public static final IntPreference CLUSTER_SPOT_MAX_ATTEMPTS = new IntPreference("cluster.spot.max.attempts", 2,
@@ -746,6 +759,13 @@ public class SystemPreferences {
             null, SEARCH_GROUP, pass);
     public static final IntPreference SEARCH_ELASTIC_PORT = new IntPreference("search.elastic.port",
             null, SEARCH_GROUP, pass);
+    public static final IntPreference SEARCH_ELASTIC_MAX_CONNECTIONS = new IntPreference(
+            "search.elastic.connections.max", 100, SEARCH_GROUP, isGreaterThan(0));
+    /**
+     * Number of elasticsearch client I/O threads, if not specified the number of available processors is used.
+     */
+    public static final IntPreference SEARCH_ELASTIC_IO_THREADS = new IntPreference(
+            "search.elastic.io.threads", null, SEARCH_GROUP, isNullOrGreaterThan(0));
     public static final StringPreference SEARCH_ELASTIC_CP_INDEX_PREFIX = new StringPreference(
             "search.elastic.index.common.prefix", null, SEARCH_GROUP, pass);
     public static final StringPreference SEARCH_ELASTIC_TYPE_FIELD = new StringPreference(
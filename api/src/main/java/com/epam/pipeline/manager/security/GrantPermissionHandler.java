@@ -16,20 +16,17 @@
 
 package com.epam.pipeline.manager.security;
 
-import com.epam.pipeline.app.CacheConfiguration;
 import com.epam.pipeline.entity.security.acl.AclEntitySummary;
 import com.epam.pipeline.security.acl.JdbcMutableAclServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
-import org.springframework.cache.CacheManager;
 import org.springframework.security.acls.domain.ObjectIdentityImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Optional;
 
 /**
  * {@code GrantPermissionHandler} shall handle all operations permission assignment:
@@ -42,7 +39,6 @@ import java.util.Optional;
 public class GrantPermissionHandler {
 
     private final JdbcMutableAclServiceImpl aclService;
-    private final CacheManager cacheManager;
 
     @Transactional(propagation = Propagation.REQUIRED)
     public void deleteGrantedAuthority(final String name, final boolean isPrincipal) {
@@ -58,11 +54,8 @@ public class GrantPermissionHandler {
 
     private void invalidateAclEntriesInCache(final List<AclEntitySummary> entriesToEvict) {
         if (CollectionUtils.isNotEmpty(entriesToEvict)) {
-            Optional.ofNullable(cacheManager.getCache(CacheConfiguration.ACL_CACHE))
-                .ifPresent(cache -> entriesToEvict.forEach(entry -> {
-                    cache.evict(entry.getAclEntityId());
-                    cache.evict(new ObjectIdentityImpl(entry.getAclClass(), entry.getObjectId()));
-                }));
+            entriesToEvict.forEach(entry -> aclService.evictFromCacheAfterCompletion(
+                    new ObjectIdentityImpl(entry.getAclClass(), entry.getObjectId())));
         }
     }
 }
@@ -52,6 +52,7 @@ import com.epam.pipeline.entity.security.acl.AclClass;
 import com.epam.pipeline.entity.security.acl.AclPermissionEntry;
 import com.epam.pipeline.entity.security.acl.AclSecuredEntry;
 import com.epam.pipeline.entity.security.acl.AclSid;
+import com.epam.pipeline.entity.security.acl.AclSidEntries;
 import com.epam.pipeline.entity.security.acl.EntityPermission;
 import com.epam.pipeline.entity.user.DefaultRoles;
 import com.epam.pipeline.entity.user.PipelineUser;
@@ -108,6 +109,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -429,7 +431,10 @@ public class GrantPermissionManager {
         if (isAdmin(sids)) {
             return;
         }
-        processHierarchicalEntity(0, entity, new HashMap<>(), permission, true, sids);
+        final Set<ObjectIdentity> identities = new HashSet<>();
+        collectObjectIdentities(entity, identities);
+        final Map<ObjectIdentity, AclSidEntries> acls = aclService.loadSidEntries(identities, sids);
+        processHierarchicalEntity(0, entity, new HashMap<>(), permission, true, sids, acls);
     }
 
     public boolean ownerPermission(Long id, AclClass aclClass) {
@@ -882,39 +887,45 @@ public class GrantPermissionManager {
         if (permissionsService.allPermissionsSet(mask, permissionToCollect)) {
             return mask;
         }
+        final List<Map.Entry<Sid, Integer>> entries = acl.getEntries().stream()
+                .map(ace -> new AbstractMap.SimpleImmutableEntry<>(ace.getSid(), ace.getPermission().getMask()))
+                .collect(toList());
+        int currentMask = collectEntriesPermissions(mask, entries, sids, permissionToCollect);
+        if (permissionsService.allPermissionsSet(currentMask, permissionToCollect)) {
+            return currentMask;
+        }
+        // No matches have been found so far
+        if (includeInherited && acl.isEntriesInheriting() && (acl.getParentAcl() != null)) {
+            // We have a parent, so let them try to find a matching ACE
+            return collectPermissions(currentMask, acl.getParentAcl(), sids, permissionToCollect,
+                    includeInherited);
+        } else {
+            return currentMask;
+        }
+    }
+
+    private int collectEntriesPermissions(int mask, List<? extends Map.Entry<Sid, Integer>> entries, List<Sid> sids,
+            List<AclPermission> permissionToCollect) {
         int currentMask = mask;
-        final List<AccessControlEntry> aces = acl.getEntries();
         for (Sid sid : sids) {
             // Attempt to find exact match for this permission mask and SID
-            for (AccessControlEntry ace : aces) {
-                if (ace.getSid().equals(sid)) {
-                    Permission permission = ace.getPermission();
+            for (Map.Entry<Sid, Integer> entry : entries) {
+                if (entry.getKey().equals(sid)) {
+                    int entryMask = entry.getValue();
                     for (AclPermission p : permissionToCollect) {
                         if (!permissionsService.isPermissionSet(currentMask, p)) {
                             //try to set granting mask
-                            currentMask = currentMask | (permission.getMask() & p.getMask());
+                            currentMask = currentMask | (entryMask & p.getMask());
                             if (!permissionsService.isPermissionSet(currentMask, p)) {
                                 //try to set denying mask
-                                currentMask =
-                                        currentMask | (permission.getMask() & p.getDenyPermission()
-                                                .getMask());
+                                currentMask = currentMask | (entryMask & p.getDenyPermission().getMask());
                             }
                         }
                     }
                 }
             }
         }
-        if (permissionsService.allPermissionsSet(currentMask, permissionToCollect)) {
-            return currentMask;
-        }
-        // No matches have been found so far
-        if (includeInherited && acl.isEntriesInheriting() && (acl.getParentAcl() != null)) {
-            // We have a parent, so let them try to find a matching ACE
-            return collectPermissions(currentMask, acl.getParentAcl(), sids, permissionToCollect,
-                    includeInherited);
-        } else {
-            return currentMask;
-        }
+        return currentMask;
     }
 
     private AclSecuredEntry convertAclToEntryForUser(AbstractSecuredEntity entity, MutableAcl acl,
@@ -983,17 +994,44 @@ public class GrantPermissionManager {
         return merge ? permissionsService.mergeMask(extendedMask, basicPermissions) : extendedMask;
     }
 
+    /**
+     * Masks of a root entity are retrieved with inherited permissions as usual, masks of all the nested entities
+     * are calculated from the preloaded ACL entries without inherited permissions. Entities which entries were
+     * not preloaded fall back to the usual retrieval.
+     */
+    private Integer retrieveMaskForSid(AbstractSecuredEntity entity, List<Sid> sids,
+                                       Map<ObjectIdentity, AclSidEntries> acls) {
+        final AclSidEntries acl = entity instanceof NFSDataStorage ? null : acls.get(new ObjectIdentityImpl(entity));
+        if (acl == null) {
+            return retrieveMaskForSid(entity, false, false, sids);
+        }
+        if (sids.stream().anyMatch(sid -> acl.getOwner().equals(sid))) {
+            return AbstractSecuredEntity.ALL_PERMISSIONS_MASK_FULL;
+        }
+        return collectEntriesPermissions(0, acl.getEntries(), sids, permissionsService.getBasicPermissions());
+    }
+
+    private void collectObjectIdentities(AbstractHierarchicalEntity entity, Set<ObjectIdentity> identities) {
+        if (entity.getId() != null) {
+            identities.add(new ObjectIdentityImpl(entity));
+        }
+        ListUtils.emptyIfNull(entity.getLeaves()).forEach(leaf -> identities.add(new ObjectIdentityImpl(leaf)));
+        ListUtils.emptyIfNull(entity.getChildren()).forEach(child -> collectObjectIdentities(child, identities));
+    }
+
     private void processHierarchicalEntity(int parentMask, AbstractHierarchicalEntity entity,
             Map<AclClass, Set<Long>> entitiesToRemove, Permission permission, boolean root,
-            List<Sid> sids) {
+            List<Sid> sids, Map<ObjectIdentity, AclSidEntries> acls) {
         int defaultMask = 0;
         int currentMask = entity.getId() != null ?
-                permissionsService.mergeParentMask(retrieveMaskForSid(entity, false, root, sids),
+                permissionsService.mergeParentMask(root
+                        ? retrieveMaskForSid(entity, false, true, sids)
+                        : retrieveMaskForSid(entity, sids, acls),
                         parentMask) : defaultMask;
         entity.getChildren().forEach(
             leaf -> processHierarchicalEntity(currentMask, leaf, entitiesToRemove, permission,
-                        false, sids));
-        filterChildren(currentMask, entity.getLeaves(), entitiesToRemove, permission, sids);
+                        false, sids, acls));
+        filterChildren(currentMask, entity.getLeaves(), entitiesToRemove, permission, sids, acls);
         entity.filterLeaves(entitiesToRemove);
         entity.filterChildren(entitiesToRemove);
         boolean permissionGranted = permissionsService.isPermissionGranted(currentMask, permission);
@@ -1011,10 +1049,11 @@ public class GrantPermissionManager {
     }
 
     private void filterChildren(int parentMask, List<? extends AbstractSecuredEntity> children,
-            Map<AclClass, Set<Long>> entitiesToRemove, Permission permission, List<Sid> sids) {
+            Map<AclClass, Set<Long>> entitiesToRemove, Permission permission, List<Sid> sids,
+            Map<ObjectIdentity, AclSidEntries> acls) {
         ListUtils.emptyIfNull(children).forEach(child -> {
             int mask = permissionsService
-                    .mergeParentMask(getPermissionsMask(child, false, false, sids), parentMask);
+                    .mergeParentMask(retrieveMaskForSid(child, sids, acls), parentMask);
             if (!permissionsService.isPermissionGranted(mask, permission)) {
                 addToEntitiesToBeRemoved(entitiesToRemove, child);
             }
@@ -3,28 +3,113 @@ package com.epam.pipeline.manager.utils;
 import com.epam.pipeline.manager.preference.PreferenceManager;
 import com.epam.pipeline.manager.preference.SystemPreferences;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Provides a shared pooled elasticsearch client.
+ *
+ * The client is created on the first request and is rebuilt only once any of the search elastic connection
+ * preferences changes. A replaced client is closed after a grace period, so requests in progress can finish.
+ * Client shall not be closed by callers.
+ */
 @Service
 @Slf4j
 @RequiredArgsConstructor
-public class GlobalSearchElasticHelper {
+public class GlobalSearchElasticHelper implements PublicMetrics {
+
+    private static final String METRIC_PREFIX = "search.elastic.";
+    private static final String REQUEST_START_ATTRIBUTE = "cp.request.start";
+    private static final long CLOSE_DELAY_SECONDS = 60L;
 
     private final PreferenceManager preferenceManager;
 
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failedNodes = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+    private final ScheduledExecutorService closeExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "elastic-client-close");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ElasticClient client;
+
+    /**
+     * @return shared high level client, it shall not be closed by callers
+     */
+    public RestHighLevelClient getClient() {
+        return getElasticClient().getHighLevelClient();
+    }
+
+    /**
+     * @return shared low level client, it shall not be closed by callers
+     */
+    public RestClient getLowLevelClient() {
+        return getElasticClient().getLowLevelClient();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        final long count = requests.get();
+        return Arrays.asList(
+                new Metric<>(METRIC_PREFIX + "requests", count),
+                new Metric<>(METRIC_PREFIX + "nodes.failed", failedNodes.get()),
+                new Metric<>(METRIC_PREFIX + "latency.avg", count == 0 ? 0L : totalLatency.get() / count),
+                new Metric<>(METRIC_PREFIX + "latency.max", maxLatency.get()));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        Optional.ofNullable(client).ifPresent(this::close);
+        closeExecutor.shutdownNow();
+    }
 
-    public RestHighLevelClient buildClient() {
-        return new RestHighLevelClient(buildLowLevelClient());
+    private ElasticClient getElasticClient() {
+        final ClientSettings settings = loadSettings();
+        ElasticClient current = client;
+        if (current != null && current.getSettings().equals(settings)) {
+            return current;
+        }
+        synchronized (this) {
+            current = client;
+            if (current == null || !current.getSettings().equals(settings)) {
+                log.info("Building elasticsearch client for {}://{}:{}.",
+                        settings.getScheme(), settings.getHost(), settings.getPort());
+                final ElasticClient previous = current;
+                current = createClient(settings);
+                client = current;
+                if (previous != null) {
+                    closeExecutor.schedule(() -> close(previous), CLOSE_DELAY_SECONDS, TimeUnit.SECONDS);
+                }
+            }
+            return current;
+        }
     }
 
-    public RestClient buildLowLevelClient() {
+    private ClientSettings loadSettings() {
         final String host = preferenceManager.getPreference(SystemPreferences.SEARCH_ELASTIC_HOST);
         final Integer port = preferenceManager.getPreference(SystemPreferences.SEARCH_ELASTIC_PORT);
         final String schema = preferenceManager.getPreference(SystemPreferences.SEARCH_ELASTIC_SCHEME);
@@ -35,7 +120,67 @@ public class GlobalSearchElasticHelper {
                         + SystemPreferences.SEARCH_ELASTIC_PORT.getKey() + ", "
                         + SystemPreferences.SEARCH_ELASTIC_SCHEME.getKey()
         );
-        return RestClient.builder(new HttpHost(host, port, schema)).build();
+        return new ClientSettings(host, port, schema,
+                preferenceManager.getPreference(SystemPreferences.SEARCH_ELASTIC_MAX_CONNECTIONS),
+                preferenceManager.getPreference(SystemPreferences.SEARCH_ELASTIC_IO_THREADS));
     }
 
+    private ElasticClient createClient(final ClientSettings settings) {
+        final IOReactorConfig.Builder ioConfig = IOReactorConfig.custom();
+        Optional.ofNullable(settings.getIoThreads()).ifPresent(ioConfig::setIoThreadCount);
+        final HttpRequestInterceptor requestStart = (request, context) ->
+                context.setAttribute(REQUEST_START_ATTRIBUTE, System.currentTimeMillis());
+        final HttpResponseInterceptor requestEnd = (response, context) ->
+                registerRequest((Long) context.getAttribute(REQUEST_START_ATTRIBUTE));
+        final RestClient lowLevelClient = RestClient
+                .builder(new HttpHost(settings.getHost(), settings.getPort(), settings.getScheme()))
+                .setHttpClientConfigCallback(builder -> builder
+                        .setMaxConnTotal(settings.getMaxConnections())
+                        .setMaxConnPerRoute(settings.getMaxConnections())
+                        .setDefaultIOReactorConfig(ioConfig.build())
+                        .addInterceptorFirst(requestStart)
+                        .addInterceptorLast(requestEnd))
+                .setFailureListener(new RestClient.FailureListener() {
+                    @Override
+                    public void onFailure(final HttpHost host) {
+                        failedNodes.incrementAndGet();
+                    }
+                })
+                .build();
+        return new ElasticClient(settings, lowLevelClient, new RestHighLevelClient(lowLevelClient));
+    }
+
+    private void registerRequest(final Long start) {
+        requests.incrementAndGet();
+        if (start == null) {
+            return;
+        }
+        final long latency = System.currentTimeMillis() - start;
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    private void close(final ElasticClient elasticClient) {
+        try {
+            elasticClient.getLowLevelClient().close();
+        } catch (IOException e) {
+            log.warn("Failed to close elasticsearch client: {}", e.getMessage());
+        }
+    }
+
+    @Value
+    private static class ClientSettings {
+        String host;
+        Integer port;
+        String scheme;
+        Integer maxConnections;
+        Integer ioThreads;
+    }
+
+    @Value
+    private static class ElasticClient {
+        ClientSettings settings;
+        RestClient lowLevelClient;
+        RestHighLevelClient highLevelClient;
+    }
 }
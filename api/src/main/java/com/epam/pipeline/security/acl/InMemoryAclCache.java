@@ -0,0 +1,241 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.security.acl;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.security.acls.model.Acl;
+import org.springframework.security.acls.model.AclCache;
+import org.springframework.security.acls.model.MutableAcl;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.util.Assert;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size bounded in-process {@link AclCache} with LRU eviction.
+ *
+ * Cached {@link Acl}s keep references to their parent {@link Acl}s, therefore eviction of an ACL
+ * also evicts all its cached descendants. That allows to invalidate a whole subtree of the hierarchy
+ * without looking up children in the database.
+ */
+public class InMemoryAclCache implements AclCache, PublicMetrics {
+
+    private static final String METRIC_PREFIX = "acl.cache.";
+
+    private final int maxSize;
+    private final long timeToLiveMillis;
+
+    private final Map<Serializable, CachedAcl> entries;
+    private final Map<ObjectIdentity, Serializable> identities = new HashMap<>();
+    private final Map<Serializable, Set<Serializable>> children = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * @param maxSize maximum number of cached ACLs, least recently used ACLs are evicted first
+     * @param timeToLiveMillis time after which a cached ACL is considered stale, non-positive value
+     *                         disables expiration
+     */
+    public InMemoryAclCache(final int maxSize, final long timeToLiveMillis) {
+        Assert.isTrue(maxSize > 0, "ACL cache size shall be positive");
+        this.maxSize = maxSize;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public synchronized void evictFromCache(final Serializable pk) {
+        Assert.notNull(pk, "Primary key (identifier) required");
+        if (entries.containsKey(pk)) {
+            invalidations.incrementAndGet();
+            remove(pk);
+        }
+    }
+
+    @Override
+    public synchronized void evictFromCache(final ObjectIdentity objectIdentity) {
+        Assert.notNull(objectIdentity, "ObjectIdentity required");
+        final Serializable pk = identities.get(objectIdentity);
+        if (pk != null) {
+            evictFromCache(pk);
+        }
+    }
+
+    @Override
+    public synchronized MutableAcl getFromCache(final ObjectIdentity objectIdentity) {
+        Assert.notNull(objectIdentity, "ObjectIdentity required");
+        final Serializable pk = identities.get(objectIdentity);
+        if (pk == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        return getFromCache(pk);
+    }
+
+    @Override
+    public synchronized MutableAcl getFromCache(final Serializable pk) {
+        Assert.notNull(pk, "Primary key (identifier) required");
+        final CachedAcl cached = entries.get(pk);
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (isExpired(cached)) {
+            evictions.incrementAndGet();
+            remove(pk);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return cached.getAcl();
+    }
+
+    @Override
+    public synchronized void putInCache(final MutableAcl acl) {
+        Assert.notNull(acl, "Acl required");
+        Assert.notNull(acl.getObjectIdentity(), "ObjectIdentity required");
+        Assert.notNull(acl.getId(), "ID required");
+
+        final Acl parentAcl = acl.getParentAcl();
+        if (parentAcl instanceof MutableAcl) {
+            putInCache((MutableAcl) parentAcl);
+        }
+
+        final Serializable pk = acl.getId();
+        final CachedAcl previous = entries.get(pk);
+        if (previous != null && isChanged(previous.getAcl(), acl)) {
+            // cached descendants refer to the previous state of the acl
+            remove(pk);
+        } else if (previous != null) {
+            unlinkFromParent(pk, previous.getParentId());
+        }
+        final Serializable parentId = parentAcl instanceof MutableAcl ? ((MutableAcl) parentAcl).getId() : null;
+        entries.put(pk, new CachedAcl(acl, parentId, System.currentTimeMillis()));
+        identities.put(acl.getObjectIdentity(), pk);
+        if (parentId != null) {
+            children.computeIfAbsent(parentId, key -> new HashSet<>()).add(pk);
+        }
+        evictOverflow();
+    }
+
+    @Override
+    public synchronized void clearCache() {
+        entries.clear();
+        identities.clear();
+        children.clear();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        return Arrays.asList(
+                new Metric<>(METRIC_PREFIX + "size", size()),
+                new Metric<>(METRIC_PREFIX + "hits", hits.get()),
+                new Metric<>(METRIC_PREFIX + "misses", misses.get()),
+                new Metric<>(METRIC_PREFIX + "evictions", evictions.get()),
+                new Metric<>(METRIC_PREFIX + "invalidations", invalidations.get()));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictOverflow() {
+        while (entries.size() > maxSize) {
+            final Serializable eldest = entries.keySet().iterator().next();
+            evictions.incrementAndGet();
+            remove(eldest);
+        }
+    }
+
+    private void remove(final Serializable pk) {
+        final CachedAcl removed = entries.remove(pk);
+        if (removed == null) {
+            return;
+        }
+        identities.remove(removed.getAcl().getObjectIdentity());
+        unlinkFromParent(pk, removed.getParentId());
+        final Set<Serializable> descendants = children.remove(pk);
+        if (descendants != null) {
+            final List<Serializable> childIds = new ArrayList<>(descendants);
+            childIds.forEach(this::remove);
+        }
+    }
+
+    private void unlinkFromParent(final Serializable pk, final Serializable parentId) {
+        if (parentId == null) {
+            return;
+        }
+        final Set<Serializable> siblings = children.get(parentId);
+        if (siblings != null) {
+            siblings.remove(pk);
+            if (siblings.isEmpty()) {
+                children.remove(parentId);
+            }
+        }
+    }
+
+    /**
+     * Lookups build a new instance of a parent acl for each loaded child, so an acl instance is compared
+     * by its content and not by its identity. Modified acls are evicted explicitly on update anyway.
+     */
+    private boolean isChanged(final MutableAcl previous, final MutableAcl acl) {
+        return previous != acl && !previous.equals(acl);
+    }
+
+    private boolean isExpired(final CachedAcl cached) {
+        return timeToLiveMillis > 0 && System.currentTimeMillis() - cached.getCreated() > timeToLiveMillis;
+    }
+
+    private static final class CachedAcl {
+
+        private final MutableAcl acl;
+        private final Serializable parentId;
+        private final long created;
+
+        CachedAcl(final MutableAcl acl, final Serializable parentId, final long created) {
+            this.acl = acl;
+            this.parentId = parentId;
+            this.created = created;
+        }
+
+        MutableAcl getAcl() {
+            return acl;
+        }
+
+        Serializable getParentId() {
+            return parentId;
+        }
+
+        long getCreated() {
+            return created;
+        }
+    }
+}
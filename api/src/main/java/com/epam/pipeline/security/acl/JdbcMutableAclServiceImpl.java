@@ -16,7 +16,12 @@
 
 package com.epam.pipeline.security.acl;
 
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -28,7 +33,11 @@ import com.epam.pipeline.common.MessageHelper;
 import com.epam.pipeline.dao.DaoHelper;
 import com.epam.pipeline.entity.AbstractSecuredEntity;
 import com.epam.pipeline.entity.security.acl.AclEntitySummary;
+import com.epam.pipeline.entity.security.acl.AclSidEntries;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.security.acls.domain.GrantedAuthoritySid;
 import org.springframework.security.acls.domain.ObjectIdentityImpl;
 import org.springframework.security.acls.domain.PrincipalSid;
@@ -37,12 +46,16 @@ import org.springframework.security.acls.jdbc.LookupStrategy;
 import org.springframework.security.acls.model.Acl;
 import org.springframework.security.acls.model.AclCache;
 import org.springframework.security.acls.model.AlreadyExistsException;
+import org.springframework.security.acls.model.ChildrenExistException;
 import org.springframework.security.acls.model.MutableAcl;
+import org.springframework.security.acls.model.NotFoundException;
 import org.springframework.security.acls.model.ObjectIdentity;
 import org.springframework.security.acls.model.Sid;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 @Service
@@ -62,17 +75,66 @@ public class JdbcMutableAclServiceImpl extends JdbcMutableAclService {
         + " INNER JOIN pipeline.acl_object_identity identities on entries.acl_object_identity=identities.id"
         + " INNER JOIN pipeline.acl_class classes on classes.id=identities.object_id_class"
         + " WHERE sid=?";
+    private static final String LOAD_SID_ENTRIES_QUERY =
+        "SELECT classes.class,"
+        + " identities.object_id_identity,"
+        + " owners.sid AS owner_sid,"
+        + " owners.principal AS owner_principal,"
+        + " entry_sids.sid AS entry_sid,"
+        + " entry_sids.principal AS entry_principal,"
+        + " entries.mask"
+        + " FROM pipeline.acl_object_identity identities"
+        + " INNER JOIN pipeline.acl_class classes on classes.id=identities.object_id_class"
+        + " INNER JOIN pipeline.acl_sid owners on owners.id=identities.owner_sid"
+        + " LEFT JOIN (pipeline.acl_entry entries"
+        + " INNER JOIN pipeline.acl_sid entry_sids on entry_sids.id=entries.sid AND entry_sids.sid = ANY(?))"
+        + " on entries.acl_object_identity=identities.id"
+        + " WHERE classes.class = ANY(?) AND identities.object_id_identity = ANY(?)"
+        + " ORDER BY identities.id, entries.ace_order";
 
     @Autowired
     private MessageHelper messageHelper;
 
+    private final AclCache aclCache;
+
     public JdbcMutableAclServiceImpl(DataSource dataSource, LookupStrategy lookupStrategy,
             AclCache aclCache) {
         super(dataSource, lookupStrategy, aclCache);
+        this.aclCache = aclCache;
         setClassIdentityQuery(CLASS_IDENTITY_QUERY);
         setSidIdentityQuery(SID_IDENTITY_QUERY);
     }
 
+    @Override
+    public MutableAcl updateAcl(MutableAcl acl) throws NotFoundException {
+        final MutableAcl updatedAcl = super.updateAcl(acl);
+        evictFromCacheAfterCompletion(acl.getObjectIdentity());
+        return updatedAcl;
+    }
+
+    @Override
+    public void deleteAcl(ObjectIdentity objectIdentity, boolean deleteChildren) throws ChildrenExistException {
+        super.deleteAcl(objectIdentity, deleteChildren);
+        evictFromCacheAfterCompletion(objectIdentity);
+    }
+
+    /**
+     * Evicts an ACL with all its cached descendants once the current transaction is completed.
+     * Otherwise an ACL could be cached by a concurrent request in its previous state before
+     * the transaction is committed or in a modified state if the transaction is rolled back.
+     */
+    public void evictFromCacheAfterCompletion(ObjectIdentity objectIdentity) {
+        aclCache.evictFromCache(objectIdentity);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    aclCache.evictFromCache(objectIdentity);
+                }
+            });
+        }
+    }
+
     @Transactional(propagation = Propagation.REQUIRED)
     public MutableAcl createAcl(AbstractSecuredEntity securedEntity) {
         Assert.notNull(securedEntity, "Object Identity required");
@@ -183,6 +245,38 @@ public class JdbcMutableAclServiceImpl extends JdbcMutableAclService {
         updateAcl(aclFolder);
     }
 
+    /**
+     * Loads ACL owners and entries of the given SIDs for all the given object identities in a single query.
+     * Object identities which are not registered in ACL are absent in the result.
+     */
+    public Map<ObjectIdentity, AclSidEntries> loadSidEntries(final Collection<ObjectIdentity> identities,
+                                                             final List<Sid> sids) {
+        final Map<ObjectIdentity, AclSidEntries> result = new HashMap<>();
+        if (CollectionUtils.isEmpty(identities)) {
+            return result;
+        }
+        final Object[] sidNames = sids.stream().map(this::getSidName).distinct().toArray();
+        final Object[] types = identities.stream().map(ObjectIdentity::getType).distinct().toArray();
+        final Object[] ids = identities.stream().map(ObjectIdentity::getIdentifier).distinct().toArray();
+        jdbcTemplate.query(connection -> {
+            final PreparedStatement statement = connection.prepareStatement(LOAD_SID_ENTRIES_QUERY);
+            statement.setArray(1, connection.createArrayOf("varchar", sidNames));
+            statement.setArray(2, connection.createArrayOf("varchar", types));
+            statement.setArray(3, connection.createArrayOf("bigint", ids));
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            final ObjectIdentity identity = new ObjectIdentityImpl(rs.getString("class"),
+                    rs.getLong("object_id_identity"));
+            final AclSidEntries entries = result.computeIfAbsent(identity, key -> new AclSidEntries(
+                    toSid(rs, "owner_sid", "owner_principal"), new ArrayList<>()));
+            final Sid entrySid = toSid(rs, "entry_sid", "entry_principal");
+            if (entrySid != null && sids.contains(entrySid)) {
+                entries.getEntries().add(Pair.of(entrySid, rs.getInt("mask")));
+            }
+        });
+        return result;
+    }
+
     public Integer loadEntriesBySidsCount(final Collection<Long> sidIds) {
         final String query = DaoHelper.replaceInClause(LOAD_ENTRIES_BY_SIDS_COUNT_QUERY, sidIds.size());
         return jdbcTemplate.queryForObject(query, sidIds.toArray(), Integer.class);
@@ -194,4 +288,19 @@ public class JdbcMutableAclServiceImpl extends JdbcMutableAclService {
                                                  rs.getLong(2),
                                                  rs.getString(3)));
     }
+
+    private String getSidName(final Sid sid) {
+        return sid instanceof PrincipalSid
+                ? ((PrincipalSid) sid).getPrincipal()
+                : ((GrantedAuthoritySid) sid).getGrantedAuthority();
+    }
+
+    private Sid toSid(final ResultSet rs, final String nameColumn, final String principalColumn)
+            throws SQLException {
+        final String name = rs.getString(nameColumn);
+        if (name == null) {
+            return null;
+        }
+        return rs.getBoolean(principalColumn) ? new PrincipalSid(name) : new GrantedAuthoritySid(name);
+    }
 }
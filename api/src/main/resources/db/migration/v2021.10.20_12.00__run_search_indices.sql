@@ -0,0 +1,20 @@
+-- Backfill parent run ids of the runs which have them only in the legacy parameters encoding
+UPDATE pipeline.pipeline_run
+SET parent_id = substring(parameters FROM '(?:^|\|)parent-id=([0-9]+)(?:=|\||$)')::BIGINT
+WHERE parent_id IS NULL AND parameters ~ '(^|\|)parent-id=[0-9]+(=|\||$)';
+
+CREATE INDEX IF NOT EXISTS pipeline_run_parent_id_index ON pipeline.pipeline_run (parent_id);
+CREATE INDEX IF NOT EXISTS pipeline_run_root_run_id_index ON pipeline.pipeline_run (run_id DESC) WHERE parent_id IS NULL;
+CREATE INDEX IF NOT EXISTS pipeline_run_start_date_index ON pipeline.pipeline_run (start_date);
+CREATE INDEX IF NOT EXISTS pipeline_run_owner_index ON pipeline.pipeline_run (lower(owner), run_id DESC);
+
+-- Trigram index serves partial run parameters search, it is skipped if pg_trgm extension is not available
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+    CREATE INDEX IF NOT EXISTS pipeline_run_parameters_trgm_index
+        ON pipeline.pipeline_run USING GIN (parameters gin_trgm_ops);
+EXCEPTION WHEN OTHERS THEN
+    RAISE NOTICE 'Run parameters trigram index was not created: %', SQLERRM;
+END
+$$;
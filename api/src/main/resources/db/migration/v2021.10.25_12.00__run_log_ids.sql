@@ -0,0 +1,6 @@
+-- log_id is added without a default value, so the existing logs are not rewritten under an exclusive lock,
+-- they are assigned ids in batches by the API afterwards, see RunLogIdBackfill
+CREATE SEQUENCE IF NOT EXISTS pipeline.s_pipeline_run_log_id START WITH 1 INCREMENT BY 1;
+ALTER TABLE pipeline.pipeline_run_log ADD COLUMN IF NOT EXISTS log_id BIGINT;
+ALTER TABLE pipeline.pipeline_run_log ALTER COLUMN log_id SET DEFAULT nextval('pipeline.s_pipeline_run_log_id');
+ALTER SEQUENCE pipeline.s_pipeline_run_log_id OWNED BY pipeline.pipeline_run_log.log_id;
@@ -0,0 +1,8 @@
+-- Indices are built concurrently, so run logs can be written while they are built.
+-- The partial index lets the log ids backfill find the logs without ids, it is empty once the backfill is done.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS pipeline_run_log_run_id_log_id_index
+    ON pipeline.pipeline_run_log (run_id, log_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS pipeline_run_log_run_id_log_date_index
+    ON pipeline.pipeline_run_log (run_id, log_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS pipeline_run_log_without_log_id_index
+    ON pipeline.pipeline_run_log (run_id) WHERE log_id IS NULL;
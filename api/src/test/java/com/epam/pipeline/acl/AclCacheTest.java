@@ -45,6 +45,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 @ContextConfiguration(classes = TestApplicationWithAclSecurity.class)
@@ -135,6 +136,17 @@ public class AclCacheTest extends AbstractManagerTest {
         assertTrue(CollectionUtils.isEmpty(permissionsAfter.getPermissions()));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @WithMockUser(username = TEST_OWNER, roles = {ROLE_ADMIN})
+    public void revokedPermissionShouldBeDeniedRightAway() {
+        grantPermissions(AclPermission.READ.getMask(), user.getUserName(), AclClass.FOLDER, folder.getId(), true);
+        assertTrue(permissionManager.isActionAllowedForUser(folder, user.getUserName(), AclPermission.READ));
+
+        permissionManager.deletePermissions(folder.getId(), AclClass.FOLDER, user.getUserName(), true);
+
+        assertFalse(permissionManager.isActionAllowedForUser(folder, user.getUserName(), AclPermission.READ));
+    }
 
     private void grantPermissions(final Integer mask, final String user, final AclClass aclClass,
                                   final Long entityId, final boolean isPrincipal) {
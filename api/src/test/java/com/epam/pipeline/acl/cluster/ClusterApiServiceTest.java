@@ -428,6 +428,24 @@ public class ClusterApiServiceTest extends AbstractAclTest {
         assertThrows(AccessDeniedException.class, () -> clusterApiService.loadNodeDisks(nodeDisk.getNodeId()));
     }
 
+    @Test
+    @WithMockUser(roles = ADMIN_ROLE)
+    public void shouldReturnNodesDisksForAdmin() {
+        final List<String> names = Collections.singletonList(nodeDisk.getNodeId());
+        doReturn(nodeDisks).when(mockNodeDiskManager).loadByNodeIds(names);
+
+        assertThat(clusterApiService.loadNodesDisks(names)).hasSize(1).contains(nodeDisk);
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldDenyAccessToNodesDisksForNonAdmin() {
+        final List<String> names = Collections.singletonList(nodeDisk.getNodeId());
+        doReturn(nodeDisks).when(mockNodeDiskManager).loadByNodeIds(names);
+
+        assertThrows(AccessDeniedException.class, () -> clusterApiService.loadNodesDisks(names));
+    }
+
     private void mockNode(final NodeInstance nodeInstance) {
         doReturn(nodeInstance).when(mockNodesManager).getNode(nodeInstance.getName(), filterPodsRequest);
         doReturn(nodeInstance).when(mockNodesManager).getNode(nodeInstance.getName());
@@ -24,6 +24,7 @@ import com.epam.pipeline.entity.docker.ToolVersion;
 import com.epam.pipeline.entity.pipeline.Tool;
 import com.epam.pipeline.entity.pipeline.ToolGroup;
 import com.epam.pipeline.entity.scan.ToolScanPolicy;
+import com.epam.pipeline.entity.scan.ToolScanQueueStats;
 import com.epam.pipeline.entity.scan.ToolScanResult;
 import com.epam.pipeline.entity.scan.ToolScanResultView;
 import com.epam.pipeline.entity.scan.ToolVersionScanResult;
@@ -423,6 +424,21 @@ public class ToolApiServiceTest extends AbstractAclTest {
             () -> toolApiService.forceScanTool(TEST_STRING, TEST_STRING, TEST_STRING, true));
     }
 
+    @Test
+    @WithMockUser(roles = ADMIN_ROLE)
+    public void shouldLoadScanQueueStatsForAdmin() {
+        final ToolScanQueueStats stats = DockerCreatorUtils.getToolScanQueueStats();
+        doReturn(stats).when(mockToolScanScheduler).getQueueStats();
+
+        assertThat(toolApiService.loadScanQueueStats()).isEqualTo(stats);
+    }
+
+    @Test
+    @WithMockUser(username = SIMPLE_USER)
+    public void shouldDenyLoadScanQueueStats() {
+        assertThrows(AccessDeniedException.class, () -> toolApiService.loadScanQueueStats());
+    }
+
     @Test
     @WithMockUser(roles = ADMIN_ROLE)
     public void shouldClearToolScanForAdmin() {
@@ -27,18 +27,28 @@ import com.epam.pipeline.entity.metadata.FolderWithMetadata;
 import com.epam.pipeline.entity.pipeline.Folder;
 import com.epam.pipeline.entity.pipeline.Pipeline;
 import com.epam.pipeline.entity.security.acl.AclClass;
+import com.epam.pipeline.entity.security.acl.AclSidEntries;
+import com.epam.pipeline.entity.user.DefaultRoles;
 import com.epam.pipeline.manager.EntityManager;
 import com.epam.pipeline.manager.pipeline.FolderManager;
 import com.epam.pipeline.security.acl.AclPermission;
 import com.epam.pipeline.test.acl.AbstractAclTest;
 import com.epam.pipeline.test.creator.datastorage.DatastorageCreatorUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.acls.domain.AclImpl;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.Permission;
+import org.springframework.security.acls.model.Sid;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -58,11 +68,18 @@ import static com.epam.pipeline.test.creator.folder.FolderCreatorUtils.getFolder
 import static com.epam.pipeline.test.creator.pipeline.PipelineCreatorUtils.getPipeline;
 import static com.epam.pipeline.util.CustomAssertions.assertThrows;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 
 public class FolderApiServiceTest extends AbstractAclTest {
 
     private static final long ID_4 = 4L;
+    private static final long ID_5 = 5L;
+    private static final long ID_6 = 6L;
+    private static final long ID_7 = 7L;
+    private static final long ID_8 = 8L;
     private static final String FOLDER_MANAGER = "FOLDER_MANAGER";
     private final Folder folder = getFolder(ID, ID_3, ANOTHER_SIMPLE_USER);
     private final Folder anotherFolder = getFolder(ID_3, ID_4, ANOTHER_SIMPLE_USER);
@@ -305,6 +322,27 @@ public class FolderApiServiceTest extends AbstractAclTest {
         assertTreeForFolderWithoutPermission(childrenById.get(childFolderWithoutPermission.getId()));
     }
 
+    @Test
+    @WithMockUser(username = SIMPLE_USER)
+    public void shouldLoadTheSameTreeWithPreloadedAclEntries() {
+        mockAuthUser(SIMPLE_USER);
+        doReturn(initTreeWithVariousPermissions(new ArrayList<>())).when(mockFolderManager).loadTree();
+        final Map<String, Integer> perEntityMasks = collectMasks(folderApiService.loadTree());
+
+        final List<AclImpl> acls = new ArrayList<>();
+        doReturn(initTreeWithVariousPermissions(acls)).when(mockFolderManager).loadTree();
+        doAnswer(invocation -> toSidEntries(acls, invocation.getArguments()[0], invocation.getArguments()[1]))
+                .when(aclService).loadSidEntries(anyCollectionOf(ObjectIdentity.class), anyListOf(Sid.class));
+        final Map<String, Integer> preloadedMasks = collectMasks(folderApiService.loadTree());
+
+        assertThat(preloadedMasks).isEqualTo(perEntityMasks);
+        assertThat(preloadedMasks)
+                .containsKeys(key(AclClass.PIPELINE, ID_6), key(AclClass.DATA_STORAGE, ID_7),
+                        key(AclClass.DATA_STORAGE, ID_8), key(AclClass.CONFIGURATION, ID_7),
+                        key(AclClass.CONFIGURATION, ID_8))
+                .doesNotContainKey(key(AclClass.PIPELINE, ID_5));
+    }
+
     @Test
     @WithMockUser
     public void shouldLoadProjects() {
@@ -602,6 +640,81 @@ public class FolderApiServiceTest extends AbstractAclTest {
         assertThat(childFolderStorages.get(0).getMask()).isEqualTo(READ_PERMISSION);
     }
 
+    /**
+     * Builds a tree with owned entities, granted and denied entries of both user and group SIDs, an NFS storage
+     * and configurations which are not registered in ACL.
+     */
+    private Folder initTreeWithVariousPermissions(final List<AclImpl> acls) {
+        final Folder root = getFolder(ID_5, null, ANOTHER_SIMPLE_USER);
+        acls.add(initAcl(root, AclPermission.READ));
+
+        final Folder ownedFolder = getFolder(ID_6, ID_5, SIMPLE_USER);
+        final Pipeline deniedPipeline = getPipeline(ID_5, ANOTHER_SIMPLE_USER);
+        final Pipeline ownedPipeline = getPipeline(ID_6, SIMPLE_USER);
+        ownedFolder.setPipelines(Arrays.asList(deniedPipeline, ownedPipeline));
+        acls.add(initAcl(ownedFolder));
+        acls.add(initAcl(deniedPipeline, AclPermission.NO_READ));
+        acls.add(initAcl(ownedPipeline));
+
+        final Folder groupFolder = getFolder(ID_7, ID_5, ANOTHER_SIMPLE_USER);
+        final S3bucketDataStorage inheritingStorage = getS3bucketDataStorage(ID_7, ANOTHER_SIMPLE_USER);
+        final NFSDataStorage readOnlyStorage = DatastorageCreatorUtils.getNfsDataStorage(ID_8, TEST_PATH,
+                TEST_STRING, TEST_PATH_2, ANOTHER_SIMPLE_USER);
+        readOnlyStorage.setMountStatus(NFSStorageMountStatus.READ_ONLY);
+        final RunConfiguration ownedConfiguration = getRunConfiguration(ID_7, SIMPLE_USER);
+        final RunConfiguration parentConfiguration = getRunConfiguration(ID_8, ANOTHER_SIMPLE_USER);
+        ownedConfiguration.setParent(groupFolder);
+        parentConfiguration.setParent(groupFolder);
+        groupFolder.setStorages(Arrays.asList(inheritingStorage, readOnlyStorage));
+        groupFolder.setConfigurations(Arrays.asList(ownedConfiguration, parentConfiguration));
+        acls.add(initAclEntity(groupFolder, Arrays.asList(
+                new AuthorityPermission(AclPermission.READ.getMask(), DefaultRoles.ROLE_USER.getName()),
+                new UserPermission(SIMPLE_USER, AclPermission.NO_WRITE.getMask()))));
+        acls.add(initAcl(inheritingStorage));
+        acls.add(initAcl(readOnlyStorage, AclPermission.READ, AclPermission.WRITE));
+
+        final Folder deniedFolder = getFolder(ID_8, ID_5, ANOTHER_SIMPLE_USER);
+        final Pipeline grantedPipeline = getPipeline(ID_7, ANOTHER_SIMPLE_USER);
+        deniedFolder.setPipelines(Collections.singletonList(grantedPipeline));
+        acls.add(initAcl(deniedFolder, AclPermission.NO_READ));
+        acls.add(initAcl(grantedPipeline, AclPermission.READ));
+
+        root.setChildFolders(Arrays.asList(ownedFolder, groupFolder, deniedFolder));
+        return root;
+    }
+
+    private AclImpl initAcl(final AbstractSecuredEntity entity, final Permission... permissions) {
+        return initAclEntity(entity, Arrays.stream(permissions)
+                .<AbstractGrantPermission>map(permission -> new UserPermission(SIMPLE_USER, permission.getMask()))
+                .collect(Collectors.toList()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<ObjectIdentity, AclSidEntries> toSidEntries(final List<AclImpl> acls,
+                                                                  final Object identities, final Object sids) {
+        final Collection<ObjectIdentity> requestedIdentities = (Collection<ObjectIdentity>) identities;
+        final List<Sid> requestedSids = (List<Sid>) sids;
+        return acls.stream()
+                .filter(acl -> requestedIdentities.contains(acl.getObjectIdentity()))
+                .collect(Collectors.toMap(AclImpl::getObjectIdentity, acl -> new AclSidEntries(acl.getOwner(),
+                        acl.getEntries().stream()
+                                .filter(ace -> requestedSids.contains(ace.getSid()))
+                                .map(ace -> Pair.of(ace.getSid(), ace.getPermission().getMask()))
+                                .collect(Collectors.toList()))));
+    }
+
+    private static Map<String, Integer> collectMasks(final AbstractHierarchicalEntity entity) {
+        final Map<String, Integer> masks = new HashMap<>();
+        masks.put(key(entity.getAclClass(), entity.getId()), entity.getMask());
+        entity.getLeaves().forEach(leaf -> masks.put(key(leaf.getAclClass(), leaf.getId()), leaf.getMask()));
+        entity.getChildren().forEach(child -> masks.putAll(collectMasks(child)));
+        return masks;
+    }
+
+    private static String key(final AclClass aclClass, final Long id) {
+        return aclClass + ":" + id;
+    }
+
     private void assertTreeForFolderWithReadPermission(final AbstractHierarchicalEntity folderWithPermission) {
         final List<? extends AbstractSecuredEntity> leaves = folderWithPermission.getLeaves();
 
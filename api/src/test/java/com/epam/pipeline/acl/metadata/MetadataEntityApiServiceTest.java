@@ -41,8 +41,8 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.List;
 
@@ -68,7 +68,7 @@ public class MetadataEntityApiServiceTest extends AbstractAclTest {
     private final MetadataFilter metadataFilter = MetadataCreatorUtils.getMetadataFilter(ID);
     private final MetadataField metadataField = MetadataCreatorUtils.getMetadataField();
     private final MultipartFile file = new MockMultipartFile(TEST_STRING, TEST_STRING.getBytes());
-    private final InputStream inputStream = new ByteArrayInputStream(TEST_STRING.getBytes());
+    private final Writer writer = new StringWriter();
 
     private final List<MetadataEntity> metadataEntities = Collections.singletonList(metadataEntity);
     private final List<MetadataField> metadataFields = Collections.singletonList(metadataField);
@@ -565,29 +565,33 @@ public class MetadataEntityApiServiceTest extends AbstractAclTest {
 
     @Test
     @WithMockUser(roles = ADMIN_ROLE)
-    public void shouldGetMetadataEntityFileForAdmin() {
-        doReturn(inputStream).when(mockMetadataDownloadManager).getInputStream(ID, TEST_STRING, TEST_STRING);
+    public void shouldWriteMetadataEntityFileForAdmin() {
+        doNothing().when(mockMetadataDownloadManager).writeEntities(ID, TEST_STRING, TEST_STRING, writer);
 
-        assertThat(entityApiService.getMetadataEntityFile(ID, TEST_STRING, TEST_STRING)).isEqualTo(inputStream);
+        entityApiService.writeMetadataEntityFile(ID, TEST_STRING, TEST_STRING, writer);
+
+        verify(mockMetadataDownloadManager).writeEntities(ID, TEST_STRING, TEST_STRING, writer);
     }
 
     @Test
     @WithMockUser(username = SIMPLE_USER, roles = ENTITIES_MANAGER_ROLE)
-    public void shouldGetMetadataEntityFileWhenPermissionIsGranted() {
+    public void shouldWriteMetadataEntityFileWhenPermissionIsGranted() {
         initAclEntity(folder, AclPermission.READ);
-        doReturn(inputStream).when(mockMetadataDownloadManager).getInputStream(ID, TEST_STRING, TEST_STRING);
+        doNothing().when(mockMetadataDownloadManager).writeEntities(ID, TEST_STRING, TEST_STRING, writer);
+
+        entityApiService.writeMetadataEntityFile(ID, TEST_STRING, TEST_STRING, writer);
 
-        assertThat(entityApiService.getMetadataEntityFile(ID, TEST_STRING, TEST_STRING)).isEqualTo(inputStream);
+        verify(mockMetadataDownloadManager).writeEntities(ID, TEST_STRING, TEST_STRING, writer);
     }
 
     @Test
     @WithMockUser
-    public void shouldDenyGetMetadataEntityFileWhenPermissionIsNotGranted() {
+    public void shouldDenyWriteMetadataEntityFileWhenPermissionIsNotGranted() {
         initAclEntity(folder);
-        doReturn(inputStream).when(mockMetadataDownloadManager).getInputStream(ID, TEST_STRING, TEST_STRING);
+        doNothing().when(mockMetadataDownloadManager).writeEntities(ID, TEST_STRING, TEST_STRING, writer);
 
         assertThrows(AccessDeniedException.class, () ->
-                entityApiService.getMetadataEntityFile(ID, TEST_STRING, TEST_STRING));
+                entityApiService.writeMetadataEntityFile(ID, TEST_STRING, TEST_STRING, writer));
     }
 
     private void mockLoadEntities() {
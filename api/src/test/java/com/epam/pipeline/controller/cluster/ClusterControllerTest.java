@@ -67,6 +67,7 @@ public class ClusterControllerTest extends AbstractControllerTest {
     private static final String LOAD_ALLOWED_INSTANCE_TYPES_URL = INSTANCE_URL + "/allowed";
     private static final String NODE_USAGE_URL = NODE_NAME_URL + "/usage";
     private static final String NODE_DISKS_URL = NODE_NAME_URL + "/disks";
+    private static final String NODES_DISKS_URL = NODE_URL + "/disks";
     private static final String NODE_STATISTICS_URL = NODE_USAGE_URL + "/report";
     private static final String PORT = "7367";
     private static final String NAME = "testName";
@@ -328,4 +329,23 @@ public class ClusterControllerTest extends AbstractControllerTest {
         Mockito.verify(mockClusterApiService).loadNodeDisks(NAME);
         assertResponse(mvcResult, nodeDisks, NodeCreatorUtils.NODE_DISK_LIST_TYPE);
     }
+
+    @Test
+    public void shouldFailLoadNodesDisksForUnauthorizedUser() throws Exception {
+        performUnauthorizedRequest(post(NODES_DISKS_URL));
+    }
+
+    @Test
+    @WithMockUser
+    public void shouldLoadNodesDisks() throws Exception {
+        final List<NodeDisk> nodeDisks = Collections.singletonList(NodeCreatorUtils.getDefaultNodeDisk());
+        final List<String> names = Collections.singletonList(NAME);
+        Mockito.doReturn(nodeDisks).when(mockClusterApiService).loadNodesDisks(names);
+
+        final MvcResult mvcResult = performRequest(post(NODES_DISKS_URL)
+                .content(getObjectMapper().writeValueAsString(names)));
+
+        Mockito.verify(mockClusterApiService).loadNodesDisks(names);
+        assertResponse(mvcResult, nodeDisks, NodeCreatorUtils.NODE_DISK_LIST_TYPE);
+    }
 }
@@ -24,6 +24,7 @@ import com.epam.pipeline.entity.docker.ToolDescription;
 import com.epam.pipeline.entity.docker.ToolVersion;
 import com.epam.pipeline.entity.pipeline.Tool;
 import com.epam.pipeline.entity.scan.ToolScanPolicy;
+import com.epam.pipeline.entity.scan.ToolScanQueueStats;
 import com.epam.pipeline.entity.scan.ToolScanResultView;
 import com.epam.pipeline.entity.scan.ToolVersionScanResult;
 import com.epam.pipeline.entity.tool.ToolSymlinkRequest;
@@ -73,6 +74,7 @@ public class ToolControllerTest extends AbstractControllerTest {
     private static final String DEFAULT_CMD_URL = TOOL_URL + "/%d/defaultCmd";
     private static final String SCAN_TOOL_URL = TOOL_URL + "/scan";
     private static final String SCAN_POLICY_TOOL_URL = SCAN_TOOL_URL + "/policy";
+    private static final String SCAN_QUEUE_TOOL_URL = SCAN_TOOL_URL + "/queue";
     private static final String ENABLE_SCAN_TOOL_URL = SCAN_TOOL_URL + "/enabled";
     private static final String ICON_TOOL_URL = TOOL_URL + "/%d/icon";
     private static final String ATTRIBUTES_TOOL_URL = TOOL_URL + "/%d/attributes";
@@ -372,6 +374,23 @@ public class ToolControllerTest extends AbstractControllerTest {
         performUnauthorizedRequest(get(SCAN_POLICY_TOOL_URL));
     }
 
+    @Test
+    @WithMockUser
+    public void shouldLoadScanQueueStats() {
+        final ToolScanQueueStats stats = DockerCreatorUtils.getToolScanQueueStats();
+        doReturn(stats).when(mockToolApiService).loadScanQueueStats();
+
+        final MvcResult mvcResult = performRequest(get(SCAN_QUEUE_TOOL_URL));
+
+        verify(mockToolApiService).loadScanQueueStats();
+        assertResponse(mvcResult, stats, DockerCreatorUtils.TOOL_SCAN_QUEUE_STATS_INSTANCE_TYPE);
+    }
+
+    @Test
+    public void shouldFailLoadScanQueueStats() {
+        performUnauthorizedRequest(get(SCAN_QUEUE_TOOL_URL));
+    }
+
     @Test
     @WithMockUser
     public void shouldCheckIfToolScanningEnabled() {
@@ -19,12 +19,15 @@ package com.epam.pipeline.controller.folder;
 import com.epam.pipeline.entity.metadata.FolderWithMetadata;
 import com.epam.pipeline.entity.metadata.MetadataEntity;
 import com.epam.pipeline.entity.pipeline.Folder;
+import com.epam.pipeline.entity.pipeline.FolderTreeSnapshot;
 import com.epam.pipeline.entity.security.acl.AclClass;
 import com.epam.pipeline.acl.metadata.MetadataEntityApiService;
 import com.epam.pipeline.acl.folder.FolderApiService;
 import com.epam.pipeline.test.web.AbstractControllerTest;
+import lombok.SneakyThrows;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
 
@@ -40,11 +43,13 @@ import static com.epam.pipeline.test.creator.folder.FolderCreatorUtils.getFolder
 import static com.epam.pipeline.test.creator.folder.FolderCreatorUtils.getFolderWithMetadata;
 import static com.epam.pipeline.test.creator.metadata.MetadataCreatorUtils.METADATA_ENTITY_LIST_TYPE;
 import static com.epam.pipeline.test.creator.metadata.MetadataCreatorUtils.getMetadataEntity;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class FolderControllerTest extends AbstractControllerTest {
 
@@ -162,12 +167,30 @@ public class FolderControllerTest extends AbstractControllerTest {
     @Test
     @WithMockUser
     public void shouldLoadTree() {
-        doReturn(folder).when(mockFolderApiService).loadTree();
+        final FolderTreeSnapshot snapshot = new FolderTreeSnapshot(ID, folder);
+        doReturn(snapshot).when(mockFolderApiService).loadTreeSnapshot();
 
         final MvcResult mvcResult = performRequest(get(FOLDER_TREE_URL));
 
-        verify(mockFolderApiService).loadTree();
+        verify(mockFolderApiService).loadTreeSnapshot();
         assertResponse(mvcResult, folder, FOLDER_TYPE);
+        assertThat(mvcResult.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(snapshot.getTag());
+    }
+
+    @Test
+    @WithMockUser
+    @SneakyThrows
+    public void shouldNotLoadTreeIfTagMatches() {
+        final FolderTreeSnapshot snapshot = new FolderTreeSnapshot(ID, folder);
+        doReturn(snapshot).when(mockFolderApiService).loadTreeSnapshot();
+
+        final MvcResult mvcResult = mvc().perform(get(FOLDER_TREE_URL)
+                .servletPath(SERVLET_PATH)
+                .header(HttpHeaders.IF_NONE_MATCH, snapshot.getTag()))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentAsString()).isEmpty();
     }
 
     @Test
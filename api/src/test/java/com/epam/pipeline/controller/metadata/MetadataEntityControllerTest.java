@@ -16,7 +16,6 @@
 
 package com.epam.pipeline.controller.metadata;
 
-import com.amazonaws.util.StringInputStream;
 import com.epam.pipeline.controller.PagedResult;
 import com.epam.pipeline.controller.vo.metadata.MetadataEntityVO;
 import com.epam.pipeline.entity.metadata.FireCloudClass;
@@ -38,7 +37,7 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.List;
 
@@ -48,6 +47,7 @@ import static com.epam.pipeline.test.creator.CommonCreatorConstants.TEST_STRING;
 import static com.epam.pipeline.test.creator.CommonCreatorConstants.TEST_STRING_MAP;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.verify;
@@ -416,8 +416,11 @@ public class MetadataEntityControllerTest extends AbstractControllerTest {
     @Test
     @WithMockUser
     public void shouldDownloadEntityAsFile() throws Exception {
-        final InputStream inputStream = new StringInputStream(TEST_STRING);
-        doReturn(inputStream).when(mockMetadataEntityApiService).getMetadataEntityFile(ID, TEST_STRING, TEST_STRING);
+        doAnswer(invocation -> {
+            invocation.getArgumentAt(3, Writer.class).write(TEST_STRING);
+            return null;
+        }).when(mockMetadataEntityApiService).writeMetadataEntityFile(
+                eq(ID), eq(TEST_STRING), eq(TEST_STRING), any(Writer.class));
 
         final MvcResult mvcResult = performRequest(get(METADATA_ENTITY_DOWNLOAD_URL)
                         .params(multiValueMapOf(FOLDER_ID, ID,
@@ -425,7 +428,8 @@ public class MetadataEntityControllerTest extends AbstractControllerTest {
                                                 FILE_FORMAT, TEST_STRING)),
                                                 MediaType.APPLICATION_OCTET_STREAM_VALUE);
 
-        verify(mockMetadataEntityApiService).getMetadataEntityFile(ID, TEST_STRING, TEST_STRING);
+        verify(mockMetadataEntityApiService).writeMetadataEntityFile(
+                eq(ID), eq(TEST_STRING), eq(TEST_STRING), any(Writer.class));
         assertFileResponse(mvcResult, TEST_STRING, TEST_STRING.getBytes());
     }
 
@@ -40,6 +40,7 @@ public class NodeDiskDaoTest extends AbstractJdbcTest {
     
     private static final String NODE_ID = "NODE_ID";
     private static final String ANOTHER_NODE_ID = "ANOTHER_NODE_ID";
+    private static final String THIRD_NODE_ID = "THIRD_NODE_ID";
     private static final String NULL_NODE_ID = null;
     private static final Long SIZE = 1L;
     private static final Long NULL_SIZE = null;
@@ -118,6 +119,17 @@ public class NodeDiskDaoTest extends AbstractJdbcTest {
         assertThat(disks.size(), is(3));
     }
 
+    @Test
+    public void loadByNodeIdsShouldReturnDisksOfAllSpecifiedNodes() {
+        insert(NODE_ID, diskRequestOf(SIZE), diskRequestOf(SIZE));
+        insert(ANOTHER_NODE_ID, diskRequestOf(SIZE), diskRequestOf(SIZE), diskRequestOf(SIZE));
+        insert(THIRD_NODE_ID, diskRequestOf(SIZE));
+
+        final List<NodeDisk> disks = dao.loadByNodeIds(Arrays.asList(NODE_ID, ANOTHER_NODE_ID));
+
+        assertThat(disks.size(), is(5));
+    }
+
     private List<NodeDisk> insert(final String nodeId, final LocalDateTime creationDate, 
                                   final DiskRegistrationRequest... requests) {
         return dao.insert(nodeId, creationDate, Arrays.asList(requests));
@@ -30,6 +30,7 @@ import com.epam.pipeline.entity.utils.DateUtils;
 import com.epam.pipeline.manager.ObjectCreatorUtils;
 import com.epam.pipeline.manager.metadata.parser.EntityTypeField;
 import com.epam.pipeline.test.jdbc.AbstractJdbcTest;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +39,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -470,6 +472,31 @@ public class MetadataEntityDaoTest extends AbstractJdbcTest {
         checkGetKeys(metadataClass, folder, defaultKeys, getDataField(DATA_KEY_2));
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void shouldLoadDataTypesAndStreamValuesOfEntities() {
+        final MetadataClass metadataClass = createMetadataClass(CLASS_NAME_1);
+        final Folder folder = createFolder();
+        final Map<String, PipeConfValue> data1 = new HashMap<>();
+        data1.put(DATA_KEY_1, new PipeConfValue(DATA_TYPE_1, DATA_VALUE_1));
+        data1.put(DATA_KEY_2, new PipeConfValue(DATA_TYPE_2, DATA_VALUE_2));
+        createMetadataEntity(folder, metadataClass, EXTERNAL_ID_1, data1);
+        final Map<String, PipeConfValue> data2 = new HashMap<>();
+        data2.put(DATA_KEY_2, new PipeConfValue(DATA_TYPE_2, DATA_VALUE_1));
+        createMetadataEntity(folder, metadataClass, EXTERNAL_ID_2, data2);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(Pair.of(DATA_KEY_1, DATA_TYPE_1),
+                Pair.of(DATA_KEY_2, DATA_TYPE_2))),
+                new HashSet<>(metadataEntityDao.loadMetadataEntityDataTypes(folder.getId(), CLASS_NAME_1)));
+
+        final Map<String, List<String>> values = new LinkedHashMap<>();
+        metadataEntityDao.streamMetadataEntityValues(folder.getId(), CLASS_NAME_1,
+                Arrays.asList(DATA_KEY_2, DATA_KEY_1), values::put);
+        Assert.assertEquals(Arrays.asList(EXTERNAL_ID_1, EXTERNAL_ID_2), new ArrayList<>(values.keySet()));
+        Assert.assertEquals(Arrays.asList(DATA_VALUE_2, DATA_VALUE_1), values.get(EXTERNAL_ID_1));
+        Assert.assertEquals(Arrays.asList(DATA_VALUE_1, null), values.get(EXTERNAL_ID_2));
+    }
+
     @Test
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
     public void testGetMetadataKeys() {
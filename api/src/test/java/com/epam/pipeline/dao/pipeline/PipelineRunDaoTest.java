@@ -51,8 +51,10 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -85,6 +87,7 @@ import static org.junit.Assert.assertTrue;
 @Transactional
 public class PipelineRunDaoTest extends AbstractJdbcTest {
     private static final String TEST_USER = "TEST";
+    private static final int LOGS_COUNT = 3;
     private static final String TEST_PARAMS = "123 321";
     private static final String TEST_POD_ID = "pod1";
     private static final String TEST_NODE_IMAGE = "nodeImage";
@@ -148,6 +151,9 @@ public class PipelineRunDaoTest extends AbstractJdbcTest {
     @Autowired
     private RunLogDao logDao;
 
+    @Autowired
+    private DataSource dataSource;
+
     @Autowired
     private PipelineDao pipelineDao;
 
@@ -406,6 +412,42 @@ public class PipelineRunDaoTest extends AbstractJdbcTest {
 
     }
 
+    @Test
+    public void searchPipelineRunsShouldPageByLastRunId() {
+        final Pipeline testPipeline = getPipeline();
+        final PipelineRun first = createRun(testPipeline.getId(), null, TaskStatus.SUCCESS, null);
+        final PipelineRun second = createRun(testPipeline.getId(), null, TaskStatus.SUCCESS, null);
+        final PipelineRun third = createRun(testPipeline.getId(), null, TaskStatus.SUCCESS, null);
+        final PagingRunFilterVO filterVO = new PagingRunFilterVO();
+        filterVO.setPageSize(2);
+        filterVO.setPipelineIds(Collections.singletonList(testPipeline.getId()));
+        filterVO.setLastRunId(third.getId());
+
+        final List<PipelineRun> runs = pipelineRunDao.searchPipelineRuns(filterVO);
+        assertEquals(2, runs.size());
+        assertEquals(second.getId(), runs.get(0).getId());
+        assertEquals(first.getId(), runs.get(1).getId());
+
+        filterVO.setLastRunId(first.getId());
+        assertTrue(pipelineRunDao.searchPipelineRuns(filterVO).isEmpty());
+    }
+
+    @Test
+    public void searchPipelineRunsShouldFilterByParentId() {
+        final Pipeline testPipeline = getPipeline();
+        final PipelineRun parent = createRun(testPipeline.getId(), null, TaskStatus.SUCCESS, null);
+        final PipelineRun child = createRun(testPipeline.getId(), null, TaskStatus.SUCCESS, parent.getId());
+        createRun(testPipeline.getId(), null, TaskStatus.SUCCESS, null);
+        final PagingRunFilterVO filterVO = new PagingRunFilterVO();
+        filterVO.setPage(1);
+        filterVO.setPageSize(TEST_PAGE_SIZE);
+        filterVO.setParentId(parent.getId());
+
+        final List<PipelineRun> runs = pipelineRunDao.searchPipelineRuns(filterVO);
+        assertEquals(1, runs.size());
+        assertEquals(child.getId(), runs.get(0).getId());
+    }
+
     @Test
     public void searchPipelineRuns() {
         Pipeline testPipeline2 = getPipeline();
@@ -817,6 +859,58 @@ public class PipelineRunDaoTest extends AbstractJdbcTest {
         validateLoadRunBooleanFieldValue(false, run, PipelineRun::getQueued);
     }
 
+    @Test
+    public void shouldBackfillLogIdsInLogsOrder() {
+        final PipelineRun run = createTestPipelineRun();
+        createLogsWithoutLogIds(run);
+        createLog(run, TaskStatus.RUNNING, initTaskName);
+        assertEquals(Collections.singletonList(run.getId()), logDao.loadRunIdsWithoutLogIds(LOGS_COUNT));
+
+        assertEquals(LOGS_COUNT, logDao.backfillLogIds(run.getId()));
+
+        assertTrue(logDao.loadRunIdsWithoutLogIds(LOGS_COUNT).isEmpty());
+        final List<RunLog> logs = logDao.loadLogs(run.getId(), null, null, LOGS_COUNT + 1);
+        assertEquals(LOGS_COUNT + 1, logs.size());
+        for (int i = 0; i < LOGS_COUNT; i++) {
+            assertEquals(String.valueOf(i), logs.get(i).getLogText());
+            assertEquals(Long.valueOf(i - LOGS_COUNT), logs.get(i).getId());
+        }
+        assertTrue(logs.get(LOGS_COUNT).getId() > 0);
+    }
+
+    @Test
+    public void shouldLoadLastLogsWithoutLogIdsAsOldest() {
+        final PipelineRun run = createTestPipelineRun();
+        createLogsWithoutLogIds(run);
+        createLog(run, TaskStatus.RUNNING, initTaskName);
+
+        final List<RunLog> lastLogs = logDao.loadLogs(run.getId(), null, null, 1);
+        assertEquals(1, lastLogs.size());
+        assertTrue(lastLogs.get(0).getId() > 0);
+
+        final List<RunLog> logs = logDao.loadLogs(run.getId(), null, null, LOGS_COUNT + 1);
+        assertEquals(LOGS_COUNT + 1, logs.size());
+        for (int i = 0; i < LOGS_COUNT; i++) {
+            assertEquals(String.valueOf(i), logs.get(i).getLogText());
+            assertNull(logs.get(i).getId());
+        }
+        assertEquals(lastLogs.get(0).getId(), logs.get(LOGS_COUNT).getId());
+    }
+
+    private void createLogsWithoutLogIds(final PipelineRun run) {
+        final Date now = DateUtils.now();
+        for (int i = 0; i < LOGS_COUNT; i++) {
+            final RunLog runLog = new RunLog();
+            runLog.setDate(new Date(now.getTime() - LOGS_COUNT + i));
+            runLog.setLogText(String.valueOf(i));
+            runLog.setStatus(TaskStatus.RUNNING);
+            runLog.setRunId(run.getId());
+            logDao.createRunLog(runLog);
+        }
+        new JdbcTemplate(dataSource).update("UPDATE pipeline.pipeline_run_log SET log_id = NULL WHERE run_id = ?",
+                run.getId());
+    }
+
     @Test
     public void shouldLoadRunsByStatuses() {
         final PipelineRun running = buildPipelineRun(null);
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.cloud.aws;
+
+import com.epam.pipeline.entity.cluster.InstanceOffer;
+import com.epam.pipeline.manager.cloud.CloudInstancePriceService;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class AWSPriceListReaderTest {
+
+    private static final Long REGION_ID = 1L;
+    private static final String HEADER = "\"SKU\",\"TermType\",\"Unit\",\"PricePerUnit\",\"Currency\","
+            + "\"Instance Type\",\"Tenancy\",\"Operating System\",\"Product Family\",\"Volume Type\","
+            + "\"vCPU\",\"GPU\",\"Instance Family\",\"Memory\"";
+    private static final String LINUX_ON_DEMAND = "\"sku1\",\"OnDemand\",\"Hrs\",\"0.1\",\"USD\","
+            + "\"m5.large\",\"Shared\",\"Linux\",\"Compute Instance\",\"\",\"2\",\"\",\"General purpose\",\"8 GiB\"";
+    private static final String WINDOWS_ON_DEMAND = "\"sku2\",\"OnDemand\",\"Hrs\",\"0.2\",\"USD\","
+            + "\"m5.large\",\"Shared\",\"Windows\",\"Compute Instance\",\"\",\"2\",\"\",\"General purpose\",\"8 GiB\"";
+    private static final String LINUX_RESERVED = "\"sku3\",\"Reserved\",\"Hrs\",\"0.05\",\"USD\","
+            + "\"m5.large\",\"Shared\",\"Linux\",\"Compute Instance\",\"\",\"2\",\"\",\"General purpose\",\"8 GiB\"";
+    private static final String LINUX_DEDICATED = "\"sku4\",\"OnDemand\",\"Hrs\",\"0.3\",\"USD\","
+            + "\"m5.large\",\"Dedicated\",\"Linux\",\"Compute Instance\",\"\",\"2\",\"\",\"General purpose\",\"8 GiB\"";
+    private static final String STORAGE = "\"sku5\",\"OnDemand\",\"GB-Mo\",\"0.1\",\"USD\","
+            + "\"\",\"\",\"\",\"Storage\",\"General Purpose\",\"\",\"\",\"\",\"\"";
+
+    @Test
+    public void shouldKeepOnlyOffersRequiredForPriceEstimation() {
+        final Date publishDate = new Date();
+        final AWSPriceListReader reader = new AWSPriceListReader(REGION_ID,
+                Collections.singleton(CloudInstancePriceService.INSTANCE_PRODUCT_FAMILY), publishDate);
+
+        final List<InstanceOffer> offers = reader.readPriceCsv(csv(
+                HEADER, LINUX_ON_DEMAND, WINDOWS_ON_DEMAND, LINUX_RESERVED, LINUX_DEDICATED, STORAGE));
+
+        assertEquals(2, offers.size());
+        final InstanceOffer instanceOffer = offers.get(0);
+        assertEquals("sku1", instanceOffer.getSku());
+        assertEquals(REGION_ID, instanceOffer.getRegionId());
+        assertEquals(2, instanceOffer.getVCPU());
+        assertEquals(8.0f, instanceOffer.getMemory(), 0.0f);
+        assertSame(publishDate, instanceOffer.getPriceListPublishDate());
+        assertEquals(CloudInstancePriceService.STORAGE_PRODUCT_FAMILY, offers.get(1).getProductFamily());
+        assertSame(publishDate, offers.get(1).getPriceListPublishDate());
+    }
+
+    private static BufferedReader csv(final String... lines) {
+        return new BufferedReader(new StringReader(String.join("\n", lines)));
+    }
+}
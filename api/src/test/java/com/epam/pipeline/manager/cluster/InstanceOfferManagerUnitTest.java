@@ -19,6 +19,7 @@ package com.epam.pipeline.manager.cluster;
 import com.epam.pipeline.common.MessageHelper;
 import com.epam.pipeline.dao.cluster.InstanceOfferDao;
 import com.epam.pipeline.entity.cluster.AllowedInstanceAndPriceTypes;
+import com.epam.pipeline.entity.cluster.InstanceOffer;
 import com.epam.pipeline.entity.cluster.InstanceType;
 import com.epam.pipeline.entity.cluster.PriceType;
 import com.epam.pipeline.entity.contextual.ContextualPreference;
@@ -28,6 +29,7 @@ import com.epam.pipeline.entity.region.AbstractCloudRegion;
 import com.epam.pipeline.entity.region.AwsRegion;
 import com.epam.pipeline.entity.region.CloudProvider;
 import com.epam.pipeline.manager.cloud.CloudFacade;
+import com.epam.pipeline.manager.cloud.CloudInstancePriceService;
 import com.epam.pipeline.manager.contextual.ContextualPreferenceManager;
 import com.epam.pipeline.manager.pipeline.PipelineRunManager;
 import com.epam.pipeline.manager.pipeline.PipelineVersionManager;
@@ -40,14 +42,20 @@ import org.mockito.ArgumentCaptor;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
+import static com.epam.pipeline.util.CustomAssertions.assertThrows;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -87,6 +95,10 @@ public class InstanceOfferManagerUnitTest {
     private static final String ON_DEMAND = PriceType.ON_DEMAND.getLiteral();
     private static final String SPOT_AND_ON_DEMAND_TYPES = String.format("%s,%s", PriceType.SPOT, PriceType.ON_DEMAND);
     private static final String TERM_TYPE = "OnDemand";
+    private static final String LINUX_OS = CloudInstancePriceService.LINUX_OPERATING_SYSTEM;
+    private static final String WINDOWS_OS = "Windows";
+    private static final double M5_LARGE_PRICE = 0.1;
+    private static final long PUBLISH_TIME = 1_600_000_000_000L;
 
     private final AbstractCloudRegion defaultRegion = region(REGION_ID);
     private final AbstractCloudRegion anotherRegion = region(ANOTHER_REGION_ID);
@@ -330,6 +342,77 @@ public class InstanceOfferManagerUnitTest {
         verify(contextualPreferenceManager).search(eq(PRICE_TYPES_PREFERENCES), eq(null));
     }
 
+    @Test
+    public void getPricePerHourForInstanceShouldUseOffersOfTheLastPriceListRefresh() {
+        doReturn(Collections.singletonList(defaultRegion)).when(cloudRegionManager).loadAll();
+        when(cloudFacade.isPriceListChanged(REGION_ID)).thenReturn(true);
+        when(cloudFacade.refreshPriceListForRegion(REGION_ID)).thenReturn(Arrays.asList(
+                instanceOffer(M5_LARGE, LINUX_OS, M5_LARGE_PRICE),
+                instanceOffer(M5_LARGE, WINDOWS_OS, M5_LARGE_PRICE / 2),
+                instanceOffer(M4_LARGE, LINUX_OS, M5_LARGE_PRICE * 2)));
+
+        instanceOfferManager.refreshPriceList();
+
+        assertThat(instanceOfferManager.getPricePerHourForInstance(M5_LARGE, REGION_ID), is(M5_LARGE_PRICE));
+        assertThat(instanceOfferManager.getPricePerHourForInstance(M5_LARGE, ANOTHER_REGION_ID), is(0.0));
+        verify(instanceOfferDao, never()).loadInstanceOffers(any());
+    }
+
+    @Test
+    public void updatePriceListForRegionShouldConfirmRefreshOnlyAfterOffersArePersisted() {
+        when(cloudFacade.isPriceListChanged(REGION_ID)).thenReturn(true);
+        when(cloudFacade.refreshPriceListForRegion(REGION_ID)).thenReturn(Collections.singletonList(
+                instanceOffer(M5_LARGE, LINUX_OS, M5_LARGE_PRICE)));
+        doThrow(new IllegalStateException()).when(instanceOfferDao)
+                .replaceInstanceOffersForRegion(eq(REGION_ID), any());
+
+        assertThrows(IllegalStateException.class,
+            () -> instanceOfferManager.updatePriceListForRegion(defaultRegion));
+        verify(cloudFacade, never()).confirmPriceListRefresh(REGION_ID);
+
+        doNothing().when(instanceOfferDao).replaceInstanceOffersForRegion(eq(REGION_ID), any());
+        instanceOfferManager.updatePriceListForRegion(defaultRegion);
+        verify(cloudFacade).confirmPriceListRefresh(REGION_ID);
+    }
+
+    @Test
+    public void updateInstanceOfferIndexIfOutdatedShouldRebuildIndexOnlyOnceThePriceListIsPublished() {
+        final Date publishDate = new Date(PUBLISH_TIME);
+        final Date nextPublishDate = new Date(PUBLISH_TIME + 1);
+        when(instanceOfferDao.getPriceListPublishDate()).thenReturn(publishDate);
+        when(instanceOfferDao.loadInstanceOffers(any())).thenReturn(Collections.singletonList(
+                instanceOffer(M5_LARGE, LINUX_OS, M5_LARGE_PRICE)));
+
+        instanceOfferManager.updateInstanceOfferIndexIfOutdated();
+        instanceOfferManager.updateInstanceOfferIndexIfOutdated();
+
+        assertThat(instanceOfferManager.getPricePerHourForInstance(M5_LARGE, REGION_ID), is(M5_LARGE_PRICE));
+        verify(instanceOfferDao, times(1)).loadInstanceOffers(any());
+
+        when(instanceOfferDao.getPriceListPublishDate()).thenReturn(nextPublishDate);
+        when(instanceOfferDao.loadInstanceOffers(any())).thenReturn(Collections.singletonList(
+                instanceOffer(M5_LARGE, LINUX_OS, M5_LARGE_PRICE * 2)));
+
+        instanceOfferManager.updateInstanceOfferIndexIfOutdated();
+
+        assertThat(instanceOfferManager.getPricePerHourForInstance(M5_LARGE, REGION_ID), is(M5_LARGE_PRICE * 2));
+        verify(instanceOfferDao, times(2)).loadInstanceOffers(any());
+    }
+
+    private InstanceOffer instanceOffer(final String instanceType, final String operatingSystem,
+                                        final double price) {
+        final InstanceOffer offer = new InstanceOffer();
+        offer.setInstanceType(instanceType);
+        offer.setTermType(TERM_TYPE);
+        offer.setOperatingSystem(operatingSystem);
+        offer.setTenancy(CloudInstancePriceService.SHARED_TENANCY);
+        offer.setUnit(CloudInstancePriceService.HOURS_UNIT);
+        offer.setProductFamily(CloudInstancePriceService.INSTANCE_PRODUCT_FAMILY);
+        offer.setPricePerUnit(price);
+        offer.setRegionId(REGION_ID);
+        return offer;
+    }
+
     private InstanceType instanceType(final String name, final AbstractCloudRegion region) {
         final InstanceType instanceType = new InstanceType();
         instanceType.setName(name);
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.cluster;
+
+import org.junit.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class InstanceTypePatternsTest {
+
+    private static final List<String> INSTANCE_TYPES = Arrays.asList(
+            "m5.large", "m5.xlarge", "m5a.large", "c5.large", "Standard_D2s_v3", "n1-standard-1", "");
+    private static final List<String> PATTERNS = Arrays.asList(
+            "*", "m5.*", "m5.large", "*.large", "m5?.large", "Standard_D*_v3", "n1-*", "**", "m5.(large)", "");
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    @Test
+    public void shouldMatchInstanceTypesTheSameWayAsAntPathMatcher() {
+        PATTERNS.forEach(pattern -> {
+            final InstanceTypePatterns patterns = InstanceTypePatterns.compile(pattern);
+            INSTANCE_TYPES.forEach(instanceType -> assertEquals(pattern + " / " + instanceType,
+                    matcher.match(pattern, instanceType), patterns.matches(instanceType)));
+        });
+    }
+
+    @Test
+    public void shouldMatchAnyOfCommaSeparatedPatterns() {
+        final InstanceTypePatterns patterns = InstanceTypePatterns.compile("m5.*,c5.large");
+
+        INSTANCE_TYPES.forEach(instanceType -> assertEquals(instanceType,
+                instanceType.startsWith("m5.") || instanceType.equals("c5.large"),
+                patterns.matches(instanceType)));
+    }
+}
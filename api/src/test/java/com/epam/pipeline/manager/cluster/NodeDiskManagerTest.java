@@ -8,6 +8,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 
 import static com.epam.pipeline.util.CustomAssertions.assertThrows;
@@ -30,10 +31,13 @@ public class NodeDiskManagerTest {
     private static final Long NULL_SIZE = null;
     private static final LocalDateTime CREATION_DATE = LocalDateTime.now();
     private static final LocalDateTime NULL_CREATION_DATE = null;
+    private static final int CHUNK_SIZE = 2;
+    private static final String ANOTHER_NODE_ID = "ANOTHER_NODE_ID";
+    private static final String THIRD_NODE_ID = "THIRD_NODE_ID";
 
     private final NodeDiskDao nodeDiskDao = mock(NodeDiskDao.class);
     private final MessageHelper messageHelper = mock(MessageHelper.class);
-    private final NodeDiskManager manager = new NodeDiskManager(nodeDiskDao, messageHelper);
+    private final NodeDiskManager manager = new NodeDiskManager(nodeDiskDao, messageHelper, CHUNK_SIZE);
 
     @Before
     public void mockInsertingDisk() {
@@ -87,6 +91,14 @@ public class NodeDiskManagerTest {
         assertThat(actualDisk, is(disk()));
     }
 
+    @Test
+    public void loadByNodeIdsShouldQueryDistinctNodeIdsInChunks() {
+        manager.loadByNodeIds(Arrays.asList(NODE_ID, ANOTHER_NODE_ID, NODE_ID, THIRD_NODE_ID));
+
+        verify(nodeDiskDao).loadByNodeIds(eq(Arrays.asList(NODE_ID, ANOTHER_NODE_ID)));
+        verify(nodeDiskDao).loadByNodeIds(eq(Collections.singletonList(THIRD_NODE_ID)));
+    }
+
     private NodeDisk register(final String nodeId, final DiskRegistrationRequest request) {
         return manager.register(nodeId, request);
     }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.cluster;
+
+import com.epam.pipeline.common.MessageHelper;
+import com.epam.pipeline.manager.cloud.CloudFacade;
+import com.epam.pipeline.manager.notification.NotificationManager;
+import com.epam.pipeline.manager.notification.NotificationSettingsManager;
+import com.epam.pipeline.manager.pipeline.PipelineRunManager;
+import com.epam.pipeline.manager.pipeline.RestartRunManager;
+import com.epam.pipeline.manager.pipeline.RunLogManager;
+import com.epam.pipeline.manager.pipeline.RunStatusManager;
+import com.epam.pipeline.manager.pipeline.ToolManager;
+import com.epam.pipeline.manager.preference.PreferenceManager;
+import com.epam.pipeline.manager.preference.SystemPreferences;
+import io.reactivex.Observable;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings({"unchecked", "PMD.TooManyStaticImports"})
+public class PodMonitorTest {
+
+    private static final String NAMESPACE = "default";
+    private static final int UPDATE_RATE = 10_000;
+    private static final Long RUN_ID = 12L;
+    private static final Long TOOL_RUN_ID = 13L;
+    private static final String POD = "pipeline-" + RUN_ID;
+    private static final String TOOL_POD = "library-centos-abc-" + TOOL_RUN_ID;
+    private static final String SERVICE_POD = "kube-dns-xyz";
+
+    private final PipelineRunManager pipelineRunManager = mock(PipelineRunManager.class);
+    private final PreferenceManager preferenceManager = mock(PreferenceManager.class);
+    private final PodStateCache podStateCache = mock(PodStateCache.class);
+    private final TaskScheduler scheduler = mock(TaskScheduler.class);
+    private final PodMonitor.PodMonitorCore core = mock(PodMonitor.PodMonitorCore.class);
+    private final PodMonitor.PodMonitorCore realCore = new PodMonitor.PodMonitorCore(mock(RunLogManager.class),
+            pipelineRunManager, mock(RunStatusManager.class), mock(MessageHelper.class),
+            mock(KubernetesManager.class), mock(NotificationSettingsManager.class), mock(NotificationManager.class),
+            mock(ToolManager.class), mock(RestartRunManager.class), mock(CloudFacade.class), preferenceManager,
+            Collections.emptyList(), podStateCache, NAMESPACE);
+    private Consumer<String> changeListener;
+
+    @Before
+    public void setUp() {
+        when(preferenceManager.getPreference(SystemPreferences.LAUNCH_TASK_STATUS_UPDATE_RATE))
+                .thenReturn(UPDATE_RATE);
+        doReturn(Observable.empty()).when(preferenceManager).getObservablePreference(any());
+
+        final PodMonitor monitor = new PodMonitor(core, podStateCache);
+        ReflectionTestUtils.setField(monitor, "scheduler", scheduler);
+        ReflectionTestUtils.setField(monitor, "preferenceManager", preferenceManager);
+        monitor.setup();
+
+        final ArgumentCaptor<Consumer> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(podStateCache).setChangeListener(listener.capture());
+        changeListener = listener.getValue();
+    }
+
+    @Test
+    public void podChangesShouldBeProcessedTogetherAfterDelay() {
+        final long now = System.currentTimeMillis();
+
+        changeListener.accept(POD);
+        changeListener.accept(TOOL_POD);
+        changeListener.accept(POD);
+
+        final ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        final ArgumentCaptor<Date> startTime = ArgumentCaptor.forClass(Date.class);
+        verify(scheduler).schedule(task.capture(), startTime.capture());
+        assertTrue(startTime.getValue().getTime() > now);
+        verify(core, never()).updateChangedStatuses();
+
+        task.getValue().run();
+        verify(core).updateChangedStatuses();
+    }
+
+    @Test
+    public void podChangesShouldBeScheduledAgainOnceThePreviousBatchIsProcessed() {
+        doThrow(new IllegalStateException()).when(core).updateChangedStatuses();
+
+        changeListener.accept(POD);
+        final ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(task.capture(), any(Date.class));
+        task.getValue().run();
+        changeListener.accept(POD);
+
+        verify(scheduler, times(2)).schedule(any(Runnable.class), any(Date.class));
+    }
+
+    @Test
+    public void updateChangedStatusesShouldLoadOnlyRunsOfChangedPods() {
+        when(podStateCache.isSynced()).thenReturn(true);
+        when(podStateCache.drainChangedPods()).thenReturn(new HashSet<>(Arrays.asList(POD, TOOL_POD, SERVICE_POD)));
+        when(pipelineRunManager.loadPipelineRuns(anyListOf(Long.class))).thenReturn(Collections.emptyList());
+
+        realCore.updateChangedStatuses();
+
+        final ArgumentCaptor<List> runIds = ArgumentCaptor.forClass(List.class);
+        verify(pipelineRunManager).loadPipelineRuns(runIds.capture());
+        assertEquals(new HashSet<>(Arrays.asList(RUN_ID, TOOL_RUN_ID)), new HashSet<>(runIds.getValue()));
+        verify(pipelineRunManager, never()).loadRunningAndTerminatedPipelineRuns();
+    }
+
+    @Test
+    public void updateChangedStatusesShouldSkipChangesIfPodsAreNotCached() {
+        when(podStateCache.isSynced()).thenReturn(false);
+
+        realCore.updateChangedStatuses();
+
+        verify(podStateCache, never()).drainChangedPods();
+        verify(pipelineRunManager, never()).loadPipelineRuns(anyListOf(Long.class));
+    }
+}
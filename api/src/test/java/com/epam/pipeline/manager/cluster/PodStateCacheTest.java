@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.cluster;
+
+import com.epam.pipeline.util.KubernetesTestUtils;
+import io.fabric8.kubernetes.api.model.DoneablePod;
+import io.fabric8.kubernetes.api.model.ListMeta;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.PodResource;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+public class PodStateCacheTest {
+
+    private static final String NAMESPACE = "default";
+    private static final String RESOURCE_VERSION = "100";
+    private static final String POD = "pipeline-1";
+    private static final String ANOTHER_POD = "pipeline-2";
+
+    private final KubernetesManager kubernetesManager = mock(KubernetesManager.class);
+    private final KubernetesClient client = mock(KubernetesClient.class);
+    private final Watch watch = mock(Watch.class);
+    private final List<String> notifiedPods = new ArrayList<>();
+    private final PodStateCache cache = new PodStateCache(kubernetesManager, NAMESPACE);
+    private NonNamespaceOperation<Pod, PodList, DoneablePod, PodResource<Pod, DoneablePod>> namespacePods;
+
+    @Before
+    public void setUp() {
+        final KubernetesTestUtils.MockNamespace mockNamespace = new KubernetesTestUtils.MockPods()
+                .mockNamespace(NAMESPACE);
+        namespacePods = mockNamespace.getNamespace();
+        when(client.pods()).thenReturn(mockNamespace.and().getMockedEntity());
+        when(kubernetesManager.getKubernetesClient()).thenReturn(client);
+        when(namespacePods.list()).thenReturn(podList(pod(POD)));
+        when(namespacePods.watch(eq(RESOURCE_VERSION), any(Watcher.class))).thenReturn(watch);
+        cache.setChangeListener(notifiedPods::add);
+    }
+
+    @Test
+    public void syncShouldListPodsAndWatchChangesFromTheListingVersion() {
+        assertTrue(cache.sync());
+        assertTrue(cache.sync());
+
+        assertTrue(cache.isSynced());
+        assertTrue(cache.getPod(POD).isPresent());
+        verify(namespacePods).list();
+        verify(namespacePods).watch(eq(RESOURCE_VERSION), any(Watcher.class));
+    }
+
+    @Test
+    public void watchedChangesShouldUpdatePodsAndBeDrainedOnce() {
+        final Watcher<Pod> watcher = syncAndGetWatcher();
+
+        watcher.eventReceived(Watcher.Action.ADDED, pod(ANOTHER_POD));
+        watcher.eventReceived(Watcher.Action.DELETED, pod(POD));
+
+        assertTrue(cache.getPod(ANOTHER_POD).isPresent());
+        assertFalse(cache.getPod(POD).isPresent());
+        assertEquals(Arrays.asList(ANOTHER_POD, POD), notifiedPods);
+        assertEquals(new HashSet<>(Arrays.asList(ANOTHER_POD, POD)), cache.drainChangedPods());
+        assertEquals(Collections.emptySet(), cache.drainChangedPods());
+    }
+
+    @Test
+    public void closedWatchShouldMakeCacheOutOfSyncUntilPodsAreListedAgain() {
+        final Watcher<Pod> watcher = syncAndGetWatcher();
+
+        watcher.onClose(null);
+        assertFalse(cache.isSynced());
+
+        assertTrue(cache.sync());
+        verify(namespacePods, times(2)).list();
+        verify(watch).close();
+    }
+
+    @Test
+    public void errorEventShouldMakeCacheOutOfSync() {
+        final Watcher<Pod> watcher = syncAndGetWatcher();
+
+        watcher.eventReceived(Watcher.Action.ERROR, null);
+
+        assertFalse(cache.isSynced());
+        assertTrue(notifiedPods.isEmpty());
+    }
+
+    @Test
+    public void syncShouldFailIfPodsCanNotBeListed() {
+        when(namespacePods.list()).thenThrow(new IllegalStateException());
+
+        assertFalse(cache.sync());
+        assertFalse(cache.isSynced());
+        verify(client).close();
+    }
+
+    private Watcher<Pod> syncAndGetWatcher() {
+        assertTrue(cache.sync());
+        final ArgumentCaptor<Watcher> watcher = ArgumentCaptor.forClass(Watcher.class);
+        verify(namespacePods).watch(eq(RESOURCE_VERSION), watcher.capture());
+        return watcher.getValue();
+    }
+
+    private PodList podList(final Pod... pods) {
+        final ListMeta metadata = new ListMeta();
+        metadata.setResourceVersion(RESOURCE_VERSION);
+        return new PodList("", Arrays.asList(pods), "", metadata);
+    }
+
+    private Pod pod(final String name) {
+        return new PodBuilder().withNewMetadata().withName(name).endMetadata().build();
+    }
+}
@@ -190,7 +190,7 @@ public class AutoscaleManagerTest {
         doReturn(mockNodes
                 .withLabel(KubernetesConstants.RUN_ID_LABEL)
                 .withoutLabel(KubernetesConstants.PAUSED_NODE_LABEL)
-                .list()).when(kubernetesManager).getAvailableNodes(any());
+                .list()).when(kubernetesManager).getRunNodes(any());
     }
 
     @Test
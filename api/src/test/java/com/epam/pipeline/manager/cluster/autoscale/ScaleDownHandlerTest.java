@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.cluster.autoscale;
+
+import com.epam.pipeline.entity.cluster.pool.NodePool;
+import com.epam.pipeline.manager.cloud.CloudFacade;
+import com.epam.pipeline.manager.cluster.KubernetesConstants;
+import com.epam.pipeline.manager.cluster.KubernetesManager;
+import com.epam.pipeline.manager.pipeline.PipelineRunCRUDService;
+import com.epam.pipeline.manager.pipeline.PipelineRunManager;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ScaleDownHandlerTest {
+
+    private static final Long POOL_ID = 1L;
+    private static final String FIRST_NODE = AutoscaleContants.NODE_POOL_PREFIX + 1;
+    private static final String SECOND_NODE = AutoscaleContants.NODE_POOL_PREFIX + 2;
+    private static final String PAUSED_NODE = AutoscaleContants.NODE_POOL_PREFIX + 3;
+
+    private final AutoscalerService autoscalerService = mock(AutoscalerService.class);
+    private final CloudFacade cloudFacade = mock(CloudFacade.class);
+    private final PipelineRunManager pipelineRunManager = mock(PipelineRunManager.class);
+    private final KubernetesManager kubernetesManager = mock(KubernetesManager.class);
+    private final PipelineRunCRUDService runCRUDService = mock(PipelineRunCRUDService.class);
+    private final NodePool nodePool = mock(NodePool.class);
+
+    private final ScaleDownHandler scaleDownHandler = new ScaleDownHandler(
+            autoscalerService,
+            cloudFacade,
+            pipelineRunManager,
+            kubernetesManager,
+            runCRUDService);
+
+    @Before
+    public void setUp() {
+        doReturn(POOL_ID).when(nodePool).getId();
+        doReturn(1).when(nodePool).getCount();
+        doReturn(true).when(nodePool).isActive(any());
+        doReturn(Optional.of(nodePool)).when(autoscalerService).findPool(anyString(), any());
+    }
+
+    @Test
+    public void shouldCountPausedPoolNodes() {
+        final ClusterSnapshot snapshot = new ClusterSnapshot(
+                Arrays.asList(poolNode(FIRST_NODE, false), poolNode(PAUSED_NODE, true)),
+                Collections.emptyList());
+
+        scaleDownHandler.checkFreeNodes(Collections.emptySet(), snapshot);
+
+        verify(cloudFacade).scaleDownPoolNode(FIRST_NODE);
+        verify(cloudFacade, never()).scaleDownPoolNode(PAUSED_NODE);
+    }
+
+    @Test
+    public void shouldKeepPoolNodesRequiredByPoolAfterScaleDown() {
+        final ClusterSnapshot snapshot = new ClusterSnapshot(
+                Arrays.asList(poolNode(FIRST_NODE, false), poolNode(SECOND_NODE, false)),
+                Collections.emptyList());
+
+        scaleDownHandler.checkFreeNodes(Collections.emptySet(), snapshot);
+
+        verify(cloudFacade, times(1)).scaleDownPoolNode(anyString());
+        verify(cloudFacade).scaleDownPoolNode(FIRST_NODE);
+    }
+
+    private Node poolNode(final String runId, final boolean paused) {
+        final Map<String, String> labels = new HashMap<>();
+        labels.put(KubernetesConstants.RUN_ID_LABEL, runId);
+        labels.put(KubernetesConstants.NODE_POOL_ID_LABEL, String.valueOf(POOL_ID));
+        if (paused) {
+            labels.put(KubernetesConstants.PAUSED_NODE_LABEL, "true");
+        }
+        final ObjectMeta metadata = new ObjectMeta();
+        metadata.setLabels(labels);
+        final Node node = new Node();
+        node.setMetadata(metadata);
+        return node;
+    }
+}
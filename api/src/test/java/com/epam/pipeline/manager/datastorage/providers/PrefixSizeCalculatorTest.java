@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.datastorage.providers;
+
+import com.epam.pipeline.entity.datastorage.PathDescription;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PrefixSizeCalculatorTest {
+
+    private static final int POOL_SIZE = 4;
+    private static final int PARTITION_DEPTH = 2;
+    private static final long FILE_SIZE = 10L;
+
+    private final PrefixSizeCalculator calculator = new PrefixSizeCalculator(POOL_SIZE, PARTITION_DEPTH);
+    private final InMemoryLister lister = new InMemoryLister();
+
+    @After
+    public void tearDown() {
+        calculator.destroy();
+    }
+
+    @Test
+    public void shouldSumSizesOfAllNestedFilesOfFolder() {
+        lister.put("folder/file", FILE_SIZE);
+        lister.put("folder/a/file", FILE_SIZE);
+        lister.put("folder/a/b/c/file", FILE_SIZE);
+        lister.put("folder/b/file", FILE_SIZE);
+        lister.put("folder2/file", FILE_SIZE);
+
+        final PathDescription description = calculator.calculate(lister, "folder", emptyDescription());
+
+        assertEquals(Long.valueOf(4 * FILE_SIZE), description.getSize());
+        assertTrue(description.getCompleted());
+    }
+
+    @Test
+    public void shouldSumSizesOfAllFilesOfStorageRoot() {
+        lister.put("file", FILE_SIZE);
+        lister.put("folder/a/b/file", FILE_SIZE);
+
+        assertEquals(Long.valueOf(2 * FILE_SIZE), calculator.calculate(lister, null, emptyDescription()).getSize());
+    }
+
+    @Test
+    public void shouldReturnSizeOfFileWithExactPath() {
+        lister.put("folder/file", FILE_SIZE);
+        lister.put("folder/file/nested", FILE_SIZE);
+
+        assertEquals(Long.valueOf(FILE_SIZE),
+                calculator.calculate(lister, "folder/file", emptyDescription()).getSize());
+    }
+
+    private static PathDescription emptyDescription() {
+        return PathDescription.builder().size(0L).completed(false).build();
+    }
+
+    private static final class InMemoryLister implements PrefixSizeCalculator.PrefixLister {
+
+        private final Map<String, Long> files = new TreeMap<>();
+
+        void put(final String path, final long size) {
+            files.put(path, size);
+        }
+
+        @Override
+        public Optional<Long> getFileSize(final String path) {
+            return Optional.ofNullable(files.get(path));
+        }
+
+        @Override
+        public void listLevel(final String prefix, final LongConsumer sizes, final Consumer<String> subPrefixes) {
+            files.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .filter(entry -> !entry.getKey().substring(prefix.length()).contains(ProviderUtils.DELIMITER))
+                    .forEach(entry -> sizes.accept(entry.getValue()));
+            files.keySet().stream()
+                    .filter(path -> path.startsWith(prefix))
+                    .map(path -> path.substring(prefix.length()))
+                    .filter(relative -> relative.contains(ProviderUtils.DELIMITER))
+                    .map(relative -> prefix + relative.substring(0, relative.indexOf(ProviderUtils.DELIMITER) + 1))
+                    .distinct()
+                    .forEach(subPrefixes);
+        }
+
+        @Override
+        public void listAll(final String prefix, final LongConsumer sizes) {
+            files.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .forEach(entry -> sizes.accept(entry.getValue()));
+        }
+    }
+}
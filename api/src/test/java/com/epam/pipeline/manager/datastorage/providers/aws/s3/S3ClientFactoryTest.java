@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.datastorage.providers.aws.s3;
+
+import com.epam.pipeline.entity.region.AwsRegion;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class S3ClientFactoryTest {
+
+    private static final String US_EAST_1 = "us-east-1";
+    private static final String EU_CENTRAL_1 = "eu-central-1";
+    private static final long IDLE_MINUTES = 31;
+    private static final long RETIRED_HOURS = 25;
+
+    private final S3ClientFactory clientFactory = new S3ClientFactory();
+
+    @After
+    public void tearDown() {
+        clientFactory.destroy();
+    }
+
+    @Test
+    public void shouldReuseClientOfTheSameRegion() {
+        assertSame(clientFactory.getRegionClient(region(US_EAST_1)),
+                clientFactory.getRegionClient(region(US_EAST_1)));
+        assertEquals(1, clientFactory.size());
+    }
+
+    @Test
+    public void shouldCreateSeparateClientsForDifferentRegions() {
+        assertNotSame(clientFactory.getRegionClient(region(US_EAST_1)),
+                clientFactory.getRegionClient(region(EU_CENTRAL_1)));
+        assertEquals(2, clientFactory.size());
+    }
+
+    @Test
+    public void shouldKeepRecentlyUsedClientsDuringMaintenance() {
+        clientFactory.getRegionClient(region(US_EAST_1));
+
+        clientFactory.maintain();
+
+        assertEquals(1, clientFactory.size());
+    }
+
+    @Test
+    public void shouldShutDownIdleClientsOnlyLongAfterTheirRemoval() {
+        final long now = System.currentTimeMillis();
+        clientFactory.getRegionClient(region(US_EAST_1));
+
+        clientFactory.maintain(now + TimeUnit.MINUTES.toMillis(IDLE_MINUTES));
+
+        assertEquals(0, clientFactory.size());
+        assertEquals(1, clientFactory.retiredSize());
+
+        clientFactory.maintain(now + TimeUnit.HOURS.toMillis(RETIRED_HOURS));
+
+        assertEquals(0, clientFactory.retiredSize());
+    }
+
+    private static AwsRegion region(final String regionCode) {
+        final AwsRegion region = new AwsRegion();
+        region.setRegionCode(regionCode);
+        return region;
+    }
+}
@@ -16,9 +16,16 @@
 
 package com.epam.pipeline.manager.datastorage.providers.aws.s3;
 
+import com.amazonaws.SdkClientException;
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
@@ -54,8 +61,9 @@ public class S3HelperTest {
     private static final String NEW_PATH = "newPath";
     private static final String VERSION = "version";
     private static final String NO_VERSION = null;
-    private static final long EXCEEDED_OBJECT_SIZE = Long.MAX_VALUE;
-    private static final String SIZE_EXCEEDS_EXCEPTION_MESSAGE = "size exceeds the limit";
+    private static final long EXCEEDED_OBJECT_SIZE = 6L * 1024L * 1024L * 1024L;
+    private static final int EXCEEDED_OBJECT_PARTS = 12;
+    private static final String UPLOAD_ID = "uploadId";
 
     private final AmazonS3 amazonS3 = mock(AmazonS3.class);
     private final MessageHelper messageHelper = mock(MessageHelper.class);
@@ -121,16 +129,22 @@ public class S3HelperTest {
     }
 
     @Test
-    public void testMoveFileShouldThrowIfFileSizeExceedsTheLimit() {
+    public void testMoveFileShouldUseMultipartCopyIfFileSizeExceedsTheLimit() {
         final ObjectListing singleFileListing = new ObjectListing();
         singleFileListing.setCommonPrefixes(Collections.singletonList(OLD_PATH));
         when(amazonS3.listObjects(any(ListObjectsRequest.class))).thenReturn(singleFileListing);
         final ObjectMetadata fileMetadata = new ObjectMetadata();
         fileMetadata.setContentLength(EXCEEDED_OBJECT_SIZE);
+        fileMetadata.setLastModified(new Date());
         when(amazonS3.getObjectMetadata(any())).thenReturn(fileMetadata);
+        mockMultipartCopy();
+
+        helper.moveFile(BUCKET, OLD_PATH, NEW_PATH);
 
-        assertThrows(e -> e instanceof DataStorageException && e.getMessage().contains(SIZE_EXCEEDS_EXCEPTION_MESSAGE),
-            () -> helper.moveFile(BUCKET, OLD_PATH, NEW_PATH));
+        verify(amazonS3, never()).copyObject(any(CopyObjectRequest.class));
+        verify(amazonS3, times(EXCEEDED_OBJECT_PARTS)).copyPart(any(CopyPartRequest.class));
+        verify(amazonS3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(amazonS3).deleteObjects(argThat(hasPathsAndVersions(Collections.singletonMap(OLD_PATH, NO_VERSION))));
     }
 
     @Test
@@ -151,13 +165,17 @@ public class S3HelperTest {
     }
 
     @Test
-    public void testRestoreFileVersionShouldThrowIfFileSizeExceedsTheLimit() {
+    public void testRestoreFileVersionShouldUseMultipartCopyIfFileSizeExceedsTheLimit() {
         final ObjectMetadata fileMetadata = new ObjectMetadata();
         fileMetadata.setContentLength(EXCEEDED_OBJECT_SIZE);
         when(amazonS3.getObjectMetadata(any())).thenReturn(fileMetadata);
+        mockMultipartCopy();
+
+        helper.restoreFileVersion(BUCKET, OLD_PATH, VERSION);
 
-        assertThrows(e -> e instanceof DataStorageException && e.getMessage().contains(SIZE_EXCEEDS_EXCEPTION_MESSAGE),
-            () -> helper.restoreFileVersion(BUCKET, OLD_PATH, VERSION));
+        verify(amazonS3, times(EXCEEDED_OBJECT_PARTS)).copyPart(argThat(hasSourceVersion(VERSION)));
+        verify(amazonS3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(amazonS3).deleteObjects(argThat(hasPathsAndVersions(Collections.singletonMap(OLD_PATH, VERSION))));
     }
 
     @Test
@@ -174,7 +192,7 @@ public class S3HelperTest {
     }
 
     @Test
-    public void testMoveFolderShouldThrowIfAtLeastOneOfItsFilesSizeExceedTheLimit() {
+    public void testMoveFolderShouldUseMultipartCopyForFilesWhichSizeExceedsTheLimit() {
         final ObjectListing sourceListing = new ObjectListing();
         sourceListing.setCommonPrefixes(Collections.singletonList(OLD_PATH));
         final ObjectListing destinationListing = new ObjectListing();
@@ -187,8 +205,54 @@ public class S3HelperTest {
         when(amazonS3.listObjects(any(ListObjectsRequest.class)))
                 .thenReturn(sourceListing, destinationListing, bucketListing);
 
-        assertThrows(e -> e instanceof DataStorageException && e.getMessage().contains(SIZE_EXCEEDS_EXCEPTION_MESSAGE),
-            () -> helper.moveFolder(BUCKET, OLD_PATH, NEW_PATH));
+        when(amazonS3.getObjectMetadata(any())).thenReturn(new ObjectMetadata());
+        mockMultipartCopy();
+
+        helper.moveFolder(BUCKET, OLD_PATH, NEW_PATH);
+
+        verify(amazonS3, never()).copyObject(any(CopyObjectRequest.class));
+        verify(amazonS3, times(EXCEEDED_OBJECT_PARTS)).copyPart(any(CopyPartRequest.class));
+        verify(amazonS3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        verify(amazonS3).deleteObjects(argThat(hasPathsAndVersions(
+                Collections.singletonMap(OLD_PATH + "/someBigFile", NO_VERSION))));
+    }
+
+    @Test
+    public void testMoveFolderShouldListOnlyItsOwnFiles() {
+        final ObjectListing sourceListing = new ObjectListing();
+        sourceListing.setCommonPrefixes(Collections.singletonList(OLD_PATH));
+        final ObjectListing destinationListing = new ObjectListing();
+        destinationListing.setCommonPrefixes(Collections.emptyList());
+        when(amazonS3.listObjects(any(ListObjectsRequest.class)))
+                .thenReturn(sourceListing, destinationListing, new ObjectListing());
+
+        helper.moveFolder(BUCKET, OLD_PATH, NEW_PATH);
+
+        verify(amazonS3, never()).listObjects(argThat(hasPrefix(null)));
+        verify(amazonS3, atLeastOnce()).listObjects(argThat(hasPrefix(OLD_PATH + "/")));
+    }
+
+    @Test
+    public void testMoveFolderShouldAbortMultipartCopyAndKeepTheOriginalFileIfCopyFails() {
+        final ObjectListing sourceListing = new ObjectListing();
+        sourceListing.setCommonPrefixes(Collections.singletonList(OLD_PATH));
+        final ObjectListing destinationListing = new ObjectListing();
+        destinationListing.setCommonPrefixes(Collections.emptyList());
+        final ObjectListing bucketListing = spy(new ObjectListing());
+        final S3ObjectSummary fileSummary = new S3ObjectSummary();
+        fileSummary.setKey(OLD_PATH + "/someBigFile");
+        fileSummary.setSize(EXCEEDED_OBJECT_SIZE);
+        when(bucketListing.getObjectSummaries()).thenReturn(Collections.singletonList(fileSummary));
+        when(amazonS3.listObjects(any(ListObjectsRequest.class)))
+                .thenReturn(sourceListing, destinationListing, bucketListing);
+        when(amazonS3.getObjectMetadata(any())).thenReturn(new ObjectMetadata());
+        mockMultipartCopy();
+        doThrow(new SdkClientException("copy failed")).when(amazonS3).copyPart(any(CopyPartRequest.class));
+
+        assertThrows(e -> e instanceof DataStorageException, () -> helper.moveFolder(BUCKET, OLD_PATH, NEW_PATH));
+
+        verify(amazonS3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(amazonS3, never()).deleteObjects(any(DeleteObjectsRequest.class));
     }
 
     @Test
@@ -220,6 +284,47 @@ public class S3HelperTest {
         verify(amazonS3).deleteObjects(argThat(hasPathsAndVersions(pathVersionMap)));
     }
 
+    private void mockMultipartCopy() {
+        final InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId(UPLOAD_ID);
+        when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiateResult);
+        when(amazonS3.copyPart(any(CopyPartRequest.class))).thenAnswer(invocation -> {
+            final CopyPartRequest request = invocation.getArgumentAt(0, CopyPartRequest.class);
+            final CopyPartResult result = new CopyPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag(String.valueOf(request.getPartNumber()));
+            return result;
+        });
+    }
+
+    private BaseMatcher<ListObjectsRequest> hasPrefix(final String prefix) {
+        return new BaseMatcher<ListObjectsRequest>() {
+            @Override
+            public boolean matches(final Object item) {
+                return Objects.equals(((ListObjectsRequest) item).getPrefix(), prefix);
+            }
+
+            @Override
+            public void describeTo(final Description description) {
+                description.appendText("List objects request doesn't have required prefix");
+            }
+        };
+    }
+
+    private BaseMatcher<CopyPartRequest> hasSourceVersion(final String version) {
+        return new BaseMatcher<CopyPartRequest>() {
+            @Override
+            public boolean matches(final Object item) {
+                return Objects.equals(((CopyPartRequest) item).getSourceVersionId(), version);
+            }
+
+            @Override
+            public void describeTo(final Description description) {
+                description.appendText("Copy part request doesn't have required source version");
+            }
+        };
+    }
+
     private BaseMatcher<CopyObjectRequest> hasSourceAndDestination(final String source, final String destination) {
         return new BaseMatcher<CopyObjectRequest>() {
             @Override
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.datastorage.providers.aws.s3;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.GetObjectTaggingRequest;
+import com.amazonaws.services.s3.model.GetObjectTaggingResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.SSEAlgorithm;
+import com.amazonaws.services.s3.model.Tag;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+
+import static com.epam.pipeline.util.CustomAssertions.assertThrows;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class S3ObjectMoverTest {
+
+    private static final String BUCKET = "bucket";
+    private static final int THREADS = 4;
+    private static final int OBJECTS = 2500;
+    private static final int DELETE_REQUESTS = 3;
+    private static final long OBJECT_SIZE = 10L;
+    private static final long MULTIPART_THRESHOLD = 10L;
+    private static final long PART_SIZE = 5L;
+    private static final int PARTS = 4;
+    private static final String CONTENT_TYPE = "text/plain";
+    private static final String STORAGE_CLASS = "INTELLIGENT_TIERING";
+    private static final String KMS_KEY = "key";
+    private static final String TAG_KEY = "tag";
+    private static final String TAG_VALUE = "value";
+    private static final String UPLOAD_ID = "upload";
+
+    private final AmazonS3 amazonS3 = mock(AmazonS3.class);
+
+    @Test
+    public void shouldMoveAllObjectsAndDeleteThemInBatches() {
+        final S3ObjectMover mover = new S3ObjectMover(amazonS3, BUCKET, THREADS);
+        try (S3ObjectMover closeable = mover) {
+            for (int i = 0; i < OBJECTS; i++) {
+                closeable.move(new MoveObjectRequest("old/" + i, "new/" + i), OBJECT_SIZE);
+            }
+        }
+
+        verify(amazonS3, times(OBJECTS)).copyObject(any(CopyObjectRequest.class));
+        verify(amazonS3, times(DELETE_REQUESTS)).deleteObjects(any(DeleteObjectsRequest.class));
+        assertEquals(OBJECTS, mover.getMovedObjects());
+        assertEquals(OBJECTS * OBJECT_SIZE, mover.getMovedBytes());
+    }
+
+    @Test
+    public void shouldRethrowCopyFailureAndKeepSourceObjects() {
+        doThrow(new SdkClientException("copy failed")).when(amazonS3).copyObject(any(CopyObjectRequest.class));
+
+        assertThrows(e -> e instanceof SdkClientException, () -> {
+            try (S3ObjectMover mover = new S3ObjectMover(amazonS3, BUCKET, THREADS)) {
+                mover.move(new MoveObjectRequest("old", "new"), OBJECT_SIZE);
+            }
+        });
+
+        verify(amazonS3, never()).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    @Test
+    public void shouldRethrowCopyFailureOnceWhenItIsThrownDuringSubmission() {
+        doThrow(new SdkClientException("copy failed")).when(amazonS3).copyObject(any(CopyObjectRequest.class));
+
+        assertThrows(e -> e instanceof SdkClientException && e.getSuppressed().length == 0, () -> {
+            try (S3ObjectMover mover = new S3ObjectMover(amazonS3, BUCKET, THREADS)) {
+                for (int i = 0; i < OBJECTS; i++) {
+                    mover.move(new MoveObjectRequest("old/" + i, "new/" + i), OBJECT_SIZE);
+                }
+            }
+        });
+
+        verify(amazonS3, never()).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    @Test
+    public void shouldKeepTagsStorageClassAndEncryptionOfMultipartCopies() {
+        final ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(CONTENT_TYPE);
+        metadata.setHeader(Headers.STORAGE_CLASS, STORAGE_CLASS);
+        metadata.setSSEAlgorithm(SSEAlgorithm.KMS.getAlgorithm());
+        metadata.setHeader(Headers.SERVER_SIDE_ENCRYPTION_AWS_KMS_KEYID, KMS_KEY);
+        final Tag tag = new Tag(TAG_KEY, TAG_VALUE);
+        doReturn(metadata).when(amazonS3).getObjectMetadata(any(GetObjectMetadataRequest.class));
+        doReturn(new GetObjectTaggingResult(Collections.singletonList(tag)))
+                .when(amazonS3).getObjectTagging(any(GetObjectTaggingRequest.class));
+        final InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId(UPLOAD_ID);
+        doReturn(initiateResult).when(amazonS3).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+        doReturn(new CopyPartResult()).when(amazonS3).copyPart(any(CopyPartRequest.class));
+
+        try (S3ObjectMover mover = new S3ObjectMover(amazonS3, BUCKET, 1, MULTIPART_THRESHOLD, PART_SIZE)) {
+            mover.move(new MoveObjectRequest("old", "new"), MULTIPART_THRESHOLD * 2);
+        }
+
+        final ArgumentCaptor<InitiateMultipartUploadRequest> captor =
+                ArgumentCaptor.forClass(InitiateMultipartUploadRequest.class);
+        verify(amazonS3).initiateMultipartUpload(captor.capture());
+        final InitiateMultipartUploadRequest request = captor.getValue();
+        assertEquals(CONTENT_TYPE, request.getObjectMetadata().getContentType());
+        assertEquals(STORAGE_CLASS, request.getObjectMetadata().getStorageClass());
+        assertEquals(Collections.singletonList(tag), request.getTagging().getTagSet());
+        assertEquals(KMS_KEY, request.getSSEAwsKeyManagementParams().getAwsKmsKeyId());
+        verify(amazonS3, times(PARTS)).copyPart(any(CopyPartRequest.class));
+        verify(amazonS3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.docker.scan;
+
+import com.epam.pipeline.entity.scan.ToolScanQueueStats;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ToolScanQueueTest {
+
+    private static final Long REGISTRY_ID = 1L;
+    private static final Long REGISTRY_ID_2 = 2L;
+    private static final int POOL_SIZE = 2;
+    private static final int REGISTRY_POOL_SIZE = 1;
+    private static final int LOW_PRIORITY = 2;
+    private static final int HIGH_PRIORITY = 0;
+
+    private final List<Runnable> started = new ArrayList<>();
+    private final List<String> completed = new ArrayList<>();
+    private final ToolScanQueue queue = new ToolScanQueue(started::add, POOL_SIZE, REGISTRY_POOL_SIZE);
+
+    @Test
+    public void shouldLimitScansOfTheSameRegistry() {
+        queue.submit(REGISTRY_ID, LOW_PRIORITY, () -> completed.add("first"));
+        queue.submit(REGISTRY_ID, LOW_PRIORITY, () -> completed.add("second"));
+        queue.submit(REGISTRY_ID_2, LOW_PRIORITY, () -> completed.add("third"));
+
+        assertThat(started).hasSize(2);
+        assertThat(queue.getStats().getRunning()).isEqualTo(2);
+        assertThat(queue.getStats().getQueued()).isEqualTo(1);
+
+        runNext();
+        runNext();
+        runNext();
+
+        assertThat(completed).containsExactly("first", "third", "second");
+        assertThat(queue.getStats().getCompleted()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldStartScansInOrderOfPriority() {
+        queue.submit(REGISTRY_ID, LOW_PRIORITY, () -> completed.add("running"));
+        queue.submit(REGISTRY_ID, LOW_PRIORITY, () -> completed.add("low"));
+        queue.submit(REGISTRY_ID, HIGH_PRIORITY, () -> completed.add("high"));
+
+        runNext();
+        runNext();
+        runNext();
+
+        assertThat(completed).containsExactly("running", "high", "low");
+    }
+
+    @Test
+    public void shouldCountFailedAndSkippedScans() {
+        final CompletableFuture<Object> future = queue.submit(REGISTRY_ID, LOW_PRIORITY, () -> {
+            throw new IllegalStateException();
+        });
+        queue.skip();
+
+        runNext();
+
+        final ToolScanQueueStats stats = queue.getStats();
+        assertThat(future.isCompletedExceptionally()).isTrue();
+        assertThat(stats.getFailed()).isEqualTo(1);
+        assertThat(stats.getSkipped()).isEqualTo(1);
+        assertThat(stats.getRunning()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldFailScanIfItIsRejectedByExecutor() {
+        final ToolScanQueue rejectingQueue = new ToolScanQueue(runnable -> {
+            throw new RejectedExecutionException();
+        }, POOL_SIZE, REGISTRY_POOL_SIZE);
+
+        final CompletableFuture<Object> future = rejectingQueue.submit(REGISTRY_ID, LOW_PRIORITY, () -> "scan");
+
+        final ToolScanQueueStats stats = rejectingQueue.getStats();
+        assertThat(future.isCompletedExceptionally()).isTrue();
+        assertThat(stats.getFailed()).isEqualTo(1);
+        assertThat(stats.getRunning()).isEqualTo(0);
+        assertThat(stats.getQueued()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldStartScansOfRegistryAfterPreviousScanIsRejected() {
+        final List<Runnable> accepted = new ArrayList<>();
+        final AtomicBoolean reject = new AtomicBoolean(true);
+        final ToolScanQueue rejectingQueue = new ToolScanQueue(runnable -> {
+            if (reject.getAndSet(false)) {
+                throw new RejectedExecutionException();
+            }
+            accepted.add(runnable);
+        }, POOL_SIZE, REGISTRY_POOL_SIZE);
+
+        rejectingQueue.submit(REGISTRY_ID, LOW_PRIORITY, () -> completed.add("rejected"));
+        rejectingQueue.submit(REGISTRY_ID, LOW_PRIORITY, () -> completed.add("accepted"));
+        accepted.remove(0).run();
+
+        assertThat(completed).containsExactly("accepted");
+        assertThat(rejectingQueue.getStats().getCompleted()).isEqualTo(1);
+    }
+
+    private void runNext() {
+        started.remove(0).run();
+    }
+}
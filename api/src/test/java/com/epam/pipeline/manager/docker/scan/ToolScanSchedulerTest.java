@@ -21,12 +21,14 @@ import com.epam.pipeline.common.MessageHelper;
 import com.epam.pipeline.dao.docker.DockerRegistryDao;
 import com.epam.pipeline.dao.tool.ToolDaoTest;
 import com.epam.pipeline.dao.tool.ToolGroupDao;
+import com.epam.pipeline.entity.docker.ManifestV2;
 import com.epam.pipeline.entity.docker.ToolVersion;
 import com.epam.pipeline.entity.pipeline.DockerRegistry;
 import com.epam.pipeline.entity.pipeline.Tool;
 import com.epam.pipeline.entity.pipeline.ToolGroup;
 import com.epam.pipeline.entity.pipeline.ToolScanStatus;
 import com.epam.pipeline.entity.scan.*;
+import com.epam.pipeline.exception.ToolScanExternalServiceException;
 import com.epam.pipeline.manager.docker.DockerClient;
 import com.epam.pipeline.manager.docker.DockerClientFactory;
 import com.epam.pipeline.manager.docker.DockerRegistryManager;
@@ -64,6 +66,8 @@ import java.util.concurrent.Future;
 
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ToolScanSchedulerTest extends AbstractSpringTest {
@@ -72,6 +76,7 @@ public class ToolScanSchedulerTest extends AbstractSpringTest {
     private static final String LATEST_VERSION = "latest";
     private static final String TEST_LAYER_REF = "testRef";
     private static final String TEST_LAYER_DIGEST = "testDigest";
+    private static final int POOL_SIZE = 1;
     public static final long DOCKER_SIZE = 123456L;
     public static final String PREFERENCE_MANAGER = "preferenceManager";
 
@@ -126,7 +131,8 @@ public class ToolScanSchedulerTest extends AbstractSpringTest {
                                                      messageHelper,
                                                      toolVersionManager,
                                                      dockerClientFactory,
-                                                     dockerRegistryManager, null);
+                                                     dockerRegistryManager, null,
+                                                     new ToolScanQueue(Runnable::run, POOL_SIZE, POOL_SIZE));
         toolScanScheduler = new ToolScanScheduler(core);
         Whitebox.setInternalState(toolScanScheduler, "authManager", authManager);
         Whitebox.setInternalState(toolScanScheduler, "scheduler", taskScheduler);
@@ -167,6 +173,45 @@ public class ToolScanSchedulerTest extends AbstractSpringTest {
     @Test
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Throwable.class)
     public void testScheduledToolScan() {
+        prepareScheduledScan();
+
+        toolScanScheduler.scheduledToolScan();
+
+        ToolVersionScanResult versionScanResult = toolManager.loadToolVersionScan(tool.getId(), LATEST_VERSION).get();
+        Assert.assertNotNull(versionScanResult);
+        Assert.assertEquals(ToolScanStatus.COMPLETED, versionScanResult.getStatus());
+        Assert.assertNotNull(versionScanResult.getScanDate());
+
+        Vulnerability loaded = versionScanResult.getVulnerabilities().get(0);
+        TestUtils.checkEquals(vulnerability, loaded, objectMapper);
+
+        Optional<String> loadedRef = toolManager.loadToolVersionScan(tool.getId(), LATEST_VERSION)
+                .map(ToolVersionScanResult::getLastLayerRef);
+        Assert.assertTrue(loadedRef.isPresent());
+        Assert.assertEquals(TEST_LAYER_REF, loadedRef.get());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Throwable.class)
+    public void testScheduledToolScanSkipsUnchangedVersions() throws ToolScanExternalServiceException {
+        prepareScheduledScan();
+        ManifestV2 manifest = new ManifestV2();
+        manifest.setDigest(TEST_LAYER_DIGEST);
+        when(mockClient.getManifest(Mockito.any(), Mockito.anyString(), Mockito.anyString()))
+                .thenReturn(Optional.of(manifest));
+
+        toolScanScheduler.scheduledToolScan();
+        toolScanScheduler.scheduledToolScan();
+
+        verify(toolScanManager, times(1)).scanTool(Mockito.any(Tool.class), Mockito.anyString(),
+                Mockito.anyBoolean());
+        ToolScanQueueStats stats = toolScanScheduler.getQueueStats();
+        Assert.assertEquals(1, stats.getCompleted());
+        Assert.assertEquals(1, stats.getSkipped());
+        Assert.assertEquals(0, stats.getQueued());
+    }
+
+    private void prepareScheduledScan() {
         PreferenceManager preferenceManager = mock(PreferenceManager.class);
         Whitebox.setInternalState(toolScanScheduler, PREFERENCE_MANAGER, preferenceManager);
         Whitebox.setInternalState(core, PREFERENCE_MANAGER, preferenceManager);
@@ -188,21 +233,6 @@ public class ToolScanSchedulerTest extends AbstractSpringTest {
         tool.setRegistryId(registry.getId());
         tool.setToolGroupId(toolGroup.getId());
         toolManager.create(tool, false);
-
-        toolScanScheduler.scheduledToolScan();
-
-        ToolVersionScanResult versionScanResult = toolManager.loadToolVersionScan(tool.getId(), LATEST_VERSION).get();
-        Assert.assertNotNull(versionScanResult);
-        Assert.assertEquals(ToolScanStatus.COMPLETED, versionScanResult.getStatus());
-        Assert.assertNotNull(versionScanResult.getScanDate());
-
-        Vulnerability loaded = versionScanResult.getVulnerabilities().get(0);
-        TestUtils.checkEquals(vulnerability, loaded, objectMapper);
-
-        Optional<String> loadedRef = toolManager.loadToolVersionScan(tool.getId(), LATEST_VERSION)
-                .map(ToolVersionScanResult::getLastLayerRef);
-        Assert.assertTrue(loadedRef.isPresent());
-        Assert.assertEquals(TEST_LAYER_REF, loadedRef.get());
     }
 
     @Test
@@ -17,19 +17,19 @@
 package com.epam.pipeline.manager.metadata;
 
 import com.epam.pipeline.common.MessageHelper;
-import com.epam.pipeline.entity.metadata.MetadataEntity;
+import com.epam.pipeline.manager.metadata.writer.MetadataFileFormat;
 import com.epam.pipeline.manager.metadata.writer.MetadataWriter;
 import com.epam.pipeline.manager.metadata.writer.MetadataWriterProvider;
 import com.epam.pipeline.manager.pipeline.FolderManager;
-import lombok.SneakyThrows;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
 import org.junit.Test;
-import org.mockito.ArgumentCaptor;
-import java.io.InputStream;
-import java.io.Writer;
+
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiConsumer;
 
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +39,9 @@ public class MetadataDownloadManagerTest {
     private static final String TSV = "tsv";
     private static final String SAMPLE = "sample";
     private static final long FOLDER_ID = 10L;
+    private static final String NAME = "name";
+    private static final String TYPE = "type";
+    private static final String STRING_TYPE = "string";
 
     private final MetadataEntityManager metadataEntityManager = mock(MetadataEntityManager.class);
     private final FolderManager folderManager = mock(FolderManager.class);
@@ -46,65 +49,68 @@ public class MetadataDownloadManagerTest {
     private final MetadataWriterProvider metadataWriterProvider = mock(MetadataWriterProvider.class);
     private final MetadataDownloadManager manager =
             new MetadataDownloadManager(metadataEntityManager, folderManager, messageHelper, metadataWriterProvider);
+    private final StringWriter writer = new StringWriter();
 
     @Test(expected = IllegalArgumentException.class)
-    public void getInputStreamShouldThrowIfFolderDoesNotExist() {
+    public void writeEntitiesShouldThrowIfFolderDoesNotExist() {
         when(folderManager.load(FOLDER_ID)).thenThrow(new IllegalArgumentException());
 
-        manager.getInputStream(FOLDER_ID, SAMPLE, TSV);
+        manager.writeEntities(FOLDER_ID, SAMPLE, TSV, writer);
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void getInputStreamShouldThrowIfMetadataEntityDoesNotExistInParentFolder() {
-        when(metadataEntityManager.loadMetadataEntityByClassNameAndFolderId(FOLDER_ID, SAMPLE))
+    public void writeEntitiesShouldThrowIfMetadataEntityDoesNotExistInParentFolder() {
+        mockWriter();
+        when(metadataEntityManager.loadMetadataEntityDataTypes(FOLDER_ID, SAMPLE))
                 .thenReturn(Collections.emptyList());
 
-        manager.getInputStream(FOLDER_ID, SAMPLE, TSV);
+        manager.writeEntities(FOLDER_ID, SAMPLE, TSV, writer);
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void getInputStreamShouldThrowIfRequestedFileFormatIsNotSupported() {
-        final List<MetadataEntity> entities = Collections.singletonList(new MetadataEntity());
-        when(metadataEntityManager.loadMetadataEntityByClassNameAndFolderId(FOLDER_ID, SAMPLE)).thenReturn(entities);
+    public void writeEntitiesShouldThrowIfRequestedFileFormatIsNotSupported() {
+        mockWriter();
+        mockEntities(Collections.singletonList(Pair.of(NAME, STRING_TYPE)), "s1", Collections.singletonList("n1"));
 
-        manager.getInputStream(FOLDER_ID, SAMPLE, "unsupportedFileFormat");
+        manager.writeEntities(FOLDER_ID, SAMPLE, "unsupportedFileFormat", writer);
     }
 
     @Test
-    public void getInputStreamShouldRetrieveMetadataWriterFromProvider() {
-        final List<MetadataEntity> entities = Collections.singletonList(new MetadataEntity());
-        when(metadataEntityManager.loadMetadataEntityByClassNameAndFolderId(FOLDER_ID, SAMPLE)).thenReturn(entities);
-        final MetadataWriter metadataWriter = mock(MetadataWriter.class);
-        when(metadataWriterProvider.getMetadataWriter(any(), any())).thenReturn(metadataWriter);
+    public void writeEntitiesShouldRequestValuesOfSortedDataKeys() {
+        mockWriter();
+        mockEntities(Arrays.asList(Pair.of(TYPE, STRING_TYPE), Pair.of(NAME, STRING_TYPE)),
+                "s1", Arrays.asList("n1", "t1"));
 
-        manager.getInputStream(FOLDER_ID, SAMPLE, TSV);
+        manager.writeEntities(FOLDER_ID, SAMPLE, TSV, writer);
 
-        verify(metadataWriter).writeEntities(eq(SAMPLE), eq(entities));
+        verify(metadataEntityManager).streamMetadataEntityValues(eq(FOLDER_ID), eq(SAMPLE),
+                eq(Arrays.asList(NAME, TYPE)), any());
     }
 
     @Test
-    public void getInputStreamShouldReadFromWriterThatWasPassedToMetadataWriter() {
-        final List<MetadataEntity> entities = Collections.singletonList(new MetadataEntity());
-        when(metadataEntityManager.loadMetadataEntityByClassNameAndFolderId(FOLDER_ID, SAMPLE)).thenReturn(entities);
-        final MetadataWriter metadataWriter = mock(MetadataWriter.class);
-        final ArgumentCaptor<Writer> writerCaptor = ArgumentCaptor.forClass(Writer.class);
-        when(metadataWriterProvider.getMetadataWriter(writerCaptor.capture(), any())).thenReturn(metadataWriter);
-        doAnswer(invocation -> writeMessageAndReturnNothing(writerCaptor.getValue(), "message"))
-                .when(metadataWriter).writeEntities(any(), any());
-
-        final InputStream actualInputStream = manager.getInputStream(FOLDER_ID, SAMPLE, TSV);
-
-        Assert.assertEquals("message", inputStreamAsString(actualInputStream));
+    public void writeEntitiesShouldWriteHeaderAndEntityLines() {
+        mockWriter();
+        mockEntities(Arrays.asList(Pair.of(TYPE, STRING_TYPE), Pair.of(NAME, STRING_TYPE)),
+                "s1", Arrays.asList("n1", null));
+
+        manager.writeEntities(FOLDER_ID, SAMPLE, TSV, writer);
+
+        Assert.assertEquals("sample:ID\tname\ttype\ns1\tn1\t\n", writer.toString());
     }
 
-    @SneakyThrows
-    private String inputStreamAsString(final InputStream inputStream) {
-        return IOUtils.toString(inputStream);
+    private void mockWriter() {
+        when(metadataWriterProvider.getMetadataWriter(any(), any()))
+                .thenAnswer(invocation -> new MetadataWriter(MetadataFileFormat.TSV,
+                        invocation.getArgumentAt(0, StringWriter.class)));
     }
 
-    @SneakyThrows
-    private Object writeMessageAndReturnNothing(final Writer writer, final String message) {
-        writer.write(message);
-        return null;
+    @SuppressWarnings("unchecked")
+    private void mockEntities(final List<Pair<String, String>> dataTypes, final String externalId,
+                              final List<String> values) {
+        when(metadataEntityManager.loadMetadataEntityDataTypes(FOLDER_ID, SAMPLE)).thenReturn(dataTypes);
+        doAnswer(invocation -> {
+            invocation.getArgumentAt(3, BiConsumer.class).accept(externalId, values);
+            return null;
+        }).when(metadataEntityManager).streamMetadataEntityValues(eq(FOLDER_ID), eq(SAMPLE), any(), any());
     }
 }
@@ -21,8 +21,10 @@ import static com.epam.pipeline.manager.metadata.parser.MetadataFileBuilder.prep
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -48,6 +50,11 @@ public class MetadataEntityReaderTest {
             "Sample1\n",
             "Sample2\n",
             "Sample3\n");
+    private static final List<String> DATA_WITH_SPLIT_ENTITY = Arrays.asList(
+            MetadataFileBuilder.HEADER,
+            MetadataFileBuilder.LINE1,
+            MetadataFileBuilder.LINE3,
+            MetadataFileBuilder.LINE2);
     private static final String NAME_FIELD_NAME = "name";
     private static final String TYPE_FIELD_NAME = "type";
     private static final String PAIRS_FIELD_NAME = "pairs";
@@ -111,6 +118,71 @@ public class MetadataEntityReaderTest {
         }
     }
 
+    @Test
+    public void readChunksShouldNotSplitConsecutiveLinesOfEntity() throws IOException {
+        final List<MetadataParsingResult> chunks = new ArrayList<>();
+        final List<Long> lastLines = new ArrayList<>();
+
+        final long lastLine = readChunks(prepareInputData(MetadataParsingUtils.TAB_DELIMITER), 1, 1L,
+                chunks, lastLines);
+
+        assertEquals(3L, lastLine);
+        assertEquals(Arrays.asList(2L, 3L), lastLines);
+        assertEquals(Collections.singleton("s1"), chunks.get(0).getEntities().keySet());
+        assertEquals(Collections.singleton("s2"), chunks.get(1).getEntities().keySet());
+    }
+
+    @Test
+    public void readChunksShouldAccumulateArrayValuesAcrossChunks() throws IOException {
+        final List<MetadataParsingResult> chunks = new ArrayList<>();
+
+        readChunks(prepareInputData(MetadataParsingUtils.TAB_DELIMITER, DATA_WITH_SPLIT_ENTITY), 1, 1L,
+                chunks, new ArrayList<>());
+
+        assertEquals(3, chunks.size());
+        assertEquals("[\"set1\"]", chunks.get(0).getEntities().get("s1").getData().get(PAIRS_FIELD_NAME).getValue());
+        assertEquals("[\"set1\",\"set2\"]",
+                chunks.get(2).getEntities().get("s1").getData().get(PAIRS_FIELD_NAME).getValue());
+    }
+
+    @Test
+    public void readChunksShouldSkipLinesBeforeFromLine() throws IOException {
+        final List<MetadataParsingResult> chunks = new ArrayList<>();
+        final List<Long> lastLines = new ArrayList<>();
+
+        readChunks(prepareInputData(MetadataParsingUtils.TAB_DELIMITER), 10, 3L, chunks, lastLines);
+
+        assertEquals(Collections.singletonList(3L), lastLines);
+        assertEquals(Collections.singleton("s2"), chunks.get(0).getEntities().keySet());
+    }
+
+    @Test
+    public void readChunksShouldKeepArrayValuesOfSkippedLines() throws IOException {
+        final List<MetadataParsingResult> chunks = new ArrayList<>();
+
+        readChunks(prepareInputData(MetadataParsingUtils.TAB_DELIMITER, DATA_WITH_SPLIT_ENTITY), 1, 3L,
+                chunks, new ArrayList<>());
+
+        assertEquals(1, chunks.size());
+        assertEquals("[\"set1\",\"set2\"]",
+                chunks.get(0).getEntities().get("s1").getData().get(PAIRS_FIELD_NAME).getValue());
+    }
+
+    private long readChunks(final InputStream data, final int chunkSize, final long fromLine,
+                            final List<MetadataParsingResult> chunks, final List<Long> lastLines)
+            throws IOException {
+        final MetadataHeader header = new MetadataHeader(MetadataFileBuilder.SAMPLE_CLASS_NAME, true);
+        header.getFields().putAll(getFields());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(data))) {
+            reader.readLine();
+            return new MetadataEntityReader(MetadataParsingUtils.TAB_DELIMITER, parent, metadataClass)
+                    .readChunks(reader, header, chunkSize, fromLine, (chunk, lastLine) -> {
+                        chunks.add(chunk);
+                        lastLines.add(lastLine);
+                    });
+        }
+    }
+
     private void compareResults(MetadataParsingResult expected, MetadataParsingResult actual) {
         assertEquals(expected.getMetadataClass(), actual.getMetadataClass());
         assertEquals(expected.getReferences(), actual.getReferences());
@@ -47,9 +47,18 @@ public class ParallelExecutorServiceTest extends AbstractManagerTest {
         maxThreads.setValue("2");
         preferenceManager.update(Collections.singletonList(maxThreads));
 
-        Thread.sleep(TIMEOUT); // Wait for a new executor to be created
+        Thread.sleep(TIMEOUT); // Wait for the executor to be resized
 
         ExecutorService service2 = parallelExecutorService.getExecutorService();
-        Assert.assertNotEquals(service1, service2);
+        Assert.assertEquals(service1, service2);
+        Assert.assertTrue(parallelExecutorService.metrics().stream()
+                .anyMatch(metric -> metric.getName().equals("nodeup.executor.pool.size")
+                        && metric.getValue().intValue() == 2));
+    }
+
+    @Test
+    public void testTerminationTasksUseSeparateExecutor() {
+        Assert.assertNotEquals(parallelExecutorService.getExecutorService(),
+                parallelExecutorService.getTerminationExecutorService());
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.parallel;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ResizableThreadPoolExecutorTest {
+
+    private static final long TIMEOUT = 5L;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ResizableThreadPoolExecutor executor = new ResizableThreadPoolExecutor(1, 1);
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void shouldRejectTaskWhenQueueIsFull() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+        executor.execute(() -> await(release));
+
+        executor.execute(() -> { });
+    }
+
+    @Test
+    public void shouldProcessQueuedTasksAfterResize() throws InterruptedException {
+        final CountDownLatch finished = new CountDownLatch(1);
+        executor.execute(() -> await(release));
+        executor.execute(finished::countDown);
+
+        executor.resize(2);
+
+        assertTrue(finished.await(TIMEOUT, TimeUnit.SECONDS));
+        assertEquals(2, executor.getCorePoolSize());
+        assertEquals(2, executor.getMaximumPoolSize());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
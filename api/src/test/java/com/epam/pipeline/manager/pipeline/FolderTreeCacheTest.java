@@ -0,0 +1,221 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.pipeline;
+
+import com.epam.pipeline.dao.pipeline.FolderDao;
+import com.epam.pipeline.entity.pipeline.Folder;
+import com.epam.pipeline.entity.pipeline.FolderTreeSnapshot;
+import com.epam.pipeline.entity.pipeline.Pipeline;
+import com.epam.pipeline.entity.pipeline.Revision;
+import com.epam.pipeline.manager.configuration.RunConfigurationManager;
+import com.epam.pipeline.manager.datastorage.DataStorageManager;
+import com.epam.pipeline.manager.metadata.MetadataEntityManager;
+import com.epam.pipeline.test.creator.folder.FolderCreatorUtils;
+import com.epam.pipeline.test.creator.pipeline.PipelineCreatorUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.endsWith;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FolderTreeCacheTest {
+
+    private static final Long ID = 1L;
+    private static final Long ID_2 = 2L;
+    private static final Long ID_3 = 3L;
+    private static final String TEST_NAME = "TEST";
+    private static final String OWNER = "OWNER";
+    private static final int READ_MASK = 1;
+    private static final long TTL = 60000L;
+    private static final long CREATED = 1000L;
+    private static final String ANOTHER_INSTANCE = "another-instance";
+
+    @InjectMocks
+    private FolderTreeCache folderTreeCache;
+
+    @Mock
+    private FolderDao mockFolderDao;
+
+    @Mock
+    private PipelineManager mockPipelineManager;
+
+    @Mock
+    private DataStorageManager mockDataStorageManager;
+
+    @Mock
+    private RunConfigurationManager mockConfigurationManager;
+
+    @Mock
+    private MetadataEntityManager mockMetadataEntityManager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(folderTreeCache, "snapshotTtl", TTL);
+        final Folder folder = FolderCreatorUtils.getFolder(ID, OWNER);
+        final Pipeline pipeline = PipelineCreatorUtils.getPipeline(ID, TEST_NAME);
+        pipeline.setCurrentVersion(new Revision(TEST_NAME, TEST_NAME, new Date(CREATED), TEST_NAME));
+        folder.setPipelines(Collections.singletonList(pipeline));
+        doReturn(Collections.singletonList(folder)).when(mockFolderDao).loadAllFolders();
+        doReturn(Collections.singletonList(PipelineCreatorUtils.getPipeline(ID_2, TEST_NAME)))
+                .when(mockPipelineManager).loadRootPipelines();
+    }
+
+    @Test
+    public void shouldLoadTreeOnceUntilInvalidated() {
+        final FolderTreeSnapshot first = folderTreeCache.loadSnapshot();
+        final FolderTreeSnapshot second = folderTreeCache.loadSnapshot();
+
+        assertThat(second.getVersion()).isEqualTo(first.getVersion());
+        assertThat(second.getTree().getChildFolders()).hasSize(1);
+        assertThat(second.getTree().getPipelines()).hasSize(1);
+        verify(mockFolderDao, times(1)).loadAllFolders();
+        verify(mockPipelineManager, times(1)).loadRootPipelines();
+    }
+
+    @Test
+    public void shouldRebuildOnlyInvalidatedSections() {
+        final FolderTreeSnapshot first = folderTreeCache.loadSnapshot();
+        doReturn(Collections.singletonList(PipelineCreatorUtils.getPipeline(ID_3, TEST_NAME)))
+                .when(mockPipelineManager).loadRootPipelines();
+        folderTreeCache.invalidate(FolderTreeCache.Section.PIPELINES);
+        final FolderTreeSnapshot second = folderTreeCache.loadSnapshot();
+
+        assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+        assertThat(second.getTag()).isNotEqualTo(first.getTag());
+        verify(mockFolderDao, times(1)).loadAllFolders();
+        verify(mockPipelineManager, times(2)).loadRootPipelines();
+        verify(mockDataStorageManager, times(1)).loadRootDataStorages();
+    }
+
+    @Test
+    public void shouldBuildTheSameTagForTheSameTreeOfAnotherVersion() {
+        final FolderTreeSnapshot first = folderTreeCache.loadSnapshot();
+        folderTreeCache.invalidate(FolderTreeCache.Section.PIPELINES);
+        final FolderTreeSnapshot second = folderTreeCache.loadSnapshot();
+
+        assertThat(second.getVersion()).isNotEqualTo(first.getVersion());
+        assertThat(second.getTag()).isEqualTo(first.getTag());
+        assertThat(new FolderTreeSnapshot(first.getVersion(), second.getTree()).getTag())
+                .isEqualTo(first.getTag());
+    }
+
+    @Test
+    public void shouldBuildContentTagOnceForSnapshot() {
+        final FolderTreeSnapshot first = folderTreeCache.loadSnapshot();
+        final FolderTreeSnapshot second = folderTreeCache.loadSnapshot();
+        second.getTree().getChildFolders().get(0).setName(TEST_NAME);
+
+        assertThat(second.getContentTag()).isSameAs(first.getContentTag());
+        assertThat(second.getTag()).isEqualTo(first.getTag());
+    }
+
+    @Test
+    public void shouldBuildAnotherTagIfEntityIsMaskedOrFilteredOut() {
+        final FolderTreeSnapshot first = folderTreeCache.loadSnapshot();
+        final FolderTreeSnapshot masked = folderTreeCache.loadSnapshot();
+        masked.getTree().getChildFolders().get(0).getPipelines().get(0).setMask(READ_MASK);
+        final FolderTreeSnapshot filtered = folderTreeCache.loadSnapshot();
+        filtered.getTree().getChildFolders().get(0).setPipelines(Collections.emptyList());
+
+        assertThat(masked.getTag()).isNotEqualTo(first.getTag());
+        assertThat(filtered.getTag()).isNotEqualTo(first.getTag());
+        assertThat(filtered.getTag()).isNotEqualTo(masked.getTag());
+    }
+
+    @Test
+    public void shouldNotSetEmptyRootEntities() {
+        final Folder tree = folderTreeCache.loadSnapshot().getTree();
+        final Folder empty = new Folder();
+
+        assertThat(tree.getStorages()).isEqualTo(empty.getStorages());
+        assertThat(tree.getConfigurations()).isEqualTo(empty.getConfigurations());
+        assertThat(tree.getMetadata()).isEqualTo(empty.getMetadata());
+    }
+
+    @Test
+    public void shouldReturnIndependentCopiesOfTree() {
+        final FolderTreeSnapshot first = folderTreeCache.loadSnapshot();
+        final Folder folder = first.getTree().getChildFolders().get(0);
+        folder.getPipelines().get(0).setMask(READ_MASK);
+        first.getTree().setPipelines(Collections.emptyList());
+
+        final FolderTreeSnapshot second = folderTreeCache.loadSnapshot();
+        final Pipeline pipeline = second.getTree().getChildFolders().get(0).getPipelines().get(0);
+
+        assertThat(pipeline.getMask()).isNotEqualTo(READ_MASK);
+        assertThat(pipeline.getId()).isEqualTo(ID);
+        assertThat(pipeline.getOwner()).isEqualTo(TEST_NAME);
+        assertThat(second.getTree().getPipelines()).hasSize(1);
+    }
+
+    @Test
+    public void shouldReturnDeepCopiesOfTree() {
+        final FolderTreeSnapshot first = folderTreeCache.loadSnapshot();
+        final Revision revision = first.getTree().getChildFolders().get(0).getPipelines().get(0).getCurrentVersion();
+        revision.setName(OWNER);
+        revision.getCreatedDate().setTime(0L);
+
+        final Revision copy = folderTreeCache.loadSnapshot().getTree().getChildFolders().get(0).getPipelines().get(0)
+                .getCurrentVersion();
+
+        assertThat(copy).isNotSameAs(revision);
+        assertThat(copy.getName()).isEqualTo(TEST_NAME);
+        assertThat(copy.getCreatedDate().getTime()).isEqualTo(CREATED);
+    }
+
+    @Test
+    public void shouldNotifyOtherInstancesOnInvalidation() {
+        folderTreeCache.invalidate(FolderTreeCache.Section.PIPELINES, FolderTreeCache.Section.STORAGES);
+
+        verify(mockFolderDao).notifyFolderTreeChanged(endsWith(":PIPELINES,STORAGES"));
+    }
+
+    @Test
+    public void shouldRebuildSectionsChangedByAnotherInstance() {
+        final FolderTreeSnapshot first = folderTreeCache.loadSnapshot();
+        folderTreeCache.applyChangeNotification(ANOTHER_INSTANCE + ":PIPELINES");
+        final FolderTreeSnapshot second = folderTreeCache.loadSnapshot();
+
+        assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+        verify(mockFolderDao, times(1)).loadAllFolders();
+        verify(mockPipelineManager, times(2)).loadRootPipelines();
+    }
+
+    @Test
+    public void shouldSkipNotificationsOfTheSameInstance() {
+        folderTreeCache.loadSnapshot();
+        final String instanceId = (String) ReflectionTestUtils.getField(folderTreeCache, "instanceId");
+        folderTreeCache.applyChangeNotification(instanceId + ":PIPELINES");
+        folderTreeCache.loadSnapshot();
+
+        verify(mockPipelineManager, times(1)).loadRootPipelines();
+        verify(mockFolderDao, never()).notifyFolderTreeChanged(anyString());
+    }
+}
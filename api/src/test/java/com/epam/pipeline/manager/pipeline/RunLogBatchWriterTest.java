@@ -0,0 +1,209 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.pipeline;
+
+import com.epam.pipeline.dao.pipeline.RunLogDao;
+import com.epam.pipeline.entity.pipeline.PipelineRun;
+import com.epam.pipeline.entity.pipeline.PipelineTask;
+import com.epam.pipeline.entity.pipeline.RunLog;
+import com.epam.pipeline.entity.pipeline.TaskStatus;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+public class RunLogBatchWriterTest {
+
+    private static final Long RUN_ID = 1L;
+    private static final Long UNKNOWN_RUN_ID = 2L;
+    private static final String TASK = "task";
+    private static final String ANOTHER_TASK = "another";
+    private static final int QUEUE_SIZE = 3;
+    private static final long CACHE_MS = 60_000L;
+    private static final int WRITE_ATTEMPTS = 2;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10_000L;
+
+    private final RunLogDao runLogDao = mock(RunLogDao.class);
+    private final PipelineRunCRUDService runCRUDService = mock(PipelineRunCRUDService.class);
+    private final RunLogBatchWriter writer = new RunLogBatchWriter(runLogDao, runCRUDService,
+            QUEUE_SIZE, QUEUE_SIZE, 1L, 1L, CACHE_MS, WRITE_ATTEMPTS, 0L, SHUTDOWN_TIMEOUT_MS);
+
+    @Test
+    public void shouldAcceptLogsOnlyIfAllOfThemFitIntoQueue() {
+        assertTrue(writer.submit(Arrays.asList(log(RUN_ID, TASK, TaskStatus.RUNNING),
+                log(RUN_ID, TASK, TaskStatus.RUNNING))));
+        assertFalse(writer.submit(Arrays.asList(log(RUN_ID, TASK, TaskStatus.RUNNING),
+                log(RUN_ID, TASK, TaskStatus.RUNNING))));
+        assertEquals(2, writer.getQueueSize());
+    }
+
+    @Test
+    public void shouldRejectLogsWhichCanNotFitIntoQueueAtAll() {
+        assertFalse(writer.submit(Arrays.asList(log(RUN_ID, TASK, TaskStatus.RUNNING),
+                log(RUN_ID, TASK, TaskStatus.RUNNING), log(RUN_ID, TASK, TaskStatus.RUNNING),
+                log(RUN_ID, TASK, TaskStatus.RUNNING))));
+        assertEquals(0, writer.getQueueSize());
+    }
+
+    @Test
+    public void shouldRetryFailedBatch() {
+        mockRun(TaskStatus.RUNNING);
+        doThrow(new IllegalStateException()).doNothing().when(runLogDao).createRunLogs(anyListOf(RunLog.class));
+        final List<RunLog> batch = Arrays.asList(log(RUN_ID, TASK, TaskStatus.RUNNING),
+                log(RUN_ID, ANOTHER_TASK, TaskStatus.RUNNING));
+
+        writer.writeWithRetries(batch);
+
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(runLogDao, times(2)).createRunLogs(captor.capture());
+        assertEquals(batch, captor.getAllValues().get(1));
+    }
+
+    @Test
+    public void shouldWriteLogsOneByOneIfBatchKeepsFailing() {
+        mockRun(TaskStatus.RUNNING);
+        final RunLog brokenLog = log(RUN_ID, TASK, TaskStatus.RUNNING);
+        final RunLog runLog = log(RUN_ID, ANOTHER_TASK, TaskStatus.RUNNING);
+        final List<RunLog> batch = Arrays.asList(brokenLog, runLog);
+        doThrow(new IllegalStateException()).when(runLogDao).createRunLogs(batch);
+        doThrow(new IllegalStateException()).when(runLogDao).createRunLogs(Collections.singletonList(brokenLog));
+
+        writer.writeWithRetries(batch);
+
+        verify(runLogDao, times(WRITE_ATTEMPTS)).createRunLogs(batch);
+        verify(runLogDao).createRunLogs(Collections.singletonList(runLog));
+    }
+
+    @Test
+    public void shouldResolveStatusesAndWriteBatchAtOnce() {
+        mockRun(TaskStatus.RUNNING, task(TASK, TaskStatus.SUCCESS));
+        final RunLog finishedTaskLog = log(RUN_ID, TASK, TaskStatus.RUNNING);
+        final RunLog runningTaskLog = log(RUN_ID, ANOTHER_TASK, TaskStatus.RUNNING);
+
+        writer.writeBatch(Arrays.asList(finishedTaskLog, runningTaskLog, log(UNKNOWN_RUN_ID, TASK,
+                TaskStatus.RUNNING)));
+
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(runLogDao).createRunLogs(captor.capture());
+        assertEquals(Arrays.asList(finishedTaskLog, runningTaskLog), captor.getValue());
+        assertEquals(TaskStatus.SUCCESS, finishedTaskLog.getStatus());
+        assertEquals(TaskStatus.RUNNING, runningTaskLog.getStatus());
+    }
+
+    @Test
+    public void shouldOverrideNonFinalStatusesOfFinishedRun() {
+        mockRun(TaskStatus.STOPPED);
+        final RunLog runLog = log(RUN_ID, TASK, TaskStatus.RUNNING);
+
+        writer.writeBatch(Collections.singletonList(runLog));
+
+        assertEquals(TaskStatus.STOPPED, runLog.getStatus());
+    }
+
+    @Test
+    public void shouldReuseLoadedRunStatesForConsequentBatches() {
+        mockRun(TaskStatus.RUNNING);
+
+        writer.writeBatch(Collections.singletonList(log(RUN_ID, TASK, TaskStatus.FAILURE)));
+        final RunLog runLog = log(RUN_ID, TASK, TaskStatus.RUNNING);
+        writer.writeBatch(Collections.singletonList(runLog));
+
+        verify(runLogDao, times(1)).loadTaskStatuses(RUN_ID);
+        verify(runLogDao, times(2)).createRunLogs(anyListOf(RunLog.class));
+        assertEquals(TaskStatus.FAILURE, runLog.getStatus());
+    }
+
+    @Test
+    public void shouldReloadRunStateForFinalStatuses() {
+        mockRun(TaskStatus.RUNNING);
+
+        writer.writeBatch(Collections.singletonList(log(RUN_ID, TASK, TaskStatus.RUNNING)));
+        writer.writeBatch(Collections.singletonList(log(RUN_ID, TASK, TaskStatus.SUCCESS)));
+
+        verify(runLogDao, times(2)).loadTaskStatuses(RUN_ID);
+    }
+
+    @Test
+    public void shouldWriteAllSubmittedLogsBeforeShutdown() throws InterruptedException {
+        mockRun(TaskStatus.RUNNING);
+        final List<RunLog> logs = Arrays.asList(log(RUN_ID, TASK, TaskStatus.RUNNING),
+                log(RUN_ID, ANOTHER_TASK, TaskStatus.RUNNING), log(RUN_ID, TASK, TaskStatus.RUNNING));
+        final RunLogBatchWriter singleLogWriter = new RunLogBatchWriter(runLogDao, runCRUDService,
+                QUEUE_SIZE, 1, 1L, 1L, CACHE_MS, WRITE_ATTEMPTS, 0L, SHUTDOWN_TIMEOUT_MS);
+        assertTrue(singleLogWriter.submit(logs));
+
+        singleLogWriter.init();
+        singleLogWriter.destroy();
+
+        verify(runLogDao, times(logs.size())).createRunLogs(anyListOf(RunLog.class));
+        assertEquals(0, singleLogWriter.getQueueSize());
+    }
+
+    @Test
+    public void shouldKeepWritingLogsAfterUnexpectedError() throws InterruptedException {
+        mockRun(TaskStatus.RUNNING);
+        doThrow(new StackOverflowError()).doNothing().when(runLogDao).createRunLogs(anyListOf(RunLog.class));
+        final RunLogBatchWriter singleLogWriter = new RunLogBatchWriter(runLogDao, runCRUDService,
+                QUEUE_SIZE, 1, 1L, 1L, CACHE_MS, WRITE_ATTEMPTS, 0L, SHUTDOWN_TIMEOUT_MS);
+        final RunLog lostLog = log(RUN_ID, TASK, TaskStatus.RUNNING);
+        final RunLog runLog = log(RUN_ID, ANOTHER_TASK, TaskStatus.RUNNING);
+        assertTrue(singleLogWriter.submit(Arrays.asList(lostLog, runLog)));
+
+        singleLogWriter.init();
+        singleLogWriter.destroy();
+
+        verify(runLogDao).createRunLogs(Collections.singletonList(runLog));
+        assertTrue(singleLogWriter.submit(Arrays.asList(lostLog, runLog, lostLog)));
+    }
+
+    private void mockRun(final TaskStatus status, final PipelineTask... tasks) {
+        final PipelineRun run = new PipelineRun();
+        run.setId(RUN_ID);
+        run.setStatus(status);
+        when(runCRUDService.loadRunsByIds(anyListOf(Long.class))).thenReturn(Collections.singletonList(run));
+        when(runLogDao.loadTaskStatuses(RUN_ID)).thenReturn(Arrays.asList(tasks));
+    }
+
+    private static PipelineTask task(final String name, final TaskStatus status) {
+        final PipelineTask task = new PipelineTask(name);
+        task.setStatus(status);
+        return task;
+    }
+
+    private static RunLog log(final Long runId, final String taskName, final TaskStatus status) {
+        return RunLog.builder()
+                .runId(runId)
+                .taskName(taskName)
+                .status(status)
+                .date(new Date())
+                .build();
+    }
+}
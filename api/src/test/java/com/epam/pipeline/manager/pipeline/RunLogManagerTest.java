@@ -16,10 +16,12 @@
 
 package com.epam.pipeline.manager.pipeline;
 
+import java.io.StringWriter;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.epam.pipeline.dao.pipeline.RunLogDao;
 import com.epam.pipeline.entity.pipeline.PipelineRun;
@@ -34,6 +36,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+
 public class RunLogManagerTest extends AbstractManagerTest {
 
     private static final String FIRST_TASK = "Task1(param=1)";
@@ -64,9 +69,15 @@ public class RunLogManagerTest extends AbstractManagerTest {
         logs.add(RunLog.builder().date(Date.from(Instant.now())).task(new PipelineTask(FIRST_TASK))
                 .logText("First task Log2").build());
         Mockito.when(runCRUDServiceMock.loadRunById(run.getId())).thenReturn(run);
-        Mockito.when(logDao.loadAllLogsForRun(run.getId())).thenReturn(logs);
-        String result = logManager.downloadLogs(run);
-        Assert.assertNotNull(result);
-        Assert.assertTrue(!result.isEmpty());
+        Mockito.doAnswer(invocation -> {
+            final Consumer<RunLog> consumer = (Consumer<RunLog>) invocation.getArguments()[1];
+            logs.forEach(consumer);
+            return null;
+        }).when(logDao).streamAllLogsForRun(eq(run.getId()), any());
+        StringWriter writer = new StringWriter();
+        logManager.downloadLogs(run, writer);
+        String result = writer.toString();
+        Assert.assertEquals(logs.size(), result.split("\n").length);
+        Assert.assertTrue(result.contains("Second task Log1"));
     }
 }
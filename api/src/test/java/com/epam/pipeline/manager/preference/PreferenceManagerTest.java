@@ -146,6 +146,19 @@ public class PreferenceManagerTest extends AbstractSpringTest {
         Assert.assertEquals(fetch, load.getValue());
     }
 
+    @Test
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Throwable.class)
+    public void systemPreferenceParsedValueShouldBeEvictedOnUpdate() {
+        final Integer defaultValue = preferenceManager.getPreference(SystemPreferences.COMMIT_TIMEOUT);
+
+        final Preference commitTimeout = SystemPreferences.COMMIT_TIMEOUT.toPreference();
+        commitTimeout.setValue(String.valueOf(defaultValue + 1));
+        preferenceManager.update(Collections.singletonList(commitTimeout));
+
+        Assert.assertEquals(defaultValue + 1, preferenceManager.getPreference(SystemPreferences.COMMIT_TIMEOUT)
+                .intValue());
+    }
+
     @Test
     @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Throwable.class)
     public void testGetObservablePreference() {
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.manager.utils;
+
+import com.epam.pipeline.manager.preference.PreferenceManager;
+import com.epam.pipeline.manager.preference.SystemPreferences;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+public class GlobalSearchElasticHelperTest {
+
+    private static final String HOST = "localhost";
+    private static final String ANOTHER_HOST = "elastic";
+    private static final int PORT = 9200;
+    private static final String SCHEME = "http";
+    private static final int MAX_CONNECTIONS = 10;
+
+    private final PreferenceManager preferenceManager = mock(PreferenceManager.class);
+    private final GlobalSearchElasticHelper helper = new GlobalSearchElasticHelper(preferenceManager);
+
+    @Before
+    public void setUp() {
+        doReturn(HOST).when(preferenceManager).getPreference(SystemPreferences.SEARCH_ELASTIC_HOST);
+        doReturn(PORT).when(preferenceManager).getPreference(SystemPreferences.SEARCH_ELASTIC_PORT);
+        doReturn(SCHEME).when(preferenceManager).getPreference(SystemPreferences.SEARCH_ELASTIC_SCHEME);
+        doReturn(MAX_CONNECTIONS).when(preferenceManager)
+                .getPreference(SystemPreferences.SEARCH_ELASTIC_MAX_CONNECTIONS);
+    }
+
+    @After
+    public void tearDown() {
+        helper.destroy();
+    }
+
+    @Test
+    public void shouldReuseClientWhileSettingsAreNotChanged() {
+        assertSame(helper.getClient(), helper.getClient());
+        assertSame(helper.getLowLevelClient(), helper.getLowLevelClient());
+    }
+
+    @Test
+    public void shouldRebuildClientWhenHostIsChanged() {
+        final Object client = helper.getClient();
+
+        doReturn(ANOTHER_HOST).when(preferenceManager).getPreference(SystemPreferences.SEARCH_ELASTIC_HOST);
+
+        assertNotSame(client, helper.getClient());
+    }
+}
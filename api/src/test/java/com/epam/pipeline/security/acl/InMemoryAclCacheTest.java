@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.security.acl;
+
+import com.epam.pipeline.entity.pipeline.Folder;
+import org.junit.Test;
+import org.springframework.security.acls.domain.AclAuthorizationStrategy;
+import org.springframework.security.acls.domain.AclImpl;
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
+import org.springframework.security.acls.domain.PrincipalSid;
+import org.springframework.security.acls.model.MutableAcl;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.PermissionGrantingStrategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+public class InMemoryAclCacheTest {
+
+    private static final long NO_EXPIRATION = 0L;
+    private static final String OWNER = "OWNER";
+    private static final String ANOTHER_OWNER = "ANOTHER_OWNER";
+
+    private final AclAuthorizationStrategy authorizationStrategy = mock(AclAuthorizationStrategy.class);
+    private final PermissionGrantingStrategy grantingStrategy = mock(PermissionGrantingStrategy.class);
+
+    @Test
+    public void shouldReturnCachedAclByIdAndObjectIdentity() {
+        final InMemoryAclCache cache = new InMemoryAclCache(10, NO_EXPIRATION);
+        final MutableAcl acl = acl(1L, null);
+
+        cache.putInCache(acl);
+
+        assertSame(acl, cache.getFromCache(1L));
+        assertSame(acl, cache.getFromCache(identity(1L)));
+        assertNull(cache.getFromCache(identity(2L)));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedAcl() {
+        final InMemoryAclCache cache = new InMemoryAclCache(2, NO_EXPIRATION);
+        final MutableAcl first = acl(1L, null);
+        final MutableAcl second = acl(2L, null);
+
+        cache.putInCache(first);
+        cache.putInCache(second);
+        cache.getFromCache(1L);
+        cache.putInCache(acl(3L, null));
+
+        assertEquals(2, cache.size());
+        assertSame(first, cache.getFromCache(1L));
+        assertNull(cache.getFromCache(2L));
+    }
+
+    @Test
+    public void shouldEvictCachedDescendantsWithParent() {
+        final InMemoryAclCache cache = new InMemoryAclCache(10, NO_EXPIRATION);
+        final MutableAcl root = acl(1L, null);
+        final MutableAcl child = acl(2L, root);
+        final MutableAcl grandChild = acl(3L, child);
+        final MutableAcl other = acl(4L, null);
+
+        cache.putInCache(grandChild);
+        cache.putInCache(other);
+        assertEquals(4, cache.size());
+
+        cache.evictFromCache(identity(1L));
+
+        assertNull(cache.getFromCache(1L));
+        assertNull(cache.getFromCache(2L));
+        assertNull(cache.getFromCache(identity(3L)));
+        assertSame(other, cache.getFromCache(4L));
+    }
+
+    @Test
+    public void shouldKeepParentWhenChildIsEvicted() {
+        final InMemoryAclCache cache = new InMemoryAclCache(10, NO_EXPIRATION);
+        final MutableAcl root = acl(1L, null);
+
+        cache.putInCache(acl(2L, root));
+        cache.evictFromCache(2L);
+
+        assertSame(root, cache.getFromCache(1L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void shouldKeepSiblingsLoadedWithSeparateInstancesOfTheSameParent() {
+        final InMemoryAclCache cache = new InMemoryAclCache(10, NO_EXPIRATION);
+        final MutableAcl first = acl(2L, acl(1L, null));
+        final MutableAcl second = acl(3L, acl(1L, null));
+
+        cache.putInCache(first);
+        cache.putInCache(second);
+
+        assertEquals(3, cache.size());
+        assertSame(first, cache.getFromCache(2L));
+        assertSame(second, cache.getFromCache(3L));
+    }
+
+    @Test
+    public void shouldEvictCachedDescendantsIfParentIsChanged() {
+        final InMemoryAclCache cache = new InMemoryAclCache(10, NO_EXPIRATION);
+        final MutableAcl child = acl(2L, acl(1L, null));
+        final MutableAcl changedParent = acl(1L, null, ANOTHER_OWNER);
+
+        cache.putInCache(child);
+        cache.putInCache(acl(3L, changedParent));
+
+        assertNull(cache.getFromCache(2L));
+        assertSame(changedParent, cache.getFromCache(1L));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void shouldNotReturnExpiredAcl() throws InterruptedException {
+        final InMemoryAclCache cache = new InMemoryAclCache(10, 1L);
+
+        cache.putInCache(acl(1L, null));
+        Thread.sleep(5L);
+
+        assertNull(cache.getFromCache(1L));
+        assertEquals(0, cache.size());
+    }
+
+    private MutableAcl acl(final Long id, final MutableAcl parent) {
+        return acl(id, parent, OWNER);
+    }
+
+    private MutableAcl acl(final Long id, final MutableAcl parent, final String owner) {
+        return new AclImpl(identity(id), id, authorizationStrategy, grantingStrategy,
+                parent, null, true, new PrincipalSid(owner));
+    }
+
+    private ObjectIdentity identity(final Long id) {
+        return new ObjectIdentityImpl(Folder.class, id);
+    }
+}
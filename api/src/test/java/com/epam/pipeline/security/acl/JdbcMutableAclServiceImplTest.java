@@ -0,0 +1,130 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.security.acl;
+
+import com.epam.pipeline.app.TestApplicationWithAclSecurity;
+import com.epam.pipeline.dao.util.AclTestDao;
+import com.epam.pipeline.entity.pipeline.Folder;
+import com.epam.pipeline.entity.security.acl.AclSidEntries;
+import com.epam.pipeline.manager.AbstractManagerTest;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.acls.domain.GrantedAuthoritySid;
+import org.springframework.security.acls.domain.ObjectIdentityImpl;
+import org.springframework.security.acls.domain.PrincipalSid;
+import org.springframework.security.acls.model.ObjectIdentity;
+import org.springframework.security.acls.model.Sid;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Transactional
+@ContextConfiguration(classes = TestApplicationWithAclSecurity.class)
+public class JdbcMutableAclServiceImplTest extends AbstractManagerTest {
+
+    private static final String USER = "SID_ENTRIES_USER";
+    private static final String FOREIGN_USER = "SID_ENTRIES_FOREIGN_USER";
+    private static final String GROUP = "ROLE_SID_ENTRIES_GROUP";
+    private static final long SHARED_FOLDER_ID = 100_001L;
+    private static final long OWNED_FOLDER_ID = 100_002L;
+    private static final long MISSING_FOLDER_ID = 100_003L;
+
+    @Autowired
+    private JdbcMutableAclServiceImpl aclService;
+
+    @Autowired
+    private AclTestDao aclTestDao;
+
+    private final List<Sid> sids = Arrays.asList(new PrincipalSid(USER), new GrantedAuthoritySid(GROUP));
+    private final ObjectIdentity sharedFolder = new ObjectIdentityImpl(Folder.class, SHARED_FOLDER_ID);
+    private final ObjectIdentity ownedFolder = new ObjectIdentityImpl(Folder.class, OWNED_FOLDER_ID);
+    private final ObjectIdentity missingFolder = new ObjectIdentityImpl(Folder.class, MISSING_FOLDER_ID);
+
+    @Before
+    public void setUp() {
+        final AclTestDao.AclSid user = createSid(true, USER);
+        final AclTestDao.AclSid authorityWithUserName = createSid(false, USER);
+        final AclTestDao.AclSid foreignUser = createSid(true, FOREIGN_USER);
+        final AclTestDao.AclSid group = createSid(false, GROUP);
+
+        final AclTestDao.AclClass folderClass = new AclTestDao.AclClass(Folder.class.getCanonicalName());
+        aclTestDao.createAclClassIfNotPresent(folderClass);
+
+        final AclTestDao.AclObjectIdentity shared = createIdentity(foreignUser, SHARED_FOLDER_ID, folderClass);
+        createEntry(shared, 0, user, AclPermission.READ.getMask(), true);
+        createEntry(shared, 1, authorityWithUserName, AclPermission.WRITE.getMask(), true);
+        createEntry(shared, 2, foreignUser, AclPermission.EXECUTE.getMask(), true);
+        createEntry(shared, 3, group, AclPermission.NO_READ.getMask(), false);
+        createIdentity(user, OWNED_FOLDER_ID, folderClass);
+    }
+
+    @Test
+    public void shouldLoadOwnersAndEntriesOfRequestedSidsOnly() {
+        final Map<ObjectIdentity, AclSidEntries> acls = aclService.loadSidEntries(
+                Arrays.asList(sharedFolder, ownedFolder, missingFolder), sids);
+
+        assertThat(acls).containsOnlyKeys(sharedFolder, ownedFolder);
+        assertThat(acls.get(sharedFolder).getOwner()).isEqualTo(new PrincipalSid(FOREIGN_USER));
+        assertThat(acls.get(sharedFolder).getEntries()).containsExactly(
+                Pair.of(new PrincipalSid(USER), AclPermission.READ.getMask()),
+                Pair.of(new GrantedAuthoritySid(GROUP), AclPermission.NO_READ.getMask()));
+        assertThat(acls.get(ownedFolder).getOwner()).isEqualTo(new PrincipalSid(USER));
+        assertThat(acls.get(ownedFolder).getEntries()).isEmpty();
+    }
+
+    @Test
+    public void shouldNotLoadEntriesOfAuthorityWithTheSameNameAsPrincipal() {
+        final Map<ObjectIdentity, AclSidEntries> acls = aclService.loadSidEntries(
+                Collections.singletonList(sharedFolder), Collections.singletonList(new GrantedAuthoritySid(USER)));
+
+        assertThat(acls.get(sharedFolder).getEntries()).containsExactly(
+                Pair.of(new GrantedAuthoritySid(USER), AclPermission.WRITE.getMask()));
+    }
+
+    @Test
+    public void shouldLoadNothingForMissingIdentities() {
+        assertThat(aclService.loadSidEntries(Collections.singletonList(missingFolder), sids)).isEmpty();
+        assertThat(aclService.loadSidEntries(Collections.emptyList(), sids)).isEmpty();
+    }
+
+    private AclTestDao.AclSid createSid(final boolean principal, final String name) {
+        final AclTestDao.AclSid sid = new AclTestDao.AclSid(principal, name);
+        aclTestDao.createAclSid(sid);
+        return sid;
+    }
+
+    private AclTestDao.AclObjectIdentity createIdentity(final AclTestDao.AclSid owner, final long objectId,
+                                                        final AclTestDao.AclClass aclClass) {
+        final AclTestDao.AclObjectIdentity identity =
+                new AclTestDao.AclObjectIdentity(owner, objectId, aclClass.getId(), null, true);
+        aclTestDao.createObjectIdentity(identity);
+        return identity;
+    }
+
+    private void createEntry(final AclTestDao.AclObjectIdentity identity, final int order,
+                             final AclTestDao.AclSid sid, final int mask, final boolean granting) {
+        aclTestDao.createAclEntry(new AclTestDao.AclEntry(identity, order, sid, mask, granting));
+    }
+}
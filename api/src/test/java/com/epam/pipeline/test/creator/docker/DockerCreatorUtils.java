@@ -29,6 +29,7 @@ import com.epam.pipeline.entity.pipeline.Tool;
 import com.epam.pipeline.entity.pipeline.ToolGroup;
 import com.epam.pipeline.entity.pipeline.ToolGroupWithIssues;
 import com.epam.pipeline.entity.scan.ToolScanPolicy;
+import com.epam.pipeline.entity.scan.ToolScanQueueStats;
 import com.epam.pipeline.entity.scan.ToolScanResult;
 import com.epam.pipeline.entity.scan.ToolScanResultView;
 import com.epam.pipeline.entity.scan.ToolVersionScanResult;
@@ -41,6 +42,8 @@ import java.util.List;
 import java.util.Map;
 
 import static com.epam.pipeline.test.creator.CommonCreatorConstants.ID;
+import static com.epam.pipeline.test.creator.CommonCreatorConstants.TEST_INT;
+import static com.epam.pipeline.test.creator.CommonCreatorConstants.TEST_LONG;
 import static com.epam.pipeline.test.creator.CommonCreatorConstants.TEST_STRING;
 
 public final class DockerCreatorUtils {
@@ -66,6 +69,8 @@ public final class DockerCreatorUtils {
             new TypeReference<Result<ToolScanResultView>>() {};
     public static final TypeReference<Result<ToolScanPolicy>> TOOL_SCAN_POLICY_INSTANCE_TYPE =
             new TypeReference<Result<ToolScanPolicy>>() {};
+    public static final TypeReference<Result<ToolScanQueueStats>> TOOL_SCAN_QUEUE_STATS_INSTANCE_TYPE =
+            new TypeReference<Result<ToolScanQueueStats>>() {};
     public static final TypeReference<Result<Tool>> TOOL_INSTANCE_TYPE = new TypeReference<Result<Tool>>() {};
     public static final TypeReference<Result<List<String>>> LIST_STRING_INSTANCE_TYPE =
             new TypeReference<Result<List<String>>>() {};
@@ -122,6 +127,10 @@ public final class DockerCreatorUtils {
         return new ToolScanPolicy();
     }
 
+    public static ToolScanQueueStats getToolScanQueueStats() {
+        return new ToolScanQueueStats(TEST_INT, TEST_INT, TEST_LONG, TEST_LONG, TEST_LONG, TEST_LONG);
+    }
+
     public static Tool getTool() {
         return getTool((Long) null, null);
     }
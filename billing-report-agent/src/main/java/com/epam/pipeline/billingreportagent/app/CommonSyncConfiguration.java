@@ -90,12 +90,14 @@ public class CommonSyncConfiguration {
             final ElasticIndexService indexService,
             final ElasticsearchServiceClient elasticsearchClient,
             final @Value("${sync.run.index.name}") String runIndexName,
-            final @Value("${sync.run.index.mapping}") String runMapping) {
+            final @Value("${sync.run.index.mapping}") String runMapping,
+            final @Value("${sync.run.insert.memory.budget:67108864}") Long runBufferMemoryBudget) {
         return new PipelineRunSynchronizer(runMapping,
                 commonIndexPrefix,
                 runIndexName,
                 bulkSize,
                 insertTimeout,
+                runBufferMemoryBudget,
                 elasticsearchClient,
                 indexService,
                 mapper,
@@ -42,6 +42,22 @@ public interface EntityLoader<T> {
 
     List<EntityContainer<T>> loadAllEntitiesActiveInPeriod(LocalDateTime from, LocalDateTime to);
 
+    /**
+     * Streams all entities, the returned stream shall be closed after use.
+     */
+    default Stream<EntityContainer<T>> streamAllEntities() {
+        return loadAllEntities().stream();
+    }
+
+    /**
+     * Streams entities active in the given period. Loaders which are able to produce entities
+     * incrementally shall override this method. The returned stream shall be closed after use.
+     */
+    default Stream<EntityContainer<T>> streamAllEntitiesActiveInPeriod(final LocalDateTime from,
+                                                                      final LocalDateTime to) {
+        return loadAllEntitiesActiveInPeriod(from, to).stream();
+    }
+
     default Map<String, EntityWithMetadata<PipelineUser>> prepareUsers(final CloudPipelineAPIClient apiClient) {
 
         final Map<String, PipelineUser> users =
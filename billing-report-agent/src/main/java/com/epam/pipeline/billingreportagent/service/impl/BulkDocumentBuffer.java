@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.billingreportagent.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Accumulates document requests in per index buffers and sends them with {@link BulkRequestSender}.
+ *
+ * An index buffer is sent as soon as it contains {@code bulkSize} documents. If the estimated size
+ * of all buffered documents exceeds {@code memoryBudget} bytes the largest buffers are sent until
+ * the size fits the budget again. The buffer is not thread safe.
+ */
+@Slf4j
+public class BulkDocumentBuffer implements AutoCloseable {
+
+    private static final long REQUEST_OVERHEAD = 128L;
+
+    private final BulkRequestSender requestSender;
+    private final int bulkSize;
+    private final long memoryBudget;
+    private final Predicate<String> indexInitializer;
+    private final Map<String, IndexBuffer> buffers = new HashMap<>();
+    private final Set<String> rejectedIndices = new HashSet<>();
+
+    private long bufferedBytes;
+    private long peakBufferedBytes;
+    private long addedDocuments;
+    private long sentDocuments;
+    private long skippedDocuments;
+
+    /**
+     * @param indexInitializer is called once for each index before its first document is buffered,
+     *                         documents of an index for which it returns {@code false} are skipped
+     */
+    public BulkDocumentBuffer(final BulkRequestSender requestSender,
+                              final int bulkSize,
+                              final long memoryBudget,
+                              final Predicate<String> indexInitializer) {
+        this.requestSender = requestSender;
+        this.bulkSize = Math.max(1, bulkSize);
+        this.memoryBudget = memoryBudget;
+        this.indexInitializer = indexInitializer;
+    }
+
+    public void add(final DocWriteRequest request) {
+        final String index = request.index();
+        if (rejectedIndices.contains(index)) {
+            skippedDocuments++;
+            return;
+        }
+        IndexBuffer buffer = buffers.get(index);
+        if (buffer == null) {
+            if (!indexInitializer.test(index)) {
+                rejectedIndices.add(index);
+                skippedDocuments++;
+                return;
+            }
+            buffer = new IndexBuffer(index);
+            buffers.put(index, buffer);
+        }
+        final long size = estimateSize(request);
+        buffer.add(request, size);
+        bufferedBytes += size;
+        peakBufferedBytes = Math.max(peakBufferedBytes, bufferedBytes);
+        addedDocuments++;
+        if (buffer.requests.size() >= bulkSize) {
+            flush(buffer);
+        }
+        while (memoryBudget > 0 && bufferedBytes > memoryBudget) {
+            buffers.values().stream()
+                    .max(Comparator.comparingLong(IndexBuffer::getBytes))
+                    .ifPresent(this::flush);
+        }
+    }
+
+    public void addAll(final List<DocWriteRequest> requests) {
+        requests.forEach(this::add);
+    }
+
+    public void flush() {
+        new ArrayList<>(buffers.values()).forEach(this::flush);
+    }
+
+    @Override
+    public void close() {
+        flush();
+        log.info("{} document(s) sent to {} index(es), {} document(s) skipped. Peak buffered size: {} bytes.",
+                sentDocuments, buffers.size(), skippedDocuments, peakBufferedBytes);
+    }
+
+    public long getAddedDocuments() {
+        return addedDocuments;
+    }
+
+    public long getSentDocuments() {
+        return sentDocuments;
+    }
+
+    public long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    public long getPeakBufferedBytes() {
+        return peakBufferedBytes;
+    }
+
+    private void flush(final IndexBuffer buffer) {
+        if (buffer.requests.isEmpty()) {
+            return;
+        }
+        log.debug("Inserting {} document(s) into index {}.", buffer.requests.size(), buffer.index);
+        final List<DocWriteRequest> requests = buffer.requests;
+        bufferedBytes -= buffer.bytes;
+        buffer.clear();
+        requestSender.indexDocuments(requests, bulkSize);
+        sentDocuments += requests.size();
+    }
+
+    static long estimateSize(final DocWriteRequest request) {
+        if (request instanceof IndexRequest && ((IndexRequest) request).source() != null) {
+            return ((IndexRequest) request).source().length() + REQUEST_OVERHEAD;
+        }
+        return REQUEST_OVERHEAD;
+    }
+
+    private static final class IndexBuffer {
+
+        private final String index;
+        private List<DocWriteRequest> requests = new ArrayList<>();
+        private long bytes;
+
+        IndexBuffer(final String index) {
+            this.index = index;
+        }
+
+        void add(final DocWriteRequest request, final long size) {
+            requests.add(request);
+            bytes += size;
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        void clear() {
+            requests = new ArrayList<>();
+            bytes = 0;
+        }
+    }
+}
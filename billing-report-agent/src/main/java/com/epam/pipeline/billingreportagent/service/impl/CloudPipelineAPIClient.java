@@ -29,11 +29,17 @@ import com.epam.pipeline.entity.user.PipelineUser;
 import com.epam.pipeline.exception.PipelineResponseException;
 import com.epam.pipeline.utils.QueryUtils;
 import com.epam.pipeline.vo.EntityVO;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class CloudPipelineAPIClient {
@@ -75,6 +81,20 @@ public class CloudPipelineAPIClient {
         return QueryUtils.execute(cloudPipelineAPI.loadNodeDisks(nodeId));
     }
 
+    /**
+     * Loads disks of several nodes with a single request.
+     *
+     * @return node disks grouped by node id, nodes without disks are not included
+     */
+    public Map<String, List<NodeDisk>> loadNodesDisks(final Collection<String> nodeIds) {
+        if (CollectionUtils.isEmpty(nodeIds)) {
+            return Collections.emptyMap();
+        }
+        return ListUtils.emptyIfNull(QueryUtils.execute(cloudPipelineAPI.loadNodesDisks(new ArrayList<>(nodeIds))))
+                .stream()
+                .collect(Collectors.groupingBy(NodeDisk::getNodeId));
+    }
+
     public List<AbstractCloudRegion> loadAllCloudRegions() {
         return QueryUtils.execute(cloudPipelineAPI.loadAllRegions());
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2020 EPAM Systems, Inc. (https://www.epam.com/)
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,20 +30,43 @@ import com.epam.pipeline.entity.pipeline.run.parameter.PipelineRunParameter;
 import com.epam.pipeline.entity.user.PipelineUser;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.ListUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Loads pipeline runs active in a period by {@code sync.run.load.step} day windows.
+ *
+ * Windows are loaded in parallel by {@code sync.run.load.threads} threads, at most that number of windows
+ * is kept in memory at once. Disks of all runs of a window are loaded with a single bulk request,
+ * instance offers are loaded once per region and shared between windows.
+ * Runs are streamed in the order of windows.
+ */
 @Component
 @Slf4j
 public class PipelineRunLoader implements EntityLoader<PipelineRunWithType> {
@@ -51,70 +74,117 @@ public class PipelineRunLoader implements EntityLoader<PipelineRunWithType> {
     private final CloudPipelineAPIClient apiClient;
     private final int loadStep;
     private final String billingOwnerParameter;
+    private final int loadThreads;
 
     public PipelineRunLoader(
             final CloudPipelineAPIClient apiClient,
             final @Value("${sync.run.load.step:30}") int loadStep,
-            final @Value("${sync.run.billing.owner.parameter:CP_BILLING_OWNER}") String billingOwnerParameter) {
+            final @Value("${sync.run.billing.owner.parameter:CP_BILLING_OWNER}") String billingOwnerParameter,
+            final @Value("${sync.run.load.threads:4}") int loadThreads) {
         this.apiClient = apiClient;
         this.loadStep = loadStep;
         this.billingOwnerParameter = billingOwnerParameter;
+        this.loadThreads = Math.max(1, loadThreads);
     }
 
     @Override
     public List<EntityContainer<PipelineRunWithType>> loadAllEntities() {
-        return loadAllEntitiesActiveInPeriod(LocalDate.ofEpochDay(0).atStartOfDay(), LocalDateTime.now());
+        try (Stream<EntityContainer<PipelineRunWithType>> runs = streamAllEntities()) {
+            return runs.collect(Collectors.toList());
+        }
     }
 
     @Override
     public List<EntityContainer<PipelineRunWithType>> loadAllEntitiesActiveInPeriod(final LocalDateTime from,
                                                                                     final LocalDateTime to) {
-        final Map<String, EntityWithMetadata<PipelineUser>> usersWithMetadata = prepareUsers(apiClient);
-
-        final List<PipelineRun> runs = getRuns(from, to);
+        try (Stream<EntityContainer<PipelineRunWithType>> runs = streamAllEntitiesActiveInPeriod(from, to)) {
+            return runs.collect(Collectors.toList());
+        }
+    }
 
-        final Map<Long, List<InstanceType>> regionOffers = runs.stream()
-                .map(PipelineRun::getInstance)
-                .map(RunInstance::getCloudRegionId)
-                .distinct()
-                .collect(Collectors
-                        .toMap(Function.identity(), apiClient::loadAllInstanceTypesForRegion));
+    @Override
+    public Stream<EntityContainer<PipelineRunWithType>> streamAllEntities() {
+        return streamAllEntitiesActiveInPeriod(LocalDate.ofEpochDay(0).atStartOfDay(), LocalDateTime.now());
+    }
 
-        return runs
-                .stream()
-                .map(run -> EntityContainer.<PipelineRunWithType>builder()
-                        .entity(new PipelineRunWithType(run, loadDisks(run), getRunType(run, regionOffers)))
-                        .owner(getOwner(run, usersWithMetadata))
-                        .build())
-                .collect(Collectors.toList());
+    @Override
+    public Stream<EntityContainer<PipelineRunWithType>> streamAllEntitiesActiveInPeriod(final LocalDateTime from,
+                                                                                       final LocalDateTime to) {
+        final Map<String, EntityWithMetadata<PipelineUser>> usersWithMetadata = prepareUsers(apiClient);
+        final Map<Long, List<InstanceType>> regionOffers = Collections.synchronizedMap(new HashMap<>());
+        final ExecutorService executor = Executors.newFixedThreadPool(loadThreads);
+        final WindowIterator windows = new WindowIterator(getWindows(from, to), executor, window ->
+                executor.submit(() -> loadWindow(window, usersWithMetadata, regionOffers)));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(windows, Spliterator.ORDERED), false)
+                .flatMap(List::stream)
+                .onClose(windows::cancel);
     }
 
-    private List<PipelineRun> getRuns(final LocalDateTime from, final LocalDateTime to) {
+    private List<Pair<LocalDateTime, LocalDateTime>> getWindows(final LocalDateTime from, final LocalDateTime to) {
         LocalDateTime start = from;
-        final List<PipelineRun> runs = new ArrayList<>();
+        final List<Pair<LocalDateTime, LocalDateTime>> windows = new ArrayList<>();
         while (start.isBefore(to)) {
             final LocalDateTime next = start.plusDays(loadStep).isAfter(to) ? to : start.plusDays(loadStep);
-            log.debug("Loading runs from {} to {}", start, next);
-            runs.addAll(
-                    ListUtils.emptyIfNull(
-                            apiClient.loadAllPipelineRunsActiveInPeriod(
-                                    DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(start),
-                                    DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(next))));
+            windows.add(Pair.of(start, next));
             start = next;
         }
-        return runs;
+        return windows;
+    }
+
+    private List<EntityContainer<PipelineRunWithType>> loadWindow(
+            final Pair<LocalDateTime, LocalDateTime> window,
+            final Map<String, EntityWithMetadata<PipelineUser>> usersWithMetadata,
+            final Map<Long, List<InstanceType>> regionOffers) {
+        log.debug("Loading runs from {} to {}", window.getLeft(), window.getRight());
+        final List<PipelineRun> runs = ListUtils.emptyIfNull(apiClient.loadAllPipelineRunsActiveInPeriod(
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(window.getLeft()),
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(window.getRight())));
+        final Map<String, List<NodeDisk>> disks = loadDisks(runs);
+        loadRegionOffers(runs, regionOffers);
+        return runs.stream()
+                .map(run -> EntityContainer.<PipelineRunWithType>builder()
+                        .entity(new PipelineRunWithType(run, getDisks(run, disks), getRunType(run, regionOffers)))
+                        .owner(getOwner(run, usersWithMetadata))
+                        .build())
+                .collect(Collectors.toList());
     }
 
-    private List<NodeDisk> loadDisks(final PipelineRun run) {
+    private Map<String, List<NodeDisk>> loadDisks(final List<PipelineRun> runs) {
+        final List<String> nodeIds = runs.stream()
+                .map(PipelineRun::getInstance)
+                .filter(Objects::nonNull)
+                .map(RunInstance::getNodeId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        // node ids are split into bounded queries by the api itself
+        return apiClient.loadNodesDisks(nodeIds);
+    }
+
+    private List<NodeDisk> getDisks(final PipelineRun run, final Map<String, List<NodeDisk>> disks) {
         return Optional.of(run)
                 .map(PipelineRun::getInstance)
                 .map(RunInstance::getNodeId)
-                .map(apiClient::loadNodeDisks)
+                .map(disks::get)
                 .orElseGet(Collections::emptyList);
     }
 
+    private void loadRegionOffers(final List<PipelineRun> runs, final Map<Long, List<InstanceType>> regionOffers) {
+        final List<Long> regionIds = runs.stream()
+                .map(PipelineRun::getInstance)
+                .map(RunInstance::getCloudRegionId)
+                .distinct()
+                .collect(Collectors.toList());
+        synchronized (regionOffers) {
+            regionIds.stream()
+                    .filter(regionId -> !regionOffers.containsKey(regionId))
+                    .forEach(regionId -> regionOffers.put(regionId,
+                            ListUtils.emptyIfNull(apiClient.loadAllInstanceTypesForRegion(regionId))));
+        }
+    }
+
     private ComputeType getRunType(final PipelineRun run, final Map<Long, List<InstanceType>> regionOffers) {
-        return regionOffers.get(run.getInstance().getCloudRegionId())
+        return regionOffers.getOrDefault(run.getInstance().getCloudRegionId(), Collections.emptyList())
                 .stream()
                 .filter(instanceOffer -> instanceOffer.getName().equals(run.getInstance().getNodeType()))
                 .findAny()
@@ -152,4 +222,72 @@ public class PipelineRunLoader implements EntityLoader<PipelineRunWithType> {
         return users.get(run.getOwner());
     }
 
+    /**
+     * Iterates over windows results keeping at most {@link #loadThreads} windows submitted
+     * for loading ahead of the consumer. The executor is shut down once all windows are consumed
+     * or the iteration is cancelled.
+     */
+    private final class WindowIterator implements Iterator<List<EntityContainer<PipelineRunWithType>>> {
+
+        private final Iterator<Pair<LocalDateTime, LocalDateTime>> windows;
+        private final ExecutorService executor;
+        private final Function<Pair<LocalDateTime, LocalDateTime>,
+                Future<List<EntityContainer<PipelineRunWithType>>>> loader;
+        private final Deque<Future<List<EntityContainer<PipelineRunWithType>>>> submitted = new ArrayDeque<>();
+
+        WindowIterator(final List<Pair<LocalDateTime, LocalDateTime>> windows,
+                       final ExecutorService executor,
+                       final Function<Pair<LocalDateTime, LocalDateTime>,
+                               Future<List<EntityContainer<PipelineRunWithType>>>> loader) {
+            this.windows = windows.iterator();
+            this.executor = executor;
+            this.loader = loader;
+            submit();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (submitted.isEmpty()) {
+                executor.shutdown();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public List<EntityContainer<PipelineRunWithType>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Future<List<EntityContainer<PipelineRunWithType>>> window = submitted.poll();
+            try {
+                return window.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new IllegalStateException("Runs loading was interrupted", e);
+            } catch (ExecutionException e) {
+                cancel();
+                throw new IllegalStateException("Runs loading has failed: " + e.getCause().getMessage(),
+                        e.getCause());
+            } finally {
+                submit();
+            }
+        }
+
+        void cancel() {
+            submitted.forEach(window -> window.cancel(true));
+            submitted.clear();
+            while (windows.hasNext()) {
+                windows.next();
+            }
+            executor.shutdownNow();
+        }
+
+        private void submit() {
+            while (submitted.size() < loadThreads && windows.hasNext()) {
+                submitted.add(loader.apply(windows.next()));
+            }
+        }
+    }
 }
@@ -23,37 +23,48 @@ import com.epam.pipeline.billingreportagent.service.ElasticsearchSynchronizer;
 import com.epam.pipeline.billingreportagent.service.ElasticsearchServiceClient;
 import com.epam.pipeline.billingreportagent.service.EntityLoader;
 import com.epam.pipeline.billingreportagent.service.EntityToBillingRequestConverter;
+import com.epam.pipeline.billingreportagent.service.impl.BulkDocumentBuffer;
 import com.epam.pipeline.billingreportagent.service.impl.BulkRequestSender;
 import com.epam.pipeline.billingreportagent.service.impl.ElasticIndexService;
 import com.epam.pipeline.billingreportagent.service.impl.converter.RunToBillingRequestConverter;
 import com.epam.pipeline.billingreportagent.service.impl.mapper.RunBillingMapper;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
 import org.elasticsearch.action.DocWriteRequest;
 
 import java.time.LocalDateTime;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Synchronizes pipeline run billings.
+ *
+ * Runs are streamed from the loader and their documents are routed to per index bulk buffers right away,
+ * so the memory footprint is limited by {@code bufferMemoryBudget} rather than by the number of runs.
+ */
 @Data
 @Slf4j
 public class PipelineRunSynchronizer implements ElasticsearchSynchronizer {
 
+    private static final int RUNS_CHUNK_SIZE = 1000;
+
     private final ElasticIndexService indexService;
     private final String indexPrefix;
     private final String pipelineRunIndexMappingFile;
     private final BulkRequestSender requestSender;
     private final EntityToBillingRequestConverter<PipelineRunWithType> runToBillingRequestConverter;
     private final EntityLoader<PipelineRunWithType> loader;
+    private final int bulkInsertSize;
+    private final long bufferMemoryBudget;
 
     public PipelineRunSynchronizer(final String pipelineRunIndexMappingFile,
                                    final String indexPrefix,
                                    final String pipelineRunIndexName,
                                    final Integer bulkInsertSize,
                                    final Long insertTimeout,
+                                   final Long bufferMemoryBudget,
                                    final ElasticsearchServiceClient elasticsearchServiceClient,
                                    final ElasticIndexService indexService,
                                    final RunBillingMapper mapper,
@@ -64,43 +75,49 @@ public class PipelineRunSynchronizer implements ElasticsearchSynchronizer {
         this.loader = loader;
         this.runToBillingRequestConverter = new RunToBillingRequestConverter(mapper);
         this.requestSender = new BulkRequestSender(elasticsearchServiceClient, bulkInsertSize, insertTimeout);
+        this.bulkInsertSize = bulkInsertSize;
+        this.bufferMemoryBudget = bufferMemoryBudget;
     }
 
     @Override
     public void synchronize(final LocalDateTime lastSyncTime, final LocalDateTime syncStart) {
         log.debug("Started pipeline run billing synchronization");
-        final List<EntityContainer<PipelineRunWithType>> pipelineRuns;
-        if (lastSyncTime == null) {
-            pipelineRuns = loader.loadAllEntities();
-        } else {
-            pipelineRuns = loader.loadAllEntitiesActiveInPeriod(lastSyncTime, syncStart);
+        long processedRuns = 0;
+        try (Stream<EntityContainer<PipelineRunWithType>> pipelineRuns = lastSyncTime == null
+                ? loader.streamAllEntities()
+                : loader.streamAllEntitiesActiveInPeriod(lastSyncTime, syncStart);
+             BulkDocumentBuffer buffer = new BulkDocumentBuffer(requestSender, bulkInsertSize,
+                     bufferMemoryBudget, this::createIndex)) {
+            final Iterator<EntityContainer<PipelineRunWithType>> runs = pipelineRuns.iterator();
+            while (runs.hasNext()) {
+                buffer.addAll(createPipelineRunBillings(runs.next(), lastSyncTime, syncStart));
+                processedRuns++;
+                if (processedRuns % RUNS_CHUNK_SIZE == 0) {
+                    log.info("{} run(s) processed, {} document(s) created, {} document(s) sent. "
+                                    + "Buffered: {} bytes, peak: {} bytes.", processedRuns,
+                            buffer.getAddedDocuments(), buffer.getSentDocuments(),
+                            buffer.getBufferedBytes(), buffer.getPeakBufferedBytes());
+                }
+            }
+            if (processedRuns == 0) {
+                log.debug("PipelineRun entities for synchronization were not found.");
+                return;
+            }
+            log.info("{} document requests created for {} run(s)", buffer.getAddedDocuments(), processedRuns);
         }
-        if (CollectionUtils.isEmpty(pipelineRuns)) {
-            log.debug("PipelineRun entities for synchronization were not found.");
-            return;
-        }
-        final List<DocWriteRequest> pipelineRunBillingRequests = pipelineRuns.stream()
-            .map(pipelineRun -> createPipelineRunBillings(pipelineRun, lastSyncTime, syncStart))
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList());
-
-        log.info("{} document requests created", pipelineRunBillingRequests.size());
-
-        pipelineRunBillingRequests.stream()
-                .collect(Collectors.groupingBy(DocWriteRequest::index))
-                .forEach((index, docs) -> {
-                    try {
-                        log.debug("Inserting {} document(s) into index {}.", docs.size(), index);
-                        indexService.createIndexIfNotExists(index, pipelineRunIndexMappingFile);
-                        requestSender.indexDocuments(docs);
-                    } catch (ElasticClientException e) {
-                        log.error("Can't create index {}!", index);
-                    }
-                });
-
         log.debug("Successfully finished runs billing synchronization.");
     }
 
+    private boolean createIndex(final String index) {
+        try {
+            indexService.createIndexIfNotExists(index, pipelineRunIndexMappingFile);
+            return true;
+        } catch (ElasticClientException e) {
+            log.error("Can't create index {}!", index);
+            return false;
+        }
+    }
+
     @SuppressWarnings("PMD.AvoidCatchingGenericException")
     private List<DocWriteRequest> createPipelineRunBillings(final EntityContainer<PipelineRunWithType> pipelineRun,
                                                             final LocalDateTime previousSync,
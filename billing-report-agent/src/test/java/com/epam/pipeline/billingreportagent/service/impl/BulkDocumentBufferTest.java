@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.billingreportagent.service.impl;
+
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SuppressWarnings("checkstyle:magicnumber")
+public class BulkDocumentBufferTest {
+
+    private static final String INDEX_1 = "index-1";
+    private static final String INDEX_2 = "index-2";
+    private static final String SOURCE = "{\"field\":\"value\"}";
+
+    private final BulkRequestSender requestSender = mock(BulkRequestSender.class);
+
+    @Test
+    public void shouldSendIndexBufferWhenBulkSizeIsReached() {
+        final BulkDocumentBuffer buffer = new BulkDocumentBuffer(requestSender, 2, 0, index -> true);
+
+        buffer.add(request(INDEX_1));
+        buffer.add(request(INDEX_2));
+        verify(requestSender, never()).indexDocuments(anyList(), anyInt());
+
+        buffer.add(request(INDEX_1));
+        verify(requestSender).indexDocuments(argThat(requests -> isBulk(requests, INDEX_1, 2)), eq(2));
+
+        buffer.close();
+        verify(requestSender).indexDocuments(argThat(requests -> isBulk(requests, INDEX_2, 1)), eq(2));
+        assertThat(buffer.getSentDocuments(), is(3L));
+        assertThat(buffer.getBufferedBytes(), is(0L));
+    }
+
+    @Test
+    public void shouldSendLargestBufferWhenMemoryBudgetIsExceeded() {
+        final long requestSize = BulkDocumentBuffer.estimateSize(request(INDEX_1));
+        final BulkDocumentBuffer buffer = new BulkDocumentBuffer(requestSender, 100, requestSize * 3,
+            index -> true);
+
+        buffer.add(request(INDEX_1));
+        buffer.add(request(INDEX_1));
+        buffer.add(request(INDEX_2));
+        verify(requestSender, never()).indexDocuments(anyList(), anyInt());
+
+        buffer.add(request(INDEX_1));
+        verify(requestSender).indexDocuments(argThat(requests -> isBulk(requests, INDEX_1, 3)), eq(100));
+        assertThat(buffer.getBufferedBytes(), is(requestSize));
+        assertTrue(buffer.getPeakBufferedBytes() <= requestSize * 4);
+    }
+
+    @Test
+    public void shouldSkipDocumentsOfIndexWhichCannotBeInitialized() {
+        final BulkDocumentBuffer buffer = new BulkDocumentBuffer(requestSender, 1, 0,
+            index -> !INDEX_2.equals(index));
+
+        buffer.add(request(INDEX_2));
+        buffer.add(request(INDEX_1));
+        buffer.close();
+
+        verify(requestSender, times(1)).indexDocuments(anyList(), anyInt());
+        verify(requestSender).indexDocuments(argThat(requests -> isBulk(requests, INDEX_1, 1)), eq(1));
+        assertThat(buffer.getAddedDocuments(), is(1L));
+    }
+
+    private static boolean isBulk(final List<DocWriteRequest> requests, final String index, final int size) {
+        return requests.size() == size && requests.stream().allMatch(request -> index.equals(request.index()));
+    }
+
+    private static DocWriteRequest request(final String index) {
+        return new IndexRequest(index, "_doc").source(SOURCE, XContentType.JSON);
+    }
+}
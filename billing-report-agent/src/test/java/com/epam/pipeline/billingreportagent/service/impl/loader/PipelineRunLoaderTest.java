@@ -0,0 +1,142 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.billingreportagent.service.impl.loader;
+
+import com.epam.pipeline.billingreportagent.model.ComputeType;
+import com.epam.pipeline.billingreportagent.model.EntityContainer;
+import com.epam.pipeline.billingreportagent.model.PipelineRunWithType;
+import com.epam.pipeline.billingreportagent.service.impl.CloudPipelineAPIClient;
+import com.epam.pipeline.billingreportagent.service.impl.TestUtils;
+import com.epam.pipeline.entity.cluster.InstanceType;
+import com.epam.pipeline.entity.pipeline.PipelineRun;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class PipelineRunLoaderTest {
+
+    private static final int LOAD_STEP = 10;
+    private static final int LOAD_THREADS = 4;
+    private static final String BILLING_OWNER_PARAMETER = "CP_BILLING_OWNER";
+    private static final Long REGION_ID = 1L;
+    private static final String CPU_NODE_TYPE = "cpu.node";
+    private static final String GPU_NODE_TYPE = "gpu.node";
+    private static final String TEST_TOOL_IMAGE = "cp/tool:latest";
+    private static final LocalDateTime FROM = LocalDateTime.of(2021, 1, 1, 0, 0);
+    private static final LocalDateTime SECOND_WINDOW_START = FROM.plusDays(LOAD_STEP);
+    private static final LocalDateTime THIRD_WINDOW_START = SECOND_WINDOW_START.plusDays(LOAD_STEP);
+    private static final LocalDateTime TO = THIRD_WINDOW_START.plusDays(LOAD_STEP / 2);
+    private static final long TIMEOUT_SECONDS = 10L;
+
+    private final CloudPipelineAPIClient apiClient = Mockito.mock(CloudPipelineAPIClient.class);
+    private final PipelineRunLoader loader =
+            new PipelineRunLoader(apiClient, LOAD_STEP, BILLING_OWNER_PARAMETER, LOAD_THREADS);
+
+    @Test
+    public void shouldLoadRunsByWindowsOfPeriod() {
+        loader.loadAllEntitiesActiveInPeriod(FROM, TO);
+
+        Mockito.verify(apiClient).loadAllPipelineRunsActiveInPeriod(format(FROM), format(SECOND_WINDOW_START));
+        Mockito.verify(apiClient).loadAllPipelineRunsActiveInPeriod(format(SECOND_WINDOW_START),
+                format(THIRD_WINDOW_START));
+        Mockito.verify(apiClient).loadAllPipelineRunsActiveInPeriod(format(THIRD_WINDOW_START), format(TO));
+        Mockito.verify(apiClient, Mockito.times(3))
+                .loadAllPipelineRunsActiveInPeriod(Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void shouldReturnRunsInOrderOfWindowsEvenIfLaterWindowsAreLoadedFirst() {
+        final CountDownLatch lastWindowLoaded = new CountDownLatch(1);
+        Mockito.when(apiClient.loadAllPipelineRunsActiveInPeriod(format(FROM), format(SECOND_WINDOW_START)))
+                .thenAnswer(invocation -> {
+                    lastWindowLoaded.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    return Collections.singletonList(run(1L, REGION_ID, CPU_NODE_TYPE));
+                });
+        Mockito.when(apiClient.loadAllPipelineRunsActiveInPeriod(format(SECOND_WINDOW_START),
+                format(THIRD_WINDOW_START)))
+                .thenReturn(Collections.singletonList(run(2L, REGION_ID, CPU_NODE_TYPE)));
+        Mockito.when(apiClient.loadAllPipelineRunsActiveInPeriod(format(THIRD_WINDOW_START), format(TO)))
+                .thenAnswer(invocation -> {
+                    lastWindowLoaded.countDown();
+                    return Collections.singletonList(run(3L, REGION_ID, CPU_NODE_TYPE));
+                });
+
+        final List<Long> runIds = loader.loadAllEntitiesActiveInPeriod(FROM, TO).stream()
+                .map(container -> container.getEntity().getPipelineRun().getId())
+                .collect(Collectors.toList());
+
+        Assertions.assertEquals(Arrays.asList(1L, 2L, 3L), runIds);
+    }
+
+    @Test
+    public void shouldFailIfAnyWindowCanNotBeLoaded() {
+        final IllegalArgumentException error = new IllegalArgumentException("window");
+        Mockito.when(apiClient.loadAllPipelineRunsActiveInPeriod(format(SECOND_WINDOW_START),
+                format(THIRD_WINDOW_START)))
+                .thenThrow(error);
+
+        final IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+            () -> loader.loadAllEntitiesActiveInPeriod(FROM, TO));
+        Assertions.assertSame(error, exception.getCause());
+    }
+
+    @Test
+    public void shouldLoadInstanceOffersOncePerRegionIncludingRunsWithoutRegion() {
+        Mockito.when(apiClient.loadAllPipelineRunsActiveInPeriod(format(FROM), format(SECOND_WINDOW_START)))
+                .thenReturn(Arrays.asList(run(1L, REGION_ID, GPU_NODE_TYPE), run(2L, null, GPU_NODE_TYPE)));
+        Mockito.when(apiClient.loadAllPipelineRunsActiveInPeriod(format(SECOND_WINDOW_START),
+                format(THIRD_WINDOW_START)))
+                .thenReturn(Arrays.asList(run(3L, REGION_ID, CPU_NODE_TYPE), run(4L, null, CPU_NODE_TYPE)));
+        Mockito.when(apiClient.loadAllInstanceTypesForRegion(REGION_ID)).thenReturn(offers());
+        Mockito.when(apiClient.loadAllInstanceTypesForRegion(null)).thenReturn(offers());
+
+        final List<ComputeType> types = loader.loadAllEntitiesActiveInPeriod(FROM, TO).stream()
+                .map(EntityContainer::getEntity)
+                .map(PipelineRunWithType::getRunType)
+                .collect(Collectors.toList());
+
+        Assertions.assertEquals(Arrays.asList(ComputeType.GPU, ComputeType.GPU, ComputeType.CPU, ComputeType.CPU),
+                types);
+        Mockito.verify(apiClient).loadAllInstanceTypesForRegion(REGION_ID);
+        Mockito.verify(apiClient).loadAllInstanceTypesForRegion(null);
+    }
+
+    private List<InstanceType> offers() {
+        return Arrays.asList(
+                InstanceType.builder().name(CPU_NODE_TYPE).gpu(0).build(),
+                InstanceType.builder().name(GPU_NODE_TYPE).gpu(1).build());
+    }
+
+    private PipelineRun run(final Long id, final Long regionId, final String nodeType) {
+        return TestUtils.createTestPipelineRun(id, null, TEST_TOOL_IMAGE, BigDecimal.ONE,
+                TestUtils.createTestInstance(regionId, nodeType));
+    }
+
+    private String format(final LocalDateTime date) {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(date);
+    }
+}
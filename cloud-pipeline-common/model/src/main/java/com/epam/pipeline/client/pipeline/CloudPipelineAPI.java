@@ -243,6 +243,9 @@ public interface CloudPipelineAPI {
     @GET("cluster/node/{id}/disks")
     Call<Result<List<NodeDisk>>> loadNodeDisks(@Path(ID) String nodeId);
 
+    @POST("cluster/node/disks")
+    Call<Result<List<NodeDisk>>> loadNodesDisks(@Body List<String> nodeIds);
+
     @GET("cluster/pool")
     Call<Result<List<NodePool>>> loadNodePools();
 
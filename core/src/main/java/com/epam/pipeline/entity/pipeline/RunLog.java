@@ -30,6 +30,7 @@ import java.util.Date;
 @NoArgsConstructor
 @AllArgsConstructor
 public class RunLog {
+    private Long id;
     private Long runId;
     private Date date;
     private TaskStatus status;
@@ -18,7 +18,9 @@ package com.epam.dockercompscan;
 
 import com.epam.dockercompscan.config.WEBMVCConfiguration;
 import com.epam.dockercompscan.util.LayerScanCache;
+import com.epam.dockercompscan.util.LayerScanStore;
 import okhttp3.OkHttpClient;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -52,6 +54,12 @@ public class DockerComponentScanApplication {
     @Value("${number.cached.scans:50}")
     private int numberOfCachedScans;
 
+    @Value("${layer.scan.store.dir:}")
+    private String layerScanStoreDir;
+
+    @Value("${layer.scan.store.expire.days:30}")
+    private int layerScanStoreExpireDays;
+
     @Value("${ssl.insecure.enable}")
     private boolean sslInsecureEnable;
 
@@ -105,7 +113,12 @@ public class DockerComponentScanApplication {
 
     @Bean
     public LayerScanCache layerScanCache() {
-        return new LayerScanCache(expireCacheTime, numberOfCachedScans);
+        if (StringUtils.isBlank(layerScanStoreDir)) {
+            return new LayerScanCache(expireCacheTime, numberOfCachedScans);
+        }
+        LOGGER.info("Layer scan results are stored in: " + layerScanStoreDir);
+        return new LayerScanCache(expireCacheTime, numberOfCachedScans,
+                new LayerScanStore(layerScanStoreDir, layerScanStoreExpireDays));
     }
 
     @Bean
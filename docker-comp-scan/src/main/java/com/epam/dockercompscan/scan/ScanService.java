@@ -50,6 +50,10 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.zip.GZIPInputStream;
 
@@ -75,6 +79,9 @@ public class ScanService {
 
     private Semaphore scanSlots;
 
+    private final ConcurrentMap<String, CompletableFuture<LayerScanResult>> runningScans =
+            new ConcurrentHashMap<>();
+
     @PostConstruct
     public void init() {
         scanSlots = new Semaphore(numberOfScanningThreads);
@@ -108,41 +115,84 @@ public class ScanService {
         return new ImageScanResult(id, layers);
     }
 
+    /**
+     * Scans a layer unless it was already scanned successfully. Concurrent requests for the same layer
+     * are deduplicated: only the first request performs the scan and the others wait for its result.
+     */
     public LayerScanResult scan(final ScanRequest request) {
         LOGGER.debug("Register ScanRequset with layer: " + request.getLayer());
         ScanRequest.Layer toScan = request.getLayer();
 
         LayerKey cacheKey = LayerKey.create(toScan.getName(), toScan.getParentName());
         LayerScanResult result = layerScanCache.getIfPresent(cacheKey);
+        if (result != null && result.getStatus() == LayerScanResult.Status.SUCCESSFUL) {
+            return result;
+        }
 
-        if (result == null || result.getStatus() == LayerScanResult.Status.FAILURE) {
-            result = new LayerScanResult(toScan.getName(), LayerScanResult.Status.RUNNING, toScan.getParentName());
+        CompletableFuture<LayerScanResult> scan = new CompletableFuture<>();
+        CompletableFuture<LayerScanResult> runningScan = runningScans.putIfAbsent(cacheKey.getName(), scan);
+        if (runningScan != null) {
+            LOGGER.debug("Layer: " + toScan.getName() + " is already being scanned, waiting for the result");
+            return await(runningScan);
+        }
+        try {
+            result = layerScanCache.getIfPresent(cacheKey);
+            if (result == null || result.getStatus() != LayerScanResult.Status.SUCCESSFUL) {
+                result = scanLayer(toScan, cacheKey);
+            }
+            scan.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            scan.completeExceptionally(e);
+            throw e;
+        } finally {
+            runningScans.remove(cacheKey.getName(), scan);
+        }
+    }
+
+    private LayerScanResult scanLayer(final ScanRequest.Layer toScan, final LayerKey cacheKey) {
+        LayerScanResult result = new LayerScanResult(toScan.getName(), LayerScanResult.Status.RUNNING,
+                toScan.getParentName());
+        layerScanCache.put(cacheKey, result);
+
+        File outputFolder = new File(baseWorkingDir, toScan.getName());
+        try {
+            scanSlots.acquire();
+            Files.createDirectories(Paths.get(outputFolder.getPath()));
+            fetchLayer(toScan, outputFolder);
+            List<Dependency> dependencies = checkService.runScan(outputFolder);
+            dependencies.forEach(d -> d.setLayerId(toScan.getName()));
+            result.setDependencies(dependencies);
+            result.setStatus(LayerScanResult.Status.SUCCESSFUL);
             layerScanCache.put(cacheKey, result);
+        } catch (IOException e) {
+            LOGGER.error(e.getMessage(), e);
+            result.setStatus(LayerScanResult.Status.FAILURE);
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error(e.getMessage(), e);
+            result.setStatus(LayerScanResult.Status.FAILURE);
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        } finally {
+            FileUtils.deleteQuietly(outputFolder);
+            scanSlots.release();
+        }
+        return result;
+    }
 
-            File outputFolder = new File(baseWorkingDir, toScan.getName());
-            try {
-                scanSlots.acquire();
-                Files.createDirectories(Paths.get(outputFolder.getPath()));
-                fetchLayer(toScan, outputFolder);
-                List<Dependency> dependencies = checkService.runScan(outputFolder);
-                dependencies.forEach(d -> d.setLayerId(toScan.getName()));
-                result.setDependencies(dependencies);
-                result.setStatus(LayerScanResult.Status.SUCCESSFUL);
-            } catch (IOException e) {
-                LOGGER.error(e.getMessage(), e);
-                result.setStatus(LayerScanResult.Status.FAILURE);
-                throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                LOGGER.error(e.getMessage(), e);
-                result.setStatus(LayerScanResult.Status.FAILURE);
-                throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
-            } finally {
-                FileUtils.deleteQuietly(outputFolder);
-                scanSlots.release();
+    private LayerScanResult await(final CompletableFuture<LayerScanResult> runningScan) {
+        try {
+            return runningScan.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, e.getCause().getMessage());
         }
-        return result;
     }
 
     private void fetchLayer(ScanRequest.Layer layerToScan, File layerFolder) throws IOException {
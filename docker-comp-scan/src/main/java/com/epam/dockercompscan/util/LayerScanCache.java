@@ -1,5 +1,5 @@
 /*
- * Copyright 2017-2019 EPAM Systems, Inc. (https://www.epam.com/)
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,7 +32,19 @@ public class LayerScanCache {
 
     private final Cache<String, LayerScanResult> byNames;
 
+    @Nullable
+    private final LayerScanStore store;
+
     public LayerScanCache(int expireCacheTime, int numberOfCachedScans) {
+        this(expireCacheTime, numberOfCachedScans, null);
+    }
+
+    /**
+     * @param store a persistent storage of successful scan results, which is used when
+     *              a result is not present in memory, if it is {@code null} only in-memory cache is used
+     */
+    public LayerScanCache(int expireCacheTime, int numberOfCachedScans, @Nullable LayerScanStore store) {
+        this.store = store;
         byParents = CacheBuilder.newBuilder()
                 .maximumSize(MAX_NUMBER_OF_LAYERS_PER_IMAGE * numberOfCachedScans)
                 .expireAfterWrite(expireCacheTime * SECONDS_IN_HOUR + 1, TimeUnit.SECONDS)
@@ -47,13 +59,16 @@ public class LayerScanCache {
     @Nullable
     public LayerScanResult getIfPresent(LayerKey key) {
         if (key.getName() != null) {
-            return byNames.getIfPresent(key.getName());
+            return getByName(key.getName());
         } else {
-            String nameByParent = byParents.getIfPresent(key.getParentName());
-            return nameByParent != null ? byNames.getIfPresent(nameByParent) : null;
+            String nameByParent = getNameByParent(key.getParentName());
+            return nameByParent != null ? getByName(nameByParent) : null;
         }
     }
 
+    /**
+     * Puts a scan result into the cache. Successful results are also saved to the persistent store.
+     */
     public synchronized void put(LayerKey key, LayerScanResult value) {
         if (key.getParentName() != null) {
             byParents.put(key.getParentName(), value.getLayerId());
@@ -61,6 +76,9 @@ public class LayerScanCache {
         if (key.getName() != null){
             byNames.put(key.getName(), value);
         }
+        if (store != null && value.getStatus() == LayerScanResult.Status.SUCCESSFUL) {
+            store.save(key, value);
+        }
     }
 
     public long size() {
@@ -70,6 +88,37 @@ public class LayerScanCache {
     public void cleanUp() {
         byParents.cleanUp();
         byNames.cleanUp();
+        if (store != null) {
+            store.cleanUp();
+        }
+    }
+
+    @Nullable
+    private LayerScanResult getByName(String name) {
+        LayerScanResult result = byNames.getIfPresent(name);
+        if (result != null || store == null) {
+            return result;
+        }
+        return store.findByName(name)
+                .map(stored -> {
+                    byNames.put(name, stored);
+                    return stored;
+                })
+                .orElse(null);
+    }
+
+    @Nullable
+    private String getNameByParent(String parentName) {
+        String name = byParents.getIfPresent(parentName);
+        if (name != null || store == null) {
+            return name;
+        }
+        return store.findNameByParent(parentName)
+                .map(stored -> {
+                    byParents.put(parentName, stored);
+                    return stored;
+                })
+                .orElse(null);
     }
 
 }
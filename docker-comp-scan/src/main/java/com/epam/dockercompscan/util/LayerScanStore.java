@@ -0,0 +1,172 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.dockercompscan.util;
+
+import com.epam.dockercompscan.scan.domain.LayerScanResult;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A persistent storage of successful layer scan results keyed by layer digests.
+ *
+ * Each result is kept as a json file in {@code layers} subdirectory of the store directory,
+ * parent to child layer links are kept in {@code parents} subdirectory. Files are replaced atomically,
+ * so the same directory can be shared by several service replicas, e.g. on a network file system.
+ */
+public class LayerScanStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LayerScanStore.class);
+    private static final String LAYERS_DIR = "layers";
+    private static final String PARENTS_DIR = "parents";
+
+    private final Path layersDir;
+    private final Path parentsDir;
+    private final long expirationMillis;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    /**
+     * @param expireDays number of days results are kept in the store, non positive value disables expiration
+     */
+    public LayerScanStore(final String storeDir, final int expireDays) {
+        this.layersDir = Paths.get(storeDir, LAYERS_DIR);
+        this.parentsDir = Paths.get(storeDir, PARENTS_DIR);
+        this.expirationMillis = expireDays > 0 ? TimeUnit.DAYS.toMillis(expireDays) : 0;
+        try {
+            Files.createDirectories(layersDir);
+            Files.createDirectories(parentsDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Layer scan store directory cannot be created: " + storeDir, e);
+        }
+    }
+
+    public Optional<LayerScanResult> findByName(final String name) {
+        return read(layersDir.resolve(fileName(name)))
+                .map(this::parse);
+    }
+
+    public Optional<String> findNameByParent(final String parentName) {
+        return read(parentsDir.resolve(fileName(parentName)))
+                .map(content -> new String(content, StandardCharsets.UTF_8));
+    }
+
+    public void save(final LayerKey key, final LayerScanResult result) {
+        try {
+            if (key.getName() != null) {
+                write(layersDir.resolve(fileName(key.getName())), mapper.writeValueAsBytes(result));
+            }
+            if (key.getParentName() != null && result.getLayerId() != null) {
+                write(parentsDir.resolve(fileName(key.getParentName())),
+                        result.getLayerId().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            LOGGER.error("Layer scan result cannot be stored: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Deletes expired results from the store.
+     */
+    public void cleanUp() {
+        if (expirationMillis <= 0) {
+            return;
+        }
+        Stream.of(layersDir, parentsDir).forEach(dir -> {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(this::isExpired).forEach(this::deleteQuietly);
+            } catch (IOException e) {
+                LOGGER.error("Layer scan store cannot be cleaned up: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    private Optional<byte[]> read(final Path file) {
+        try {
+            if (!Files.exists(file)) {
+                return Optional.empty();
+            }
+            if (isExpired(file)) {
+                deleteQuietly(file);
+                return Optional.empty();
+            }
+            return Optional.of(Files.readAllBytes(file));
+        } catch (IOException e) {
+            LOGGER.error("Layer scan store file " + file + " cannot be read: " + e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    private LayerScanResult parse(final byte[] content) {
+        try {
+            return mapper.readValue(content, LayerScanResult.class);
+        } catch (IOException e) {
+            LOGGER.error("Layer scan result cannot be parsed: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void write(final Path file, final byte[] content) throws IOException {
+        final Path tmp = file.resolveSibling(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.write(tmp, content);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private boolean isExpired(final Path file) {
+        try {
+            return expirationMillis > 0
+                    && System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() > expirationMillis;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void deleteQuietly(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Layer scan store file " + file + " cannot be deleted: " + e.getMessage());
+        }
+    }
+
+    private static String fileName(final String layerName) {
+        try {
+            return URLEncoder.encode(layerName, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
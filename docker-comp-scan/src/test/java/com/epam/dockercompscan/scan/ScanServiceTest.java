@@ -39,11 +39,19 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class ScanServiceTest extends AbstractSpringTest {
 
     private static final int SLEEP_PERIOD = 2_000;
     private static final int BUFFER_SIZE = 1_000_000;
+    private static final int WAIT_TIMEOUT_SECONDS = 10;
     private ClassLoader classLoader = DependencyCheckServiceTest.class.getClassLoader();
 
     private ScanRequest headTestLayer;
@@ -97,6 +105,52 @@ public class ScanServiceTest extends AbstractSpringTest {
         scanService.loadImageScan(headTestLayer.getLayer().getName());
     }
 
+    @Test
+    public void concurrentScansOfTheSameLayerShouldRunOnceTest() throws Exception {
+        final ScanRequest request = getLayer("sha256:" + UUID.randomUUID(), "http://false-docker.io", null);
+        final byte[] layerContent = getLayerContent("owasp/analyzer/negative");
+        final CountDownLatch fetchStarted = new CountDownLatch(1);
+        final CountDownLatch fetchReleased = new CountDownLatch(1);
+        Mockito.when(registryService.getDockerLayerBlob(request.getLayer())).thenAnswer(invocation -> {
+            fetchStarted.countDown();
+            fetchReleased.await(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            return new ByteArrayInputStream(layerContent);
+        });
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<LayerScanResult> first = executor.submit(() -> scanService.scan(request));
+            Assert.assertTrue(fetchStarted.await(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+            final AtomicReference<Thread> secondThread = new AtomicReference<>();
+            final Future<LayerScanResult> second = executor.submit(() -> {
+                secondThread.set(Thread.currentThread());
+                return scanService.scan(request);
+            });
+            waitUntilBlocked(secondThread);
+            fetchReleased.countDown();
+
+            final LayerScanResult firstResult = first.get(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            final LayerScanResult secondResult = second.get(WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            Assert.assertSame(firstResult, secondResult);
+            Assert.assertEquals(LayerScanResult.Status.SUCCESSFUL, firstResult.getStatus());
+            Mockito.verify(registryService, Mockito.times(1)).getDockerLayerBlob(request.getLayer());
+        } finally {
+            fetchReleased.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void waitUntilBlocked(final AtomicReference<Thread> thread) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(WAIT_TIMEOUT_SECONDS);
+        while (thread.get() == null || thread.get().getState() != Thread.State.WAITING) {
+            Assert.assertTrue("Concurrent scan request is not waiting for the running scan",
+                    System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
     private static ScanRequest getLayer(String name, String path, String parentName) {
         ScanRequest.Layer layer = new ScanRequest.Layer();
         layer.setName(name);
@@ -109,6 +163,11 @@ public class ScanServiceTest extends AbstractSpringTest {
 
 
     private void mockDockerLayer(String s, ScanRequest headTestLayer) throws IOException, URISyntaxException {
+        Mockito.when(registryService.getDockerLayerBlob(headTestLayer.getLayer()))
+                .thenReturn(new ByteArrayInputStream(getLayerContent(s)));
+    }
+
+    private byte[] getLayerContent(String s) throws IOException, URISyntaxException {
         try (ByteArrayOutputStream layer = new ByteArrayOutputStream(BUFFER_SIZE);
             TarArchiveOutputStream tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(layer))) {
             Files.walk(Paths.get(classLoader.getResource(s).toURI()))
@@ -126,9 +185,7 @@ public class ScanServiceTest extends AbstractSpringTest {
                      }
                  });
             tar.close();
-
-            Mockito.when(registryService.getDockerLayerBlob(headTestLayer.getLayer()))
-                    .thenReturn(new ByteArrayInputStream(layer.toByteArray()));
+            return layer.toByteArray();
         }
     }
 }
\ No newline at end of file
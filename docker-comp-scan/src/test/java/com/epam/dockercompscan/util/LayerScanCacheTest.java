@@ -0,0 +1,79 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.dockercompscan.util;
+
+import com.epam.dockercompscan.scan.domain.Dependency;
+import com.epam.dockercompscan.scan.domain.LayerScanResult;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collections;
+
+public class LayerScanCacheTest {
+
+    private static final int EXPIRE_TIME = 1;
+    private static final int CACHED_SCANS = 10;
+    private static final String PARENT = "sha256:parent";
+    private static final String LAYER = "sha256:layer";
+    private static final String DEPENDENCY = "dependency";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void successfulResultShouldBeAvailableAfterRestart() {
+        LayerScanCache cache = createCache();
+        cache.put(LayerKey.create(LAYER, PARENT), successfulResult());
+
+        LayerScanCache restartedCache = createCache();
+
+        LayerScanResult byName = restartedCache.getIfPresent(LayerKey.withName(LAYER));
+        Assert.assertNotNull(byName);
+        Assert.assertEquals(LayerScanResult.Status.SUCCESSFUL, byName.getStatus());
+        Assert.assertEquals(PARENT, byName.getParentId());
+        Assert.assertEquals(DEPENDENCY, byName.getDependencies().get(0).getName());
+        LayerScanResult byParent = restartedCache.getIfPresent(LayerKey.withParent(PARENT));
+        Assert.assertNotNull(byParent);
+        Assert.assertEquals(LAYER, byParent.getLayerId());
+    }
+
+    @Test
+    public void runningResultShouldNotBeStored() {
+        LayerScanCache cache = createCache();
+        cache.put(LayerKey.create(LAYER, PARENT),
+                new LayerScanResult(LAYER, LayerScanResult.Status.RUNNING, PARENT));
+
+        Assert.assertNotNull(cache.getIfPresent(LayerKey.withName(LAYER)));
+        Assert.assertNull(createCache().getIfPresent(LayerKey.withName(LAYER)));
+    }
+
+    private LayerScanCache createCache() {
+        return new LayerScanCache(EXPIRE_TIME, CACHED_SCANS,
+                new LayerScanStore(folder.getRoot().getAbsolutePath(), EXPIRE_TIME));
+    }
+
+    private static LayerScanResult successfulResult() {
+        Dependency dependency = new Dependency();
+        dependency.setName(DEPENDENCY);
+        dependency.setLayerId(LAYER);
+        LayerScanResult result = new LayerScanResult(LAYER, LayerScanResult.Status.SUCCESSFUL, PARENT);
+        result.setDependencies(Collections.singletonList(dependency));
+        return result;
+    }
+}
@@ -22,6 +22,7 @@ import com.epam.pipeline.elasticsearchagent.service.ObjectStorageIndex;
 import com.epam.pipeline.elasticsearchagent.service.impl.AzureBlobManager;
 import com.epam.pipeline.elasticsearchagent.service.impl.CloudPipelineAPIClient;
 import com.epam.pipeline.elasticsearchagent.service.impl.ElasticIndexService;
+import com.epam.pipeline.elasticsearchagent.service.impl.IndexRequestContainerFactory;
 import com.epam.pipeline.elasticsearchagent.service.impl.ObjectStorageIndexImpl;
 import com.epam.pipeline.entity.datastorage.DataStorageType;
 import com.epam.pipeline.entity.search.SearchDocumentType;
@@ -46,6 +47,15 @@ public class AzureFileSyncConfiguration {
     @Value("${sync.az-blob.bulk.load.tags.size:100}")
     private Integer bulkLoadTagsSize;
 
+    @Value("${sync.az-blob.index.threads:1}")
+    private Integer indexThreads;
+
+    @Value("${sync.az-blob.index.incremental:false}")
+    private boolean incrementalIndex;
+
+    @Value("${sync.az-blob.index.full.rebuild.interval.hours:24}")
+    private Integer fullRebuildIntervalHours;
+
     @Value("${sync.az-blob.index.name}")
     private String indexName;
 
@@ -60,11 +70,13 @@ public class AzureFileSyncConfiguration {
             final CloudPipelineAPIClient apiClient,
             final ElasticsearchServiceClient esClient,
             final ElasticIndexService indexService,
+            final IndexRequestContainerFactory requestContainerFactory,
             final @Qualifier("azFileManager") ObjectStorageFileManager azFileManager) {
-        return new ObjectStorageIndexImpl(apiClient, esClient, indexService,
+        return new ObjectStorageIndexImpl(apiClient, esClient, indexService, requestContainerFactory,
                 azFileManager, indexPrefix + indexName,
                 indexSettingsPath, bulkInsertSize, bulkLoadTagsSize,
                 DataStorageType.AZ,
-                SearchDocumentType.AZ_BLOB_FILE);
+                SearchDocumentType.AZ_BLOB_FILE,
+                indexThreads, incrementalIndex, fullRebuildIntervalHours);
     }
 }
@@ -45,6 +45,15 @@ public class GSFileSyncConfiguration {
     @Value("${sync.gs-file.bulk.load.tags.size:100}")
     private Integer bulkLoadTagsSize;
 
+    @Value("${sync.gs-file.index.threads:1}")
+    private Integer indexThreads;
+
+    @Value("${sync.gs-file.index.incremental:false}")
+    private boolean incrementalIndex;
+
+    @Value("${sync.gs-file.index.full.rebuild.interval.hours:24}")
+    private Integer fullRebuildIntervalHours;
+
     @Bean
     public ObjectStorageFileManager gsFileManager() {
         return new GsBucketFileManager();
@@ -56,12 +65,14 @@ public class GSFileSyncConfiguration {
             final CloudPipelineAPIClient apiClient,
             final ElasticsearchServiceClient esClient,
             final ElasticIndexService indexService,
+            final IndexRequestContainerFactory requestContainerFactory,
             final @Qualifier("gsFileManager") ObjectStorageFileManager gsFileManager) {
-        return new ObjectStorageIndexImpl(apiClient, esClient, indexService,
+        return new ObjectStorageIndexImpl(apiClient, esClient, indexService, requestContainerFactory,
                 gsFileManager, indexPrefix + indexName,
                 indexSettingsPath, bulkInsertSize, bulkLoadTagsSize,
                 DataStorageType.GS,
-                SearchDocumentType.GS_FILE);
+                SearchDocumentType.GS_FILE,
+                indexThreads, incrementalIndex, fullRebuildIntervalHours);
     }
 
 }
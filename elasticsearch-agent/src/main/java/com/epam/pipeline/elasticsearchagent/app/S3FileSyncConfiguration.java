@@ -21,6 +21,7 @@ import com.epam.pipeline.elasticsearchagent.service.ObjectStorageFileManager;
 import com.epam.pipeline.elasticsearchagent.service.ObjectStorageIndex;
 import com.epam.pipeline.elasticsearchagent.service.impl.CloudPipelineAPIClient;
 import com.epam.pipeline.elasticsearchagent.service.impl.ElasticIndexService;
+import com.epam.pipeline.elasticsearchagent.service.impl.IndexRequestContainerFactory;
 import com.epam.pipeline.elasticsearchagent.service.impl.ObjectStorageIndexImpl;
 import com.epam.pipeline.elasticsearchagent.service.impl.S3FileManager;
 import com.epam.pipeline.entity.datastorage.DataStorageType;
@@ -44,6 +45,12 @@ public class S3FileSyncConfiguration {
     private Integer bulkInsertSize;
     @Value("${sync.s3-file.bulk.load.tags.size:100}")
     private Integer bulkLoadTagsSize;
+    @Value("${sync.s3-file.index.threads:1}")
+    private Integer indexThreads;
+    @Value("${sync.s3-file.index.incremental:false}")
+    private boolean incrementalIndex;
+    @Value("${sync.s3-file.index.full.rebuild.interval.hours:24}")
+    private Integer fullRebuildIntervalHours;
 
     @Bean
     public ObjectStorageFileManager s3FileManager() {
@@ -56,12 +63,14 @@ public class S3FileSyncConfiguration {
             final CloudPipelineAPIClient apiClient,
             final ElasticsearchServiceClient esClient,
             final ElasticIndexService indexService,
+            final IndexRequestContainerFactory requestContainerFactory,
             final @Qualifier("s3FileManager") ObjectStorageFileManager s3FileManager) {
-        return new ObjectStorageIndexImpl(apiClient, esClient, indexService,
+        return new ObjectStorageIndexImpl(apiClient, esClient, indexService, requestContainerFactory,
                 s3FileManager, indexPrefix + indexName,
                 indexSettingsPath, bulkInsertSize, bulkLoadTagsSize,
                 DataStorageType.S3,
-                SearchDocumentType.S3_FILE);
+                SearchDocumentType.S3_FILE,
+                indexThreads, incrementalIndex, fullRebuildIntervalHours);
     }
 
 }
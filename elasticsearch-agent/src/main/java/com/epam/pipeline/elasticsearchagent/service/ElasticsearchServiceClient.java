@@ -35,5 +35,7 @@ public interface ElasticsearchServiceClient {
     String getIndexNameByAlias(String alias);
     SearchResponse search(SearchRequest request);
     SearchResponse nextScrollPage(String scrollId, Scroll scroll);
+    void clearScroll(String scrollId);
+    Long getIndexCreationDate(String indexName);
     MultiSearchResponse search(MultiSearchRequest request);
 }
@@ -45,7 +45,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.net.URL;
-import java.sql.Date;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -103,7 +102,7 @@ public class AzureBlobManager implements ObjectStorageFileManager {
         file.setName(blob.name());
         file.setPath(blob.name());
         file.setSize(blob.properties().contentLength());
-        file.setChanged(ESConstants.FILE_DATE_FORMAT.format(Date.from(blob.properties().lastModified().toInstant())));
+        file.setChanged(ESConstants.FILE_DATE_FORMAT.format(blob.properties().lastModified().toInstant()));
         if (blob.properties().accessTier() != null) {
             file.setLabels(Collections.singletonMap(ESConstants.STORAGE_CLASS_LABEL,
                     blob.properties().accessTier().toString()));
@@ -28,6 +28,7 @@ import org.elasticsearch.action.admin.indices.get.GetIndexRequest;
 import org.elasticsearch.action.admin.indices.get.GetIndexResponse;
 import org.elasticsearch.action.bulk.BulkRequest;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.search.ClearScrollRequest;
 import org.elasticsearch.action.search.MultiSearchRequest;
 import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchRequest;
@@ -35,6 +36,7 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.client.RequestOptions;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.rest.RestStatus;
@@ -46,6 +48,7 @@ import org.springframework.util.CollectionUtils;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -202,6 +205,31 @@ public class ElasticsearchServiceClientImpl implements ElasticsearchServiceClien
         }
     }
 
+    @Override
+    public void clearScroll(final String scrollId) {
+        final ClearScrollRequest clearScrollRequest = new ClearScrollRequest();
+        clearScrollRequest.addScrollId(scrollId);
+        try {
+            client.clearScroll(clearScrollRequest, RequestOptions.DEFAULT);
+        } catch (IOException e) {
+            throw new ElasticsearchException("Failed to clear scroll [{}]: {}", scrollId, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Long getIndexCreationDate(final String indexName) {
+        try {
+            final GetIndexRequest request = new GetIndexRequest();
+            request.indices(indexName);
+            final GetIndexResponse getIndexResponse = client.indices().get(request, RequestOptions.DEFAULT);
+            return Optional.ofNullable(getIndexResponse.getSetting(indexName, IndexMetaData.SETTING_CREATION_DATE))
+                    .map(Long::valueOf)
+                    .orElse(null);
+        } catch (IOException e) {
+            throw new ElasticsearchException("Failed to get index creation date:" + e.getMessage(), e);
+        }
+    }
+
     @Override
     public MultiSearchResponse search(final MultiSearchRequest request) {
         try {
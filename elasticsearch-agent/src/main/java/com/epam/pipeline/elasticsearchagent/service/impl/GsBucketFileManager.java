@@ -37,13 +37,13 @@ import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.time.Instant;
+import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TimeZone;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -56,11 +56,6 @@ public class GsBucketFileManager implements ObjectStorageFileManager {
     @Getter
     private final DataStorageType type = DataStorageType.GS;
 
-    static {
-        TimeZone tz = TimeZone.getTimeZone("UTC");
-        ESConstants.FILE_DATE_FORMAT.setTimeZone(tz);
-    }
-
     @Override
     public Stream<DataStorageFile> files(final String storage,
                                          final String path,
@@ -102,7 +97,8 @@ public class GsBucketFileManager implements ObjectStorageFileManager {
         @SneakyThrows
         public AccessToken refreshAccessToken() {
             credentials = credentialsSupplier.get();
-            final Date expirationDate = ESConstants.FILE_DATE_FORMAT.parse(credentials.getExpirationTime());
+            final Date expirationDate = Date.from(Instant.from(
+                    DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(credentials.getExpirationTime())));
             return new AccessToken(credentials.getToken(), expirationDate);
         }
         
@@ -130,7 +126,7 @@ public class GsBucketFileManager implements ObjectStorageFileManager {
         file.setName(blob.getName());
         file.setPath(blob.getName());
         file.setSize(blob.getSize());
-        file.setChanged(ESConstants.FILE_DATE_FORMAT.format(Date.from(Instant.ofEpochMilli(blob.getUpdateTime()))));
+        file.setChanged(ESConstants.FILE_DATE_FORMAT.format(Instant.ofEpochMilli(blob.getUpdateTime())));
         file.setVersion(null);
         file.setDeleteMarker(null);
         final Map<String, String> labels = new HashMap<>(MapUtils.emptyIfNull(blob.getMetadata()));
@@ -147,7 +143,7 @@ public class GsBucketFileManager implements ObjectStorageFileManager {
         file.setName(blob.getName());
         file.setPath(blob.getName());
         file.setSize(blob.getSize());
-        file.setChanged(ESConstants.FILE_DATE_FORMAT.format(Date.from(Instant.ofEpochMilli(blob.getUpdateTime()))));
+        file.setChanged(ESConstants.FILE_DATE_FORMAT.format(Instant.ofEpochMilli(blob.getUpdateTime())));
         file.setVersion(blob.getGeneration().toString());
         file.setDeleteMarker(false);
         file.setTags(blob.getMetadata());
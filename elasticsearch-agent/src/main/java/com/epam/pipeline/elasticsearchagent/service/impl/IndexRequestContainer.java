@@ -16,52 +16,280 @@
 package com.epam.pipeline.elasticsearchagent.service.impl;
 
 import com.epam.pipeline.elasticsearchagent.service.BulkRequestCreator;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.rest.RestStatus;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Accumulates document requests and sends them to elasticsearch in bulks.
+ *
+ * A bulk is sent once it reaches either {@code bulkSize} requests or {@code bulkBytes} bytes.
+ * If {@code concurrentRequests} is positive, bulks are sent in background and up to
+ * {@code concurrentRequests} bulks can be in flight simultaneously. Once the limit is reached
+ * {@link #add(DocWriteRequest)} blocks until one of the bulks is completed. The first error
+ * of a background bulk is rethrown from the following {@link #add(DocWriteRequest)} or {@link #close()} call.
+ *
+ * Items rejected by elasticsearch because of its overload are resent up to {@code retryAttempts} times,
+ * successfully processed items of a bulk are never resent.
+ */
 @Slf4j
 public class IndexRequestContainer implements AutoCloseable {
+
+    private static final int DEFAULT_REQUEST_BYTES = 128;
+
+    private final BulkRequestCreator bulkRequestCreator;
+    private final int bulkSize;
+    private final long bulkBytes;
+    private final int retryAttempts;
+    private final long retryDelay;
+    private final int concurrentRequests;
+    private final ExecutorService executor;
+    private final Semaphore inFlightRequests;
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    @Getter
+    private final Statistics statistics = new Statistics();
     private List<DocWriteRequest> requests;
-    private BulkRequestCreator bulkRequestCreator;
-    private Integer bulkSize;
+    private long requestsBytes;
 
     public IndexRequestContainer(BulkRequestCreator bulkRequestCreator, Integer bulkSize) {
+        this(bulkRequestCreator, bulkSize, 0L, 0, 0, 0L);
+    }
+
+    public IndexRequestContainer(final BulkRequestCreator bulkRequestCreator, final int bulkSize,
+                                 final long bulkBytes, final int concurrentRequests,
+                                 final int retryAttempts, final long retryDelay) {
         this.requests = new ArrayList<>();
         this.bulkRequestCreator = bulkRequestCreator;
         this.bulkSize = bulkSize;
+        this.bulkBytes = bulkBytes;
+        this.retryAttempts = retryAttempts;
+        this.retryDelay = retryDelay;
+        this.concurrentRequests = concurrentRequests;
+        this.executor = concurrentRequests > 0 ? Executors.newFixedThreadPool(concurrentRequests) : null;
+        this.inFlightRequests = concurrentRequests > 0 ? new Semaphore(concurrentRequests) : null;
     }
 
     public void add(final DocWriteRequest request) {
+        checkFailure();
         requests.add(request);
-        if (requests.size() == bulkSize) {
+        requestsBytes += estimateSize(request);
+        if (requests.size() >= bulkSize || bulkBytes > 0 && requestsBytes >= bulkBytes) {
             flush();
         }
     }
 
     @Override
     public void close() {
-        if (CollectionUtils.isEmpty(requests)) {
-            return;
+        try {
+            if (CollectionUtils.isNotEmpty(requests)) {
+                flush();
+            }
+            if (executor != null) {
+                acquire(concurrentRequests);
+                inFlightRequests.release(concurrentRequests);
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        checkFailure();
+        if (statistics.getRequests() > 0) {
+            log.info("Bulk upload is finished: {}", statistics);
         }
-        flush();
     }
 
     private void flush() {
-        BulkResponse documents = bulkRequestCreator.sendRequest(requests);
-        long successfulRequestsCount = 0L;
-        if (documents != null && documents.getItems() != null) {
-            successfulRequestsCount = Arrays
-                    .stream(documents.getItems())
-                    .filter(response -> !response.isFailed())
-                    .count();
-        }
-        log.info("{} files has been uploaded", successfulRequestsCount);
-        requests.clear();
+        final List<DocWriteRequest> bulk = requests;
+        final long bytes = requestsBytes;
+        requests = new ArrayList<>();
+        requestsBytes = 0L;
+        if (executor == null) {
+            send(bulk, bytes);
+            return;
+        }
+        acquire(1);
+        try {
+            executor.execute(() -> {
+                try {
+                    send(bulk, bytes);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlightRequests.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightRequests.release();
+            throw e;
+        }
+    }
+
+    private void send(final List<DocWriteRequest> bulk, final long bytes) {
+        final long start = System.currentTimeMillis();
+        List<DocWriteRequest> pending = bulk;
+        long successful = 0L;
+        long failed = 0L;
+        long retried = 0L;
+        int attempt = 0;
+        while (!pending.isEmpty()) {
+            final BulkResponse response;
+            try {
+                response = bulkRequestCreator.sendRequest(pending);
+            } catch (RuntimeException e) {
+                if (attempt >= retryAttempts) {
+                    throw e;
+                }
+                log.warn("Bulk request of {} documents has failed and will be resent: {}",
+                        pending.size(), e.getMessage());
+                retried += pending.size();
+                waitBeforeRetry(++attempt);
+                continue;
+            }
+            if (response == null || response.getItems() == null) {
+                break;
+            }
+            final List<DocWriteRequest> retryRequests = new ArrayList<>();
+            for (final BulkItemResponse item : response.getItems()) {
+                if (!item.isFailed()) {
+                    successful++;
+                } else if (attempt < retryAttempts && isRetryable(item)) {
+                    retryRequests.add(pending.get(item.getItemId()));
+                } else {
+                    failed++;
+                    log.debug("Document {} has not been uploaded: {}", item.getId(), item.getFailureMessage());
+                }
+            }
+            if (!retryRequests.isEmpty()) {
+                retried += retryRequests.size();
+                waitBeforeRetry(++attempt);
+            }
+            pending = retryRequests;
+        }
+        statistics.add(bulk.size(), bytes, successful, failed, retried, System.currentTimeMillis() - start);
+        if (failed > 0) {
+            log.warn("{} files has been uploaded, {} files has failed", successful, failed);
+        } else {
+            log.info("{} files has been uploaded", successful);
+        }
+    }
+
+    private boolean isRetryable(final BulkItemResponse item) {
+        final RestStatus status = item.status();
+        return status == RestStatus.TOO_MANY_REQUESTS
+                || status.getStatus() >= RestStatus.INTERNAL_SERVER_ERROR.getStatus();
+    }
+
+    private long estimateSize(final DocWriteRequest request) {
+        if (request instanceof IndexRequest && ((IndexRequest) request).source() != null) {
+            return ((IndexRequest) request).source().length();
+        }
+        return DEFAULT_REQUEST_BYTES;
+    }
+
+    private void acquire(final int permits) {
+        try {
+            inFlightRequests.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for bulk requests completion", e);
+        }
+    }
+
+    private void waitBeforeRetry(final int attempt) {
+        try {
+            Thread.sleep(retryDelay * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for bulk request retry", e);
+        }
+    }
+
+    private void checkFailure() {
+        final RuntimeException e = failure.getAndSet(null);
+        if (e != null) {
+            throw e;
+        }
+    }
+
+    /**
+     * Throughput counters of a single container.
+     */
+    public static class Statistics {
+
+        private final long started = System.currentTimeMillis();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong documents = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong successful = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong retried = new AtomicLong();
+        private final AtomicLong requestsMillis = new AtomicLong();
+
+        void add(final long documents, final long bytes, final long successful, final long failed,
+                 final long retried, final long millis) {
+            this.requests.incrementAndGet();
+            this.documents.addAndGet(documents);
+            this.bytes.addAndGet(bytes);
+            this.successful.addAndGet(successful);
+            this.failed.addAndGet(failed);
+            this.retried.addAndGet(retried);
+            this.requestsMillis.addAndGet(millis);
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getDocuments() {
+            return documents.get();
+        }
+
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        public long getSuccessful() {
+            return successful.get();
+        }
+
+        public long getFailed() {
+            return failed.get();
+        }
+
+        public long getRetried() {
+            return retried.get();
+        }
+
+        /**
+         * @return number of successfully uploaded documents per second since the container creation
+         */
+        public long getDocumentsPerSecond() {
+            final long elapsed = Math.max(1L, System.currentTimeMillis() - started);
+            return successful.get() * 1000L / elapsed;
+        }
+
+        @Override
+        public String toString() {
+            final long requestsCount = Math.max(1L, requests.get());
+            return String.format("%d documents (%d bytes) in %d bulk requests, %d successful, %d failed, "
+                            + "%d retried, %d documents/s, %d ms per bulk request on average",
+                    documents.get(), bytes.get(), requests.get(), successful.get(), failed.get(),
+                    retried.get(), getDocumentsPerSecond(), requestsMillis.get() / requestsCount);
+        }
     }
 }
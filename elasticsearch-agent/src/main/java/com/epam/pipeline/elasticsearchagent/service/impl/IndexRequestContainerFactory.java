@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.service.impl;
+
+import com.epam.pipeline.elasticsearchagent.service.BulkRequestCreator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates {@link IndexRequestContainer}s which send bulk requests asynchronously
+ * according to the common bulk settings.
+ */
+@Component
+public class IndexRequestContainerFactory {
+
+    private final long bulkBytes;
+    private final int concurrentRequests;
+    private final int retryAttempts;
+    private final long retryDelay;
+
+    public IndexRequestContainerFactory(final @Value("${sync.bulk.insert.max.bytes:10485760}") long bulkBytes,
+                                        final @Value("${sync.bulk.concurrent.requests:2}") int concurrentRequests,
+                                        final @Value("${sync.bulk.retry.attempts:3}") int retryAttempts,
+                                        final @Value("${sync.bulk.retry.delay:1000}") long retryDelay) {
+        this.bulkBytes = bulkBytes;
+        this.concurrentRequests = concurrentRequests;
+        this.retryAttempts = retryAttempts;
+        this.retryDelay = retryDelay;
+    }
+
+    public IndexRequestContainer create(final BulkRequestCreator bulkRequestCreator, final int bulkSize) {
+        return new IndexRequestContainer(bulkRequestCreator, bulkSize, bulkBytes, concurrentRequests,
+                retryAttempts, retryDelay);
+    }
+}
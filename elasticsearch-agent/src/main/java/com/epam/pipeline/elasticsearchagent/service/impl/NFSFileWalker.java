@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks a file tree with a fork join pool. Directories are listed in parallel and attributes
+ * of each entry are read with a single call.
+ *
+ * Found regular files are published to a bounded queue and returned as a sequential stream,
+ * so a slow stream consumer suspends the walk. A failure to list any directory fails the stream,
+ * since an incomplete walk can't be distinguished from deleted files. The returned stream shall be closed.
+ */
+@Slf4j
+class NFSFileWalker {
+
+    private static final int QUEUE_CAPACITY = 10000;
+    private static final long OFFER_TIMEOUT_MS = 100L;
+    private static final Object END = new Object();
+
+    private final int threads;
+    private final int queueCapacity;
+
+    NFSFileWalker(final int threads) {
+        this(threads, QUEUE_CAPACITY);
+    }
+
+    NFSFileWalker(final int threads, final int queueCapacity) {
+        this.threads = Math.max(1, threads);
+        this.queueCapacity = queueCapacity;
+    }
+
+    <T> Stream<T> walk(final Path root, final BiFunction<Path, BasicFileAttributes, T> mapper) {
+        final Walk<T> walk = new Walk<>(root, mapper);
+        walk.start();
+        return StreamSupport.stream(walk, false).onClose(walk::cancel);
+    }
+
+    private final class Walk<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Path root;
+        private final BiFunction<Path, BasicFileAttributes, T> mapper;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final ForkJoinPool pool = new ForkJoinPool(threads);
+        private boolean finished;
+
+        Walk(final Path root, final BiFunction<Path, BasicFileAttributes, T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.root = root;
+            this.mapper = mapper;
+        }
+
+        void start() {
+            pool.execute(() -> {
+                try {
+                    new DirectoryTask(root).invoke();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    publish(END);
+                }
+            });
+        }
+
+        void cancel() {
+            cancelled.set(true);
+            queue.clear();
+            pool.shutdownNow();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (finished) {
+                return false;
+            }
+            final Object item;
+            try {
+                item = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while walking " + root, e);
+            }
+            if (item == END) {
+                finished = true;
+                pool.shutdown();
+                final RuntimeException e = failure.get();
+                if (e != null) {
+                    throw e;
+                }
+                return false;
+            }
+            action.accept((T) item);
+            return true;
+        }
+
+        private void publish(final Object item) {
+            try {
+                while (!cancelled.get()) {
+                    if (queue.offer(item, OFFER_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private final class DirectoryTask extends RecursiveAction {
+
+            private final Path directory;
+
+            DirectoryTask(final Path directory) {
+                this.directory = directory;
+            }
+
+            @Override
+            protected void compute() {
+                if (cancelled.get() || failure.get() != null) {
+                    return;
+                }
+                final List<DirectoryTask> subdirectories = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                    for (final Path entry : entries) {
+                        if (cancelled.get()) {
+                            return;
+                        }
+                        final BasicFileAttributes attributes = readAttributes(entry);
+                        if (attributes == null) {
+                            continue;
+                        }
+                        if (attributes.isDirectory()) {
+                            subdirectories.add(new DirectoryTask(entry));
+                        } else if (attributes.isRegularFile()) {
+                            publish(mapper.apply(entry, attributes));
+                        }
+                    }
+                } catch (IOException e) {
+                    failure.compareAndSet(null, new UncheckedIOException(
+                            String.format("Failed to list directory %s: %s", directory, e.getMessage()), e));
+                    return;
+                }
+                invokeAll(subdirectories);
+            }
+
+            /**
+             * Symbolic links are not followed during the walk, but links to regular files are reported as files.
+             */
+            private BasicFileAttributes readAttributes(final Path entry) {
+                try {
+                    final BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class,
+                            LinkOption.NOFOLLOW_LINKS);
+                    if (!attributes.isSymbolicLink()) {
+                        return attributes;
+                    }
+                    final BasicFileAttributes target = Files.readAttributes(entry, BasicFileAttributes.class);
+                    return target.isRegularFile() ? target : null;
+                } catch (IOException e) {
+                    log.debug("Cannot read attributes of {}: {}", entry, e.getMessage());
+                    return null;
+                }
+            }
+        }
+    }
+}
@@ -99,6 +99,10 @@ public class NFSObserverEventSynchronizer extends NFSSynchronizer {
                                         final @Value("${sync.nfs-file.index.name}") String indexName,
                                         final @Value("${sync.nfs-file.bulk.insert.size}") Integer bulkInsertSize,
                                         final @Value("${sync.nfs-file.bulk.load.tags.size}") Integer bulkLoadTagsSize,
+                                        final @Value("${sync.nfs-file.walk.threads:4}") Integer walkThreads,
+                                        final @Value("${sync.nfs-file.manifest.dir:}") String manifestDir,
+                                        final @Value("${sync.nfs-file.full.rebuild.interval.hours:24}")
+                                            Integer fullRebuildIntervalHours,
                                         final @Value("${sync.nfs-file.observer.sync.target.bucket}")
                                             String eventsBucketUriStr,
                                         final @Value("${sync.nfs-file.observer.sync.files.chunk}")
@@ -107,9 +111,11 @@ public class NFSObserverEventSynchronizer extends NFSSynchronizer {
                                         final ElasticsearchServiceClient elasticsearchServiceClient,
                                         final ElasticIndexService elasticIndexService,
                                         final List<ObjectStorageFileManager> objectStorageFileManagers,
-                                        final NFSStorageMounter nfsMounter) {
+                                        final NFSStorageMounter nfsMounter,
+                                        final IndexRequestContainerFactory requestContainerFactory) {
         super(indexSettingsPath, rootMountPoint, indexPrefix, indexName, bulkInsertSize, bulkLoadTagsSize,
-              cloudPipelineAPIClient, elasticsearchServiceClient, elasticIndexService, nfsMounter);
+              walkThreads, manifestDir, fullRebuildIntervalHours, cloudPipelineAPIClient, elasticsearchServiceClient,
+              elasticIndexService, nfsMounter, requestContainerFactory);
 
         this.eventsFileChunkSize = eventsFileChunkSize;
         final URI eventsBucketURI = URI.create(eventsBucketUriStr);
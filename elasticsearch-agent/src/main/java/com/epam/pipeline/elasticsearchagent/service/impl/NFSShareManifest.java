@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.service.impl;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A persisted listing of a NFS share which was sent to the share index during the latest synchronization.
+ *
+ * The manifest holds the index name, the time of the latest full reindex, a fingerprint of the share
+ * permissions the index was built with and size, modification date and tags fingerprint of each file. A new manifest is written into a temporary file which replaces the previous
+ * manifest only after it is committed.
+ */
+@Slf4j
+class NFSShareManifest {
+
+    private static final int VERSION = 2;
+    private static final String END_MARKER = "";
+
+    private final Path file;
+
+    NFSShareManifest(final Path directory, final Long storageId) {
+        this.file = directory.resolve(String.format("nfs-%d.manifest", storageId));
+    }
+
+    /**
+     * @return manifest header or empty optional if the manifest doesn't exist or can't be read
+     */
+    Optional<Header> readHeader() {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try (DataInputStream input = open()) {
+            return Optional.of(readHeader(input));
+        } catch (IOException e) {
+            log.warn("Failed to read NFS share manifest {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    void forEachEntry(final EntryConsumer consumer) throws IOException {
+        try (DataInputStream input = open()) {
+            readHeader(input);
+            String path = input.readUTF();
+            while (!END_MARKER.equals(path)) {
+                final long size = input.readLong();
+                final String changed = input.readUTF();
+                final long tags = input.readLong();
+                consumer.accept(path, size, changed, tags);
+                path = input.readUTF();
+            }
+        }
+    }
+
+    Writer write(final String indexName, final long fullReindexTime, final String permissions)
+            throws IOException {
+        Files.createDirectories(file.getParent());
+        return new Writer(indexName, fullReindexTime, permissions);
+    }
+
+    private DataInputStream open() throws IOException {
+        return new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))));
+    }
+
+    private Header readHeader(final DataInputStream input) throws IOException {
+        final int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported manifest version " + version);
+        }
+        return new Header(input.readUTF(), input.readLong(), input.readUTF());
+    }
+
+    @Value
+    static class Header {
+        String indexName;
+        long fullReindexTime;
+        String permissions;
+    }
+
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(String path, long size, String changed, long tags);
+    }
+
+    final class Writer implements Closeable {
+
+        private final Path tempFile;
+        private final DataOutputStream output;
+        private boolean committed;
+
+        private Writer(final String indexName, final long fullReindexTime, final String permissions)
+                throws IOException {
+            this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            this.output = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(tempFile))));
+            output.writeInt(VERSION);
+            output.writeUTF(indexName);
+            output.writeLong(fullReindexTime);
+            output.writeUTF(permissions);
+        }
+
+        void add(final String path, final Long size, final String changed, final long tags) {
+            try {
+                output.writeUTF(path);
+                output.writeLong(Optional.ofNullable(size).orElse(0L));
+                output.writeUTF(Optional.ofNullable(changed).orElse(END_MARKER));
+                output.writeLong(tags);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write NFS share manifest " + tempFile, e);
+            }
+        }
+
+        /**
+         * Replaces the previous manifest with the written one.
+         */
+        void commit() throws IOException {
+            output.writeUTF(END_MARKER);
+            output.close();
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (committed) {
+                return;
+            }
+            output.close();
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -19,7 +19,7 @@ import com.epam.pipeline.elasticsearchagent.model.PermissionsContainer;
 import com.epam.pipeline.elasticsearchagent.service.ElasticsearchServiceClient;
 import com.epam.pipeline.elasticsearchagent.service.ElasticsearchSynchronizer;
 import com.epam.pipeline.elasticsearchagent.service.impl.converter.storage.StorageFileMapper;
-import com.epam.pipeline.elasticsearchagent.utils.ESConstants;
+import com.epam.pipeline.elasticsearchagent.utils.FingerprintSet;
 import com.epam.pipeline.entity.datastorage.NFSDataStorage;
 import com.epam.pipeline.utils.StreamUtils;
 import com.epam.pipeline.entity.datastorage.AbstractDataStorage;
@@ -32,7 +32,9 @@ import com.epam.pipeline.vo.data.storage.DataStorageTagLoadRequest;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -42,16 +44,20 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDateTime;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.epam.pipeline.elasticsearchagent.service.impl.converter.storage.StorageFileMapper.getDocumentId;
 import static com.epam.pipeline.elasticsearchagent.utils.ESConstants.DOC_MAPPING_TYPE;
+import static com.epam.pipeline.elasticsearchagent.utils.ESConstants.FILE_DATE_FORMAT;
 import static com.epam.pipeline.utils.PasswordGenerator.generateRandomString;
 
 @Service
@@ -72,6 +78,10 @@ public class NFSSynchronizer implements ElasticsearchSynchronizer {
     private final ElasticsearchServiceClient elasticsearchServiceClient;
     private final ElasticIndexService elasticIndexService;
     private final NFSStorageMounter nfsMounter;
+    private final IndexRequestContainerFactory requestContainerFactory;
+    private final NFSFileWalker fileWalker;
+    private final String manifestDir;
+    private final Integer fullRebuildIntervalHours;
     private final StorageFileMapper fileMapper = new StorageFileMapper();
 
     public NFSSynchronizer(@Value("${sync.nfs-file.index.mapping}") String indexSettingsPath,
@@ -80,10 +90,14 @@ public class NFSSynchronizer implements ElasticsearchSynchronizer {
                            @Value("${sync.nfs-file.index.name}") String indexName,
                            @Value("${sync.nfs-file.bulk.insert.size}") Integer bulkInsertSize,
                            @Value("${sync.nfs-file.bulk.load.tags.size}") Integer bulkLoadTagsSize,
+                           @Value("${sync.nfs-file.walk.threads:4}") Integer walkThreads,
+                           @Value("${sync.nfs-file.manifest.dir:}") String manifestDir,
+                           @Value("${sync.nfs-file.full.rebuild.interval.hours:24}") Integer fullRebuildIntervalHours,
                            CloudPipelineAPIClient cloudPipelineAPIClient,
                            ElasticsearchServiceClient elasticsearchServiceClient,
                            ElasticIndexService elasticIndexService,
-                           NFSStorageMounter nfsMounter) {
+                           NFSStorageMounter nfsMounter,
+                           IndexRequestContainerFactory requestContainerFactory) {
         this.indexSettingsPath = indexSettingsPath;
         this.rootMountPoint = rootMountPoint;
         this.indexPrefix = indexPrefix;
@@ -94,6 +108,10 @@ public class NFSSynchronizer implements ElasticsearchSynchronizer {
         this.elasticsearchServiceClient = elasticsearchServiceClient;
         this.elasticIndexService = elasticIndexService;
         this.nfsMounter = nfsMounter;
+        this.requestContainerFactory = requestContainerFactory;
+        this.fileWalker = new NFSFileWalker(walkThreads);
+        this.manifestDir = manifestDir;
+        this.fullRebuildIntervalHours = fullRebuildIntervalHours;
     }
 
     @Override
@@ -117,9 +135,30 @@ public class NFSSynchronizer implements ElasticsearchSynchronizer {
         }
 
         String alias = indexPrefix + indexName + String.format("-%d", dataStorage.getId());
+        String currentIndexName = elasticsearchServiceClient.getIndexNameByAlias(alias);
+        String permissions = permissionsFingerprint(permissionsContainer);
+        NFSShareManifest manifest = getManifest(dataStorage);
+        Optional<NFSShareManifest.Header> manifestHeader = Optional.ofNullable(manifest)
+                .flatMap(NFSShareManifest::readHeader)
+                .filter(header -> isIncrementalSyncApplicable(header, currentIndexName, permissions));
+        if (manifestHeader.isPresent()) {
+            try {
+                Path mountFolder = mountStorageToRootIfNecessary(dataStorage);
+                if (mountFolder == null) {
+                    log.warn("Unable to retrieve mount for [{}],  skipping...", dataStorage.getName());
+                    return;
+                }
+                updateDocuments(currentIndexName, mountFolder, dataStorage, permissionsContainer, manifest,
+                        manifestHeader.get());
+                return;
+            } catch (Exception e) {
+                log.error("Incremental sync of NFS storage {} has failed. Full reindex will be performed.",
+                        dataStorage.getId(), e);
+            }
+        }
+
         String indexName = generateRandomString(5).toLowerCase() + "-" + alias;
         try {
-            String currentIndexName = elasticsearchServiceClient.getIndexNameByAlias(alias);
             elasticIndexService.createIndexIfNotExist(indexName, indexSettingsPath);
             Path mountFolder = mountStorageToRootIfNecessary(dataStorage);
             if (mountFolder == null) {
@@ -127,11 +166,18 @@ public class NFSSynchronizer implements ElasticsearchSynchronizer {
                 return;
             }
 
-            createDocuments(indexName, mountFolder, dataStorage, permissionsContainer);
+            try (NFSShareManifest.Writer manifestWriter = manifest != null
+                    ? manifest.write(indexName, System.currentTimeMillis(), permissions)
+                    : null) {
+                createDocuments(indexName, mountFolder, dataStorage, permissionsContainer, manifestWriter);
 
-            elasticsearchServiceClient.createIndexAlias(indexName, alias);
-            if (StringUtils.isNotBlank(currentIndexName)) {
-                elasticsearchServiceClient.deleteIndex(currentIndexName);
+                elasticsearchServiceClient.createIndexAlias(indexName, alias);
+                if (StringUtils.isNotBlank(currentIndexName)) {
+                    elasticsearchServiceClient.deleteIndex(currentIndexName);
+                }
+                if (manifestWriter != null) {
+                    manifestWriter.commit();
+                }
             }
         } catch (Exception e) {
             log.error(e.getMessage(), e);
@@ -143,21 +189,102 @@ public class NFSSynchronizer implements ElasticsearchSynchronizer {
 
     private void createDocuments(final String indexName, final Path mountFolder,
                                  final AbstractDataStorage dataStorage,
-                                 final PermissionsContainer permissionsContainer) {
-        try (IndexRequestContainer walker = new IndexRequestContainer(requests ->
+                                 final PermissionsContainer permissionsContainer,
+                                 final NFSShareManifest.Writer manifestWriter) {
+        try (IndexRequestContainer walker = requestContainerFactory.create(requests ->
                 elasticsearchServiceClient.sendRequests(indexName, requests), bulkInsertSize);
-             Stream<Path> paths = Files.walk(mountFolder)) {
-            final Stream<DataStorageFile> files = paths
-                    .filter(path -> path.toFile().isFile())
-                    .map(path -> convertToStorageFile(path, mountFolder));
+             Stream<DataStorageFile> files = walkFiles(mountFolder)) {
             processFilesTagsInChunks(dataStorage, files)
+                    .peek(file -> {
+                        if (manifestWriter != null) {
+                            manifestWriter.add(file.getPath(), file.getSize(), file.getChanged(),
+                                    tagsFingerprint(file.getTags()));
+                        }
+                    })
                     .map(file -> createIndexRequest(file, indexName, dataStorage, permissionsContainer))
                     .forEach(walker::add);
-        } catch (IOException e) {
-            throw new IllegalArgumentException("An error occurred during creating document.", e);
         }
     }
 
+    /**
+     * Sends requests only for the files which were added, changed, retagged or deleted since the manifest
+     * was written. Tags are not reflected in file attributes, so they are loaded for all files of the share.
+     */
+    private void updateDocuments(final String indexName, final Path mountFolder,
+                                 final AbstractDataStorage dataStorage,
+                                 final PermissionsContainer permissionsContainer,
+                                 final NFSShareManifest manifest,
+                                 final NFSShareManifest.Header manifestHeader) throws IOException {
+        log.debug("Incrementally synchronizing NFS storage {}...", dataStorage.getId());
+        final FingerprintSet indexedFiles = new FingerprintSet();
+        manifest.forEachEntry((path, size, changed, tags) ->
+                indexedFiles.add(path, String.valueOf(size), changed, String.valueOf(tags)));
+        final FingerprintSet walkedFiles = new FingerprintSet();
+        try (NFSShareManifest.Writer manifestWriter = manifest.write(indexName,
+                manifestHeader.getFullReindexTime(), manifestHeader.getPermissions())) {
+            try (IndexRequestContainer requestContainer = requestContainerFactory.create(requests ->
+                    elasticsearchServiceClient.sendRequests(indexName, requests), bulkInsertSize);
+                 Stream<DataStorageFile> files = walkFiles(mountFolder)) {
+                processFilesTagsInChunks(dataStorage, files.peek(file -> walkedFiles.add(file.getPath())))
+                        .filter(file -> {
+                            final long tags = tagsFingerprint(file.getTags());
+                            manifestWriter.add(file.getPath(), file.getSize(), file.getChanged(), tags);
+                            return !indexedFiles.contains(file.getPath(), String.valueOf(file.getSize()),
+                                    StringUtils.defaultString(file.getChanged()), String.valueOf(tags));
+                        })
+                        .map(file -> createIndexRequest(file, indexName, dataStorage, permissionsContainer))
+                        .forEach(requestContainer::add);
+                manifest.forEachEntry((path, size, changed, tags) -> {
+                    if (!walkedFiles.contains(path)) {
+                        requestContainer.add(new DeleteRequest(indexName, DOC_MAPPING_TYPE, getDocumentId(path)));
+                    }
+                });
+            }
+            manifestWriter.commit();
+        }
+        log.debug("{} files of NFS storage {} are synchronized.", walkedFiles.size(), dataStorage.getId());
+    }
+
+    /**
+     * Incremental sync doesn't update documents of unchanged files, so the share index is fully rebuilt
+     * if the share permissions were changed since the latest full reindex.
+     */
+    private boolean isIncrementalSyncApplicable(final NFSShareManifest.Header header,
+                                                final String currentIndexName,
+                                                final String permissions) {
+        return StringUtils.isNotBlank(currentIndexName)
+                && currentIndexName.equals(header.getIndexName())
+                && permissions.equals(header.getPermissions())
+                && header.getFullReindexTime() + TimeUnit.HOURS.toMillis(fullRebuildIntervalHours)
+                    > System.currentTimeMillis();
+    }
+
+    private String permissionsFingerprint(final PermissionsContainer permissionsContainer) {
+        return Stream.of(permissionsContainer.getAllowedUsers(), permissionsContainer.getDeniedUsers(),
+                        permissionsContainer.getAllowedGroups(), permissionsContainer.getDeniedGroups())
+                .map(entries -> entries.stream()
+                        .sorted()
+                        .collect(Collectors.joining(",")))
+                .collect(Collectors.joining(";"));
+    }
+
+    private long tagsFingerprint(final Map<String, String> tags) {
+        return FingerprintSet.fingerprint(MapUtils.emptyIfNull(tags).entrySet().stream()
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .sorted()
+                .toArray(String[]::new));
+    }
+
+    private NFSShareManifest getManifest(final AbstractDataStorage dataStorage) {
+        return StringUtils.isBlank(manifestDir)
+                ? null
+                : new NFSShareManifest(Paths.get(manifestDir), dataStorage.getId());
+    }
+
+    private Stream<DataStorageFile> walkFiles(final Path mountFolder) {
+        return fileWalker.walk(mountFolder, (path, attributes) -> convertToStorageFile(path, attributes, mountFolder));
+    }
+
     protected Path getMountFolder(final AbstractDataStorage dataStorage) {
         final String storageName = getStorageName(dataStorage.getPath());
         return Paths.get(getRootMountPoint(), getMountDirName(dataStorage.getPath()), storageName);
@@ -184,11 +311,24 @@ public class NFSSynchronizer implements ElasticsearchSynchronizer {
     }
 
     protected DataStorageFile convertToStorageFile(final Path path, final Path mountFolder) {
+        try {
+            return convertToStorageFile(path, Files.readAttributes(path, BasicFileAttributes.class), mountFolder);
+        } catch (IOException e) {
+            log.error("Cannot read attributes of file {}. Error: {}.", path.toAbsolutePath(), e.getMessage());
+            final DataStorageFile file = new DataStorageFile();
+            file.setPath(getRelativePath(mountFolder, path));
+            file.setName(file.getPath());
+            return file;
+        }
+    }
+
+    private DataStorageFile convertToStorageFile(final Path path, final BasicFileAttributes attributes,
+                                                 final Path mountFolder) {
         final DataStorageFile file = new DataStorageFile();
         file.setPath(getRelativePath(mountFolder, path));
         file.setName(file.getPath());
-        file.setChanged(getLastModified(path));
-        file.setSize(getSize(path));
+        file.setChanged(FILE_DATE_FORMAT.format(attributes.lastModifiedTime().toInstant()));
+        file.setSize(attributes.size());
         return file;
     }
 
@@ -196,24 +336,6 @@ public class NFSSynchronizer implements ElasticsearchSynchronizer {
         return mountFolder.relativize(path).toString();
     }
 
-    private String getLastModified(final Path path) {
-        try {
-            return ESConstants.FILE_DATE_FORMAT.format(Date.from(Files.getLastModifiedTime(path).toInstant()));
-        } catch (IOException e) {
-            log.error("Cannot get last modified time for file {}. Error: {}.", path.toAbsolutePath(), e.getMessage());
-            return null;
-        }
-    }
-
-    private Long getSize(final Path path) {
-        try {
-            return Files.size(path);
-        } catch (IOException e) {
-            log.error("Cannot get size for file file {}. Error: {}.", path.toAbsolutePath(), e.getMessage());
-            return null;
-        }
-    }
-
     protected String getStorageName(final String path) {
         return path.replace(getNfsRootPath(path), "");
     }
@@ -262,9 +384,7 @@ public class NFSSynchronizer implements ElasticsearchSynchronizer {
                                               final String indexName,
                                               final AbstractDataStorage dataStorage,
                                               final PermissionsContainer permissionsContainer) {
-        // TODO maybe we can use file path as _id instead of generating it
-        //  on ES side to perform both create and update using this method
-        return new IndexRequest(indexName, DOC_MAPPING_TYPE)
+        return new IndexRequest(indexName, DOC_MAPPING_TYPE, getDocumentId(file.getPath()))
                 .source(fileMapper.fileToDocument(file, dataStorage, null, permissionsContainer,
                         SearchDocumentType.NFS_FILE));
     }
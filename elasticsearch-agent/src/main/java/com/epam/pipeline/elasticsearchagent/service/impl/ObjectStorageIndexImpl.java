@@ -21,6 +21,7 @@ import com.epam.pipeline.elasticsearchagent.service.ElasticsearchServiceClient;
 import com.epam.pipeline.elasticsearchagent.service.ObjectStorageFileManager;
 import com.epam.pipeline.elasticsearchagent.service.ObjectStorageIndex;
 import com.epam.pipeline.elasticsearchagent.service.impl.converter.storage.StorageFileMapper;
+import com.epam.pipeline.elasticsearchagent.utils.FingerprintSet;
 import com.epam.pipeline.entity.search.StorageFileSearchMask;
 import com.epam.pipeline.utils.StreamUtils;
 import com.epam.pipeline.entity.datastorage.AbstractDataStorage;
@@ -38,30 +39,73 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.SetUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.Scroll;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.springframework.util.AntPathMatcher;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.epam.pipeline.elasticsearchagent.service.impl.converter.storage.StorageFileMapper.getDocumentId;
 import static com.epam.pipeline.elasticsearchagent.utils.ESConstants.DOC_MAPPING_TYPE;
 import static com.epam.pipeline.utils.PasswordGenerator.generateRandomString;
 
+/**
+ * Indexes files of object storages of a single type.
+ *
+ * Storages are indexed in parallel with {@code indexThreads} workers. By default each storage is
+ * fully reindexed into a new index which then replaces the previous one. If {@code incrementalIndex}
+ * is enabled, the existing storage index itself serves as a checkpoint: only files which path, size,
+ * modification date, visibility or permissions differ from the indexed ones are sent to elasticsearch
+ * and documents of files which are no longer listed are deleted. Since tag changes are not reflected
+ * in file listings, a full reindex is still performed once the storage index was created more than
+ * {@code fullRebuildIntervalHours} ago. The creation date is kept by elasticsearch, so it survives restarts.
+ */
 @RequiredArgsConstructor
 @Slf4j
 public class ObjectStorageIndexImpl implements ObjectStorageIndex {
 
+    private static final int SCROLLING_PAGE_SIZE = 1000;
+    private static final Scroll TIME_SCROLL = new Scroll(new TimeValue(60000));
+    private static final String ID_FIELD = "id";
+    private static final String LAST_MODIFIED_FIELD = "lastModified";
+    private static final String SIZE_FIELD = "size";
+    private static final String HIDDEN_FIELD = "is_hidden";
+    private static final String ALLOWED_USERS_FIELD = "allowed_users";
+    private static final String DENIED_USERS_FIELD = "denied_users";
+    private static final String ALLOWED_GROUPS_FIELD = "allowed_groups";
+    private static final String DENIED_GROUPS_FIELD = "denied_groups";
+    private static final String[] FINGERPRINT_FIELDS = {ID_FIELD, LAST_MODIFIED_FIELD, SIZE_FIELD, HIDDEN_FIELD,
+        ALLOWED_USERS_FIELD, DENIED_USERS_FIELD, ALLOWED_GROUPS_FIELD, DENIED_GROUPS_FIELD};
+
     private final CloudPipelineAPIClient cloudPipelineAPIClient;
     private final ElasticsearchServiceClient elasticsearchServiceClient;
     private final ElasticIndexService elasticIndexService;
+    private final IndexRequestContainerFactory requestContainerFactory;
     private final ObjectStorageFileManager fileManager;
     private final String indexPrefix;
     private final String indexMappingFile;
@@ -71,6 +115,9 @@ public class ObjectStorageIndexImpl implements ObjectStorageIndex {
     private final DataStorageType storageType;
     @Getter
     private final SearchDocumentType documentType;
+    private final int indexThreads;
+    private final boolean incrementalIndex;
+    private final int fullRebuildIntervalHours;
     private final StorageFileMapper fileMapper = new StorageFileMapper();
     private final Map<String, Set<String>> searchMasks = new HashMap<>();
 
@@ -78,10 +125,23 @@ public class ObjectStorageIndexImpl implements ObjectStorageIndex {
     public void synchronize(final LocalDateTime lastSyncTime, final LocalDateTime syncStart) {
         log.debug("Started {} files synchronization", getStorageType());
         updateSearchMasks();
-        cloudPipelineAPIClient.loadAllDataStorages()
+        final List<AbstractDataStorage> dataStorages = cloudPipelineAPIClient.loadAllDataStorages()
                 .stream()
                 .filter(dataStorage -> dataStorage.getType() == getStorageType())
-                .forEach(this::indexStorage);
+                .collect(Collectors.toList());
+        if (indexThreads <= 1 || dataStorages.size() <= 1) {
+            dataStorages.forEach(this::indexStorage);
+            return;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(indexThreads, dataStorages.size()));
+        try {
+            CompletableFuture.allOf(dataStorages.stream()
+                    .map(dataStorage -> CompletableFuture.runAsync(() -> indexStorage(dataStorage), executor))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
     }
 
     @Override
@@ -94,9 +154,18 @@ public class ObjectStorageIndexImpl implements ObjectStorageIndex {
                 .map(EntityPermissionVO::getPermissions)
                 .orElse(Collections.emptySet()), dataStorage.getOwner());
         final String alias = indexPrefix + String.format("-%d", dataStorage.getId());
+        final String currentIndexName = elasticsearchServiceClient.getIndexNameByAlias(alias);
+        if (isIncrementalIndexApplicable(dataStorage, currentIndexName)) {
+            try {
+                indexStorageIncrementally(dataStorage, permissionsContainer, currentIndexName);
+                return;
+            } catch (Exception e) {
+                log.error("Incremental indexing of {} storage {} has failed. Full reindex will be performed.",
+                        getStorageType(), dataStorage.getId(), e);
+            }
+        }
         final String indexName = generateRandomString(5).toLowerCase() + "-" + alias;
         try {
-            final String currentIndexName = elasticsearchServiceClient.getIndexNameByAlias(alias);
             elasticIndexService.createIndexIfNotExist(indexName, indexMappingFile);
             final Supplier<TemporaryCredentials> credentialsSupplier = () -> getTemporaryCredentials(dataStorage);
             final TemporaryCredentials credentials = credentialsSupplier.get();
@@ -126,6 +195,125 @@ public class ObjectStorageIndexImpl implements ObjectStorageIndex {
         }
     }
 
+    private boolean isIncrementalIndexApplicable(final AbstractDataStorage dataStorage,
+                                                 final String currentIndexName) {
+        if (!incrementalIndex || StringUtils.isBlank(currentIndexName)) {
+            return false;
+        }
+        final Long lastFullRebuild = elasticsearchServiceClient.getIndexCreationDate(currentIndexName);
+        return lastFullRebuild != null
+                && System.currentTimeMillis() - lastFullRebuild < TimeUnit.HOURS.toMillis(fullRebuildIntervalHours);
+    }
+
+    private void indexStorageIncrementally(final AbstractDataStorage dataStorage,
+                                           final PermissionsContainer permissionsContainer,
+                                           final String indexName) {
+        log.debug("Incrementally indexing {} storage {}...", getStorageType(), dataStorage.getId());
+        final Supplier<TemporaryCredentials> credentialsSupplier = () -> getTemporaryCredentials(dataStorage);
+        final TemporaryCredentials credentials = credentialsSupplier.get();
+        final String permissions = permissionsFingerprint(permissionsContainer.getAllowedUsers(),
+                permissionsContainer.getDeniedUsers(), permissionsContainer.getAllowedGroups(),
+                permissionsContainer.getDeniedGroups());
+        final FingerprintSet indexedFiles = new FingerprintSet();
+        final FingerprintSet listedFiles = new FingerprintSet();
+        try (IndexRequestContainer requestContainer = getRequestContainer(indexName, bulkInsertSize)) {
+            scrollIndex(indexName, FINGERPRINT_FIELDS, hit -> {
+                final Map<String, Object> source = hit.getSourceAsMap();
+                final String path = (String) source.get(ID_FIELD);
+                if (path == null || !hit.getId().equals(getDocumentId(path))) {
+                    // documents indexed before deterministic ids were introduced are replaced
+                    requestContainer.add(new DeleteRequest(indexName, DOC_MAPPING_TYPE, hit.getId()));
+                    return;
+                }
+                indexedFiles.add(path, String.valueOf(source.get(LAST_MODIFIED_FIELD)),
+                        Optional.ofNullable(source.get(SIZE_FIELD)).map(Number.class::cast)
+                                .map(Number::longValue).map(String::valueOf).orElse(null),
+                        String.valueOf(source.get(HIDDEN_FIELD)),
+                        permissionsFingerprint(asCollection(source.get(ALLOWED_USERS_FIELD)),
+                                asCollection(source.get(DENIED_USERS_FIELD)),
+                                asCollection(source.get(ALLOWED_GROUPS_FIELD)),
+                                asCollection(source.get(DENIED_GROUPS_FIELD))));
+            });
+            log.debug("{} files of {} storage {} are already indexed.", indexedFiles.size(), getStorageType(),
+                    dataStorage.getId());
+            final Stream<DataStorageFile> changedFiles = fileManager
+                    .files(dataStorage.getRoot(),
+                            Optional.ofNullable(dataStorage.getPrefix()).orElse(StringUtils.EMPTY),
+                            credentialsSupplier)
+                    .map(file -> setHiddenFlag(dataStorage, file))
+                    .filter(file -> {
+                        final String path = dataStorage.resolveRelativePath(file.getPath());
+                        listedFiles.add(path);
+                        return !indexedFiles.contains(path, String.valueOf(file.getChanged()),
+                                Optional.ofNullable(file.getSize()).map(String::valueOf).orElse(null),
+                                String.valueOf(file.getIsHidden()), permissions);
+                    });
+            StreamUtils.chunked(changedFiles, bulkLoadTagsSize)
+                    .flatMap(filesChunk -> filesWithIncorporatedTags(dataStorage, filesChunk))
+                    .peek(file -> file.setPath(dataStorage.resolveRelativePath(file.getPath())))
+                    .map(file -> createIndexRequest(file, dataStorage, permissionsContainer, indexName,
+                            credentials.getRegion()))
+                    .forEach(requestContainer::add);
+            scrollIndex(indexName, new String[]{ID_FIELD}, hit -> {
+                final String path = (String) hit.getSourceAsMap().get(ID_FIELD);
+                if (path != null && hit.getId().equals(getDocumentId(path)) && !listedFiles.contains(path)) {
+                    requestContainer.add(new DeleteRequest(indexName, DOC_MAPPING_TYPE, hit.getId()));
+                }
+            });
+        }
+    }
+
+    private void scrollIndex(final String indexName, final String[] fields, final Consumer<SearchHit> consumer) {
+        final SearchRequest request = new SearchRequest(indexName)
+                .scroll(TIME_SCROLL)
+                .source(new SearchSourceBuilder()
+                        .query(QueryBuilders.matchAllQuery())
+                        .fetchSource(fields, null)
+                        .size(SCROLLING_PAGE_SIZE));
+        String scrollId = null;
+        try {
+            SearchResponse response = elasticsearchServiceClient.search(request);
+            while (true) {
+                scrollId = response.getScrollId();
+                final SearchHit[] hits = Optional.ofNullable(response.getHits())
+                        .map(SearchHits::getHits)
+                        .orElse(new SearchHit[0]);
+                if (hits.length == 0) {
+                    return;
+                }
+                Stream.of(hits).filter(hit -> Objects.nonNull(hit.getSourceAsMap())).forEach(consumer);
+                response = elasticsearchServiceClient.nextScrollPage(scrollId, TIME_SCROLL);
+            }
+        } finally {
+            clearScroll(scrollId);
+        }
+    }
+
+    private void clearScroll(final String scrollId) {
+        if (scrollId == null) {
+            return;
+        }
+        try {
+            elasticsearchServiceClient.clearScroll(scrollId);
+        } catch (ElasticsearchException e) {
+            log.warn("Scroll of {} storage index is not cleared: {}", getStorageType(), e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Object> asCollection(final Object value) {
+        return value instanceof Collection ? (Collection<Object>) value : Collections.emptyList();
+    }
+
+    private String permissionsFingerprint(final Collection<?>... permissions) {
+        return Stream.of(permissions)
+                .map(entries -> entries.stream()
+                        .map(String::valueOf)
+                        .sorted()
+                        .collect(Collectors.joining(",")))
+                .collect(Collectors.joining(";"));
+    }
+
     private void updateSearchMasks() {
         final Map<String, Set<String>> newMasks = cloudPipelineAPIClient.getStorageSearchMasks()
             .stream()
@@ -150,8 +338,8 @@ public class ObjectStorageIndexImpl implements ObjectStorageIndex {
     }
 
     private IndexRequestContainer getRequestContainer(final String indexName, final int bulkInsertSize) {
-        return new IndexRequestContainer(requests -> elasticsearchServiceClient.sendRequests(indexName, requests),
-                bulkInsertSize);
+        return requestContainerFactory.create(
+            requests -> elasticsearchServiceClient.sendRequests(indexName, requests), bulkInsertSize);
     }
 
     private TemporaryCredentials getTemporaryCredentials(final AbstractDataStorage dataStorage) {
@@ -181,7 +369,7 @@ public class ObjectStorageIndexImpl implements ObjectStorageIndex {
                                             final PermissionsContainer permissionsContainer,
                                             final String indexName,
                                             final String region) {
-        return new IndexRequest(indexName, DOC_MAPPING_TYPE)
+        return new IndexRequest(indexName, DOC_MAPPING_TYPE, getDocumentId(file.getPath()))
                 .source(fileMapper.fileToDocument(file, dataStorage, region,
                         permissionsContainer,
                         getDocumentType()));
@@ -54,7 +54,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.TimeZone;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -67,11 +66,6 @@ public class S3FileManager implements ObjectStorageFileManager {
     @Getter
     private final DataStorageType type = DataStorageType.S3;
 
-    static {
-        TimeZone tz = TimeZone.getTimeZone("UTC");
-        ESConstants.FILE_DATE_FORMAT.setTimeZone(tz);
-    }
-
     @Override
     public Stream<DataStorageFile> files(final String storage,
                                          final String path,
@@ -210,7 +204,7 @@ public class S3FileManager implements ObjectStorageFileManager {
             file.setPath(s3ObjectSummary.getKey());
             file.setSize(s3ObjectSummary.getSize());
             file.setVersion(null);
-            file.setChanged(ESConstants.FILE_DATE_FORMAT.format(s3ObjectSummary.getLastModified()));
+            file.setChanged(ESConstants.FILE_DATE_FORMAT.format(s3ObjectSummary.getLastModified().toInstant()));
             file.setDeleteMarker(null);
             file.setLabels(Optional.ofNullable(s3ObjectSummary.getStorageClass())
                     .map(it -> Collections.singletonMap(ESConstants.STORAGE_CLASS_LABEL, it))
@@ -269,7 +263,7 @@ public class S3FileManager implements ObjectStorageFileManager {
             if (summary.getVersionId() != null && !summary.getVersionId().equals("null")) {
                 file.setVersion(summary.getVersionId());
             }
-            file.setChanged(ESConstants.FILE_DATE_FORMAT.format(summary.getLastModified()));
+            file.setChanged(ESConstants.FILE_DATE_FORMAT.format(summary.getLastModified().toInstant()));
             file.setDeleteMarker(summary.isDeleteMarker());
             final Map<String, String> labels = new HashMap<>();
             labels.put("LATEST", BooleanUtils.toStringTrueFalse(summary.isLatest()));
@@ -21,17 +21,31 @@ import com.epam.pipeline.elasticsearchagent.model.PermissionsContainer;
 import com.epam.pipeline.entity.datastorage.AbstractDataStorage;
 import com.epam.pipeline.entity.datastorage.DataStorageFile;
 import com.epam.pipeline.entity.search.SearchDocumentType;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.elasticsearch.common.xcontent.XContentBuilder;
 import org.elasticsearch.common.xcontent.XContentFactory;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 import static com.epam.pipeline.elasticsearchagent.service.ElasticsearchSynchronizer.DOC_TYPE_FIELD;
 
 public class StorageFileMapper {
 
+    private static final int MAX_DOCUMENT_ID_LENGTH = 512;
+
+    /**
+     * Files are indexed with deterministic ids, so a file document can be replaced or deleted
+     * without searching for it. Elasticsearch limits document ids to 512 bytes.
+     */
+    public static String getDocumentId(final String path) {
+        return path.getBytes(StandardCharsets.UTF_8).length <= MAX_DOCUMENT_ID_LENGTH
+                ? path
+                : DigestUtils.sha256Hex(path);
+    }
+
     public XContentBuilder fileToDocument(final DataStorageFile dataStorageFile,
                                           final AbstractDataStorage dataStorage,
                                           final String region,
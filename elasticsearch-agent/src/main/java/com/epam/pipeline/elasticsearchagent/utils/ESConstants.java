@@ -16,15 +16,17 @@
 
 package com.epam.pipeline.elasticsearchagent.utils;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 
 public final class ESConstants {
 
     public static final String DOC_MAPPING_TYPE = "_doc";
     public static final String HIDDEN_FILE_NAME = ".DS_Store";
     public static final String STORAGE_CLASS_LABEL = "StorageClass";
-    public static final DateFormat FILE_DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    public static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'")
+            .withZone(ZoneOffset.UTC);
 
     private ESConstants() {
         //
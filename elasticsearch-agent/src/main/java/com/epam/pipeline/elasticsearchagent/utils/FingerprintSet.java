@@ -0,0 +1,76 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * A compact set of 64 bit fingerprints of string tuples. It allows to check presence of millions
+ * of entries (e.g. storage file paths) without keeping the entries themselves in memory.
+ *
+ * Fingerprints shall be added before the first lookup. The set is not thread safe.
+ */
+public final class FingerprintSet {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final char SEPARATOR = '\u0000';
+
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size;
+    private boolean sorted = true;
+
+    public void add(final String... parts) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[size++] = fingerprint(parts);
+        sorted = false;
+    }
+
+    public boolean contains(final String... parts) {
+        if (!sorted) {
+            Arrays.sort(values, 0, size);
+            sorted = true;
+        }
+        return Arrays.binarySearch(values, 0, size, fingerprint(parts)) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public static long fingerprint(final String... parts) {
+        final MessageDigest digest = getDigest();
+        for (final String part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) SEPARATOR);
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    private static MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
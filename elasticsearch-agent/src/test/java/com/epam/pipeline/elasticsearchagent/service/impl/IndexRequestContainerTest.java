@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017-2019 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.service.impl;
+
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.rest.RestStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class IndexRequestContainerTest {
+
+    private static final String INDEX = "index";
+    private static final String TYPE = "_doc";
+
+    @Test
+    void shouldResendOnlyRejectedItems() {
+        final List<List<String>> sentIds = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger attempt = new AtomicInteger();
+        try (IndexRequestContainer container = new IndexRequestContainer(requests -> {
+            sentIds.add(ids(requests));
+            return attempt.getAndIncrement() == 0
+                    ? response(RestStatus.OK, RestStatus.TOO_MANY_REQUESTS, RestStatus.BAD_REQUEST)
+                    : response(RestStatus.OK);
+        }, 3, 0L, 1, 1, 0L)) {
+            IntStream.range(0, 3).forEach(i -> container.add(request(i)));
+        }
+
+        assertEquals(2, sentIds.size());
+        assertEquals(Collections.singletonList("1"), sentIds.get(1));
+    }
+
+    @Test
+    void shouldSendBulksConcurrently() {
+        final AtomicInteger documents = new AtomicInteger();
+        final IndexRequestContainer container = new IndexRequestContainer(requests -> {
+            documents.addAndGet(requests.size());
+            return response(requests.stream().map(request -> RestStatus.OK).toArray(RestStatus[]::new));
+        }, 2, 0L, 2, 0, 0L);
+        IntStream.range(0, 7).forEach(i -> container.add(request(i)));
+        container.close();
+
+        assertEquals(7, documents.get());
+        assertEquals(4, container.getStatistics().getRequests());
+        assertEquals(7, container.getStatistics().getSuccessful());
+    }
+
+    @Test
+    void shouldRethrowBackgroundFailure() {
+        final IndexRequestContainer container = new IndexRequestContainer(requests -> {
+            throw new IllegalStateException("Elasticsearch is unavailable");
+        }, 1, 0L, 1, 0, 0L);
+        container.add(request(0));
+
+        assertThrows(IllegalStateException.class, container::close);
+    }
+
+    private static DocWriteRequest request(final int id) {
+        return new DeleteRequest(INDEX, TYPE, String.valueOf(id));
+    }
+
+    private static List<String> ids(final List<? extends DocWriteRequest> requests) {
+        return requests.stream().map(DocWriteRequest::id).collect(Collectors.toList());
+    }
+
+    private static BulkResponse response(final RestStatus... statuses) {
+        final BulkItemResponse[] items = IntStream.range(0, statuses.length)
+                .mapToObj(i -> item(i, statuses[i]))
+                .toArray(BulkItemResponse[]::new);
+        return new BulkResponse(items, 1L);
+    }
+
+    private static BulkItemResponse item(final int id, final RestStatus status) {
+        final BulkItemResponse item = mock(BulkItemResponse.class);
+        when(item.getItemId()).thenReturn(id);
+        when(item.isFailed()).thenReturn(status != RestStatus.OK);
+        when(item.status()).thenReturn(status);
+        return item;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017-2019 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.service.impl;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NFSFileWalkerTest {
+
+    private static final int FILES = 100;
+    private static final long WAIT_MS = 500L;
+
+    private Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        root = Files.createTempDirectory("nfs-walker");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+
+    @Test
+    void shouldFindAllFilesOfTree() throws IOException {
+        createFile("a.txt");
+        createFile("folder/b.txt");
+        createFile("folder/nested/c.txt");
+        Files.createDirectories(root.resolve("empty"));
+
+        try (Stream<String> files = new NFSFileWalker(2)
+                .walk(root, (path, attributes) -> root.relativize(path) + ":" + attributes.size())) {
+            final List<String> paths = files.sorted().collect(Collectors.toList());
+            assertEquals(Arrays.asList("a.txt:1", "folder/b.txt:1", "folder/nested/c.txt:1"), paths);
+        }
+    }
+
+    @Test
+    void shouldFailStreamIfDirectoryCanNotBeListed() {
+        final Path missing = root.resolve("missing");
+
+        try (Stream<Path> files = new NFSFileWalker(2).walk(missing, (path, attributes) -> path)) {
+            assertThrows(UncheckedIOException.class, () -> files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void shouldFailStreamIfFileCanNotBeProcessed() throws IOException {
+        createFile("a.txt");
+        createFile("folder/b.txt");
+
+        try (Stream<Path> files = new NFSFileWalker(2).walk(root, (path, attributes) -> {
+            throw new IllegalStateException(path.toString());
+        })) {
+            assertThrows(IllegalStateException.class, () -> files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void shouldStopWalkingOnceStreamIsClosed() throws IOException, InterruptedException {
+        for (int i = 0; i < FILES; i++) {
+            createFile("folder/" + i + ".txt");
+        }
+        final AtomicInteger processed = new AtomicInteger();
+
+        try (Stream<Path> files = new NFSFileWalker(1, 1).walk(root, (path, attributes) -> {
+            processed.incrementAndGet();
+            return path;
+        })) {
+            assertTrue(files.findFirst().isPresent());
+        }
+        Thread.sleep(WAIT_MS);
+
+        assertTrue(processed.get() < FILES);
+    }
+
+    private void createFile(final String path) throws IOException {
+        final Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[]{1});
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017-2019 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.service.impl;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class NFSShareManifestTest {
+
+    private static final String INDEX = "index";
+    private static final long FULL_REINDEX_TIME = 1000L;
+    private static final String PERMISSIONS = "OWNER;;ROLE_ADMIN;";
+    private static final long TAGS = 42L;
+
+    private Path directory;
+    private NFSShareManifest manifest;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("nfs-manifest");
+        manifest = new NFSShareManifest(directory, 1L);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    @Test
+    void shouldReadCommittedManifest() throws IOException {
+        try (NFSShareManifest.Writer writer = manifest.write(INDEX, FULL_REINDEX_TIME, PERMISSIONS)) {
+            writer.add("a.txt", 1L, "2021-01-01T00:00:00Z", TAGS);
+            writer.add("folder/b.txt", 2L, "2021-01-02T00:00:00Z", 0L);
+            writer.commit();
+        }
+
+        final NFSShareManifest.Header header = manifest.readHeader().orElseThrow(IllegalStateException::new);
+        assertEquals(INDEX, header.getIndexName());
+        assertEquals(FULL_REINDEX_TIME, header.getFullReindexTime());
+        assertEquals(PERMISSIONS, header.getPermissions());
+        final List<String> entries = new ArrayList<>();
+        manifest.forEachEntry((path, size, changed, tags) ->
+                entries.add(path + ":" + size + ":" + changed + ":" + tags));
+        assertEquals(Arrays.asList("a.txt:1:2021-01-01T00:00:00Z:42", "folder/b.txt:2:2021-01-02T00:00:00Z:0"),
+                entries);
+    }
+
+    @Test
+    void shouldNotReplaceManifestWithUncommittedOne() throws IOException {
+        try (NFSShareManifest.Writer writer = manifest.write(INDEX, FULL_REINDEX_TIME, PERMISSIONS)) {
+            writer.add("a.txt", 1L, "2021-01-01T00:00:00Z", TAGS);
+        }
+
+        assertFalse(manifest.readHeader().isPresent());
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.service.impl;
+
+import com.epam.pipeline.elasticsearchagent.service.ElasticsearchServiceClient;
+import com.epam.pipeline.entity.datastorage.NFSDataStorage;
+import com.epam.pipeline.vo.EntityPermissionVO;
+import org.apache.commons.io.FileUtils;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NFSSynchronizerTest {
+
+    private static final Long STORAGE_ID = 1L;
+    private static final String STORAGE_PATH = "nfs-host:/share";
+    private static final String OWNER = "OWNER";
+    private static final String ANOTHER_OWNER = "ANOTHER_OWNER";
+    private static final String ALIAS = "cp-nfs-file-1";
+    private static final String SETTINGS = "settings.json";
+    private static final int BULK_SIZE = 10;
+    private static final int WALK_THREADS = 2;
+    private static final int FULL_REBUILD_INTERVAL_HOURS = 24;
+
+    private final CloudPipelineAPIClient apiClient = mock(CloudPipelineAPIClient.class);
+    private final ElasticsearchServiceClient elasticsearchClient = mock(ElasticsearchServiceClient.class);
+    private final ElasticIndexService indexService = mock(ElasticIndexService.class);
+    private final NFSStorageMounter mounter = mock(NFSStorageMounter.class);
+    private final IndexRequestContainerFactory containerFactory = mock(IndexRequestContainerFactory.class);
+    private final IndexRequestContainer container = mock(IndexRequestContainer.class);
+    private final Map<String, Map<String, String>> tags = new HashMap<>();
+    private final NFSDataStorage dataStorage = new NFSDataStorage();
+
+    private Path rootMountPoint;
+    private Path manifestDir;
+    private Path mountFolder;
+    private NFSSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        rootMountPoint = Files.createTempDirectory("nfs-root");
+        manifestDir = Files.createTempDirectory("nfs-manifest");
+        mountFolder = rootMountPoint.resolve("nfs-host").resolve("share");
+        Files.createDirectories(mountFolder);
+
+        dataStorage.setId(STORAGE_ID);
+        dataStorage.setPath(STORAGE_PATH);
+        dataStorage.setOwner(OWNER);
+
+        when(apiClient.loadPermissionsForEntity(eq(STORAGE_ID), any())).thenReturn(new EntityPermissionVO());
+        when(apiClient.loadDataStorageTagsMap(eq(STORAGE_ID), any())).thenAnswer(invocation -> new HashMap<>(tags));
+        when(containerFactory.create(any(), anyInt())).thenReturn(container);
+        when(elasticsearchClient.getIndexNameByAlias(ALIAS)).thenReturn(null);
+
+        synchronizer = new NFSSynchronizer(SETTINGS, rootMountPoint.toString(), "cp-", "nfs-file",
+                BULK_SIZE, BULK_SIZE, WALK_THREADS, manifestDir.toString(), FULL_REBUILD_INTERVAL_HOURS,
+                apiClient, elasticsearchClient, indexService, mounter, containerFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        FileUtils.deleteDirectory(rootMountPoint.toFile());
+        FileUtils.deleteDirectory(manifestDir.toFile());
+    }
+
+    @Test
+    void shouldSendRequestsOnlyForChangedRetaggedAndDeletedFilesDuringIncrementalSync() throws IOException {
+        createFile("changed.txt", "a");
+        createFile("retagged.txt", "a");
+        createFile("deleted.txt", "a");
+        createFile("folder/unchanged.txt", "a");
+        synchronizeFully();
+
+        createFile("changed.txt", "changed");
+        tags.put("retagged.txt", Collections.singletonMap("key", "value"));
+        Files.delete(mountFolder.resolve("deleted.txt"));
+        createFile("folder/added.txt", "a");
+        synchronizer.createIndexAndDocuments(dataStorage);
+
+        verify(indexService, never()).createIndexIfNotExist(anyString(), anyString());
+        final List<DocWriteRequest> requests = capturedRequests();
+        assertEquals(Collections.singletonList("deleted.txt"), ids(requests, DeleteRequest.class));
+        assertEquals(Arrays.asList("changed.txt", "folder/added.txt", "retagged.txt"),
+                ids(requests, IndexRequest.class));
+    }
+
+    @Test
+    void shouldRebuildIndexIfPermissionsWereChanged() throws IOException {
+        createFile("a.txt", "a");
+        createFile("folder/b.txt", "a");
+        final String indexName = synchronizeFully();
+
+        dataStorage.setOwner(ANOTHER_OWNER);
+        synchronizer.createIndexAndDocuments(dataStorage);
+
+        verify(indexService).createIndexIfNotExist(anyString(), eq(SETTINGS));
+        verify(elasticsearchClient).deleteIndex(indexName);
+        assertEquals(Arrays.asList("a.txt", "folder/b.txt"), ids(capturedRequests(), IndexRequest.class));
+    }
+
+    @Test
+    void shouldRebuildIndexIfIncrementalSyncFails() throws IOException {
+        createFile("a.txt", "a");
+        createFile("folder/b.txt", "a");
+        final String indexName = synchronizeFully();
+
+        FileUtils.deleteDirectory(mountFolder.toFile());
+        when(mounter.tryToMountStorage(any(), any()))
+                .thenReturn(true)
+                .thenAnswer(invocation -> {
+                    createFile("a.txt", "a");
+                    createFile("folder/b.txt", "a");
+                    return true;
+                });
+        synchronizer.createIndexAndDocuments(dataStorage);
+
+        verify(mounter, times(2)).tryToMountStorage(any(), any());
+        verify(indexService).createIndexIfNotExist(anyString(), eq(SETTINGS));
+        verify(elasticsearchClient).deleteIndex(indexName);
+        assertEquals(Arrays.asList("a.txt", "folder/b.txt"), ids(capturedRequests(), IndexRequest.class));
+    }
+
+    private String synchronizeFully() {
+        synchronizer.createIndexAndDocuments(dataStorage);
+        final ArgumentCaptor<String> indexName = ArgumentCaptor.forClass(String.class);
+        verify(elasticsearchClient).createIndexAlias(indexName.capture(), eq(ALIAS));
+        when(elasticsearchClient.getIndexNameByAlias(ALIAS)).thenReturn(indexName.getValue());
+        clearInvocations(indexService, elasticsearchClient, container);
+        return indexName.getValue();
+    }
+
+    private List<DocWriteRequest> capturedRequests() {
+        final ArgumentCaptor<DocWriteRequest> requests = ArgumentCaptor.forClass(DocWriteRequest.class);
+        verify(container, atLeastOnce()).add(requests.capture());
+        return requests.getAllValues();
+    }
+
+    private List<String> ids(final List<DocWriteRequest> requests, final Class<?> type) {
+        return requests.stream()
+                .filter(type::isInstance)
+                .map(DocWriteRequest::id)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private void createFile(final String path, final String content) throws IOException {
+        final Path file = mountFolder.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
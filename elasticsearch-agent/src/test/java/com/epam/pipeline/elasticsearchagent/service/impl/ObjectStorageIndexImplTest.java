@@ -0,0 +1,195 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.service.impl;
+
+import com.epam.pipeline.elasticsearchagent.service.ElasticsearchServiceClient;
+import com.epam.pipeline.elasticsearchagent.service.ObjectStorageFileManager;
+import com.epam.pipeline.entity.datastorage.DataStorageFile;
+import com.epam.pipeline.entity.datastorage.DataStorageType;
+import com.epam.pipeline.entity.datastorage.GSBucketStorage;
+import com.epam.pipeline.entity.datastorage.TemporaryCredentials;
+import com.epam.pipeline.entity.search.SearchDocumentType;
+import com.epam.pipeline.vo.EntityPermissionVO;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.epam.pipeline.elasticsearchagent.utils.ESConstants.DOC_MAPPING_TYPE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class ObjectStorageIndexImplTest {
+
+    private static final Long STORAGE_ID = 1L;
+    private static final String OWNER = "OWNER";
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+    private static final String PREFIX = "cp-gs-file";
+    private static final String ALIAS = PREFIX + "-" + STORAGE_ID;
+    private static final String INDEX = "abcde-" + ALIAS;
+    private static final String SETTINGS = "settings.json";
+    private static final String SCROLL_ID = "scroll";
+    private static final String OLD_DATE = "2021-01-01T00:00:00Z";
+    private static final String NEW_DATE = "2021-01-02T00:00:00Z";
+    private static final int BULK_SIZE = 10;
+    private static final int FULL_REBUILD_INTERVAL_HOURS = 24;
+
+    private final CloudPipelineAPIClient apiClient = mock(CloudPipelineAPIClient.class);
+    private final ElasticsearchServiceClient elasticsearchClient = mock(ElasticsearchServiceClient.class);
+    private final ElasticIndexService indexService = mock(ElasticIndexService.class);
+    private final IndexRequestContainerFactory containerFactory = mock(IndexRequestContainerFactory.class);
+    private final IndexRequestContainer container = mock(IndexRequestContainer.class);
+    private final ObjectStorageFileManager fileManager = mock(ObjectStorageFileManager.class);
+    private final GSBucketStorage dataStorage = new GSBucketStorage();
+    private final ObjectStorageIndexImpl objectStorageIndex = new ObjectStorageIndexImpl(apiClient,
+            elasticsearchClient, indexService, containerFactory, fileManager, PREFIX, SETTINGS, BULK_SIZE,
+            BULK_SIZE, DataStorageType.GS, SearchDocumentType.GS_FILE, 1, true, FULL_REBUILD_INTERVAL_HOURS);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataStorage.setId(STORAGE_ID);
+        dataStorage.setPath(PREFIX);
+        dataStorage.setOwner(OWNER);
+
+        when(apiClient.loadPermissionsForEntity(eq(STORAGE_ID), any())).thenReturn(new EntityPermissionVO());
+        when(apiClient.generateTemporaryCredentials(any())).thenReturn(new TemporaryCredentials());
+        when(containerFactory.create(any(), anyInt())).thenReturn(container);
+        when(elasticsearchClient.getIndexNameByAlias(ALIAS)).thenReturn(INDEX);
+        when(elasticsearchClient.getIndexCreationDate(INDEX)).thenReturn(hoursAgo(1));
+        final SearchResponse firstPage = page(hit("unchanged.txt", OLD_DATE), hit("changed.txt", OLD_DATE),
+                hit("deleted.txt", OLD_DATE));
+        final SearchResponse lastPage = page();
+        when(elasticsearchClient.search(any(SearchRequest.class))).thenReturn(firstPage);
+        when(elasticsearchClient.nextScrollPage(eq(SCROLL_ID), any())).thenReturn(lastPage);
+        when(fileManager.files(any(), any(), any())).thenAnswer(invocation -> Arrays.asList(
+                file("unchanged.txt", OLD_DATE), file("changed.txt", NEW_DATE), file("added.txt", NEW_DATE))
+                .stream());
+    }
+
+    @Test
+    void shouldSendRequestsOnlyForChangedAddedAndDeletedFilesDuringIncrementalIndex() {
+        objectStorageIndex.indexStorage(dataStorage);
+
+        verify(indexService, never()).createIndexIfNotExist(anyString(), anyString());
+        verify(elasticsearchClient, never()).deleteIndex(anyString());
+        final List<DocWriteRequest> requests = capturedRequests();
+        assertEquals(Collections.singletonList("deleted.txt"), ids(requests, DeleteRequest.class));
+        assertEquals(Arrays.asList("changed.txt", "added.txt"), ids(requests, IndexRequest.class));
+        verify(elasticsearchClient, times(2)).clearScroll(SCROLL_ID);
+    }
+
+    @Test
+    void shouldReindexFullyIfIndexWasCreatedBeforeRebuildInterval() {
+        when(elasticsearchClient.getIndexCreationDate(INDEX)).thenReturn(hoursAgo(FULL_REBUILD_INTERVAL_HOURS + 1));
+
+        objectStorageIndex.indexStorage(dataStorage);
+
+        verify(elasticsearchClient, never()).search(any(SearchRequest.class));
+        verify(indexService).createIndexIfNotExist(anyString(), eq(SETTINGS));
+        verify(elasticsearchClient).deleteIndex(INDEX);
+        assertEquals(Arrays.asList("unchanged.txt", "changed.txt", "added.txt"),
+                ids(capturedRequests(), IndexRequest.class));
+    }
+
+    @Test
+    void shouldClearScrollAndReindexFullyIfIncrementalIndexFails() {
+        when(elasticsearchClient.nextScrollPage(eq(SCROLL_ID), any())).thenThrow(new ElasticsearchException(""));
+
+        objectStorageIndex.indexStorage(dataStorage);
+
+        verify(elasticsearchClient).clearScroll(SCROLL_ID);
+        verify(indexService).createIndexIfNotExist(anyString(), eq(SETTINGS));
+        verify(elasticsearchClient).deleteIndex(INDEX);
+    }
+
+    private long hoursAgo(final int hours) {
+        return System.currentTimeMillis() - TimeUnit.HOURS.toMillis(hours);
+    }
+
+    private List<DocWriteRequest> capturedRequests() {
+        final ArgumentCaptor<DocWriteRequest> captor = ArgumentCaptor.forClass(DocWriteRequest.class);
+        verify(container, atLeastOnce()).add(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private List<String> ids(final List<DocWriteRequest> requests, final Class<?> type) {
+        return requests.stream()
+                .filter(type::isInstance)
+                .map(DocWriteRequest::id)
+                .collect(Collectors.toList());
+    }
+
+    private DataStorageFile file(final String path, final String changed) {
+        final DataStorageFile file = new DataStorageFile();
+        file.setName(path);
+        file.setPath(path);
+        file.setSize(1L);
+        file.setChanged(changed);
+        file.setIsHidden(false);
+        return file;
+    }
+
+    private SearchHit hit(final String path, final String changed) throws IOException {
+        final SearchHit hit = new SearchHit(0, path, new Text(DOC_MAPPING_TYPE), Collections.emptyMap());
+        hit.sourceRef(BytesReference.bytes(XContentFactory.jsonBuilder()
+                .startObject()
+                .field("id", path)
+                .field("lastModified", changed)
+                .field("size", 1L)
+                .field("is_hidden", false)
+                .array("allowed_users", OWNER)
+                .array("denied_users", new String[0])
+                .array("allowed_groups", ROLE_ADMIN)
+                .array("denied_groups", new String[0])
+                .endObject()));
+        return hit;
+    }
+
+    private SearchResponse page(final SearchHit... hits) {
+        final SearchResponse response = mock(SearchResponse.class);
+        when(response.getHits()).thenReturn(new SearchHits(hits, hits.length, 1));
+        when(response.getScrollId()).thenReturn(SCROLL_ID);
+        return response;
+    }
+}
@@ -60,19 +60,25 @@ public class ObjectStorageIndexTest {
     private ElasticsearchServiceClient elasticsearchServiceClient;
     @Mock
     private ElasticIndexService elasticIndexService;
+    @Mock
+    private IndexRequestContainerFactory requestContainerFactory;
     
     @Spy
     private final ObjectStorageIndex objectStorageIndex = new ObjectStorageIndexImpl(
             cloudPipelineAPIClient, 
             elasticsearchServiceClient,
             elasticIndexService,
+            requestContainerFactory,
             fileManager,
             TEST_NAME,
             TEST_NAME,
             1000,
             1000,
             DataStorageType.GS,
-            SearchDocumentType.GS_FILE);
+            SearchDocumentType.GS_FILE,
+            1,
+            false,
+            24);
 
     @Test
     public void shouldAddZeroFilesToRequestContainer() {
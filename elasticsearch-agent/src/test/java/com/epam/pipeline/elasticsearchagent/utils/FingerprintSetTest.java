@@ -0,0 +1,51 @@
+/*
+ * Copyright 2017-2021 EPAM Systems, Inc. (https://www.epam.com/)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.pipeline.elasticsearchagent.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FingerprintSetTest {
+
+    private static final int FILES_NUMBER = 5000;
+
+    @Test
+    void shouldContainAddedEntries() {
+        final FingerprintSet set = new FingerprintSet();
+        for (int i = 0; i < FILES_NUMBER; i++) {
+            set.add("folder/file" + i, String.valueOf(i));
+        }
+
+        assertEquals(FILES_NUMBER, set.size());
+        assertTrue(set.contains("folder/file0", "0"));
+        assertTrue(set.contains("folder/file" + (FILES_NUMBER - 1), String.valueOf(FILES_NUMBER - 1)));
+        assertFalse(set.contains("folder/file0", "1"));
+        assertFalse(set.contains("folder/file" + FILES_NUMBER, String.valueOf(FILES_NUMBER)));
+    }
+
+    @Test
+    void shouldDistinguishPartsBoundaries() {
+        final FingerprintSet set = new FingerprintSet();
+        set.add("ab", "c");
+
+        assertTrue(set.contains("ab", "c"));
+        assertFalse(set.contains("a", "bc"));
+    }
+}